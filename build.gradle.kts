@@ -1,3 +1,5 @@
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+
 plugins {
     id("java")
     // Version is managed centrally in settings.gradle.kts -> pluginManagement.plugins
@@ -38,6 +40,8 @@ dependencies {
         )
         // Instrumentation dependencies (e.g., @NotNull assertions) are now resolved
         // automatically by the plugin; instrumentationTools() was removed in 2.x.
+        // Light fixtures for the tests that need a running platform (JUnit 4, via the vintage engine)
+        testFramework(TestFrameworkType.Platform)
     }
 
     // JNA for Windows native clipboard fallback — rely on IDE-bundled JNA at runtime
@@ -131,6 +135,8 @@ tasks.withType<JavaCompile>().configureEach {
 
 tasks.test {
     useJUnitPlatform()
+    // Scales every allocation budget in the *AllocationTest classes, e.g. -PallocBudgetScale=1.5
+    providers.gradleProperty("allocBudgetScale").orNull?.let { systemProperty("fmcuttingboard.allocBudgetScale", it) }
 }
 
 // Convenience task to build distributable plugin artifact
@@ -161,6 +167,51 @@ tasks.register<org.jetbrains.grammarkit.tasks.GenerateLexerTask>("generateFileMa
     purgeOldFiles.set(true)
 }
 
+// ===== Grammar-Kit parser =====
+// FileMakerCalculationGeneratedParser from FileMakerCalculation.bnf. It goes to its own directory because
+// the lexer task purges its target directory. Not yet the plugin's parser: it compiles in the grammar
+// source set below, and CalculationParserComparisonTest (src/grammarTest/java) compares it with the
+// hand-written one. Neither is on the regular test classpath or part of `check`, so `test` and `build`
+// never generate or compile it; run `./gradlew grammarTest` explicitly. Nothing of it ships in the plugin jar.
+val generatedParserDir = layout.buildDirectory.dir("generated-src/grammarkit-parser")
+
+tasks.register<org.jetbrains.grammarkit.tasks.GenerateParserTask>("generateFileMakerCalculationParser") {
+    description = "Generates the FileMaker Calculation Grammar-Kit parser"
+    sourceFile.set(file("src/main/java/dev/fmcuttingboard/language/parser/FileMakerCalculation.bnf"))
+    targetRoot.set("build/generated-src/grammarkit-parser")
+    pathToParser.set("dev/fmcuttingboard/language/parser/FileMakerCalculationGeneratedParser.java")
+    pathToPsiRoot.set("dev/fmcuttingboard/language/parser/generated")
+    purgeOldFiles.set(true)
+}
+
+val grammar: SourceSet by sourceSets.creating {
+    java {
+        srcDir("src/grammar/java")
+        srcDir(generatedParserDir)
+    }
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+tasks.named<JavaCompile>("compileGrammarJava") {
+    dependsOn("generateFileMakerCalculationParser")
+}
+
+val grammarTest: SourceSet by sourceSets.creating {
+    java.srcDir("src/grammarTest/java")
+    compileClasspath += grammar.output + sourceSets.test.get().compileClasspath
+    runtimeClasspath += grammar.output + sourceSets.test.get().runtimeClasspath
+}
+
+intellijPlatformTesting.testIde.register("grammarTest") {
+    task {
+        description = "Compares the Grammar-Kit generated calculation parser with the hand-written one"
+        testClassesDirs = grammarTest.output.classesDirs
+        classpath = grammarTest.runtimeClasspath
+        useJUnitPlatform()
+    }
+}
+
 sourceSets {
     main {
         java {
@@ -173,7 +224,156 @@ sourceSets {
     }
 }
 
-// Ensure lexer is generated before compilation
+// Ensure the lexer is generated before compilation
 tasks.withType<JavaCompile>().configureEach {
     dependsOn("generateFileMakerCalculationLexer")
 }
+
+// ===== Function catalog generation =====
+// FileMakerFunctionRegistry reads GeneratedFunctionCatalog, flat tables generated from the VS Code snippets
+// (resources/filemaker_functions.json), the Notepad++ word list and the hand-written entries in
+// src/codegen/java. The generator compiles with the IDE-free metadata classes it shares with the plugin;
+// the snippet parsers (FunctionMetadataLoader, JsonReader) live in src/codegen/java and are not shipped.
+val codegen: SourceSet by sourceSets.creating {
+    java {
+        srcDir("src/codegen/java")
+        srcDir("src/main/java")
+        include(
+            "dev/fmcuttingboard/codegen/**",
+            "dev/fmcuttingboard/language/FunctionMetadata.java",
+            "dev/fmcuttingboard/language/FunctionMetadataLoader.java",
+            "dev/fmcuttingboard/language/FunctionParameter.java",
+            "dev/fmcuttingboard/language/JsonReader.java",
+        )
+    }
+}
+
+dependencies {
+    "codegenCompileOnly"("org.jetbrains:annotations:24.1.0")
+}
+
+// The loader and JSON reader tests, and the catalog coverage checks, use the codegen classes
+sourceSets.test {
+    compileClasspath += codegen.output
+    runtimeClasspath += codegen.output
+}
+
+val generatedFunctionsDir = layout.buildDirectory.dir("generated-src/functions")
+
+val generateFunctionCatalog = tasks.register<JavaExec>("generateFunctionCatalog") {
+    group = "build"
+    description = "Generates the FileMaker function catalog behind FileMakerFunctionRegistry"
+    classpath = codegen.runtimeClasspath
+    mainClass.set("dev.fmcuttingboard.codegen.FunctionCatalogGenerator")
+    val snippets = file("resources/filemaker_functions.json")
+    val words = file("resources/FileMakerCalcs_InNotepadPlusPlus.xml")
+    inputs.files(snippets, words)
+    outputs.dir(generatedFunctionsDir)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(snippets.path, words.path, generatedFunctionsDir.get().asFile.path)
+    })
+}
+
+sourceSets.main {
+    java.srcDir(generatedFunctionsDir)
+}
+
+tasks.compileJava {
+    dependsOn(generateFunctionCatalog)
+}
+
+// ===== Headless batch CLI =====
+// Compiles the IDE-independent packages (fm, jfr, log, metrics) together with src/cli/java against the plain JDK
+// only, so an IntelliJ import creeping into them fails this build rather than the CLI at runtime.
+val cli: SourceSet by sourceSets.creating {
+    java {
+        srcDir("src/cli/java")
+        srcDir("src/main/java")
+        include("dev/fmcuttingboard/cli/**", "dev/fmcuttingboard/fm/**", "dev/fmcuttingboard/jfr/**", "dev/fmcuttingboard/log/**", "dev/fmcuttingboard/metrics/**")
+    }
+}
+
+sourceSets.test {
+    compileClasspath += cli.output
+    runtimeClasspath += cli.output
+}
+
+tasks.register<Jar>("cliJar") {
+    group = "build"
+    description = "Builds the standalone batch CLI jar (build/libs/*-cli.jar); needs only a Java 21 runtime"
+    archiveClassifier.set("cli")
+    from(cli.output)
+    manifest {
+        attributes("Main-Class" to "dev.fmcuttingboard.cli.FmCuttingBoardCli")
+    }
+}
+
+tasks.register<JavaExec>("runCli") {
+    group = "application"
+    description = "Runs the batch CLI, e.g. ./gradlew runCli --args=\"validate path/to/captures\""
+    classpath = cli.runtimeClasspath
+    mainClass.set("dev.fmcuttingboard.cli.FmCuttingBoardCli")
+}
+
+// ===== Synthetic snippet corpus (src/fixtures/java) =====
+// Seedable fmxmlsnippet generator shared by the tests and the JMH benchmarks. To write a corpus
+// directory (sizes up to -Pcorpus.maxChars, default 10 MB; 104857600 adds the 100 MB files):
+//   ./gradlew generateCorpus -Pcorpus.dir=build/corpus -Pcorpus.seed=42
+val fixtures: SourceSet by sourceSets.creating {
+    java.srcDir("src/fixtures/java")
+}
+
+sourceSets.test {
+    compileClasspath += fixtures.output
+    runtimeClasspath += fixtures.output
+}
+
+tasks.register<JavaExec>("generateCorpus") {
+    group = "verification"
+    description = "Writes a synthetic fmxmlsnippet corpus (all kinds, sizes and clipboard encodings)"
+    classpath = fixtures.runtimeClasspath
+    mainClass.set("dev.fmcuttingboard.fixtures.SnippetCorpus")
+    val dir = providers.gradleProperty("corpus.dir").orElse(layout.buildDirectory.dir("corpus").map { it.asFile.path })
+    val seed = providers.gradleProperty("corpus.seed").orElse("42")
+    val maxChars = providers.gradleProperty("corpus.maxChars").orElse("10485760")
+    argumentProviders.add(CommandLineArgumentProvider { listOf(dir.get(), seed.get(), maxChars.get()) })
+}
+
+// ===== JMH benchmarks (src/jmh/java) =====
+// Compiled against the full main classpath. Most benchmarks touch IDE-free code (fm package, clipboard
+// codecs); the language benchmarks need the platform jars for the lexer/PSI types, but no running IDE.
+// Results go to build/reports/jmh/results.json.
+//   ./gradlew jmh                                  all benchmarks, all payload sizes
+//   ./gradlew jmh -Pjmh.includes=ClipboardCodecs   regex filter on benchmark names
+//   ./gradlew jmh -Pjmh.params=payloadSize=1024    override a @Param
+val jmhVersion = "1.37"
+val jmh: SourceSet by sourceSets.creating {
+    java.srcDir("src/jmh/java")
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath + fixtures.output + codegen.output
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath + fixtures.output + codegen.output
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with the GC profiler and writes JSON results to build/reports/jmh"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    val includes = providers.gradleProperty("jmh.includes")
+    val params = providers.gradleProperty("jmh.params")
+    outputs.file(resultsFile)
+    outputs.upToDateWhen { false }
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOfNotNull(includes.orNull) +
+            (params.orNull?.let { listOf("-p", it) } ?: emptyList()) +
+            listOf("-prof", "gc", "-rf", "json", "-rff", resultsFile.get().asFile.absolutePath)
+    })
+    doFirst {
+        resultsFile.get().asFile.parentFile.mkdirs()
+    }
+}
@@ -0,0 +1,133 @@
+package dev.fmcuttingboard.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Finds XML files under the CLI inputs and processes them on a work-stealing pool.
+ *
+ * Every file is an independent task, so idle workers steal from busy ones when file sizes vary
+ * widely (a handful of huge layout captures among thousands of small scripts). Results are
+ * handed to the sink in input order while later files are still being processed, which keeps
+ * output deterministic without holding every result until the end.
+ */
+final class BatchRunner {
+
+    /** One XML file found under {@code root} (a directory argument, or the file itself). */
+    record Source(Path root, Path file) {
+        Path relative() {
+            return root.equals(file) ? file.getFileName() : root.relativize(file);
+        }
+    }
+
+    record FileResult(Source source, boolean ok, String detail) {
+        static FileResult ok(Source source, String detail) {
+            return new FileResult(source, true, detail);
+        }
+
+        static FileResult failed(Source source, String detail) {
+            return new FileResult(source, false, detail);
+        }
+    }
+
+    @FunctionalInterface
+    interface FileTask {
+        FileResult process(Source source) throws Exception;
+    }
+
+    private BatchRunner() {}
+
+    /**
+     * Expands the inputs into XML files, sorted per input. Hidden directories (e.g. .git, .idea)
+     * and directories rejected by {@code skipDir} are not descended into.
+     */
+    static List<Source> collect(List<Path> inputs, Predicate<Path> skipDir) throws IOException {
+        List<Source> sources = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isRegularFile(input)) {
+                sources.add(new Source(input, input));
+                continue;
+            }
+            if (!Files.isDirectory(input)) {
+                throw new IOException("No such file or directory: " + input);
+            }
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(input)) {
+                files = walk.filter(p -> Files.isRegularFile(p) && isXml(p) && !inSkippedDir(input, p, skipDir))
+                        .sorted(Comparator.comparing(Path::toString))
+                        .toList();
+            }
+            for (Path f : files) sources.add(new Source(input, f));
+        }
+        return sources;
+    }
+
+    /**
+     * Runs {@code task} for every source on a pool of {@code threads} workers. A task that throws
+     * is reported as a failed result; it never stops the batch.
+     *
+     * @return number of failed files
+     */
+    static int run(List<Source> sources, int threads, FileTask task, Consumer<FileResult> sink)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(sources.size());
+            for (Source s : sources) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        return task.process(s);
+                    } catch (Exception ex) {
+                        return FileResult.failed(s, message(ex));
+                    }
+                }));
+            }
+            int failed = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                FileResult r;
+                try {
+                    r = futures.get(i).get();
+                } catch (ExecutionException ex) {
+                    // Errors (e.g. OutOfMemoryError) are not caught inside the task
+                    r = FileResult.failed(sources.get(i), message(ex.getCause()));
+                }
+                if (!r.ok()) failed++;
+                sink.accept(r);
+            }
+            return failed;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    static String message(Throwable t) {
+        String msg = t.getMessage();
+        return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
+    }
+
+    private static boolean isXml(Path p) {
+        return p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xml");
+    }
+
+    private static boolean inSkippedDir(Path root, Path file, Predicate<Path> skipDir) {
+        Path dir = file.getParent();
+        while (dir != null && !dir.equals(root)) {
+            String name = dir.getFileName().toString();
+            if (name.startsWith(".") || skipDir.test(dir)) return true;
+            dir = dir.getParent();
+        }
+        return false;
+    }
+}
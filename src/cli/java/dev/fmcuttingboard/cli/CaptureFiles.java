@@ -0,0 +1,92 @@
+package dev.fmcuttingboard.cli;
+
+import java.io.BufferedInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opens captured snippet files regardless of how they were saved.
+ *
+ * Clipboard dumps are not always UTF-8: Windows captures are often UTF-16LE (with or without a
+ * BOM) and raw dumps may carry trailing or embedded NUL characters. The encoding is sniffed from
+ * the first bytes and NULs are dropped while reading, so the XML parsers see clean text.
+ */
+final class CaptureFiles {
+
+    private CaptureFiles() {}
+
+    static Reader newReader(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            in.mark(4);
+            byte[] head = in.readNBytes(4);
+            in.reset();
+            int bom = 0;
+            Charset cs = StandardCharsets.UTF_8;
+            if (head.length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+                bom = 3;
+            } else if (head.length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE) {
+                bom = 2;
+                cs = StandardCharsets.UTF_16LE;
+            } else if (head.length >= 2 && (head[0] & 0xFF) == 0xFE && (head[1] & 0xFF) == 0xFF) {
+                bom = 2;
+                cs = StandardCharsets.UTF_16BE;
+            } else if (head.length >= 2 && head[0] != 0 && head[1] == 0) {
+                cs = StandardCharsets.UTF_16LE; // "<\0f\0..." without BOM
+            } else if (head.length >= 2 && head[0] == 0 && head[1] != 0) {
+                cs = StandardCharsets.UTF_16BE;
+            }
+            in.skipNBytes(bom);
+            return new NulDroppingReader(new InputStreamReader(in, cs));
+        } catch (IOException | RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    static String read(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder((int) Math.min(Files.size(file), Integer.MAX_VALUE - 8));
+        char[] buf = new char[8192];
+        try (Reader r = newReader(file)) {
+            int n;
+            while ((n = r.read(buf)) > 0) sb.append(buf, 0, n);
+        }
+        return sb.toString();
+    }
+
+    private static final class NulDroppingReader extends FilterReader {
+        NulDroppingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c;
+            do {
+                c = super.read();
+            } while (c == 0);
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            while (true) {
+                int n = super.read(cbuf, off, len);
+                if (n <= 0) return n;
+                int w = off;
+                for (int i = off; i < off + n; i++) {
+                    if (cbuf[i] != 0) cbuf[w++] = cbuf[i];
+                }
+                if (w > off) return w - off;
+                // only NULs in this chunk; keep reading
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package dev.fmcuttingboard.cli;
+
+import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.ElementType;
+import dev.fmcuttingboard.fm.FmSnippetCanonicalizer;
+import dev.fmcuttingboard.fm.FmSnippetSplitter;
+import dev.fmcuttingboard.fm.FmXmlParser;
+import dev.fmcuttingboard.fm.ParsedSnippet;
+import dev.fmcuttingboard.fm.XmlFileRewriter;
+import dev.fmcuttingboard.log.FmLog;
+import dev.fmcuttingboard.log.FmLogs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Headless batch tool over the fm package, for build servers and pre-commit checks.
+ *
+ * <pre>
+ * fmcuttingboard validate     [options] &lt;file|dir&gt;...   parse every capture, report invalid ones
+ * fmcuttingboard classify     [options] &lt;file|dir&gt;...   print the element types of every capture
+ * fmcuttingboard canonicalize [options] &lt;file|dir&gt;...   rewrite in canonical form (--check: only report)
+ * fmcuttingboard split        [options] &lt;file|dir&gt;...   one file per object into {name}-split dirs
+ * fmcuttingboard index        [options] &lt;file|dir&gt;...   TSV index: types, canonical hash, object names
+ * </pre>
+ *
+ * Directories are searched recursively for *.xml files and every file is processed as its own
+ * task on a work-stealing pool. Exit status is 0 when every file passed, 1 when any failed and 2
+ * for usage errors. Nothing here depends on the IntelliJ Platform.
+ */
+public final class FmCuttingBoardCli {
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILURES = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final FmLog LOG = FmLogs.getLogger(FmCuttingBoardCli.class);
+
+    private static final String USAGE = String.join("\n",
+            "Usage: fmcuttingboard <command> [options] <file|dir>...",
+            "",
+            "Commands:",
+            "  validate       Parse every capture and report the ones that are not valid fmxmlsnippets",
+            "  classify       Print the element types found in every capture",
+            "  canonicalize   Rewrite files in canonical form (sorted attributes, normalized whitespace)",
+            "  split          Write one file per script/table/custom function/value list into {name}-split",
+            "  index          Write a tab-separated index (types, canonical SHA-256, object names)",
+            "",
+            "Options:",
+            "  -j, --threads N      Worker threads (default: available processors)",
+            "  -o, --out PATH       split: output root directory; index: output file (default: stdout)",
+            "      --check          canonicalize: report non-canonical files instead of rewriting them",
+            "      --strip-volatile canonicalize/index: drop volatile ids and UUIDs",
+            "  -q, --quiet          Only print failures",
+            "  -v, --verbose        Verbose logging (same as -Dfmcuttingboard.verbose=true)",
+            "  -h, --help           Show this help");
+
+    enum Command { VALIDATE, CLASSIFY, CANONICALIZE, SPLIT, INDEX }
+
+    record Options(Command command, List<Path> inputs, int threads, Path out,
+                   boolean check, boolean stripVolatile, boolean quiet, boolean verbose) {
+    }
+
+    private FmCuttingBoardCli() {}
+
+    public static void main(String[] args) {
+        List<String> flags = List.of(args);
+        configureLogging(flags.contains("-v") || flags.contains("--verbose"));
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Runs one CLI invocation and returns its exit status. */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        final Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException ex) {
+            err.println("error: " + ex.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options == null) {
+            out.println(USAGE);
+            return EXIT_OK;
+        }
+        if (options.verbose()) System.setProperty("fmcuttingboard.verbose", "true");
+
+        try {
+            List<BatchRunner.Source> sources = BatchRunner.collect(options.inputs(), skipDirs(options));
+            long startNs = System.nanoTime();
+            int failed = switch (options.command()) {
+                case INDEX -> index(sources, options, out, err);
+                default -> runPerFile(sources, options, out);
+            };
+            long elapsedMs = (System.nanoTime() - startNs) / 1_000_000L;
+            err.println(options.command().name().toLowerCase(Locale.ROOT) + ": " + sources.size() + " files, "
+                    + failed + " failed (" + options.threads() + " threads, took " + elapsedMs + "ms)");
+            return failed == 0 ? EXIT_OK : EXIT_FAILURES;
+        } catch (IOException | UncheckedIOException ex) {
+            err.println("error: " + BatchRunner.message(ex));
+            return EXIT_FAILURES;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            err.println("error: interrupted");
+            return EXIT_FAILURES;
+        }
+    }
+
+    static Options parse(String[] args) {
+        if (args.length == 0) throw new IllegalArgumentException("missing command");
+        if (args[0].equals("-h") || args[0].equals("--help")) return null;
+        Command command;
+        try {
+            command = Command.valueOf(args[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("unknown command '" + args[0] + "'");
+        }
+        List<Path> inputs = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        boolean check = false, strip = false, quiet = false, verbose = false;
+        for (int i = 1; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "-h", "--help" -> {
+                    return null;
+                }
+                case "-j", "--threads" -> {
+                    try {
+                        threads = Integer.parseInt(value(args, ++i, a));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException(a + " expects a number");
+                    }
+                    if (threads < 1) throw new IllegalArgumentException(a + " must be at least 1");
+                }
+                case "-o", "--out" -> out = Path.of(value(args, ++i, a));
+                case "--check" -> check = true;
+                case "--strip-volatile" -> strip = true;
+                case "-q", "--quiet" -> quiet = true;
+                case "-v", "--verbose" -> verbose = true;
+                default -> {
+                    if (a.startsWith("-")) throw new IllegalArgumentException("unknown option '" + a + "'");
+                    inputs.add(Path.of(a));
+                }
+            }
+        }
+        if (inputs.isEmpty()) throw new IllegalArgumentException("no input files or directories");
+        if (check && command != Command.CANONICALIZE) {
+            throw new IllegalArgumentException("--check only applies to canonicalize");
+        }
+        return new Options(command, List.copyOf(inputs), threads, out, check, strip, quiet, verbose);
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException(option + " expects a value");
+        return args[i];
+    }
+
+    // split must not pick up its own output (from this or an earlier run)
+    private static Predicate<Path> skipDirs(Options options) {
+        if (options.command() != Command.SPLIT) return dir -> false;
+        Path outRoot = options.out() == null ? null : options.out().toAbsolutePath().normalize();
+        return dir -> dir.getFileName().toString().endsWith(FmSnippetSplitter.SPLIT_DIR_SUFFIX)
+                || (outRoot != null && dir.toAbsolutePath().normalize().startsWith(outRoot));
+    }
+
+    private static int runPerFile(List<BatchRunner.Source> sources, Options options, PrintStream out)
+            throws InterruptedException {
+        BatchRunner.FileTask task = switch (options.command()) {
+            case VALIDATE -> s -> BatchRunner.FileResult.ok(s, typesOf(parse(s)));
+            case CLASSIFY -> s -> BatchRunner.FileResult.ok(s, typesOf(parse(s)));
+            case CANONICALIZE -> canonicalizeTask(options);
+            case SPLIT -> splitTask(options);
+            case INDEX -> throw new IllegalStateException();
+        };
+        return BatchRunner.run(sources, options.threads(), timed(task), r -> {
+            if (!r.ok()) {
+                out.println("FAIL " + r.source().relative() + ": " + r.detail());
+            } else if (!options.quiet()) {
+                out.println((options.command() == Command.CLASSIFY ? "" : "OK   ")
+                        + r.source().relative() + "\t" + r.detail());
+            }
+        });
+    }
+
+    private static BatchRunner.FileTask canonicalizeTask(Options options) {
+        FmSnippetCanonicalizer canonicalizer = new FmSnippetCanonicalizer(options.stripVolatile());
+        if (options.check()) {
+            return s -> {
+                String text = CaptureFiles.read(s.file());
+                return text.equals(canonicalizer.canonicalize(text))
+                        ? BatchRunner.FileResult.ok(s, "canonical")
+                        : BatchRunner.FileResult.failed(s, "not in canonical form");
+            };
+        }
+        return s -> BatchRunner.FileResult.ok(s,
+                XmlFileRewriter.rewrite(s.file(), canonicalizer::canonicalize) ? "rewritten" : "unchanged");
+    }
+
+    private static BatchRunner.FileTask splitTask(Options options) {
+        FmSnippetSplitter splitter = new FmSnippetSplitter();
+        return s -> {
+            Path outputDir = FmSnippetSplitter.defaultOutputDir(s.file());
+            if (options.out() != null) {
+                outputDir = options.out().resolve(s.relative().toString()).resolveSibling(outputDir.getFileName());
+            }
+            try (Reader reader = CaptureFiles.newReader(s.file())) {
+                // Parallelism is across files; writing inline avoids blocking pool workers on each other
+                FmSnippetSplitter.Result result = splitter.split(reader, outputDir, Runnable::run, 1);
+                return BatchRunner.FileResult.ok(s, result.files().size() + " files -> " + outputDir);
+            }
+        };
+    }
+
+    private static int index(List<BatchRunner.Source> sources, Options options, PrintStream out, PrintStream err)
+            throws IOException, InterruptedException {
+        FmSnippetCanonicalizer canonicalizer = new FmSnippetCanonicalizer(options.stripVolatile());
+        BatchRunner.FileTask task = s -> {
+            ParsedSnippet snippet = parse(s);
+            return BatchRunner.FileResult.ok(s, String.join("\t",
+                    typesOf(snippet),
+                    canonicalHash(canonicalizer, snippet.getRawXml()),
+                    names(snippet.getScriptNames()),
+                    names(snippet.getLayoutNames()),
+                    names(snippet.getFieldNames())));
+        };
+        BufferedWriter w = options.out() == null
+                ? new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(options.out(), StandardCharsets.UTF_8);
+        try {
+            w.write("path\ttypes\tcanonical_sha256\tscripts\tlayouts\tfields\n");
+            int failed = BatchRunner.run(sources, options.threads(), timed(task), r -> {
+                if (!r.ok()) {
+                    err.println("FAIL " + r.source().relative() + ": " + r.detail());
+                    return;
+                }
+                try {
+                    w.write(r.source().relative().toString().replace('\\', '/'));
+                    w.write('\t');
+                    w.write(r.detail());
+                    w.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            return failed;
+        } finally {
+            // Never close stdout
+            if (options.out() == null) w.flush(); else w.close();
+        }
+    }
+
+    private static ParsedSnippet parse(BatchRunner.Source s) throws IOException, ConversionException {
+        // The converter accepts raw clipboard dumps (text around the snippet) as well as plain XML
+        String xml = new ClipboardToXmlConverter().convertToXml(CaptureFiles.read(s.file()));
+        return new FmXmlParser().parse(xml);
+    }
+
+    private static String typesOf(ParsedSnippet snippet) {
+        EnumSet<ElementType> types = snippet.getElementTypes();
+        if (types.isEmpty()) types = EnumSet.of(ElementType.UNKNOWN);
+        List<String> names = new ArrayList<>(types.size());
+        for (ElementType t : types) names.add(t.name());
+        return String.join(",", names);
+    }
+
+    private static String canonicalHash(FmSnippetCanonicalizer canonicalizer, String xml)
+            throws IOException, ConversionException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        // Stream the canonical form straight into the digest instead of materializing it
+        try (Writer w = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), sha),
+                StandardCharsets.UTF_8)) {
+            canonicalizer.canonicalize(new StringReader(xml), w);
+        }
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    // Names joined with '|'; characters that would break the TSV layout are replaced
+    private static String names(List<String> names) {
+        StringBuilder sb = new StringBuilder();
+        for (String n : names) {
+            if (sb.length() > 0) sb.append('|');
+            sb.append(n.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ').replace('|', '/'));
+        }
+        return sb.toString();
+    }
+
+    private static BatchRunner.FileTask timed(BatchRunner.FileTask task) {
+        if (!FmLogs.isVerbose()) return task;
+        return s -> {
+            long t0 = System.nanoTime();
+            try {
+                return task.process(s);
+            } finally {
+                LOG.info("[PERF] " + s.file() + " took " + (System.nanoTime() - t0) / 1_000_000L + "ms on "
+                        + Thread.currentThread().getName());
+            }
+        };
+    }
+
+    // Plain one-line records on stderr; only warnings unless verbose
+    private static void configureLogging(boolean verbose) {
+        Logger root = Logger.getLogger("");
+        for (Handler h : root.getHandlers()) root.removeHandler(h);
+        ConsoleHandler console = new ConsoleHandler();
+        console.setFormatter(new SimpleFormatter() {
+            @Override
+            public String format(java.util.logging.LogRecord r) {
+                return r.getLevel() + " " + r.getLoggerName() + ": " + formatMessage(r) + System.lineSeparator();
+            }
+        });
+        boolean v = verbose || FmLogs.isVerbose();
+        console.setLevel(v ? Level.ALL : Level.WARNING);
+        root.setLevel(v ? Level.INFO : Level.WARNING);
+        root.addHandler(console);
+    }
+}
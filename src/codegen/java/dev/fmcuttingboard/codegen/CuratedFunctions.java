@@ -0,0 +1,249 @@
+package dev.fmcuttingboard.codegen;
+
+import dev.fmcuttingboard.language.FunctionMetadata;
+import dev.fmcuttingboard.language.FunctionParameter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written function metadata that takes precedence over what the snippet catalog yields.
+ *
+ * These are the entries the registry used to seed by hand (with typed parameters and return
+ * types), plus functions whose snippet body does not describe the real arity: Case, Choose and
+ * Evaluate take any number of arguments, JSONSetElement repeats its triples, and a few snippets
+ * omit or mangle their parameters. Category names match the CAT_* constants of
+ * FileMakerFunctionRegistry, which this build-time source set cannot reference.
+ */
+final class CuratedFunctions {
+
+    private static final String LOGICAL = "Logical";
+    private static final String TEXT = "Text";
+    private static final String MATH = "Math";
+    private static final String DATE_TIME = "Date/Time";
+    private static final String AGGREGATE = "Aggregate";
+    private static final String DATA = "Data/Fields";
+    private static final String LIST = "List";
+    private static final String SYSTEM = "Get()";
+    private static final String JSON = "JSON";
+    private static final String OTHER = "Other";
+
+    private CuratedFunctions() {}
+
+    static List<FunctionMetadata> all() {
+        List<FunctionMetadata> list = new ArrayList<>();
+
+        // Logical/control
+        list.add(new FunctionMetadata.Builder("If")
+                .parameters(
+                        new FunctionParameter("test", "Any"),
+                        new FunctionParameter("resultTrue", "Any"),
+                        new FunctionParameter("resultFalse", "Any", true, false)
+                )
+                .category(LOGICAL)
+                .returnType("Any")
+                .description("If(test; resultTrue; [resultFalse])")
+                .build());
+
+        list.add(new FunctionMetadata.Builder("Case")
+                .parameters(
+                        new FunctionParameter("test1", "Any"),
+                        new FunctionParameter("result1", "Any"),
+                        new FunctionParameter("testN; resultN", "Any", true, true),
+                        new FunctionParameter("default", "Any", true, false)
+                )
+                .category(LOGICAL)
+                .returnType("Any")
+                .description("Case(test1; result1; [test2; result2; …]; [default])")
+                .build());
+
+        list.add(new FunctionMetadata.Builder("Let")
+                .parameters(
+                        new FunctionParameter("bindings", "Array"),
+                        new FunctionParameter("result", "Any")
+                )
+                .category(LOGICAL)
+                .returnType("Any")
+                .description("Let([name = expr; …]; result)")
+                .build());
+
+        list.add(new FunctionMetadata.Builder("Choose")
+                .parameters(
+                        new FunctionParameter("test", "Number"),
+                        new FunctionParameter("result0", "Any"),
+                        new FunctionParameter("resultN", "Any", true, true)
+                )
+                .category(LOGICAL)
+                .returnType("Any")
+                .description("Choose(test; result0; [result1; result2; …])")
+                .build());
+
+        list.add(new FunctionMetadata.Builder("Evaluate")
+                .parameters(
+                        new FunctionParameter("expression", "Text"),
+                        new FunctionParameter("fields", "Any", true, true)
+                )
+                .category(LOGICAL)
+                .returnType("Any")
+                .description("Evaluate(expression; [field1; field2; …])")
+                .build());
+
+        // Text
+        list.add(new FunctionMetadata.Builder("Left")
+                .parameters(new FunctionParameter("text", "Text"), new FunctionParameter("count", "Number"))
+                .category(TEXT)
+                .returnType("Text")
+                .build());
+        list.add(new FunctionMetadata.Builder("Right")
+                .parameters(new FunctionParameter("text", "Text"), new FunctionParameter("count", "Number"))
+                .category(TEXT)
+                .returnType("Text")
+                .build());
+        list.add(new FunctionMetadata.Builder("Middle")
+                .parameters(
+                        new FunctionParameter("text", "Text"),
+                        new FunctionParameter("start", "Number"),
+                        new FunctionParameter("count", "Number")
+                )
+                .category(TEXT)
+                .returnType("Text")
+                .build());
+        list.add(new FunctionMetadata.Builder("Substitute")
+                .parameters(
+                        new FunctionParameter("text", "Text"),
+                        new FunctionParameter("search", "Text"),
+                        new FunctionParameter("replace", "Text")
+                )
+                .category(TEXT)
+                .returnType("Text")
+                .build());
+
+        // Math
+        list.add(new FunctionMetadata.Builder("Round")
+                .parameters(new FunctionParameter("number", "Number"), new FunctionParameter("numDecimals", "Number"))
+                .category(MATH)
+                .returnType("Number")
+                .build());
+        list.add(new FunctionMetadata.Builder("Abs")
+                .parameters(new FunctionParameter("number", "Number"))
+                .category(MATH)
+                .returnType("Number")
+                .build());
+        list.add(new FunctionMetadata.Builder("Sum")
+                .parameters(new FunctionParameter("field", "Number"), new FunctionParameter("field...", "Number", true, true))
+                .category(AGGREGATE)
+                .returnType("Number")
+                .build());
+        list.add(new FunctionMetadata.Builder("Average")
+                .parameters(new FunctionParameter("field", "Number"), new FunctionParameter("field...", "Number", true, true))
+                .category(AGGREGATE)
+                .returnType("Number")
+                .build());
+
+        // Date/Time
+        list.add(new FunctionMetadata.Builder("Date")
+                .parameters(new FunctionParameter("month", "Number"), new FunctionParameter("day", "Number"), new FunctionParameter("year", "Number"))
+                .category(DATE_TIME)
+                .returnType("Date")
+                .build());
+        list.add(new FunctionMetadata.Builder("Time")
+                .parameters(new FunctionParameter("hour", "Number"), new FunctionParameter("minute", "Number"), new FunctionParameter("second", "Number"))
+                .category(DATE_TIME)
+                .returnType("Time")
+                .build());
+        list.add(new FunctionMetadata.Builder("Timestamp")
+                .parameters(new FunctionParameter("date", "Date"), new FunctionParameter("time", "Time"))
+                .category(DATE_TIME)
+                .returnType("Timestamp")
+                .build());
+        list.add(new FunctionMetadata.Builder("Year")
+                .parameters(new FunctionParameter("date", "Date"))
+                .category(DATE_TIME)
+                .returnType("Number")
+                .build());
+        list.add(new FunctionMetadata.Builder("Month")
+                .parameters(new FunctionParameter("date", "Date"))
+                .category(DATE_TIME)
+                .returnType("Number")
+                .build());
+        list.add(new FunctionMetadata.Builder("Day")
+                .parameters(new FunctionParameter("date", "Date"))
+                .category(DATE_TIME)
+                .returnType("Number")
+                .build());
+
+        // Lists
+        list.add(new FunctionMetadata.Builder("List")
+                .parameters(new FunctionParameter("value1", "Any"), new FunctionParameter("valueN", "Any", true, true))
+                .category(LIST)
+                .returnType("Text")
+                .build());
+        list.add(new FunctionMetadata.Builder("ValueCount")
+                .parameters(new FunctionParameter("values", "Text"))
+                .category(LIST)
+                .returnType("Number")
+                .build());
+
+        // Data/Fields
+        list.add(new FunctionMetadata.Builder("GetField")
+                .parameters(new FunctionParameter("fieldName", "Text"))
+                .category(DATA)
+                .returnType("Any")
+                .build());
+        list.add(new FunctionMetadata.Builder("GetValue")
+                .parameters(new FunctionParameter("values", "Text"), new FunctionParameter("index", "Number"))
+                .category(LIST)
+                .returnType("Text")
+                .build());
+        list.add(new FunctionMetadata.Builder("ScriptNames")
+                .parameters(new FunctionParameter("fileName", "Text"))
+                .category(DATA)
+                .returnType("Text")
+                .build());
+        list.add(new FunctionMetadata.Builder("LayoutObjectUUID")
+                .parameters(new FunctionParameter("arguments", "Any", true, true))
+                .category(DATA)
+                .returnType("Text")
+                .description("Not described by the snippet catalog; arguments are not checked")
+                .build());
+
+        // JSON
+        list.add(new FunctionMetadata.Builder("JSONSetElement")
+                .parameters(
+                        new FunctionParameter("json", "Text"),
+                        // Or one [keyOrIndexOrPath; value; type] list per argument after json
+                        new FunctionParameter("keyOrIndexOrPath", "Text"),
+                        new FunctionParameter("value", "Any", true, false),
+                        new FunctionParameter("type", "Number", true, false),
+                        new FunctionParameter("[keyOrIndexOrPath; value; type]", "Array", true, true)
+                )
+                .category(JSON)
+                .returnType("Text")
+                .description("JSONSetElement(json; keyOrIndexOrPath; value; type) or with [key; value; type] triples")
+                .build());
+        list.add(new FunctionMetadata.Builder("JSONDeleteElement")
+                .parameters(new FunctionParameter("json", "Text"), new FunctionParameter("keyOrIndexOrPath", "Text"))
+                .category(JSON)
+                .returnType("Text")
+                .build());
+
+        list.add(new FunctionMetadata.Builder("ComputeModel")
+                .parameters(
+                        new FunctionParameter("modelName", "Text"),
+                        new FunctionParameter("name; value", "Any", true, true)
+                )
+                .category(OTHER)
+                .returnType("Text")
+                .build());
+
+        // System / Get family
+        list.add(new FunctionMetadata.Builder("Get")
+                .parameters(new FunctionParameter("name", "Text"))
+                .category(SYSTEM)
+                .returnType("Any")
+                .description("Get(name) — name is one of the FileMaker environment constants, e.g., AccountName, HostName, LastError, …")
+                .build());
+
+        return list;
+    }
+}
@@ -0,0 +1,412 @@
+package dev.fmcuttingboard.codegen;
+
+import dev.fmcuttingboard.language.FunctionMetadata;
+import dev.fmcuttingboard.language.FunctionMetadataLoader;
+import dev.fmcuttingboard.language.FunctionParameter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Build-time generator of {@code dev.fmcuttingboard.language.GeneratedFunctionCatalog}, the table
+ * behind FileMakerFunctionRegistry.
+ *
+ * Inputs, in order of precedence: the hand-written entries in {@link CuratedFunctions}, the VS Code
+ * snippets (parsed with {@link FunctionMetadataLoader#parseVsCodeSnippets}) and the Notepad++ Words4
+ * list, which contributes function names the snippets lack and Get() constants. Names are matched
+ * case-insensitively; the first source to define a function wins. The lexer's other keyword lists
+ * (control, logical, type) come from the Notepad++ Words1-3 lists plus the constants in
+ * {@code calculation-keywords.txt}, and are emitted case sensitive and in that order.
+ *
+ * The output is plain Java with no runtime parsing: one pool of distinct strings (literals, so the
+ * JVM interns them), function and parameter rows as indices into the pool packed into char arrays,
+ * categories as ordinals with their members grouped in one more array, and an open-addressing hash
+ * index over the case-folded names. Run by {@code ./gradlew
+ * generateFunctionCatalog}, which compileJava depends on.
+ */
+public final class FunctionCatalogGenerator {
+
+    static final String PACKAGE = "dev.fmcuttingboard.language";
+    static final String CLASS_NAME = "GeneratedFunctionCatalog";
+    static final int FUNCTION_STRIDE = 6;
+    static final int PARAMETER_STRIDE = 3;
+    static final int OPTIONAL = 1;
+    static final int REPEATING = 2;
+    static final String DEFAULT_CATEGORY = "Other";
+
+    private static final String CATEGORIES = "function-categories.txt";
+    private static final String KEYWORDS = "calculation-keywords.txt";
+    /** Keyword kinds of FileMakerCalculationKeywords other than functions, with their Notepad++ list. */
+    private static final String[][] KEYWORD_LISTS = {{"control", "Words1"}, {"logical", "Words2"}, {"type", "Words3"}};
+    private static final int WORDS_PER_LINE = 8;
+    private static final int VALUES_PER_LINE = 16;
+
+    private final List<FunctionMetadata> functions = new ArrayList<>();
+    private final List<String> getConstants = new ArrayList<>();
+    private final Map<String, List<String>> keywords = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: FunctionCatalogGenerator <snippets.json> <notepad++.xml> <outDir>");
+            System.exit(2);
+        }
+        String snippets = Files.readString(Path.of(args[0]), StandardCharsets.UTF_8);
+        String notepad = Files.readString(Path.of(args[1]), StandardCharsets.UTF_8);
+        FunctionCatalogGenerator generator = new FunctionCatalogGenerator(snippets, notepad, readCategories(),
+                readKeywords());
+        Path file = Path.of(args[2]).resolve(PACKAGE.replace('.', '/')).resolve(CLASS_NAME + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, generator.source(), StandardCharsets.UTF_8);
+        System.out.println("Wrote " + file + ": " + generator.functions.size() + " functions, "
+                + generator.getConstants.size() + " Get() constants, "
+                + generator.keywords.values().stream().mapToInt(List::size).sum() + " other keywords");
+    }
+
+    FunctionCatalogGenerator(String snippetsJson, String notepadPlusPlusXml, Map<String, String> categories,
+                             Map<String, String> keywordKinds) {
+        Map<String, FunctionMetadata> byKey = new LinkedHashMap<>();
+        Map<String, String> constants = new LinkedHashMap<>();
+        for (FunctionMetadata m : CuratedFunctions.all()) {
+            byKey.putIfAbsent(key(m.getName()), m);
+        }
+        for (FunctionMetadata m : FunctionMetadataLoader.parseVsCodeSnippets(snippetsJson)) {
+            String constant = getConstant(m.getName());
+            if (constant != null) {
+                constants.putIfAbsent(key(constant), constant);
+            } else if (!byKey.containsKey(key(m.getName()))) {
+                String category = categories.getOrDefault(m.getName(), DEFAULT_CATEGORY);
+                byKey.put(key(m.getName()), new FunctionMetadata(m.getName(), m.getParameters(), category,
+                        m.getReturnType(), m.getDescription()));
+            }
+        }
+        for (String word : FunctionMetadataLoader.extractNotepadPlusPlusWords(notepadPlusPlusXml, "Words4")) {
+            String constant = getConstant(word);
+            if (constant != null) {
+                constants.putIfAbsent(key(constant), constant);
+            } else if (!byKey.containsKey(key(word))) {
+                byKey.put(key(word), new FunctionMetadata.Builder(word)
+                        .parameters(new FunctionParameter("arguments", "Any", true, true))
+                        .category(categories.getOrDefault(word, DEFAULT_CATEGORY))
+                        .description("Listed in the Notepad++ word list; arguments are not checked")
+                        .build());
+            }
+        }
+        functions.addAll(byKey.values());
+        getConstants.addAll(constants.values());
+
+        for (String[] list : KEYWORD_LISTS) {
+            Set<String> words = new LinkedHashSet<>(FunctionMetadataLoader.extractNotepadPlusPlusWords(notepadPlusPlusXml, list[1]));
+            if (words.isEmpty()) throw new IllegalArgumentException("Notepad++ list " + list[1] + " is missing");
+            keywordKinds.forEach((word, kind) -> {
+                if (kind.equals(list[0])) words.add(word);
+            });
+            keywords.put(list[0], List.copyOf(words));
+        }
+        for (String kind : keywordKinds.values()) {
+            if (!keywords.containsKey(kind)) throw new IllegalArgumentException("Unknown keyword kind: " + kind);
+        }
+    }
+
+    /** "Get(AccountName)" → "AccountName"; null for anything else. */
+    private static String getConstant(String name) {
+        if (!name.startsWith("Get(") || !name.endsWith(")")) return null;
+        String constant = name.substring(4, name.length() - 1).trim();
+        return constant.isEmpty() ? null : constant;
+    }
+
+    List<FunctionMetadata> functions() {
+        return functions;
+    }
+
+    List<String> getConstants() {
+        return getConstants;
+    }
+
+    Map<String, List<String>> keywords() {
+        return keywords;
+    }
+
+    String source() {
+        StringPool pool = new StringPool();
+        List<String> categories = new ArrayList<>();
+        List<StringBuilder> members = new ArrayList<>();
+        StringBuilder functionRows = new StringBuilder();
+        StringBuilder parameterRows = new StringBuilder();
+        int maxNameLength = 0;
+        for (FunctionMetadata m : functions) {
+            List<FunctionParameter> params = m.getParameters();
+            String category = m.getCategory() != null ? m.getCategory() : DEFAULT_CATEGORY;
+            int ordinal = categories.indexOf(category);
+            if (ordinal < 0) {
+                ordinal = categories.size();
+                categories.add(category);
+                members.add(new StringBuilder());
+            }
+            members.get(ordinal).append(checked(functionRows.length() / FUNCTION_STRIDE));
+            functionRows.append(pool.index(m.getName()))
+                    .append(checked(ordinal))
+                    .append(pool.index(m.getReturnType() != null ? m.getReturnType() : "Any"))
+                    .append(pool.index(m.getDescription() != null ? m.getDescription() : ""))
+                    .append(checked(parameterRows.length() / PARAMETER_STRIDE))
+                    .append(checked(params.size()));
+            for (FunctionParameter p : params) {
+                int flags = (p.isOptional() ? OPTIONAL : 0) | (p.isRepeating() ? REPEATING : 0);
+                parameterRows.append(pool.index(p.getName()))
+                        .append(pool.index(p.getType() != null ? p.getType() : "Any"))
+                        .append(checked(flags));
+            }
+            maxNameLength = Math.max(maxNameLength, m.getName().length());
+        }
+        StringBuilder categoryRows = new StringBuilder();
+        StringBuilder categoryStarts = new StringBuilder();
+        StringBuilder categoryMembers = new StringBuilder();
+        for (int i = 0; i < categories.size(); i++) {
+            categoryRows.append(pool.index(categories.get(i)));
+            categoryStarts.append(checked(categoryMembers.length()));
+            categoryMembers.append(members.get(i));
+        }
+        categoryStarts.append(checked(categoryMembers.length()));
+        StringBuilder constantRows = new StringBuilder();
+        for (String constant : getConstants) {
+            constantRows.append(pool.index(constant));
+        }
+        char[] index = index();
+
+        StringBuilder out = new StringBuilder(64 * 1024);
+        out.append("// Generated by ").append(FunctionCatalogGenerator.class.getName()).append(". Do not edit.\n");
+        out.append("// Sources: filemaker_functions.json (VS Code snippets), FileMakerCalcs_InNotepadPlusPlus.xml\n");
+        out.append("// (Words1-4), calculation-keywords.txt and the hand-written entries in CuratedFunctions.\n");
+        out.append("package ").append(PACKAGE).append(";\n\n");
+        out.append("/**\n");
+        out.append(" * FileMaker function catalog as flat tables, read by {@link FileMakerFunctionRegistry}.\n");
+        out.append(" *\n");
+        out.append(" * Every name, type, category and description is stored once in {@link #STRINGS}; rows hold\n");
+        out.append(" * indices into it. A function row is (name, category ordinal, return type, description, first\n");
+        out.append(" * parameter row, parameter count); a parameter row is (name, type, flags). Category ordinal\n");
+        out.append(" * {@code c} is named by {@code CATEGORIES[c]} and its functions, in catalog order, are\n");
+        out.append(" * {@code CATEGORY_MEMBERS[CATEGORY_START[c]]} up to {@code CATEGORY_START[c + 1]}. {@link #INDEX}\n");
+        out.append(" * is an open-addressing table over the case-folded names holding function number + 1, or 0.\n");
+        out.append(" * The *_KEYWORDS arrays are the lexer's other keyword lists for FileMakerCalculationKeywords.\n");
+        out.append(" */\n");
+        out.append("final class ").append(CLASS_NAME).append(" {\n\n");
+        out.append("    static final int FUNCTION_STRIDE = ").append(FUNCTION_STRIDE).append(";\n");
+        out.append("    static final int NAME = 0;\n");
+        out.append("    static final int CATEGORY = 1;\n");
+        out.append("    static final int RETURN_TYPE = 2;\n");
+        out.append("    static final int DESCRIPTION = 3;\n");
+        out.append("    static final int FIRST_PARAMETER = 4;\n");
+        out.append("    static final int PARAMETER_COUNT = 5;\n\n");
+        out.append("    static final int PARAMETER_STRIDE = ").append(PARAMETER_STRIDE).append(";\n");
+        out.append("    static final int PARAMETER_NAME = 0;\n");
+        out.append("    static final int PARAMETER_TYPE = 1;\n");
+        out.append("    static final int PARAMETER_FLAGS = 2;\n");
+        out.append("    static final int OPTIONAL = ").append(OPTIONAL).append(";\n");
+        out.append("    static final int REPEATING = ").append(REPEATING).append(";\n\n");
+        out.append("    static final int MAX_NAME_LENGTH = ").append(maxNameLength).append(";\n\n");
+        out.append("    static final String[] STRINGS = {\n");
+        for (String s : pool.strings) {
+            out.append("            ").append(javaString(s)).append(",\n");
+        }
+        out.append("    };\n\n");
+        appendChars(out, "FUNCTIONS", functionRows);
+        appendChars(out, "PARAMETERS", parameterRows);
+        appendChars(out, "CATEGORIES", categoryRows);
+        appendChars(out, "CATEGORY_START", categoryStarts);
+        appendChars(out, "CATEGORY_MEMBERS", categoryMembers);
+        appendChars(out, "GET_CONSTANTS", constantRows);
+        appendChars(out, "INDEX", new StringBuilder().append(index));
+        for (Map.Entry<String, List<String>> kind : keywords.entrySet()) {
+            appendStrings(out, kind.getKey().toUpperCase(Locale.ROOT) + "_KEYWORDS", kind.getValue());
+        }
+        out.append("""
+                    private GeneratedFunctionCatalog() {}
+
+                    /** Number of the function named {@code name}, ignoring case, or -1. */
+                    static int find(CharSequence name) {
+                        int len = name.length();
+                        if (len == 0 || len > MAX_NAME_LENGTH) return -1;
+                        int mask = INDEX.length - 1;
+                        for (int slot = hash(name) & mask, entry; (entry = INDEX[slot]) != 0; slot = (slot + 1) & mask) {
+                            if (equalsFolded(STRINGS[FUNCTIONS[(entry - 1) * FUNCTION_STRIDE + NAME]], name)) return entry - 1;
+                        }
+                        return -1;
+                    }
+
+                """);
+        out.append(indent(HASH_SOURCE)).append('\n');
+        out.append(indent(EQUALS_SOURCE));
+        out.append("}\n");
+        return out.toString();
+    }
+
+    // Emitted verbatim into the generated class; hash() and fold() below are the same code
+    private static final String HASH_SOURCE = """
+            static int hash(CharSequence text) {
+                int h = 0;
+                for (int i = 0; i < text.length(); i++) {
+                    h = 31 * h + fold(text.charAt(i));
+                }
+                return h ^ (h >>> 16);
+            }
+
+            /** Case folding as in String.equalsIgnoreCase. */
+            static char fold(char c) {
+                return Character.toLowerCase(Character.toUpperCase(c));
+            }
+            """;
+
+    private static final String EQUALS_SOURCE = """
+            private static boolean equalsFolded(String key, CharSequence text) {
+                if (key.length() != text.length()) return false;
+                for (int i = 0; i < key.length(); i++) {
+                    if (fold(key.charAt(i)) != fold(text.charAt(i))) return false;
+                }
+                return true;
+            }
+            """;
+
+    static int hash(CharSequence text) {
+        int h = 0;
+        for (int i = 0; i < text.length(); i++) {
+            h = 31 * h + fold(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private char[] index() {
+        // At most 25% full keeps probe sequences short
+        int capacity = Integer.highestOneBit(Math.max(1, functions.size() * 4 - 1)) << 1;
+        char[] table = new char[capacity];
+        for (int i = 0; i < functions.size(); i++) {
+            int slot = hash(functions.get(i).getName()) & (capacity - 1);
+            while (table[slot] != 0) slot = (slot + 1) & (capacity - 1);
+            table[slot] = checked(i + 1);
+        }
+        return table;
+    }
+
+    private static String key(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) sb.append(fold(name.charAt(i)));
+        return sb.toString();
+    }
+
+    private static char checked(int value) {
+        if (value < 0 || value > Character.MAX_VALUE) {
+            throw new IllegalStateException("Catalog value out of range for a char table: " + value);
+        }
+        return (char) value;
+    }
+
+    private static void appendChars(StringBuilder out, String field, CharSequence values) {
+        out.append("    static final char[] ").append(field).append(" = (\"\"");
+        for (int i = 0; i < values.length(); i++) {
+            if (i % VALUES_PER_LINE == 0) out.append("\n            + \"");
+            // Unicode escapes are translated before lexing (an escaped newline would end the literal): octal below 256
+            int c = values.charAt(i);
+            out.append(c < 0x100 ? String.format(Locale.ROOT, "\\%03o", c) : String.format(Locale.ROOT, "\\u%04x", c));
+            if (i % VALUES_PER_LINE == VALUES_PER_LINE - 1 || i == values.length() - 1) out.append('"');
+        }
+        out.append(").toCharArray();\n\n");
+    }
+
+    private static void appendStrings(StringBuilder out, String field, List<String> values) {
+        out.append("    static final String[] ").append(field).append(" = {");
+        for (int i = 0; i < values.size(); i++) {
+            out.append(i % WORDS_PER_LINE == 0 ? "\n            " : " ")
+                    .append(javaString(values.get(i))).append(',');
+        }
+        out.append("\n    };\n\n");
+    }
+
+    private static String javaString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format(Locale.ROOT, "\\%03o", (int) c));
+                    else if (c > 0x7e) sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String indent(String block) {
+        return block.lines().map(l -> l.isEmpty() ? "" : "    " + l).reduce((a, b) -> a + "\n" + b).orElse("") + "\n";
+    }
+
+    /** Category by function name, from the "category = names" lines of the resource. */
+    static Map<String, String> readCategories() throws IOException {
+        try (InputStream in = FunctionCatalogGenerator.class.getResourceAsStream(CATEGORIES)) {
+            if (in == null) throw new IOException("Missing resource " + CATEGORIES);
+            return parseCategories(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /** Keyword kind by word, from the "kind = words" lines of the resource (same format as the categories). */
+    static Map<String, String> readKeywords() throws IOException {
+        try (InputStream in = FunctionCatalogGenerator.class.getResourceAsStream(KEYWORDS)) {
+            if (in == null) throw new IOException("Missing resource " + KEYWORDS);
+            return parseCategories(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // In file order, so generated keyword lists read like the resource
+    static Map<String, String> parseCategories(String text) {
+        Map<String, String> categories = new LinkedHashMap<>();
+        String category = null;
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            int eq = line.indexOf('=');
+            String names = trimmed;
+            if (eq >= 0 && !Character.isWhitespace(line.charAt(0))) {
+                category = line.substring(0, eq).trim();
+                names = line.substring(eq + 1).trim();
+            }
+            if (category == null) throw new IllegalArgumentException("Names before the first category: " + line);
+            for (String name : names.split("\\s+")) {
+                if (!name.isEmpty() && categories.put(name, category) != null) {
+                    throw new IllegalArgumentException(name + " is listed under two categories");
+                }
+            }
+        }
+        return categories;
+    }
+
+    /** Distinct strings in first-use order. */
+    private static final class StringPool {
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> indices = new HashMap<>();
+
+        char index(String s) {
+            return checked(indices.computeIfAbsent(s, k -> {
+                strings.add(k);
+                return strings.size() - 1;
+            }));
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package dev.fmcuttingboard.language;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phase 1 – 1.1 Consolidate Function Information
+ *
+ * Loader utilities that will consolidate function definitions from bundled resources
+ * (VSCode snippets, TextMate grammar, Notepad++ XML) into FunctionMetadata models.
+ *
+ * The VSCode snippets are read with {@link JsonReader} in a single pass; the other formats are still
+ * scanned with simple patterns. Only the build-time catalog generator calls these, so they live in the
+ * codegen source set and are not part of the plugin.
+ */
+public final class FunctionMetadataLoader {
+
+    private FunctionMetadataLoader() {}
+
+    /**
+     * Reads a text resource fully as String. Handy for ad-hoc parsing.
+     */
+    public static @NotNull String readAll(@NotNull InputStream in) throws IOException {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder sb = new StringBuilder();
+            String line;
+            while ((line = br.readLine()) != null) {
+                sb.append(line).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+    /**
+     * Parser for VSCode snippet JSON (resources/filemaker_functions.json).
+     *
+     * The file is read in a single streaming pass with {@link JsonReader} (no JSON library dependency).
+     * Entries have the form:
+     *   "If": { "prefix": "If", "body": "If ( ${1:test} ; ${2:resultTrue}${3: ; ${4:resultFalse}} )" }
+     * with body as a string or an array of lines. Names like "Case [inline]" are normalized to "Case".
+     * Parameters are derived from the placeholders, see {@link #parseSnippetParameters(String)}. A body
+     * that is just the function name (e.g. "Random") yields a function without parameters.
+     *
+     * @throws IllegalArgumentException if the text is not well-formed JSON
+     */
+    public static @NotNull List<FunctionMetadata> parseVsCodeSnippets(@NotNull String jsonText) {
+        List<FunctionMetadata> list = new ArrayList<>();
+        java.util.Set<String> seen = new java.util.HashSet<>();
+
+        JsonReader reader = new JsonReader(jsonText);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String rawName = reader.nextName();
+            if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String body = readSnippetBody(reader);
+            if (body == null) continue;
+
+            // Normalize name by trimming variant suffix after first space, e.g., "Case [inline]" → "Case"
+            String name = rawName.contains(" ") ? rawName.substring(0, rawName.indexOf(' ')) : rawName;
+
+            // Derive parameter segment inside first parentheses
+            int lp = body.indexOf('(');
+            int rp = body.lastIndexOf(')');
+            List<FunctionParameter> params;
+            if (lp >= 0 && rp > lp) {
+                params = parseSnippetParameters(body.substring(lp + 1, rp));
+            } else if (body.replace("$0", "").trim().equals(name)) {
+                params = List.of();
+            } else {
+                // Not a function shape (some snippets are boilerplate text), skip
+                continue;
+            }
+
+            // Avoid duplicates caused by multiple variants of the same name
+            if (seen.add(name)) {
+                list.add(new FunctionMetadata(name, params, "Unknown", "Any", "Imported from VSCode snippets"));
+            }
+        }
+        reader.endObject();
+        return list;
+    }
+
+    private static final java.util.regex.Pattern TAB_STOP = java.util.regex.Pattern.compile("\\$\\d+");
+
+    /**
+     * Consumes one snippet object and returns its body: "body": "..." as is, "body": ["...", "..."] as
+     * lines each ending in '\n'. The first body wins; null when there is none.
+     */
+    private static String readSnippetBody(JsonReader reader) {
+        String body = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            boolean isBody = reader.nextName().equals("body") && body == null;
+            JsonReader.Token token = reader.peek();
+            if (isBody && token == JsonReader.Token.STRING) {
+                body = reader.nextString();
+            } else if (isBody && token == JsonReader.Token.BEGIN_ARRAY) {
+                StringBuilder sb = new StringBuilder();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (reader.peek() == JsonReader.Token.STRING) {
+                        sb.append(reader.nextString()).append('\n');
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endArray();
+                body = sb.toString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return body;
+    }
+
+    /**
+     * Parameters of a snippet body, given the text between its outer parentheses.
+     *
+     * Arguments are separated by semicolons outside placeholders, parentheses, brackets and quotes.
+     * Each argument is named after its first placeholder ({@code ${1:text}} → "text"); choice lists
+     * such as {@code ${2:lower | higher}} keep their first entry. A placeholder whose default starts
+     * with a semicolon ({@code ${3: ; ${4:resultFalse}}}) is an optional tail: the arguments inside
+     * it are optional. A name ending in "..." marks a repeating parameter.
+     */
+    static @NotNull List<FunctionParameter> parseSnippetParameters(@NotNull String inside) {
+        List<FunctionParameter> params = new ArrayList<>();
+        collectParameters(inside, false, params);
+        return params;
+    }
+
+    private static void collectParameters(String text, boolean optional, List<FunctionParameter> params) {
+        for (String segment : splitSemicolonTopLevel(text)) {
+            // An optional tail may follow the argument in the same segment: "${1:field}${2: ; ${3:field...}}"
+            String argument = segment;
+            String tail = null;
+            int at = 0;
+            while ((at = segment.indexOf("${", at)) >= 0) {
+                int colon = placeholderColon(segment, at);
+                int close = closingBrace(segment, at);
+                if (colon > 0 && close > colon && segment.substring(colon + 1, close).trim().startsWith(";")) {
+                    argument = segment.substring(0, at);
+                    String inner = segment.substring(colon + 1, close).trim();
+                    tail = inner.substring(1);
+                    break;
+                }
+                at = close < 0 ? segment.length() : close + 1;
+            }
+            if (!argument.isBlank()) {
+                String name = parameterName(argument);
+                if (name.isEmpty()) name = "param" + (params.size() + 1);
+                boolean repeating = name.endsWith("...");
+                if (repeating) name = name.substring(0, name.length() - 3).trim();
+                params.add(new FunctionParameter(name, "Any", optional, repeating));
+            }
+            if (tail != null) {
+                collectParameters(tail, true, params);
+            }
+        }
+    }
+
+    private static String parameterName(String argument) {
+        String text = argument.trim();
+        // Innermost first placeholder: ${1:"${2:objectName}"} → objectName
+        int at;
+        while ((at = text.indexOf("${")) >= 0) {
+            int colon = placeholderColon(text, at);
+            int close = closingBrace(text, at);
+            if (colon < 0 || close < 0) break;
+            text = text.substring(colon + 1, close).trim();
+        }
+        // A default that is an expression names the argument after it: Get ( FileName ) → fileName
+        int lp = text.lastIndexOf('(');
+        int rp = text.indexOf(')', lp + 1);
+        if (lp >= 0 && rp > lp) {
+            String inner = text.substring(lp + 1, rp).trim();
+            text = inner.isEmpty() ? "" : Character.toLowerCase(inner.charAt(0)) + inner.substring(1);
+        }
+        text = TAB_STOP.matcher(text.replace("\"", "")).replaceAll("").trim();
+        int cut = text.length();
+        for (char c : new char[]{'|', ':'}) {
+            int i = text.indexOf(c);
+            if (i >= 0) cut = Math.min(cut, i);
+        }
+        return text.substring(0, cut).trim();
+    }
+
+    /** Index of the ':' after "${n" at {@code at}, or -1 for a bare tab stop like "$0" or "${1}". */
+    private static int placeholderColon(String text, int at) {
+        int i = at + 2;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) i++;
+        return i < text.length() && text.charAt(i) == ':' ? i : -1;
+    }
+
+    /** Index of the '}' closing the placeholder that opens at {@code at}, or -1 when unbalanced. */
+    private static int closingBrace(String text, int at) {
+        int depth = 0;
+        for (int i = at + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}' && --depth == 0) return i;
+        }
+        return -1;
+    }
+
+    private static List<String> splitSemicolonTopLevel(String inside) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        int depth = 0; // parentheses, brackets and placeholder braces
+        boolean quoted = false;
+        for (int i = 0; i < inside.length(); i++) {
+            char c = inside.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (!quoted && (c == '(' || c == '[' || c == '{')) depth++;
+            else if (!quoted && (c == ')' || c == ']' || c == '}')) depth = Math.max(0, depth - 1);
+            if (c == ';' && depth == 0 && !quoted) {
+                parts.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (cur.length() > 0) parts.add(cur.toString());
+        return parts;
+    }
+
+    /**
+     * Extract top-level snippet keys (function names) from VSCode snippets JSON: every entry with a
+     * "prefix" member, read with the same streaming {@link JsonReader} as {@link #parseVsCodeSnippets}.
+     *
+     * @throws IllegalArgumentException if the text is not well-formed JSON
+     */
+    public static @NotNull java.util.Set<String> extractSnippetFunctionNames(@NotNull String jsonText) {
+        java.util.Set<String> names = new java.util.LinkedHashSet<>();
+        JsonReader reader = new JsonReader(jsonText);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            boolean hasPrefix = false;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                hasPrefix |= reader.nextName().equals("prefix");
+                reader.skipValue();
+            }
+            reader.endObject();
+            if (!hasPrefix) continue;
+            // Filter out templated variants like "Case [inline]" → normalize to base name before first space
+            String normalized = key.contains(" ") ? key.substring(0, key.indexOf(' ')) : key;
+            names.add(normalized);
+        }
+        reader.endObject();
+        return names;
+    }
+
+    /**
+     * Extract function names from our curated JSON (resources/filemaker_functions.json).
+     * Minimal JSON parsing without external libraries. Expected shape:
+     * { "functions": [ "If", "Case", "Get(WindowWidth)", ... ] }
+     */
+    public static @NotNull java.util.Set<String> extractFunctionNamesFromCuratedJson(@NotNull String jsonText) {
+        java.util.Set<String> names = new java.util.LinkedHashSet<>();
+        // Find the functions array content between [ and ] after the "functions" key
+        java.util.regex.Matcher arrayMatcher = java.util.regex.Pattern.compile(
+                "\\\"functions\\\"\\s*:\\s*\\[(.*?)]",
+                java.util.regex.Pattern.DOTALL).matcher(jsonText);
+        if (arrayMatcher.find()) {
+            String arr = arrayMatcher.group(1);
+            java.util.regex.Matcher item = java.util.regex.Pattern.compile("\\\"(.*?)\\\"",
+                    java.util.regex.Pattern.DOTALL).matcher(arr);
+            while (item.find()) {
+                String name = item.group(1).trim();
+                if (!name.isEmpty()) names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Extract the Notepad++ Words4 list (Get() constants) and other keyword lists as plain tokens.
+     * The file is a small XML; a regex approach keeps dependencies minimal.
+     */
+    public static @NotNull java.util.Set<String> extractNotepadPlusPlusWords(@NotNull String xmlText, @NotNull String listName) {
+        java.util.Set<String> names = new java.util.LinkedHashSet<>();
+        String start = "<Keywords name=\"" + listName + "\">";
+        int s = xmlText.indexOf(start);
+        if (s >= 0) {
+            int e = xmlText.indexOf("</Keywords>", s);
+            if (e > s) {
+                String content = xmlText.substring(s + start.length(), e).trim();
+                // Replace HTML entities
+                content = content.replace("&quot;", "\"").replace("&apos;", "'");
+                for (String token : content.split("\\s+")) {
+                    if (!token.isEmpty()) names.add(token);
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,279 @@
+package dev.fmcuttingboard.language;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Minimal pull parser for the JSON the function catalog is bundled in (VS Code snippet files).
+ *
+ * One forward pass over the text: {@link #peek()} looks at the next token, the other methods
+ * consume it, and containers are tracked on an int stack, so nothing but the returned names and
+ * strings is allocated. Strings without escapes are copied straight out of the input; escaped ones
+ * are decoded through one reused buffer. Like VS Code, it accepts line and block comments and
+ * trailing commas. Malformed input fails with an {@link IllegalArgumentException} giving the line
+ * and column.
+ */
+final class JsonReader {
+
+    enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, LITERAL, END_DOCUMENT }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final CharSequence in;
+    private final int end;
+    private int pos;
+    private int[] stack = new int[16];
+    private int depth;
+    private Token peeked;
+    private final StringBuilder buffer = new StringBuilder();
+
+    JsonReader(@NotNull CharSequence in) {
+        this.in = in;
+        this.end = in.length();
+        stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    @NotNull Token peek() {
+        if (peeked != null) return peeked;
+        int context = stack[depth - 1];
+        switch (context) {
+            case EMPTY_ARRAY, NONEMPTY_ARRAY -> {
+                int c = nextNonWhitespace();
+                if (context == NONEMPTY_ARRAY) {
+                    if (c == ']') return peeked = Token.END_ARRAY;
+                    expect(c, ',');
+                    pos++;
+                    c = nextNonWhitespace();
+                }
+                if (c == ']') return peeked = Token.END_ARRAY; // empty, or a trailing comma
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return peeked = value(c);
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                int c = nextNonWhitespace();
+                if (context == NONEMPTY_OBJECT) {
+                    if (c == '}') return peeked = Token.END_OBJECT;
+                    expect(c, ',');
+                    pos++;
+                    c = nextNonWhitespace();
+                }
+                if (c == '}') return peeked = Token.END_OBJECT;
+                expect(c, '"');
+                stack[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            }
+            case DANGLING_NAME -> {
+                expect(nextNonWhitespace(), ':');
+                pos++;
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = value(nextNonWhitespace());
+            }
+            case EMPTY_DOCUMENT -> {
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = value(nextNonWhitespace());
+            }
+            default -> {
+                int c = nextNonWhitespace();
+                if (c != -1) throw syntaxError("Unexpected content after the document");
+                return peeked = Token.END_DOCUMENT;
+            }
+        }
+    }
+
+    boolean hasNext() {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END_DOCUMENT;
+    }
+
+    void beginObject() {
+        consume(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() {
+        consume(Token.END_OBJECT);
+        depth--;
+    }
+
+    void beginArray() {
+        consume(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() {
+        consume(Token.END_ARRAY);
+        depth--;
+    }
+
+    @NotNull String nextName() {
+        if (peek() != Token.NAME) throw syntaxError("Expected a name but was " + peeked);
+        peeked = null;
+        return readString();
+    }
+
+    @NotNull String nextString() {
+        if (peek() != Token.STRING) throw syntaxError("Expected a string but was " + peeked);
+        peeked = null;
+        return readString();
+    }
+
+    /** Skips the next value, including everything inside an object or array. */
+    void skipValue() {
+        int nested = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT -> {
+                    beginObject();
+                    nested++;
+                }
+                case BEGIN_ARRAY -> {
+                    beginArray();
+                    nested++;
+                }
+                case END_OBJECT -> {
+                    endObject();
+                    nested--;
+                }
+                case END_ARRAY -> {
+                    endArray();
+                    nested--;
+                }
+                case NAME -> nextName();
+                case STRING -> nextString();
+                case NUMBER, LITERAL -> {
+                    peeked = null;
+                    while (pos < end && isLiteralChar(in.charAt(pos))) pos++;
+                }
+                case END_DOCUMENT -> throw syntaxError("Unexpected end of document");
+            }
+        } while (nested > 0);
+    }
+
+    private Token value(int c) {
+        return switch (c) {
+            case '{' -> Token.BEGIN_OBJECT;
+            case '[' -> Token.BEGIN_ARRAY;
+            case '"' -> Token.STRING;
+            case 't', 'f', 'n' -> Token.LITERAL;
+            case -1 -> throw syntaxError("Unexpected end of document");
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) yield Token.NUMBER;
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+            }
+        };
+    }
+
+    private void consume(Token expected) {
+        if (peek() != expected) throw syntaxError("Expected " + expected + " but was " + peeked);
+        peeked = null;
+        pos++;
+    }
+
+    private void push(int context) {
+        if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+        stack[depth++] = context;
+    }
+
+    /** Reads the string whose opening quote is at {@code pos}. */
+    private String readString() {
+        int start = ++pos;
+        while (pos < end) {
+            char c = in.charAt(pos);
+            if (c == '"') return in.subSequence(start, pos++).toString();
+            if (c == '\\') return readEscapedString(start);
+            pos++;
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private String readEscapedString(int start) {
+        buffer.setLength(0);
+        buffer.append(in, start, pos);
+        while (pos < end) {
+            char c = in.charAt(pos++);
+            if (c == '"') return buffer.toString();
+            if (c != '\\') {
+                buffer.append(c);
+                continue;
+            }
+            if (pos == end) break;
+            char e = in.charAt(pos++);
+            switch (e) {
+                case 'n' -> buffer.append('\n');
+                case 'r' -> buffer.append('\r');
+                case 't' -> buffer.append('\t');
+                case 'b' -> buffer.append('\b');
+                case 'f' -> buffer.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > end) throw syntaxError("Truncated \\u escape");
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(in.charAt(pos++), 16);
+                        if (digit < 0) throw syntaxError("Malformed \\u escape");
+                        value = (value << 4) | digit;
+                    }
+                    buffer.append((char) value);
+                }
+                case '"', '\\', '/' -> buffer.append(e);
+                default -> throw syntaxError("Invalid escape '\\" + e + "'");
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    /** Skips whitespace and comments; returns the next character without consuming it, or -1 at the end. */
+    private int nextNonWhitespace() {
+        while (pos < end) {
+            char c = in.charAt(pos);
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\uFEFF') {
+                pos++;
+            } else if (c == '/' && pos + 1 < end && in.charAt(pos + 1) == '/') {
+                while (pos < end && in.charAt(pos) != '\n') pos++;
+            } else if (c == '/' && pos + 1 < end && in.charAt(pos + 1) == '*') {
+                int close = commentEnd(pos + 2);
+                if (close < 0) throw syntaxError("Unterminated comment");
+                pos = close + 2;
+            } else {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private int commentEnd(int from) {
+        for (int i = from; i + 1 < end; i++) {
+            if (in.charAt(i) == '*' && in.charAt(i + 1) == '/') return i;
+        }
+        return -1;
+    }
+
+    private static boolean isLiteralChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.';
+    }
+
+    private void expect(int c, char expected) {
+        if (c != expected) {
+            throw syntaxError(c == -1 ? "Expected '" + expected + "' but reached the end"
+                    : "Expected '" + expected + "' but was '" + (char) c + "'");
+        }
+    }
+
+    private IllegalArgumentException syntaxError(String message) {
+        int line = 1;
+        int lineStart = 0;
+        for (int i = 0; i < Math.min(pos, end); i++) {
+            if (in.charAt(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new IllegalArgumentException(message + " at line " + line + ", column " + (pos - lineStart + 1));
+    }
+}
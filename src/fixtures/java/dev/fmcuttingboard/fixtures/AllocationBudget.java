@@ -0,0 +1,97 @@
+package dev.fmcuttingboard.fixtures;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Measures heap bytes allocated by one operation on the calling thread via
+ * {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes} and checks them against a budget
+ * expressed as a multiple of the payload size.
+ *
+ * The operation is run a few times first so class loading and lazy initialization are not
+ * counted, then the smallest of several measured runs is used, which filters out one-off noise
+ * such as TLAB refills. Results are kept reachable so allocations cannot be optimized away.
+ * All budgets can be scaled with -Dfmcuttingboard.allocBudgetScale (default 1.0), for example on
+ * a JVM whose String layout differs.
+ */
+public final class AllocationBudget {
+
+    /** An operation under measurement; its result is retained until the measurement ends. */
+    @FunctionalInterface
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 5;
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static volatile Object sink;
+
+    private AllocationBudget() {}
+
+    /** True when this JVM can report per-thread allocation. */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /** Bytes allocated by one run of {@code op} on this thread (minimum over several runs). */
+    public static long measure(Operation op) throws Exception {
+        if (!isSupported()) throw new IllegalStateException("Thread allocation measurement is not available");
+        for (int i = 0; i < WARMUP_RUNS; i++) sink = op.run();
+        long id = Thread.currentThread().threadId();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long before = THREADS.getThreadAllocatedBytes(id);
+            Object result = op.run();
+            long after = THREADS.getThreadAllocatedBytes(id);
+            sink = result;
+            min = Math.min(min, after - before);
+        }
+        sink = null;
+        return min;
+    }
+
+    /**
+     * Fails when one run of {@code op} allocates more than {@code factor × payloadBytes} (scaled)
+     * plus a fixed {@code slackBytes} for per-call overhead that does not grow with the payload.
+     *
+     * @return the measured bytes, for reporting
+     */
+    public static long assertWithin(String name, long payloadBytes, double factor, long slackBytes, Operation op) throws Exception {
+        long allocated = measure(op);
+        long budget = (long) (payloadBytes * factor * scale()) + slackBytes;
+        if (allocated > budget) {
+            throw new AssertionError(String.format(Locale.ROOT,
+                    "%s allocated %,d bytes for a %,d byte payload (%.2fx); budget is %.2fx + %,d bytes = %,d bytes",
+                    name, allocated, payloadBytes, (double) allocated / payloadBytes, factor * scale(), slackBytes, budget));
+        }
+        return allocated;
+    }
+
+    /** Heap size of the characters of {@code s} when stored as UTF-16, the larger String encoding. */
+    public static long utf16Bytes(String s) {
+        return 2L * s.length();
+    }
+
+    private static double scale() {
+        try {
+            return Double.parseDouble(System.getProperty("fmcuttingboard.allocBudgetScale", "1.0"));
+        } catch (NumberFormatException ex) {
+            return 1.0;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported()) {
+                if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        } catch (Throwable ignore) {
+            // e.g. a JVM without the com.sun.management extensions
+        }
+        return null;
+    }
+}
@@ -0,0 +1,149 @@
+package dev.fmcuttingboard.fixtures;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of FileMaker calculations (.fmcalc text) for lexer, parser and editor
+ * benchmarks and tests.
+ *
+ * Output depends only on (seed, target size): the same arguments always produce the same text. A
+ * calculation is one expression: Let blocks with bindings, nested Case/If, function calls, Get()
+ * constants, $variables, strings with escapes, numbers, operators, and line and block comments,
+ * joined with {@code &} until the target size is reached. Everything generated is within what the
+ * calculation lexer recognizes, so there are no bad-character tokens.
+ */
+public final class CalculationCorpus {
+
+    private static final String[] FUNCTIONS = {"Left", "Right", "Middle", "Upper", "Lower", "Trim", "Length",
+            "PatternCount", "Substitute", "Abs", "Round", "Int", "Max", "Min", "GetValue", "ValueCount", "List",
+            "JSONGetElement", "JSONSetElement", "Position", "Filter", "GetAsText", "GetAsNumber", "Date", "Year"};
+    private static final String[] GET_CONSTANTS = {"AccountName", "CurrentDate", "CurrentTimestamp", "FoundCount",
+            "LayoutName", "LastError", "ScriptParameter", "ScriptResult", "RecordID", "WindowName", "UserName",
+            "SystemPlatform", "ApplicationVersion", "TemporaryPath"};
+    private static final String[] NAMES = {"total", "count", "name", "result", "item", "index", "status", "amount",
+            "line", "json", "key", "value", "prefix", "delta", "limit"};
+    private static final String[] WORDS = {"alpha", "beta", "gamma", "a ; b", "(paren)", "naïve", "日本語",
+            "\\\"quoted\\\"", "/* not a comment */", "x = y"};
+    private static final String[] OPERATORS = {" + ", " - ", " * ", " / ", " & ", " = ", " < ", " > ", " <= ",
+            " >= ", " <> ", " and ", " or ", " xor "};
+
+    private final long seed;
+
+    public CalculationCorpus(long seed) {
+        this.seed = seed;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /** A calculation of at least {@code targetChars} characters (at most one block longer). */
+    public String calculation(int targetChars) {
+        Gen gen = new Gen(new SplittableRandom(seed ^ (targetChars * 0x9E3779B97F4A7C15L)));
+        StringBuilder sb = new StringBuilder(targetChars + 1024);
+        gen.block(sb);
+        while (sb.length() < targetChars) {
+            sb.append(" &\n");
+            gen.block(sb);
+        }
+        return sb.toString();
+    }
+
+    private static final class Gen {
+        private static final int MAX_DEPTH = 4;
+        private final SplittableRandom rnd;
+
+        Gen(SplittableRandom rnd) {
+            this.rnd = rnd;
+        }
+
+        void block(StringBuilder sb) {
+            int roll = rnd.nextInt(10);
+            if (roll == 0) sb.append("/* Block ").append(rnd.nextInt(1000)).append("\n   spans lines; Case ( ) */\n");
+            else if (roll == 1) sb.append("// ").append(pick(NAMES)).append(" step\n");
+            let(sb, 0);
+        }
+
+        private void let(StringBuilder sb, int depth) {
+            String indent = "  ".repeat(depth);
+            sb.append("Let ( [\n");
+            int bindings = 1 + rnd.nextInt(4);
+            for (int i = 0; i < bindings; i++) {
+                sb.append(indent).append("  ").append(rnd.nextInt(4) == 0 ? "$" : "").append(pick(NAMES)).append(i)
+                        .append(" = ");
+                expr(sb, depth + 1);
+                sb.append(i + 1 < bindings ? " ;\n" : "\n");
+            }
+            sb.append(indent).append("] ;\n").append(indent).append("  ");
+            if (depth < MAX_DEPTH && rnd.nextBoolean()) caseOrIf(sb, depth + 1);
+            else expr(sb, depth + 1);
+            sb.append('\n').append(indent).append(')');
+        }
+
+        private void caseOrIf(StringBuilder sb, int depth) {
+            if (rnd.nextBoolean()) {
+                sb.append("If ( ");
+                expr(sb, depth);
+                sb.append(" ; ");
+                expr(sb, depth);
+                sb.append(" ; ");
+                expr(sb, depth);
+                sb.append(" )");
+                return;
+            }
+            sb.append("Case (");
+            int branches = 1 + rnd.nextInt(3);
+            for (int i = 0; i < branches; i++) {
+                sb.append("\n").append("  ".repeat(depth + 1));
+                expr(sb, depth);
+                sb.append(" ; ");
+                expr(sb, depth);
+                sb.append(" ;");
+            }
+            sb.append("\n").append("  ".repeat(depth + 1));
+            expr(sb, depth);
+            sb.append("\n").append("  ".repeat(depth)).append(')');
+        }
+
+        private void expr(StringBuilder sb, int depth) {
+            int terms = 1 + rnd.nextInt(3);
+            for (int i = 0; i < terms; i++) {
+                if (i > 0) sb.append(pick(OPERATORS));
+                term(sb, depth);
+            }
+        }
+
+        private void term(StringBuilder sb, int depth) {
+            int roll = rnd.nextInt(depth >= MAX_DEPTH ? 6 : 10);
+            switch (roll) {
+                case 0 -> sb.append(rnd.nextInt(1000));
+                case 1 -> sb.append(rnd.nextInt(100)).append('.').append(rnd.nextInt(100));
+                case 2 -> sb.append('"').append(pick(WORDS)).append('"');
+                case 3 -> sb.append(rnd.nextInt(3) == 0 ? "$$" : "$").append(pick(NAMES));
+                case 4 -> sb.append("Get ( ").append(pick(GET_CONSTANTS)).append(" )");
+                case 5 -> sb.append(pick(NAMES));
+                case 6, 7 -> call(sb, depth);
+                case 8 -> {
+                    sb.append("( ");
+                    expr(sb, depth + 1);
+                    sb.append(" )");
+                }
+                default -> caseOrIf(sb, depth + 1);
+            }
+        }
+
+        private void call(StringBuilder sb, int depth) {
+            sb.append(pick(FUNCTIONS)).append(" ( ");
+            int args = 1 + rnd.nextInt(3);
+            for (int i = 0; i < args; i++) {
+                if (i > 0) sb.append(" ; ");
+                expr(sb, depth + 1);
+            }
+            sb.append(" )");
+        }
+
+        private String pick(String[] values) {
+            return values[rnd.nextInt(values.length)];
+        }
+    }
+}
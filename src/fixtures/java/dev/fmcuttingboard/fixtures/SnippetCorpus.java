@@ -0,0 +1,423 @@
+package dev.fmcuttingboard.fixtures;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic fmxmlsnippet payloads for load tests and benchmarks.
+ *
+ * Output depends only on (seed, kind, target size): the same arguments always produce the same
+ * characters, independent of call order or thread. Snippets mimic what FileMaker puts on the
+ * clipboard (script steps with calculations, field definitions, base tables, custom functions,
+ * value lists and Mac-XML2 layout objects), including non-ASCII names and escaped characters.
+ * Large payloads are streamed to a {@link Writer} or file, so 100 MB snippets need no heap.
+ *
+ * {@link #encode} and {@link #writeFile} produce the byte variants the clipboard readers see:
+ * UTF-8 / UTF-16LE / UTF-16BE, each with or without a BOM, optionally NUL-terminated and padded.
+ *
+ * Run {@code ./gradlew generateCorpus} to write a corpus directory (see {@link #main}).
+ */
+public final class SnippetCorpus {
+
+    /** Snippet content families, matching the FileMaker clipboard formats. */
+    public enum Kind {
+        /** Whole script (Mac-XMSC). */
+        SCRIPT,
+        /** Bare script steps (Mac-XMSS). */
+        STEPS,
+        /** Field definitions (Mac-XMFD). */
+        FIELDS,
+        /** Base tables with fields (Mac-XMTB). */
+        TABLES,
+        /** Custom functions (Mac-XMFN). */
+        CUSTOM_FUNCTIONS,
+        /** Value lists (Mac-XMVL). */
+        VALUE_LISTS,
+        /** Layout objects (Mac-XML2), with XML declaration and LF newlines. */
+        LAYOUT_OBJECTS
+    }
+
+    /** Byte encodings observed on the clipboard. */
+    public enum Encoding {
+        UTF8(StandardCharsets.UTF_8, false),
+        UTF8_BOM(StandardCharsets.UTF_8, true),
+        UTF16LE(StandardCharsets.UTF_16LE, false),
+        UTF16LE_BOM(StandardCharsets.UTF_16LE, true),
+        UTF16BE(StandardCharsets.UTF_16BE, false),
+        UTF16BE_BOM(StandardCharsets.UTF_16BE, true);
+
+        private final Charset charset;
+        private final boolean bom;
+
+        Encoding(Charset charset, boolean bom) {
+            this.charset = charset;
+            this.bom = bom;
+        }
+
+        public Charset charset() {
+            return charset;
+        }
+
+        byte[] bomBytes() {
+            if (!bom) return new byte[0];
+            if (charset == StandardCharsets.UTF_8) return new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+            if (charset == StandardCharsets.UTF_16LE) return new byte[] {(byte) 0xFF, (byte) 0xFE};
+            return new byte[] {(byte) 0xFE, (byte) 0xFF};
+        }
+
+        int unitSize() {
+            return charset == StandardCharsets.UTF_8 ? 1 : 2;
+        }
+    }
+
+    /** NUL padding rounds buffers up like GlobalAlloc'd clipboard memory. */
+    static final int NUL_PADDING_ALIGNMENT = 16;
+
+    private static final String[] TABLES = {"Contacts", "Invoices", "LineItems", "Products", "Café_Orders", "Kunden"};
+    private static final String[] FIELDS = {"First", "Last", "Email", "Total", "Status", "CreatedAt", "Größe", "名前", "Notes & Tags"};
+    private static final String[] FUNCTIONS = {"Left", "Right", "Middle", "Upper", "Lower", "Trim", "Length", "PatternCount",
+            "Substitute", "GetAsText", "GetAsNumber", "Round", "Abs", "Get ( CurrentTimestamp )"};
+    private static final String[] WORDS = {"alpha", "beta", "gamma", "delta", "naïve", "über", "<tag>", "a & b", "\"quoted\"", "日本語"};
+
+    private final long seed;
+
+    public SnippetCorpus(long seed) {
+        this.seed = seed;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /** A snippet of about {@code targetChars} characters (never less, overshooting by at most one object). */
+    public String snippet(Kind kind, int targetChars) {
+        StringWriter w = new StringWriter(targetChars + 1024);
+        try {
+            write(kind, targetChars, w);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // StringWriter does not throw
+        }
+        return w.toString();
+    }
+
+    /** Streams a snippet of about {@code targetChars} characters into {@code out}. */
+    public void write(Kind kind, long targetChars, Writer out) throws IOException {
+        new Gen(new SplittableRandom(mix(seed, kind.ordinal(), targetChars)), out).snippet(kind, targetChars);
+    }
+
+    /** Encodes {@code text} like a clipboard flavor: optional BOM, optional NUL terminator and padding. */
+    public static byte[] encode(String text, Encoding encoding, boolean nulPadding) {
+        byte[] bom = encoding.bomBytes();
+        byte[] body = text.getBytes(encoding.charset());
+        int len = bom.length + body.length;
+        if (nulPadding) len = Math.toIntExact(padded(len, encoding));
+        byte[] out = new byte[len];
+        System.arraycopy(bom, 0, out, 0, bom.length);
+        System.arraycopy(body, 0, out, bom.length, body.length);
+        return out; // remaining bytes are already NUL
+    }
+
+    /** Generates one snippet straight into {@code file} in the given byte variant. */
+    public void writeFile(Path file, Kind kind, long targetChars, Encoding encoding, boolean nulPadding) throws IOException {
+        try (CountingOutputStream bytes = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            bytes.write(encoding.bomBytes());
+            Writer w = new OutputStreamWriter(bytes, encoding.charset());
+            write(kind, targetChars, w);
+            w.flush();
+            if (nulPadding) {
+                long end = padded(bytes.count, encoding);
+                while (bytes.count < end) bytes.write(0);
+            }
+        }
+    }
+
+    // NUL terminator of one code unit, then zeros up to the alignment
+    private static long padded(long len, Encoding encoding) {
+        long withTerminator = len + encoding.unitSize();
+        return (withTerminator + NUL_PADDING_ALIGNMENT - 1) / NUL_PADDING_ALIGNMENT * NUL_PADDING_ALIGNMENT;
+    }
+
+    private static long mix(long seed, int kind, long size) {
+        long h = seed * 0x9E3779B97F4A7C15L + kind;
+        h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L + size;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Writes a corpus directory: every kind at several sizes in UTF-8, plus all encoding variants
+     * (with and without NUL padding) for the smaller sizes.
+     *
+     * <pre>SnippetCorpus &lt;outDir&gt; [seed] [maxChars]</pre>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SnippetCorpus <outDir> [seed] [maxChars]");
+            System.exit(2);
+        }
+        Path dir = Files.createDirectories(Path.of(args[0]));
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        long max = args.length > 2 ? Long.parseLong(args[2]) : 10L << 20;
+        SnippetCorpus corpus = new SnippetCorpus(seed);
+        long[] sizes = {1L << 10, 64L << 10, 1L << 20, 10L << 20, 100L << 20};
+        int files = 0;
+        for (Kind kind : Kind.values()) {
+            for (long size : sizes) {
+                if (size > max) continue;
+                boolean allVariants = size <= (64L << 10);
+                for (Encoding enc : Encoding.values()) {
+                    if (!allVariants && enc != Encoding.UTF8) continue;
+                    for (boolean nul : allVariants ? new boolean[] {false, true} : new boolean[] {false}) {
+                        String name = kind.name().toLowerCase(Locale.ROOT) + "-" + size + "-"
+                                + enc.name().toLowerCase(Locale.ROOT) + (nul ? "-nul" : "") + ".xml";
+                        corpus.writeFile(dir.resolve(name), kind, size, enc, nul);
+                        files++;
+                    }
+                }
+            }
+        }
+        System.out.println("Wrote " + files + " files to " + dir + " (seed=" + seed + ")");
+    }
+
+    /** One generation run; all randomness comes from {@code rnd}. */
+    private static final class Gen {
+        private final SplittableRandom rnd;
+        private final Writer out;
+        private long written;
+        private int nextId = 1;
+
+        Gen(SplittableRandom rnd, Writer out) {
+            this.rnd = rnd;
+            this.out = out;
+        }
+
+        void snippet(Kind kind, long targetChars) throws IOException {
+            String close = kind == Kind.SCRIPT ? "</Script></fmxmlsnippet>" : "</fmxmlsnippet>";
+            if (kind == Kind.LAYOUT_OBJECTS) {
+                emit("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<fmxmlsnippet type=\"LayoutObjectList\">\n"
+                        + "<Layout enclosingRectTop =\"40.0000000\" enclosingRectLeft =\"20.0000000\" "
+                        + "enclosingRectBottom =\"4000.0000000\" enclosingRectRight =\"900.0000000\">\n");
+                close = "</Layout>\n</fmxmlsnippet>\n";
+            } else {
+                emit("<fmxmlsnippet type=\"FMObjectList\">");
+                if (kind == Kind.SCRIPT) {
+                    emit("<Script includeInMenu=\"True\" SiriShortcutVisible=\"False\" runFullAccess=\"False\" id=\""
+                            + id() + "\" name=\"" + attr(name("Script")) + "\">");
+                }
+            }
+            long limit = targetChars - close.length();
+            do {
+                switch (kind) {
+                    case SCRIPT, STEPS -> step();
+                    case FIELDS -> field(true);
+                    case TABLES -> table(limit);
+                    case CUSTOM_FUNCTIONS -> customFunction();
+                    case VALUE_LISTS -> valueList();
+                    case LAYOUT_OBJECTS -> layoutObject();
+                }
+            } while (written < limit);
+            emit(close);
+        }
+
+        private void step() throws IOException {
+            switch (rnd.nextInt(8)) {
+                case 0 -> emit("<Step enable=\"True\" id=\"89\" name=\"# (comment)\"><Text>"
+                        + text(sentence()) + "</Text></Step>");
+                case 1 -> emit("<Step enable=\"" + (rnd.nextInt(10) == 0 ? "False" : "True")
+                        + "\" id=\"141\" name=\"Set Variable\"><Value><Calculation><![CDATA[" + calculation(2)
+                        + "]]></Calculation></Value><Repetition><Calculation><![CDATA[1]]></Calculation></Repetition>"
+                        + "<Name>$" + text(word()) + "</Name></Step>");
+                case 2 -> {
+                    String table = pick(TABLES);
+                    emit("<Step enable=\"True\" id=\"76\" name=\"Set Field\"><Calculation><![CDATA[" + calculation(2)
+                            + "]]></Calculation><Field table=\"" + attr(table) + "\" id=\"" + rnd.nextInt(1, 200)
+                            + "\" name=\"" + attr(pick(FIELDS)) + "\"></Field></Step>");
+                }
+                case 3 -> emit("<Step enable=\"True\" id=\"68\" name=\"If\"><Restore state=\"False\"></Restore>"
+                        + "<Calculation><![CDATA[" + calculation(1) + " > " + rnd.nextInt(100) + "]]></Calculation></Step>"
+                        + "<Step enable=\"True\" id=\"70\" name=\"End If\"></Step>");
+                case 4 -> emit("<Step enable=\"True\" id=\"6\" name=\"Go to Layout\"><LayoutDestination value=\"SelectedLayout\">"
+                        + "</LayoutDestination><Layout id=\"" + rnd.nextInt(1, 80) + "\" name=\"" + attr(name("Layout"))
+                        + "\"></Layout></Step>");
+                case 5 -> emit("<Step enable=\"True\" id=\"1\" name=\"Perform Script\"><Calculation><![CDATA["
+                        + calculation(1) + "]]></Calculation><Script id=\"" + rnd.nextInt(1, 300) + "\" name=\""
+                        + attr(name("Sub")) + "\"></Script></Step>");
+                case 6 -> emit("<Step enable=\"True\" id=\"87\" name=\"Show Custom Dialog\"><Title><Calculation><![CDATA[\""
+                        + sentence() + "\"]]></Calculation></Title><Message><Calculation><![CDATA["
+                        + calculation(2) + "]]></Calculation></Message></Step>");
+                default -> emit("<Step enable=\"True\" id=\"103\" name=\"Exit Script\"><Calculation><![CDATA["
+                        + calculation(1) + "]]></Calculation></Step>");
+            }
+        }
+
+        private void field(boolean standalone) throws IOException {
+            String type = pick(new String[] {"Text", "Number", "Date", "TimeStamp", "Container"});
+            boolean calc = rnd.nextInt(5) == 0;
+            emit("<Field id=\"" + id() + "\" dataType=\"" + type + "\" fieldType=\"" + (calc ? "Calculated" : "Normal")
+                    + "\" name=\"" + attr(name(pick(FIELDS))) + "\"><Comment>" + (rnd.nextBoolean() ? text(sentence()) : "")
+                    + "</Comment>");
+            if (calc) {
+                emit("<Calculation table=\"" + attr(pick(TABLES)) + "\"><![CDATA[" + calculation(3) + "]]></Calculation>");
+            } else {
+                emit("<AutoEnter allowEditing=\"True\" constant=\"False\" furigana=\"False\" lookup=\"False\" calculation=\""
+                        + (rnd.nextInt(4) == 0 ? "True\"><Calculation><![CDATA[" + calculation(1) + "]]></Calculation>"
+                        : "False\"><ConstantData></ConstantData>") + "</AutoEnter>"
+                        + "<Validation message=\"False\" maxLength=\"False\" valuelist=\"False\" calculation=\"False\""
+                        + " alwaysValidateCalculation=\"False\" type=\"OnlyDuringDataEntry\"><NotEmpty value=\""
+                        + (rnd.nextBoolean() ? "True" : "False") + "\"></NotEmpty><Unique value=\"False\"></Unique>"
+                        + "<Existing value=\"False\"></Existing><StrictValidation value=\"False\"></StrictValidation></Validation>");
+            }
+            emit("<Storage autoIndex=\"True\" index=\"None\" indexLanguage=\"English\" global=\""
+                    + (standalone && rnd.nextInt(10) == 0 ? "True" : "False") + "\" maxRepetition=\"1\"></Storage></Field>");
+        }
+
+        private void table(long limit) throws IOException {
+            emit("<BaseTable id=\"" + id() + "\" name=\"" + attr(name(pick(TABLES))) + "\">");
+            int fields = rnd.nextInt(5, 40);
+            for (int i = 0; i < fields && written < limit; i++) field(false);
+            emit("</BaseTable>");
+        }
+
+        private void customFunction() throws IOException {
+            int arity = rnd.nextInt(0, 4);
+            StringBuilder params = new StringBuilder();
+            for (int i = 0; i < arity; i++) {
+                if (i > 0) params.append(';');
+                params.append("p").append(i);
+            }
+            emit("<CustomFunction id=\"" + id() + "\" functionArity=\"" + arity + "\" visible=\"True\" parameters=\""
+                    + params + "\" name=\"" + attr(name("CF")) + "\"><Calculation><![CDATA[" + calculation(4)
+                    + "]]></Calculation></CustomFunction>");
+        }
+
+        private void valueList() throws IOException {
+            emit("<ValueList id=\"" + id() + "\" name=\"" + attr(name("VL")) + "\">");
+            if (rnd.nextInt(3) == 0) {
+                emit("<Source value=\"Field\"></Source><PrimaryField><Field table=\"" + attr(pick(TABLES)) + "\" id=\""
+                        + rnd.nextInt(1, 200) + "\" name=\"" + attr(pick(FIELDS)) + "\"></Field></PrimaryField>");
+            } else {
+                emit("<Source value=\"Custom\"></Source><CustomValues><Text>");
+                int n = rnd.nextInt(2, 12);
+                for (int i = 0; i < n; i++) emit((i > 0 ? "\r" : "") + text(word()));
+                emit("</Text></CustomValues>");
+            }
+            emit("</ValueList>");
+        }
+
+        private void layoutObject() throws IOException {
+            int top = rnd.nextInt(40, 3800);
+            int left = rnd.nextInt(20, 700);
+            String bounds = "<Bounds top=\"" + top + ".0000000\" left=\"" + left + ".0000000\" bottom=\"" + (top + 22)
+                    + ".0000000\" right=\"" + (left + rnd.nextInt(40, 200)) + ".0000000\"/>\n";
+            if (rnd.nextInt(3) == 0) {
+                emit("<Object type=\"Text\" key=\"" + id() + "\" LabelKey=\"0\" flags=\"0\" rotation=\"0\">\n" + bounds
+                        + "<TextObj flags=\"0\">\n<ExtendedAttributes fontHeight=\"14\" graphicFormat=\"5\">\n"
+                        + "<NumFormat flags=\"2304\" charStyle=\"0\" negativeStyle=\"0\" currencySymbol=\"$\" thousandsSep=\"44\" "
+                        + "decimalPoint=\"46\" negativeColor=\"#DD000000\" decimalDigits=\"2\" trueString=\"Yes\" falseString=\"No\"/>\n"
+                        + "</ExtendedAttributes>\n<CharacterStyleVector>\n<Style>\n<Data>" + text(sentence()) + "</Data>\n"
+                        + "<CharacterStyle mask=\"32695\">\n<Font-family codeSet=\"Roman\" fontId=\"1\">Helvetica</Font-family>\n"
+                        + "<Font-size>12</Font-size>\n<Color>#000000</Color>\n</CharacterStyle>\n</Style>\n"
+                        + "</CharacterStyleVector>\n</TextObj>\n</Object>\n");
+            } else {
+                String table = pick(TABLES);
+                String field = pick(FIELDS);
+                emit("<Object type=\"Field\" key=\"" + id() + "\" LabelKey=\"0\" flags=\"0\" rotation=\"0\">\n" + bounds
+                        + "<FieldObj numOfReps=\"1\" flags=\"32\" inputMode=\"0\" keyboardType=\"1\" tabOrder=\""
+                        + rnd.nextInt(1, 100) + "\" displayType=\"0\" quickFind=\"1\" pictFormat=\"5\">\n<Name>"
+                        + text(table + "::" + field) + "</Name>\n<ExtendedAttributes fontHeight=\"14\" graphicFormat=\"5\">\n"
+                        + "<NumFormat flags=\"2304\" charStyle=\"0\" negativeStyle=\"0\" currencySymbol=\"$\" thousandsSep=\"44\" "
+                        + "decimalPoint=\"46\" negativeColor=\"#DD000000\" decimalDigits=\"2\" trueString=\"Yes\" falseString=\"No\"/>\n"
+                        + "</ExtendedAttributes>\n<DDRInfo>\n<Field name=\"" + attr(field) + "\" id=\"" + rnd.nextInt(1, 200)
+                        + "\" repetition=\"1\" maxRepetition=\"1\" table=\"" + attr(table) + "\"/>\n</DDRInfo>\n"
+                        + "</FieldObj>\n</Object>\n");
+            }
+        }
+
+        private String calculation(int depth) {
+            int r = rnd.nextInt(depth <= 0 ? 3 : 6);
+            return switch (r) {
+                case 0 -> pick(TABLES) + "::" + pick(FIELDS);
+                case 1 -> "\"" + word() + "\"";
+                case 2 -> Integer.toString(rnd.nextInt(1000));
+                case 3 -> {
+                    String f = pick(FUNCTIONS);
+                    yield f.contains("(") ? f : f + " ( " + calculation(depth - 1) + " )";
+                }
+                case 4 -> "If ( " + calculation(depth - 1) + " = " + calculation(depth - 1) + " ; "
+                        + calculation(depth - 1) + " ; " + calculation(depth - 1) + " )";
+                default -> "Let ( [\r\t~x = " + calculation(depth - 1) + " ;\r\t~y = Length ( ~x )\r] ;\r\t~x & \" \" & "
+                        + calculation(depth - 1) + "\r)  // " + word();
+            };
+        }
+
+        private String sentence() {
+            int n = rnd.nextInt(3, 10);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                if (i > 0) sb.append(' ');
+                sb.append(word());
+            }
+            return sb.toString();
+        }
+
+        private String word() {
+            return pick(WORDS);
+        }
+
+        private String name(String prefix) {
+            return prefix + " " + nextId + (rnd.nextInt(4) == 0 ? " " + word() : "");
+        }
+
+        private int id() {
+            return nextId++;
+        }
+
+        private String pick(String[] values) {
+            return values[rnd.nextInt(values.length)];
+        }
+
+        private void emit(String s) throws IOException {
+            out.write(s);
+            written += s.length();
+        }
+
+        private static String text(String s) {
+            return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        }
+
+        private static String attr(String s) {
+            return text(s).replace("\"", "&quot;");
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package dev.fmcuttingboard.language.parser;
+
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.parser.GeneratedParserUtilBase;
+import com.intellij.psi.tree.IElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationTokenType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Support for the Grammar-Kit parser generated from FileMakerCalculation.bnf.
+ *
+ * The lexer has one OPERATOR token for all operators and separators and one KEYWORD_LOGICAL token for
+ * and/or/xor/not, so the grammar matches those by text through {@link #operator} and {@link #logical}.
+ * The type factories hand the generated parser the lexer's token types and the element types the
+ * hand-written parsers use, so the PSI classes and everything built on them work with either parser.
+ */
+public class FileMakerCalculationParserUtil extends GeneratedParserUtilBase {
+
+    /** {@code <<operator "text">>}: an OPERATOR token with exactly this text. */
+    public static boolean operator(PsiBuilder builder, int level, String text) {
+        if (builder.getTokenType() != FileMakerCalculationTokenType.OPERATOR) return false;
+        // consumeToken records the text for the "expected" part of error messages
+        return consumeToken(builder, text, true);
+    }
+
+    /** {@code <<logical "word">>}: a logical keyword, in any case. */
+    public static boolean logical(PsiBuilder builder, int level, String word) {
+        if (builder.getTokenType() != FileMakerCalculationTokenType.KEYWORD_LOGICAL) return false;
+        return consumeToken(builder, word, false);
+    }
+
+    /** Element type factory: the shared element types, and new ones for the rules only this grammar has. */
+    public static @NotNull IElementType elementType(@NotNull String name) {
+        return switch (name) {
+            case "FUNCTION_CALL" -> FileMakerCalculationElementType.FUNCTION_CALL;
+            case "ARG_LIST" -> FileMakerCalculationElementType.ARG_LIST;
+            case "ARGUMENT" -> FileMakerCalculationElementType.ARGUMENT;
+            case "PAREN_EXPRESSION" -> FileMakerCalculationElementType.PAREN_EXPRESSION;
+            case "IDENTIFIER_EXPRESSION" -> FileMakerCalculationElementType.IDENTIFIER_EXPRESSION;
+            case "LITERAL" -> FileMakerCalculationElementType.LITERAL;
+            case "BINARY_EXPRESSION" -> FileMakerCalculationElementType.BINARY_EXPRESSION;
+            case "UNARY_EXPRESSION" -> FileMakerCalculationElementType.UNARY_EXPRESSION;
+            default -> new FileMakerCalculationElementType(name);
+        };
+    }
+
+    /** Token type factory: the grammar's token names are the lexer's token types. */
+    public static @NotNull IElementType tokenType(@NotNull String name) {
+        return switch (name) {
+            case "IDENTIFIER" -> FileMakerCalculationTokenType.IDENTIFIER;
+            case "NUMBER" -> FileMakerCalculationTokenType.NUMBER;
+            case "STRING" -> FileMakerCalculationTokenType.STRING;
+            case "OPERATOR" -> FileMakerCalculationTokenType.OPERATOR;
+            case "LPAREN" -> FileMakerCalculationTokenType.LPAREN;
+            case "RPAREN" -> FileMakerCalculationTokenType.RPAREN;
+            case "LBRACKET" -> FileMakerCalculationTokenType.LBRACKET;
+            case "RBRACKET" -> FileMakerCalculationTokenType.RBRACKET;
+            case "LBRACE" -> FileMakerCalculationTokenType.LBRACE;
+            case "RBRACE" -> FileMakerCalculationTokenType.RBRACE;
+            case "KEYWORD_CONTROL" -> FileMakerCalculationTokenType.KEYWORD_CONTROL;
+            case "KEYWORD_LOGICAL" -> FileMakerCalculationTokenType.KEYWORD_LOGICAL;
+            case "KEYWORD_TYPE" -> FileMakerCalculationTokenType.KEYWORD_TYPE;
+            case "KEYWORD_FUNCTION" -> FileMakerCalculationTokenType.KEYWORD_FUNCTION;
+            default -> throw new IllegalArgumentException("Token " + name + " is not produced by the calculation lexer");
+        };
+    }
+}
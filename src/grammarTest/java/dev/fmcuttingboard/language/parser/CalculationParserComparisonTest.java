@@ -0,0 +1,144 @@
+package dev.fmcuttingboard.language.parser;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.LanguageParserDefinitions;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.lang.PsiParser;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import dev.fmcuttingboard.fixtures.CalculationCorpus;
+import dev.fmcuttingboard.language.FileMakerCalculationElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationLanguage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+/**
+ * The Grammar-Kit parser generated from FileMakerCalculation.bnf against the plugin's current parser,
+ * ahead of switching: the generated parser must accept the whole generated corpus, keep the rest of
+ * the tree after an error, and its parse throughput and incremental reparse time are printed next to
+ * the current parser's. Runs on the platform's light fixture because generated parsers need its
+ * services (brace matchers, error state).
+ */
+public class CalculationParserComparisonTest extends BasePlatformTestCase {
+
+    private static final int CORPUS_CHARS = 256 * 1024;
+
+    public void testCorpus_parsesWithoutErrors() {
+        for (long seed = 1; seed <= 4; seed++) {
+            String calc = new CalculationCorpus(seed).calculation(64 * 1024);
+            ASTNode tree = parse(new GeneratedParserDefinition(), calc);
+            assertEquals("Syntax errors in corpus seed " + seed, 0, count(tree, TokenType.ERROR_ELEMENT));
+            assertEquals(calc.length(), tree.getTextLength());
+        }
+    }
+
+    public void testOneError_doesNotPoisonTheRestOfTheTree() {
+        // The missing value of y is reported; z, the result and the If() after it still parse
+        ASTNode let = parse(new GeneratedParserDefinition(), "Let ( [ x = 1 ; y = ; z = 3 ] ; If ( x ; y ; z ) )");
+        assertEquals(3, count(let, FileMakerCalculationGeneratedTypes.LET_BINDING));
+        assertEquals(2, count(let, FileMakerCalculationElementType.FUNCTION_CALL));
+        assertEquals(1, count(let, TokenType.ERROR_ELEMENT));
+
+        // A stray token inside an argument is skipped up to the next separator
+        ASTNode caseCall = parse(new GeneratedParserDefinition(), "Case ( a ; 1 2 ; b ; Abs ( 3 ) )");
+        assertEquals(4, count(caseCall, FileMakerCalculationElementType.ARGUMENT));
+        assertEquals(2, count(caseCall, FileMakerCalculationElementType.FUNCTION_CALL));
+        assertEquals(1, count(caseCall, TokenType.ERROR_ELEMENT));
+    }
+
+    public void testLetBindings_acceptKeywordNames() {
+        // left and width lex as layout attribute constants, Bold as a text style, Abs as a function
+        ASTNode let = parse(new GeneratedParserDefinition(), "Let ( [ left = 1 ; width = 2 ; Bold = 3 ; Abs = 4 ] ; left + width )");
+        assertEquals(4, count(let, FileMakerCalculationGeneratedTypes.LET_BINDING));
+        assertEquals(0, count(let, TokenType.ERROR_ELEMENT));
+    }
+
+    public void testOperators_buildBinaryExpressions() {
+        ASTNode tree = parse(new GeneratedParserDefinition(), "not a and b ≥ 2 ^ 3 or $x & \"s\" <> -c * ( d - 1 )");
+        assertEquals(0, count(tree, TokenType.ERROR_ELEMENT));
+        // and, ≥, ^, or, &, <>, *, -
+        assertEquals(8, count(tree, FileMakerCalculationElementType.BINARY_EXPRESSION));
+        assertEquals(2, count(tree, FileMakerCalculationElementType.UNARY_EXPRESSION));
+        assertEquals(1, count(tree, FileMakerCalculationElementType.PAREN_EXPRESSION));
+    }
+
+    public void testParseThroughput() {
+        String calc = new CalculationCorpus(42).calculation(CORPUS_CHARS);
+        for (ParserDefinition definition : new ParserDefinition[]{new FileMakerCalculationParserDefinition(), new GeneratedParserDefinition()}) {
+            for (int i = 0; i < 5; i++) parse(definition, calc); // warm-up
+            int rounds = 20;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) parse(definition, calc);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("[DEBUG_LOG] %s: %.1f MB/s (%d KB calculation)%n", name(definition),
+                    rounds * calc.length() / 1e6 / seconds, calc.length() / 1024);
+        }
+    }
+
+    public void testIncrementalReparse() {
+        String calc = new CalculationCorpus(42).calculation(CORPUS_CHARS / 4);
+        reparse(new FileMakerCalculationParserDefinition(), calc, "current.fmcalc");
+        LanguageParserDefinitions.INSTANCE.addExplicitExtension(FileMakerCalculationLanguage.INSTANCE,
+                new GeneratedParserDefinition(), getTestRootDisposable());
+        reparse(new GeneratedParserDefinition(), calc, "generated.fmcalc");
+    }
+
+    /** Times committing one-character edits at random offsets, which reparses the edited file. */
+    private void reparse(ParserDefinition definition, String calc, String fileName) {
+        Document document = myFixture.configureByText(fileName, calc).getViewProvider().getDocument();
+        PsiDocumentManager documents = PsiDocumentManager.getInstance(getProject());
+        SplittableRandom rnd = new SplittableRandom(50);
+        int edits = 50;
+        long total = 0;
+        for (int i = 0; i < edits; i++) {
+            int offset = rnd.nextInt(document.getTextLength());
+            long start = System.nanoTime();
+            WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+                document.insertString(offset, " ");
+                documents.commitDocument(document);
+            });
+            total += System.nanoTime() - start;
+        }
+        System.out.printf("[DEBUG_LOG] %s: %.2f ms per edit and reparse (%d KB calculation)%n", name(definition),
+                total / 1e6 / edits, calc.length() / 1024);
+    }
+
+    private ASTNode parse(ParserDefinition definition, String text) {
+        Project project = getProject();
+        PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(definition, definition.createLexer(project), text);
+        return definition.createParser(project).parse(FileMakerCalculationParserDefinition.FILE, builder);
+    }
+
+    private static String name(ParserDefinition definition) {
+        return definition instanceof GeneratedParserDefinition ? "Grammar-Kit parser" : "current parser";
+    }
+
+    private static int count(ASTNode root, IElementType type) {
+        int count = 0;
+        ArrayDeque<ASTNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            ASTNode node = pending.pop();
+            if (node.getElementType() == type) count++;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) pending.push(child);
+        }
+        return count;
+    }
+
+    /** The plugin's parser definition with the generated parser. */
+    private static final class GeneratedParserDefinition extends FileMakerCalculationParserDefinition {
+        @Override
+        public @NotNull PsiParser createParser(Project project) {
+            return new FileMakerCalculationGeneratedParser();
+        }
+    }
+}
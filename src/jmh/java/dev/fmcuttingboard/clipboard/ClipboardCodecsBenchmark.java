@@ -0,0 +1,75 @@
+package dev.fmcuttingboard.clipboard;
+
+import dev.fmcuttingboard.fixtures.SnippetCorpus;
+import dev.fmcuttingboard.jmh.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Byte-level clipboard codecs: decoding raw flavors, locating a snippet in raw bytes, snippet
+ * type detection and the native format encoders used when writing to FileMaker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ClipboardCodecsBenchmark {
+
+    @Param({Payloads.SIZE_1K, Payloads.SIZE_64K, Payloads.SIZE_1M, Payloads.SIZE_10M, Payloads.SIZE_50M})
+    public int payloadSize;
+
+    @Param({"UTF8", "UTF16LE_BOM", "UTF16LE", "UTF16BE_BOM"})
+    public SnippetCorpus.Encoding encoding;
+
+    @Param({"false", "true"})
+    public boolean nulPadding;
+
+    private String text;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        text = Payloads.clipboardText(payloadSize);
+        bytes = SnippetCorpus.encode(text, encoding, nulPadding);
+    }
+
+    @Benchmark
+    public String decodeBytesWithBomHeuristics() {
+        return ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
+    }
+
+    @Benchmark
+    public String extractFmxmlFromBytes() {
+        return ClipboardCodecs.extractFmxmlFromBytes(bytes);
+    }
+
+    @Benchmark
+    public DefaultClipboardService.SnippetType detectSnippetType() {
+        return ClipboardCodecs.detectSnippetType(text);
+    }
+
+    // CF_UNICODETEXT payload written on Windows
+    @Benchmark
+    public byte[] encodeUtf16NullTerminated() {
+        return ClipboardCodecs.utf16leNullTerminated(text);
+    }
+
+    // FileMaker's Mac-* custom formats: LF newlines, 4-byte length prefix, UTF-8 without BOM
+    @Benchmark
+    public byte[] encodeFileMakerCustomFormat() {
+        return ClipboardCodecs.utf8LengthPrefixedNoBom(ClipboardCodecs.normalizeToLfNewlines(text));
+    }
+}
@@ -0,0 +1,52 @@
+package dev.fmcuttingboard.fm;
+
+import dev.fmcuttingboard.jmh.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming canonicalization of layout object snippets, the largest objects FileMaker copies.
+ * Output goes to a null writer so only the read/sort/write path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CanonicalizerBenchmark {
+
+    @Param({Payloads.SIZE_1K, Payloads.SIZE_64K, Payloads.SIZE_1M, Payloads.SIZE_10M, Payloads.SIZE_50M})
+    public int payloadSize;
+
+    @Param({"true", "false"})
+    public boolean stripVolatile;
+
+    private String xml;
+    private FmSnippetCanonicalizer canonicalizer;
+
+    @Setup
+    public void setUp() {
+        xml = Payloads.layoutSnippet(payloadSize);
+        canonicalizer = new FmSnippetCanonicalizer(stripVolatile);
+    }
+
+    @Benchmark
+    public void canonicalize() throws ConversionException, IOException {
+        canonicalizer.canonicalize(new StringReader(xml), Writer.nullWriter());
+    }
+}
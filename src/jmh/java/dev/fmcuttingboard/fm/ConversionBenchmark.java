@@ -0,0 +1,68 @@
+package dev.fmcuttingboard.fm;
+
+import dev.fmcuttingboard.jmh.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clipboard text → fmxmlsnippet conversion path: extraction, the case-insensitive scan behind it,
+ * type detection and DOM parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConversionBenchmark {
+
+    @Param({Payloads.SIZE_1K, Payloads.SIZE_64K, Payloads.SIZE_1M, Payloads.SIZE_10M, Payloads.SIZE_50M})
+    public int payloadSize;
+
+    private String clipboardText;
+    private String xml;
+    private DefaultFileMakerClipboardParser clipboardParser;
+    private FmXmlParser xmlParser;
+
+    @Setup
+    public void setUp() {
+        clipboardText = Payloads.clipboardText(payloadSize);
+        xml = Payloads.snippet(payloadSize);
+        clipboardParser = new DefaultFileMakerClipboardParser();
+        xmlParser = new FmXmlParser();
+    }
+
+    @Benchmark
+    public Optional<String> normalizeToXmlText() {
+        return clipboardParser.normalizeToXmlText(clipboardText);
+    }
+
+    // Worst case: the closing tag sits at the end of the payload
+    @Benchmark
+    public int indexOfIgnoreCase() {
+        return DefaultFileMakerClipboardParser.indexOfIgnoreCase(clipboardText, "</FMXMLSNIPPET>");
+    }
+
+    @Benchmark
+    public EnumSet<ElementType> detectTypes() {
+        return FmSnippet.detectTypes(xml);
+    }
+
+    @Benchmark
+    public ParsedSnippet parse() throws ConversionException {
+        return xmlParser.parse(xml);
+    }
+}
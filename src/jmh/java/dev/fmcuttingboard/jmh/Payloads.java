@@ -0,0 +1,49 @@
+package dev.fmcuttingboard.jmh;
+
+import dev.fmcuttingboard.fixtures.CalculationCorpus;
+import dev.fmcuttingboard.fixtures.SnippetCorpus;
+
+/**
+ * Benchmark payloads of a target size, generated by {@link SnippetCorpus} and
+ * {@link CalculationCorpus} with a fixed seed so every run measures the same input.
+ */
+public final class Payloads {
+    /** Payload sizes (in characters) shared by all benchmarks: 1 KB, 64 KB, 1 MB, 10 MB, 50 MB. */
+    public static final String SIZE_1K = "1024";
+    public static final String SIZE_64K = "65536";
+    public static final String SIZE_1M = "1048576";
+    public static final String SIZE_10M = "10485760";
+    public static final String SIZE_50M = "52428800";
+
+    private static final SnippetCorpus CORPUS = new SnippetCorpus(20240501L);
+    private static final CalculationCorpus CALCULATIONS = new CalculationCorpus(20240501L);
+    private static final String NOISE = "Clipboard header: com.filemaker.fmxmlsnippet; charset=utf-16\r\n";
+
+    private Payloads() {}
+
+    /** A script snippet of roughly {@code targetChars} characters. */
+    public static String snippet(int targetChars) {
+        return CORPUS.snippet(SnippetCorpus.Kind.SCRIPT, targetChars);
+    }
+
+    /** A layout object snippet (LayoutObjectList) of roughly {@code targetChars} characters. */
+    public static String layoutSnippet(int targetChars) {
+        return CORPUS.snippet(SnippetCorpus.Kind.LAYOUT_OBJECTS, targetChars);
+    }
+
+    /** {@link #snippet(int)} surrounded by non-XML clipboard noise. */
+    public static String clipboardText(int targetChars) {
+        int noise = Math.max(0, Math.min(targetChars / 20, 64 * 1024));
+        StringBuilder sb = new StringBuilder(targetChars + 2 * noise);
+        while (sb.length() < noise) sb.append(NOISE);
+        sb.append(snippet(targetChars - 2 * noise));
+        int end = sb.length() + noise;
+        while (sb.length() < end) sb.append(NOISE);
+        return sb.toString();
+    }
+
+    /** A FileMaker calculation (.fmcalc text) of roughly {@code targetChars} characters. */
+    public static String calculation(int targetChars) {
+        return CALCULATIONS.calculation(targetChars);
+    }
+}
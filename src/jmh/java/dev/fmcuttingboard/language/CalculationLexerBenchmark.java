@@ -0,0 +1,81 @@
+package dev.fmcuttingboard.language;
+
+import com.intellij.lexer.Lexer;
+import dev.fmcuttingboard.jmh.Payloads;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculation lexer throughput on generated .fmcalc text. The {@code chars} counter is characters
+ * lexed per second (the calculations are almost all ASCII, so chars/s / 1e6 is about MB/s). The
+ * size of the generated lexer class, which holds the packed DFA tables, is printed once per fork.
+ * For a before/after comparison run {@code ./gradlew jmh -Pjmh.includes=CalculationLexer} on both
+ * commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CalculationLexerBenchmark {
+
+    @Param({Payloads.SIZE_64K, Payloads.SIZE_1M, Payloads.SIZE_10M})
+    public int payloadSize;
+
+    private String calculation;
+    private Lexer lexer;
+
+    /** Characters lexed, reported per second next to the ops/s score. */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Chars {
+        public long chars;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            chars = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        calculation = Payloads.calculation(payloadSize);
+        lexer = new FileMakerCalculationLexerAdapter();
+        System.out.println("Lexer class size: " + classFileSize(_FileMakerCalculationLexer.class) + " bytes"
+                + " (keyword table: " + classFileSize(FileMakerCalculationKeywords.class) + " bytes)");
+    }
+
+    @Benchmark
+    public int lex(Chars counter) {
+        lexer.start(calculation);
+        int tokens = 0;
+        while (lexer.getTokenType() != null) {
+            tokens++;
+            lexer.advance();
+        }
+        counter.chars += calculation.length();
+        return tokens;
+    }
+
+    private static long classFileSize(Class<?> type) throws IOException {
+        try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            return in == null ? -1 : in.readAllBytes().length;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.fmcuttingboard.language;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading the VS Code snippet catalog into {@link FunctionMetadata}: the full parse, the name scan
+ * and the bare tokenizer pass. {@code copies} concatenates the bundled file (about 330 entries) that
+ * many times under renamed keys, to show the cost staying linear in the input. For a before/after
+ * comparison run {@code ./gradlew jmh -Pjmh.includes=FunctionCatalog} on both commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class FunctionCatalogBenchmark {
+
+    @Param({"1", "16"})
+    public int copies;
+
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        String bundled = Files.readString(Path.of("resources", "filemaker_functions.json"), StandardCharsets.UTF_8);
+        if (copies == 1) {
+            json = bundled;
+            return;
+        }
+        String members = bundled.substring(bundled.indexOf('{') + 1, bundled.lastIndexOf('}')).trim();
+        StringBuilder sb = new StringBuilder("{\n");
+        for (int i = 0; i < copies; i++) {
+            if (i > 0) sb.append(",\n");
+            // Top-level keys are the only names directly followed by an object
+            sb.append(i == 0 ? members : members.replaceAll("\"([^\" ]+)( [^\"]*)?\"(\\s*:\\s*\\{)", "\"$1" + i + "$2\"$3"));
+        }
+        json = sb.append("\n}\n").toString();
+    }
+
+    @Benchmark
+    public List<FunctionMetadata> parseVsCodeSnippets() {
+        return FunctionMetadataLoader.parseVsCodeSnippets(json);
+    }
+
+    @Benchmark
+    public Set<String> extractSnippetFunctionNames() {
+        return FunctionMetadataLoader.extractSnippetFunctionNames(json);
+    }
+
+    @Benchmark
+    public JsonReader.Token tokenize() {
+        JsonReader reader = new JsonReader(json);
+        reader.skipValue();
+        return reader.peek();
+    }
+}
@@ -0,0 +1,78 @@
+package dev.fmcuttingboard.language.completion;
+
+import dev.fmcuttingboard.language.FileMakerFunctionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completion candidate lookup as the catalog grows: the function catalog padded with generated
+ * camel-case names up to {@code entries}. {@code index} is what the completion contributor does per
+ * invocation; {@code scan} checks every name with the same matcher, the cost of offering the whole
+ * catalog and leaving the filtering to the platform. The index should stay flat across sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class CompletionIndexBenchmark {
+
+    @Param({"205", "500", "1000", "5000"})
+    public int entries;
+
+    @Param({"Ge", "JSet", "gloa", "Substitute"})
+    public String pattern;
+
+    private List<String> names;
+    private CompletionIndex index;
+
+    @Setup
+    public void setUp() {
+        String[] words = {"Get", "Set", "Layout", "Object", "Attribute", "Value", "JSON", "Element", "Text", "As",
+                "Window", "Width", "Record", "Count", "Field", "Name", "List", "Sort", "Filter", "Encode", "URL"};
+        Random random = new Random(45);
+        names = new ArrayList<>(FileMakerFunctionRegistry.getFunctionNames());
+        while (names.size() < entries) {
+            StringBuilder sb = new StringBuilder();
+            int humps = 1 + random.nextInt(4);
+            for (int h = 0; h < humps; h++) sb.append(words[random.nextInt(words.length)]);
+            names.add(sb.append(names.size()).toString());
+        }
+        index = new CompletionIndex(names);
+    }
+
+    @Benchmark
+    public int[] index() {
+        return index.match(pattern);
+    }
+
+    @Benchmark
+    public int scan() {
+        String folded = pattern.toLowerCase(Locale.ROOT);
+        int matches = 0;
+        for (String name : names) {
+            if (name.toLowerCase(Locale.ROOT).startsWith(folded)
+                    || CompletionIndex.initials(name).startsWith(folded)
+                    || CompletionIndex.matchesHumps(name, pattern)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,130 @@
+package dev.fmcuttingboard.language.parser;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiParser;
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.tree.IElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationLexerAdapter;
+import dev.fmcuttingboard.language.FileMakerCalculationTokenType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing nested Case() and JSONSetElement() chains, the shape of machine-generated calculations,
+ * with the recursive parser and the explicit-stack one. The builder is a proxy over pre-lexed tokens
+ * that ignores markers, so the score is the parsers' own work. The recursive parser overflows the
+ * default thread stack at a few thousand levels; {@code recursive} then returns -1 and its score at
+ * depth 10,000 is the time to overflow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class CalculationParserBenchmark {
+
+    private static final IElementType ROOT = new FileMakerCalculationElementType("ROOT");
+
+    @Param({"10", "100", "1000", "10000"})
+    public int depth;
+
+    @Param({"Case", "JSONSetElement"})
+    public String chain;
+
+    private final PsiParser recursive = new FileMakerCalculationPsiParser();
+    private final PsiParser iterative = new FileMakerCalculationIterativeParser();
+    private IElementType[] types;
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        String calc = chain.equals("Case")
+                ? "Case ( a ; ".repeat(depth) + "0" + " ; 1 )".repeat(depth)
+                : "JSONSetElement ( ".repeat(depth) + "\"{}\"" + " ; \"k\" ; 1 ; JSONNumber )".repeat(depth);
+        List<IElementType> typeList = new ArrayList<>();
+        List<String> textList = new ArrayList<>();
+        Lexer lexer = new FileMakerCalculationLexerAdapter();
+        lexer.start(calc);
+        for (IElementType t = lexer.getTokenType(); t != null; lexer.advance(), t = lexer.getTokenType()) {
+            if (t == FileMakerCalculationTokenType.WHITE_SPACE) continue;
+            typeList.add(t);
+            textList.add(calc.substring(lexer.getTokenStart(), lexer.getTokenEnd()));
+        }
+        types = typeList.toArray(new IElementType[0]);
+        texts = textList.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public int recursive() {
+        try {
+            return parse(recursive);
+        } catch (StackOverflowError e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int iterative() {
+        return parse(iterative);
+    }
+
+    private int parse(PsiParser parser) {
+        Tokens tokens = new Tokens(types, texts);
+        parser.parse(ROOT, tokens.builder());
+        return tokens.marks;
+    }
+
+    /** Pre-lexed tokens behind a PsiBuilder proxy; markers are counted and otherwise ignored. */
+    private static final class Tokens {
+        private static final PsiBuilder.Marker MARKER = (PsiBuilder.Marker) Proxy.newProxyInstance(
+                PsiBuilder.Marker.class.getClassLoader(), new Class<?>[]{PsiBuilder.Marker.class}, (p, m, a) -> null);
+        private static final ASTNode TREE = (ASTNode) Proxy.newProxyInstance(
+                ASTNode.class.getClassLoader(), new Class<?>[]{ASTNode.class}, (p, m, a) -> null);
+
+        private final IElementType[] types;
+        private final String[] texts;
+        private int position;
+        int marks;
+
+        Tokens(IElementType[] types, String[] texts) {
+            this.types = types;
+            this.texts = texts;
+        }
+
+        PsiBuilder builder() {
+            return (PsiBuilder) Proxy.newProxyInstance(PsiBuilder.class.getClassLoader(), new Class<?>[]{PsiBuilder.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "mark" -> {
+                            marks++;
+                            yield MARKER;
+                        }
+                        case "getTokenType" -> position < types.length ? types[position] : null;
+                        case "getTokenText" -> position < texts.length ? texts[position] : null;
+                        case "eof" -> position >= types.length;
+                        case "advanceLexer" -> {
+                            if (position < types.length) position++;
+                            yield null;
+                        }
+                        case "getTreeBuilt" -> TREE;
+                        default -> null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmSnippetCanonicalizer;
+import dev.fmcuttingboard.fm.XmlFileRewriter;
+import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
+import dev.fmcuttingboard.util.Notifier;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites the selected fmxmlsnippet XML files into canonical form (see
+ * {@link FmSnippetCanonicalizer}) so existing captures produce stable VCS diffs.
+ *
+ * Runs as a background task; files are rewritten with {@link XmlFileRewriter}, so a malformed
+ * file is left untouched.
+ */
+public class CanonicalizeXmlFilesAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(CanonicalizeXmlFilesAction.class);
+    private static final String TITLE = "Canonicalize XML Files";
+
+    private final UserNotifier notifier;
+
+    public CanonicalizeXmlFilesAction() {
+        this(Notifier::notify);
+    }
+
+    // Visible for testing / DI
+    public CanonicalizeXmlFilesAction(UserNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null
+                && PushSelectedXmlFilesIntoFileMakerAction.countXmlFiles(files) > 0);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        LOG.info("Invoke: CanonicalizeXmlFilesAction");
+
+        VirtualFile[] selected = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        List<VirtualFile> files = new ArrayList<>();
+        if (selected != null) {
+            for (VirtualFile vf : selected) {
+                if (PushClipboardIntoFileMakerAction.isXmlFile(vf) && vf.isInLocalFileSystem()) {
+                    files.add(vf);
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            notifier.notify(project, NotificationType.WARNING, TITLE, "Please select one or more XML files to canonicalize.");
+            return;
+        }
+
+        boolean stripVolatile = false;
+        try {
+            if (project != null) {
+                stripVolatile = FmCuttingBoardSettingsState.getInstance(project).isStripVolatileAttributes();
+            }
+        } catch (Throwable ignore) {
+            // use defaults
+        }
+
+        // Files are rewritten on disk, so flush unsaved editor changes first.
+        FileDocumentManager.getInstance().saveAllDocuments();
+
+        FmSnippetCanonicalizer canonicalizer = new FmSnippetCanonicalizer(stripVolatile);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                int changed = 0;
+                List<String> rejected = new ArrayList<>();
+                long startNs = System.nanoTime();
+                for (int i = 0; i < files.size(); i++) {
+                    indicator.checkCanceled();
+                    VirtualFile vf = files.get(i);
+                    indicator.setFraction((double) i / files.size());
+                    indicator.setText("Canonicalizing " + vf.getName());
+                    try {
+                        if (canonicalizeFile(vf.toNioPath(), canonicalizer)) changed++;
+                    } catch (ConversionException ce) {
+                        LOG.info("Canonicalization rejected for " + vf.getPath() + ": " + ce.getMessage());
+                        rejected.add(vf.getName());
+                    } catch (IOException ex) {
+                        LOG.warn("Failed to canonicalize " + vf.getPath(), ex);
+                        Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                                "Failed to canonicalize " + vf.getName() + ": " + safeMessage(ex), ex);
+                        return;
+                    }
+                }
+                long elapsedMs = (System.nanoTime() - startNs) / 1_000_000L;
+                LOG.info("Canonicalized " + files.size() + " files, changed=" + changed + " (took=" + elapsedMs + "ms)");
+                refresh(files);
+
+                if (rejected.isEmpty()) {
+                    notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                            "Success: " + changed + " of " + files.size() + " files changed.");
+                } else {
+                    notifier.notify(project, NotificationType.WARNING, TITLE,
+                            changed + " of " + files.size() + " files changed; skipped (not a valid fmxmlsnippet): "
+                                    + String.join(", ", rejected));
+                }
+            }
+        });
+    }
+
+    /**
+     * Canonicalizes {@code file} in place. Returns false (and leaves the file untouched) when it is
+     * already canonical. Package-private for tests.
+     *
+     * @throws ConversionException when the file is not a well-formed fmxmlsnippet
+     */
+    static boolean canonicalizeFile(Path file, FmSnippetCanonicalizer canonicalizer) throws IOException, ConversionException {
+        return XmlFileRewriter.rewrite(file, canonicalizer::canonicalize);
+    }
+
+    private static void refresh(List<VirtualFile> files) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            try {
+                VfsUtil.markDirtyAndRefresh(true, false, false, files.toArray(VirtualFile[]::new));
+            } catch (Throwable t) {
+                LOG.warn("Post-canonicalize IDE refresh failed", t);
+            }
+        });
+    }
+
+    private static String safeMessage(Throwable t) {
+        String msg = t.getMessage();
+        return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
+    }
+}
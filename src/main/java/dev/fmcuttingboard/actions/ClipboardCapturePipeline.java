@@ -0,0 +1,184 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.openapi.diagnostic.Logger;
+import dev.fmcuttingboard.clipboard.ClipboardAccessException;
+import dev.fmcuttingboard.clipboard.ClipboardService;
+import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmSnippet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Single-pass capture pipeline for clipboard-reading actions.
+ *
+ * The clipboard is read once and classified once into a {@link Capture}; the result is then
+ * handed to sinks (XML file, clipboard, .fmcalc file) without re-reading or re-converting.
+ * For fmxmlsnippet captures the file write runs on the provided executor while the clipboard
+ * write happens on the calling thread, so the two proceed concurrently.
+ */
+public class ClipboardCapturePipeline {
+    private static final Logger LOG = Logger.getInstance(ClipboardCapturePipeline.class);
+
+    /** Classification of a single clipboard read. */
+    public enum Kind {
+        /** Clipboard was empty or contained only whitespace. */
+        EMPTY,
+        /** Clipboard contained an fmxmlsnippet. */
+        FM_XML,
+        /** Clipboard contained text that is not an fmxmlsnippet (treated as a calculation). */
+        CALCULATION
+    }
+
+    /** Receives captured content and persists it, returning the written file. */
+    @FunctionalInterface
+    public interface FileSink {
+        Path write(String content) throws IOException;
+    }
+
+    /** Immutable result of reading and classifying the clipboard once. */
+    public static final class Capture {
+        private final Kind kind;
+        private final String text;
+        private final FmSnippet snippet;
+
+        private Capture(Kind kind, String text, FmSnippet snippet) {
+            this.kind = kind;
+            this.text = text;
+            this.snippet = snippet;
+        }
+
+        public Kind getKind() { return kind; }
+
+        /** Raw clipboard text as read (never null). */
+        public String getText() { return text; }
+
+        /** Converted snippet; only present for {@link Kind#FM_XML}. */
+        public FmSnippet getSnippet() { return snippet; }
+
+        /** Normalized fmxmlsnippet XML; only present for {@link Kind#FM_XML}. */
+        public String getXml() { return snippet == null ? null : snippet.getXml(); }
+    }
+
+    /** Outcome of fanning out an fmxmlsnippet capture to the file and clipboard sinks. */
+    public static final class XmlFanOutResult {
+        private final Path file;
+        private final Throwable fileError;
+        private final boolean clipboardWritten;
+        private final ClipboardAccessException clipboardError;
+
+        XmlFanOutResult(Path file, Throwable fileError, boolean clipboardWritten, ClipboardAccessException clipboardError) {
+            this.file = file;
+            this.fileError = fileError;
+            this.clipboardWritten = clipboardWritten;
+            this.clipboardError = clipboardError;
+        }
+
+        /** Written file, or null when the file sink failed. */
+        public Path getFile() { return file; }
+
+        public Throwable getFileError() { return fileError; }
+
+        /** True when the XML was placed on the clipboard. */
+        public boolean isClipboardWritten() { return clipboardWritten; }
+
+        /** True when the clipboard write was skipped by the gate (e.g. the user canceled a preview). */
+        public boolean isClipboardSkipped() { return !clipboardWritten && clipboardError == null; }
+
+        public ClipboardAccessException getClipboardError() { return clipboardError; }
+    }
+
+    private final ClipboardService clipboardService;
+    private final ClipboardToXmlConverter converter;
+    private final Executor fileWriteExecutor;
+
+    public ClipboardCapturePipeline(ClipboardService clipboardService,
+                                    ClipboardToXmlConverter converter,
+                                    Executor fileWriteExecutor) {
+        this.clipboardService = Objects.requireNonNull(clipboardService, "clipboardService");
+        this.converter = Objects.requireNonNull(converter, "converter");
+        this.fileWriteExecutor = Objects.requireNonNull(fileWriteExecutor, "fileWriteExecutor");
+    }
+
+    /**
+     * Reads the clipboard once and classifies the content.
+     *
+     * @throws ClipboardAccessException when the clipboard cannot be read
+     */
+    public Capture capture() throws ClipboardAccessException {
+        String text = clipboardService.readText().orElse("");
+        if (text.isBlank()) {
+            return new Capture(Kind.EMPTY, text, null);
+        }
+        try {
+            return new Capture(Kind.FM_XML, text, converter.convert(text));
+        } catch (ConversionException notFmXml) {
+            return new Capture(Kind.CALCULATION, text, null);
+        }
+    }
+
+    /**
+     * Writes the captured XML to the file sink on the background executor and, when the gate
+     * allows it, to the clipboard on the calling thread. Waits for the file write before returning.
+     * The gate is evaluated on the calling thread while the file write is already in flight, so a
+     * modal preview does not delay persisting the capture.
+     */
+    public XmlFanOutResult fanOutXml(Capture capture, FileSink fileSink, BooleanSupplier clipboardGate) {
+        if (capture.getKind() != Kind.FM_XML) {
+            throw new IllegalArgumentException("Capture is not an fmxmlsnippet: " + capture.getKind());
+        }
+        final String xml = capture.getXml();
+
+        CompletableFuture<Path> fileWrite = CompletableFuture.supplyAsync(() -> {
+            try {
+                return fileSink.write(xml);
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        }, fileWriteExecutor);
+
+        boolean clipboardWritten = false;
+        ClipboardAccessException clipboardError = null;
+        boolean proceed = true;
+        try {
+            proceed = clipboardGate == null || clipboardGate.getAsBoolean();
+        } catch (Throwable t) {
+            LOG.warn("Clipboard gate failed; proceeding with clipboard write", t);
+        }
+        if (proceed) {
+            try {
+                clipboardService.writeText(xml);
+                clipboardWritten = true;
+            } catch (ClipboardAccessException ex) {
+                LOG.warn("Clipboard write failed", ex);
+                clipboardError = ex;
+            }
+        }
+
+        Path file = null;
+        Throwable fileError = null;
+        try {
+            file = fileWrite.join();
+        } catch (CompletionException ex) {
+            fileError = ex.getCause() != null ? ex.getCause() : ex;
+            LOG.warn("XML file write failed", fileError);
+        }
+        return new XmlFanOutResult(file, fileError, clipboardWritten, clipboardError);
+    }
+
+    /**
+     * Writes the captured text to the calculation file sink on the calling thread.
+     */
+    public Path writeCalculation(Capture capture, FileSink fileSink) throws IOException {
+        if (capture.getKind() != Kind.CALCULATION) {
+            throw new IllegalArgumentException("Capture is not a calculation: " + capture.getKind());
+        }
+        return fileSink.write(capture.getText());
+    }
+}
@@ -0,0 +1,175 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.diff.DiffContentFactory;
+import com.intellij.diff.DiffManager;
+import com.intellij.diff.requests.SimpleDiffRequest;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmSnippetCanonicalizer;
+import dev.fmcuttingboard.fm.FmSnippetDiff;
+import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
+import dev.fmcuttingboard.util.Notifier;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares two selected fmxmlsnippet files structurally (see {@link FmSnippetDiff}) and opens the
+ * IDE diff viewer on their canonical forms, so the text diff lines up with the reported changes.
+ *
+ * The structural diff streams both files; only the diff viewer content is held in memory.
+ */
+public class CompareXmlSnippetsAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(CompareXmlSnippetsAction.class);
+    private static final String TITLE = "Compare fmxmlsnippet Files";
+    // Changes listed in the notification; the full list goes to the IDE log
+    private static final int MAX_LISTED_CHANGES = 15;
+
+    private final UserNotifier notifier;
+
+    public CompareXmlSnippetsAction() {
+        this(Notifier::notify);
+    }
+
+    // Visible for testing / DI
+    public CompareXmlSnippetsAction(UserNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && files != null && files.length == 2
+                && PushSelectedXmlFilesIntoFileMakerAction.countXmlFiles(files) == 2);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        LOG.info("Invoke: CompareXmlSnippetsAction");
+
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (files == null || files.length != 2 || PushSelectedXmlFilesIntoFileMakerAction.countXmlFiles(files) != 2) {
+            notifier.notify(project, NotificationType.WARNING, TITLE, "Please select exactly two XML files to compare.");
+            return;
+        }
+        VirtualFile before = files[0];
+        VirtualFile after = files[1];
+
+        boolean ignoreVolatile = false;
+        try {
+            if (project != null) {
+                ignoreVolatile = FmCuttingBoardSettingsState.getInstance(project).isStripVolatileAttributes();
+            }
+        } catch (Throwable ignore) {
+            // use defaults
+        }
+        final boolean stripVolatile = ignoreVolatile;
+
+        // Both files are streamed from disk, so flush unsaved editor changes first.
+        FileDocumentManager.getInstance().saveAllDocuments();
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                try {
+                    indicator.setText("Comparing " + before.getName() + " and " + after.getName());
+                    long startNs = System.nanoTime();
+                    FmSnippetDiff.Result result;
+                    try (Reader a = open(before); Reader b = open(after)) {
+                        result = new FmSnippetDiff(stripVolatile, FmSnippetDiff.DEFAULT_OUTLINE_DEPTH).diff(a, b);
+                    }
+                    long elapsedMs = (System.nanoTime() - startNs) / 1_000_000L;
+                    LOG.info("Structural diff " + before.getName() + " vs " + after.getName() + ": "
+                            + result.summary() + " (took=" + elapsedMs + "ms)");
+                    if (!result.isIdentical() && LOG.isDebugEnabled()) {
+                        LOG.debug("Structural changes:\n" + describe(result, Integer.MAX_VALUE));
+                    }
+                    notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                            result.summary() + (result.isIdentical() ? "." : ":\n" + describe(result, MAX_LISTED_CHANGES)));
+                    if (result.isIdentical()) return;
+
+                    indicator.checkCanceled();
+                    indicator.setText("Preparing diff viewer");
+                    FmSnippetCanonicalizer canonicalizer = new FmSnippetCanonicalizer(stripVolatile);
+                    String left = canonical(before, canonicalizer);
+                    String right = canonical(after, canonicalizer);
+                    ApplicationManager.getApplication().invokeLater(() -> showDiff(project, before, after, left, right, result));
+                } catch (ConversionException ce) {
+                    LOG.info("Structural diff rejected: " + ce.getMessage());
+                    notifier.notify(project, NotificationType.WARNING, TITLE,
+                            "Both files must contain a valid fmxmlsnippet: " + safeMessage(ce));
+                } catch (IOException ex) {
+                    LOG.warn("Failed to compare " + before.getPath() + " and " + after.getPath(), ex);
+                    Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                            "Failed to compare files: " + safeMessage(ex), ex);
+                }
+            }
+        });
+    }
+
+    private static void showDiff(Project project, VirtualFile before, VirtualFile after,
+                                 String left, String right, FmSnippetDiff.Result result) {
+        try {
+            DiffContentFactory factory = DiffContentFactory.getInstance();
+            SimpleDiffRequest request = new SimpleDiffRequest(
+                    "Structural diff: " + result.summary(),
+                    factory.create(project, left, before.getFileType()),
+                    factory.create(project, right, after.getFileType()),
+                    before.getName() + " (canonical)",
+                    after.getName() + " (canonical)");
+            DiffManager.getInstance().showDiff(project, request);
+        } catch (Throwable t) {
+            LOG.warn("Failed to open diff viewer", t);
+        }
+    }
+
+    // Package-private for tests: one change per line, truncated with a count of the rest
+    static String describe(FmSnippetDiff.Result result, int limit) {
+        List<String> lines = new ArrayList<>();
+        List<FmSnippetDiff.Change> changes = result.changes();
+        for (int i = 0; i < changes.size() && i < limit; i++) {
+            lines.add(changes.get(i).toString());
+        }
+        if (changes.size() > limit) {
+            lines.add("… and " + (changes.size() - limit) + " more");
+        }
+        return String.join("\n", lines);
+    }
+
+    private static Reader open(VirtualFile vf) throws IOException {
+        return new BufferedReader(new InputStreamReader(vf.getInputStream(), vf.getCharset()));
+    }
+
+    private static String canonical(VirtualFile vf, FmSnippetCanonicalizer canonicalizer) throws IOException, ConversionException {
+        StringWriter out = new StringWriter((int) Math.min(Integer.MAX_VALUE, vf.getLength()));
+        try (Reader in = open(vf)) {
+            canonicalizer.canonicalize(in, out);
+        }
+        return out.toString();
+    }
+
+    private static String safeMessage(Throwable t) {
+        String msg = t.getMessage();
+        return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
+    }
+}
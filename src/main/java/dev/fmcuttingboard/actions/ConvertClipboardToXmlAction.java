@@ -4,6 +4,9 @@ import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.notification.NotificationType;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import dev.fmcuttingboard.clipboard.ClipboardAccessException;
 import dev.fmcuttingboard.clipboard.ClipboardService;
@@ -12,7 +15,8 @@ import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
 import dev.fmcuttingboard.fm.ConversionException;
 import dev.fmcuttingboard.util.Notifier;
 import dev.fmcuttingboard.util.UserNotifier;
-import dev.fmcuttingboard.util.Diagnostics;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.metrics.EdtWatchdog;
 import dev.fmcuttingboard.util.PreviewDialogs;
 import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
 import org.jetbrains.annotations.NotNull;
@@ -21,10 +25,12 @@ import org.jetbrains.annotations.NotNull;
  * Phase 3.2 — Action Implementation
  * Integrates clipboard reader, detects/parses FileMaker content, converts to XML,
  * and replaces the clipboard content with the XML string. Provides user
- * notifications and logs outcomes.
+ * notifications and logs outcomes. Time spent on the EDT is measured per stage by
+ * {@link EdtWatchdog}; large payloads are converted in a background task.
  */
 public class ConvertClipboardToXmlAction extends AnAction {
     private static final Logger LOG = Logger.getInstance(ConvertClipboardToXmlAction.class);
+    private static final String TITLE = "Convert FM Clipboard To XML Clipboard";
     private final ClipboardService clipboardService;
     private final ClipboardToXmlConverter converter;
     private final UserNotifier notifier;
@@ -50,41 +56,74 @@ public class ConvertClipboardToXmlAction extends AnAction {
         Project project = e.getProject();
         LOG.info("Invoke: ConvertClipboardToXmlAction");
 
-        // 1) Read clipboard text
-        final String clipboardText;
-        try {
-            clipboardText = clipboardService.readText().orElse("");
-        } catch (ClipboardAccessException ex) {
-            LOG.warn("Clipboard read failed", ex);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "Convert FM Clipboard To XML Clipboard",
-                    "Could not read clipboard: " + safeMessage(ex), ex);
-            return;
-        }
+        try (EdtWatchdog.Invocation inv = EdtWatchdog.getInstance().begin("ConvertClipboardToXmlAction")) {
+            // 1) Read clipboard text
+            final String clipboardText;
+            try (EdtWatchdog.Stage s = inv.stage("readClipboard")) {
+                clipboardText = clipboardService.readText().orElse("");
+            } catch (ClipboardAccessException ex) {
+                LOG.warn("Clipboard read failed", ex);
+                Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                        "Could not read clipboard: " + safeMessage(ex), ex);
+                return;
+            }
 
-        if (clipboardText.isBlank()) {
-            LOG.info("Clipboard is empty or does not contain text.");
-            notifier.notify(project, NotificationType.INFORMATION, "Convert FM Clipboard To XML Clipboard",
-                    "Clipboard is empty or contains no text to convert.");
-            return;
+            if (clipboardText.isBlank()) {
+                LOG.info("Clipboard is empty or does not contain text.");
+                notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                        "Clipboard is empty or contains no text to convert.");
+                return;
+            }
+
+            // 2) Convert using parser/converter; large payloads are converted off the EDT
+            if (inv.shouldOffload(clipboardText.length())) {
+                ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+                    private String xml;
+
+                    @Override
+                    public void run(@NotNull ProgressIndicator indicator) {
+                        indicator.setIndeterminate(true);
+                        xml = convert(project, clipboardText);
+                    }
+
+                    @Override
+                    public void onSuccess() {
+                        if (xml == null) return;
+                        try (EdtWatchdog.Invocation rest = EdtWatchdog.getInstance().begin("ConvertClipboardToXmlAction")) {
+                            writeToClipboard(project, xml, rest);
+                        }
+                    }
+                });
+                return;
+            }
+            final String xml;
+            try (EdtWatchdog.Stage s = inv.stage("convert")) {
+                xml = convert(project, clipboardText);
+            }
+            if (xml == null) return;
+            writeToClipboard(project, xml, inv);
         }
+    }
 
-        // 2) Convert using parser/converter
-        final String xml;
+    // Returns null after notifying the user when the text cannot be converted
+    private String convert(Project project, String clipboardText) {
         try {
-            Diagnostics.vInfo(LOG, "Converting clipboard text to XML; textLen=" + clipboardText.length());
-            xml = converter.convertToXml(clipboardText);
+            FmDiagnostics.CONVERSION.debug(() -> "Converting clipboard text to XML; textLen=" + clipboardText.length());
+            return converter.convertToXml(clipboardText);
         } catch (ConversionException ce) {
             LOG.info("Clipboard does not contain recognizable FileMaker content.");
-            notifier.notify(project, NotificationType.WARNING, "Convert FM Clipboard To XML Clipboard",
+            notifier.notify(project, NotificationType.WARNING, TITLE,
                     "Clipboard does not contain recognizable FileMaker content or fmxmlsnippet.");
-            return;
+            return null;
         } catch (Throwable t) {
             LOG.warn("Unexpected error during conversion", t);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "Convert FM Clipboard To XML Clipboard",
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
                     "Unexpected error during conversion: " + safeMessage(t), t);
-            return;
+            return null;
         }
+    }
 
+    private void writeToClipboard(Project project, String xml, EdtWatchdog.Invocation inv) {
         // 3) Optional preview before writing
         if (project != null) {
             try {
@@ -96,7 +135,7 @@ public class ConvertClipboardToXmlAction extends AnAction {
                             800);
                     if (!proceed) {
                         LOG.info("User canceled clipboard write after preview.");
-                        notifier.notify(project, NotificationType.INFORMATION, "Convert FM Clipboard To XML Clipboard",
+                        notifier.notify(project, NotificationType.INFORMATION, TITLE,
                                 "Canceled: No changes were made to the clipboard.");
                         return;
                     }
@@ -107,18 +146,18 @@ public class ConvertClipboardToXmlAction extends AnAction {
         }
 
         // 4) Write XML back to clipboard
-        try {
+        try (EdtWatchdog.Stage s = inv.stage("writeClipboard")) {
             clipboardService.writeText(xml);
         } catch (ClipboardAccessException ex) {
             LOG.warn("Clipboard write failed", ex);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "Convert FM Clipboard To XML Clipboard",
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
                     "Converted XML generated, but failed to write to clipboard: " + safeMessage(ex), ex);
             return;
         }
 
         LOG.info("Conversion successful; XML placed on clipboard.");
-        Diagnostics.vInfo(LOG, "XML preview (first 120 chars): " + xml.substring(0, Math.min(120, xml.length())));
-        notifier.notify(project, NotificationType.INFORMATION, "Convert FM Clipboard To XML Clipboard",
+        FmDiagnostics.CONVERSION.debug(() -> "XML preview (first 120 chars): " + xml.substring(0, Math.min(120, xml.length())));
+        notifier.notify(project, NotificationType.INFORMATION, TITLE,
                 "Success: Converted FileMaker clipboard content to XML and placed it on the clipboard.");
     }
 
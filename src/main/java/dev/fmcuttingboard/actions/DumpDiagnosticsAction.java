@@ -0,0 +1,76 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.testFramework.LightVirtualFile;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
+import dev.fmcuttingboard.util.Notifier;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Opens the recent {@link FmDiagnostics} events (all channels, oldest first) in a read-only
+ * editor tab, with a header listing the current channel levels.
+ */
+public class DumpDiagnosticsAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(DumpDiagnosticsAction.class);
+    private static final String TITLE = "Diagnostics";
+
+    private final UserNotifier notifier;
+
+    public DumpDiagnosticsAction() {
+        this(Notifier::notify);
+    }
+
+    // Visible for testing / DI
+    public DumpDiagnosticsAction(UserNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        LOG.info("Invoke: DumpDiagnosticsAction");
+        if (FmDiagnostics.recent().isEmpty()) {
+            notifier.notify(project, NotificationType.INFORMATION, TITLE, "No diagnostics events recorded yet.");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("# Channels: ").append(FmDiagnostics.channels()).append('\n');
+        try {
+            FmDiagnostics.dump(sb);
+        } catch (IOException impossible) {
+            // StringBuilder does not throw
+        }
+        if (project == null) {
+            LOG.info(sb.toString());
+            return;
+        }
+        LightVirtualFile file = new LightVirtualFile("fmcuttingboard-diagnostics.log", sb.toString());
+        file.setWritable(false);
+        FileEditorManager.getInstance(project).openFile(file, true);
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        boolean enabled = diagnosticsEnabled(e.getProject());
+        e.getPresentation().setEnabledAndVisible(enabled);
+    }
+
+    // Diagnostics actions are only shown when the user has enabled diagnostics in settings
+    static boolean diagnosticsEnabled(Project project) {
+        try {
+            if (project == null) return false;
+            FmCuttingBoardSettingsState st = FmCuttingBoardSettingsState.getInstance(project);
+            return st != null && st.isEnableDiagnostics();
+        } catch (Throwable ignore) {
+            return false;
+        }
+    }
+}
@@ -14,12 +14,15 @@ import dev.fmcuttingboard.clipboard.ClipboardAccessException;
 import dev.fmcuttingboard.clipboard.ClipboardService;
 import dev.fmcuttingboard.clipboard.DefaultClipboardService;
 import dev.fmcuttingboard.fs.ProjectFiles;
+import dev.fmcuttingboard.jfr.PipelineEvent;
+import dev.fmcuttingboard.jfr.SnippetFileWriteEvent;
+import dev.fmcuttingboard.jfr.VfsPublishEvent;
+import dev.fmcuttingboard.metrics.PipelineMetrics;
 import dev.fmcuttingboard.util.Notifier;
 import dev.fmcuttingboard.util.UserNotifier;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -79,63 +82,92 @@ public class GetFileMakerCalculationFromClipboardAction extends AnAction {
 
         try {
             Path projectRoot = ProjectFiles.getProjectRoot(project);
+            Path file = writeCalculationFile(project, text);
+            notifier.notify(project, NotificationType.INFORMATION,
+                    "Get FileMaker Calculation From Clipboard",
+                    "Created: " + displayPath(projectRoot, file));
+        } catch (IllegalArgumentException | IOException ex) {
+            LOG.warn("Failed to create/write .fmcalc file in projectRoot=" + safeProjectRoot(project), ex);
+            notifier.notify(project, NotificationType.ERROR,
+                    "Get FileMaker Calculation From Clipboard",
+                    "Failed to create/write .fmcalc file: " + safeMessage(ex));
+        }
+    }
 
-            // Resolve base directory and filename pattern potentially from settings
-            String baseDir = null;
-            String pattern = null;
-            try {
-                if (project != null) {
-                    dev.fmcuttingboard.settings.FmCuttingBoardSettingsState settings =
-                            dev.fmcuttingboard.settings.FmCuttingBoardSettingsState.getInstance(project);
-                    if (settings != null) {
-                        baseDir = settings.getBaseDirName();
-                        pattern = settings.getFileNamePattern();
-                    }
+    /**
+     * Writes calculation text into a new .fmcalc file under the configured base directory, then
+     * refreshes the VFS and opens the file. Used as the calculation sink of
+     * {@link ClipboardCapturePipeline}.
+     */
+    public Path writeCalculationFile(Project project, String text) throws IOException {
+        Path projectRoot = ProjectFiles.getProjectRoot(project);
+
+        // Resolve base directory and filename pattern potentially from settings
+        String baseDir = null;
+        String pattern = null;
+        try {
+            if (project != null) {
+                dev.fmcuttingboard.settings.FmCuttingBoardSettingsState settings =
+                        dev.fmcuttingboard.settings.FmCuttingBoardSettingsState.getInstance(project);
+                if (settings != null) {
+                    baseDir = settings.getBaseDirName();
+                    pattern = settings.getFileNamePattern();
                 }
-            } catch (Throwable ignore) {
-                // default to .fmCuttingBoard
             }
+        } catch (Throwable ignore) {
+            // default to .fmCuttingBoard
+        }
 
-            Path dir = ProjectFiles.ensureCustomBaseDir(projectRoot, baseDir).directory();
-            Path file = createUniqueFmcalcFile(dir, pattern);
+        Path dir = ProjectFiles.ensureCustomBaseDir(projectRoot, baseDir).directory();
+        Path file = createUniqueFmcalcFile(dir, pattern);
 
-            Files.writeString(file, text, StandardCharsets.UTF_8);
+        long startNs = System.nanoTime();
+        SnippetFileWriteEvent writeEvent = new SnippetFileWriteEvent();
+        writeEvent.begin();
+        String writeOutcome = PipelineEvent.FAILED;
+        try {
+            ProjectFiles.writeUtf8(file, text);
+            writeOutcome = PipelineEvent.OK;
+        } finally {
+            PipelineMetrics.FILE_WRITE.recordSince(startNs, text.length(), !PipelineEvent.FAILED.equals(writeOutcome));
+            writeEvent.finish(file, text.length(), writeOutcome);
+        }
 
-            // Refresh VFS and open the newly created file
-            if (project != null) {
-                ApplicationManager.getApplication().invokeLater(() -> {
-                    try {
-                        VirtualFile vFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(file);
-                        if (vFile != null) {
-                            VirtualFile parent = vFile.getParent();
+        // Refresh VFS and open the newly created file
+        if (project != null) {
+            ApplicationManager.getApplication().invokeLater(() -> {
+                long publishStartNs = System.nanoTime();
+                VfsPublishEvent publishEvent = new VfsPublishEvent();
+                publishEvent.begin();
+                String publishOutcome = PipelineEvent.FAILED;
+                try {
+                    VirtualFile vFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(file);
+                    publishOutcome = vFile != null ? PipelineEvent.OK : PipelineEvent.EMPTY;
+                    if (vFile != null) {
+                        VirtualFile parent = vFile.getParent();
+                        if (parent != null) {
+                            VfsUtil.markDirtyAndRefresh(false, true, true, parent);
+                        }
+                        FileEditorManager.getInstance(project).openFile(vFile, true);
+                    } else {
+                        Path parentPath = file.getParent();
+                        if (parentPath != null) {
+                            VirtualFile parent = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(parentPath);
                             if (parent != null) {
                                 VfsUtil.markDirtyAndRefresh(false, true, true, parent);
                             }
-                            FileEditorManager.getInstance(project).openFile(vFile, true);
-                        } else {
-                            Path parentPath = file.getParent();
-                            if (parentPath != null) {
-                                VirtualFile parent = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(parentPath);
-                                if (parent != null) {
-                                    VfsUtil.markDirtyAndRefresh(false, true, true, parent);
-                                }
-                            }
                         }
-                    } catch (Throwable t) {
-                        LOG.warn("Post-create IDE refresh/open failed for file=" + file, t);
                     }
-                });
-            }
-
-            notifier.notify(project, NotificationType.INFORMATION,
-                    "Get FileMaker Calculation From Clipboard",
-                    "Created: " + displayPath(projectRoot, file));
-        } catch (IllegalArgumentException | IOException ex) {
-            LOG.warn("Failed to create/write .fmcalc file in projectRoot=" + safeProjectRoot(project), ex);
-            notifier.notify(project, NotificationType.ERROR,
-                    "Get FileMaker Calculation From Clipboard",
-                    "Failed to create/write .fmcalc file: " + safeMessage(ex));
+                } catch (Throwable t) {
+                    publishOutcome = PipelineEvent.FAILED;
+                    LOG.warn("Post-create IDE refresh/open failed for file=" + file, t);
+                } finally {
+                    PipelineMetrics.VFS_REFRESH.recordSince(publishStartNs, -1, !PipelineEvent.FAILED.equals(publishOutcome));
+                    publishEvent.finish(file, publishOutcome);
+                }
+            });
         }
+        return file;
     }
 
     @Override
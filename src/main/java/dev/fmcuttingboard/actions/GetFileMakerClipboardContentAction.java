@@ -5,17 +5,20 @@ import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import dev.fmcuttingboard.clipboard.ClipboardAccessException;
 import dev.fmcuttingboard.clipboard.ClipboardService;
 import dev.fmcuttingboard.clipboard.DefaultClipboardService;
 import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
-import dev.fmcuttingboard.fm.ConversionException;
 import dev.fmcuttingboard.util.Notifier;
 import dev.fmcuttingboard.util.PreviewDialogs;
 import dev.fmcuttingboard.util.UserNotifier;
 import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
 /**
  * Smart action that inspects the clipboard content and decides what to do:
  * - If clipboard contains FileMaker objects convertible to fmxmlsnippet, it will:
@@ -24,12 +27,16 @@ import org.jetbrains.annotations.NotNull;
  * - If clipboard text looks like a FileMaker calculation (not convertible to fmxmlsnippet),
  *   it will run the "Get FileMaker Calculation From Clipboard" workflow creating a .fmcalc file.
  * - Otherwise, it will show an error notification.
+ *
+ * The clipboard is read and classified once via {@link ClipboardCapturePipeline}; the file write
+ * and the clipboard write then run concurrently instead of each re-reading the clipboard.
  */
 public class GetFileMakerClipboardContentAction extends AnAction {
     private static final Logger LOG = Logger.getInstance(GetFileMakerClipboardContentAction.class);
 
-    private final ClipboardService clipboardService;
-    private final ClipboardToXmlConverter converter;
+    private final ClipboardCapturePipeline pipeline;
+    private final ReadClipboardIntoNewXmlFileAction xmlFileSink;
+    private final GetFileMakerCalculationFromClipboardAction calcFileSink;
     private final UserNotifier notifier;
 
     public GetFileMakerClipboardContentAction() {
@@ -40,8 +47,18 @@ public class GetFileMakerClipboardContentAction extends AnAction {
     public GetFileMakerClipboardContentAction(ClipboardService clipboardService,
                                               ClipboardToXmlConverter converter,
                                               UserNotifier notifier) {
-        this.clipboardService = clipboardService;
-        this.converter = converter;
+        this(clipboardService, converter, notifier, AppExecutorUtil.getAppExecutorService());
+    }
+
+    // Visible for testing / DI
+    public GetFileMakerClipboardContentAction(ClipboardService clipboardService,
+                                              ClipboardToXmlConverter converter,
+                                              UserNotifier notifier,
+                                              Executor fileWriteExecutor) {
+        this.pipeline = new ClipboardCapturePipeline(clipboardService, converter, fileWriteExecutor);
+        // The delegated actions are only used as write sinks here; they never read the clipboard.
+        this.xmlFileSink = new ReadClipboardIntoNewXmlFileAction(clipboardService, converter, notifier);
+        this.calcFileSink = new GetFileMakerCalculationFromClipboardAction(clipboardService, notifier);
         this.notifier = notifier;
     }
 
@@ -50,86 +67,93 @@ public class GetFileMakerClipboardContentAction extends AnAction {
         Project project = e.getProject();
         LOG.info("Invoke: GetFileMakerClipboardContentAction");
 
-        final String clipboardText;
+        // Read and classify the clipboard exactly once; all sinks below reuse this capture.
+        final ClipboardCapturePipeline.Capture capture;
         try {
-            clipboardText = clipboardService.readText().orElse("");
+            capture = pipeline.capture();
         } catch (ClipboardAccessException ex) {
             Notifier.notifyWithDetails(project, NotificationType.ERROR,
                     "Get FileMaker Clipboard Content",
                     "Could not read clipboard: " + safeMessage(ex), ex);
             return;
+        } catch (Throwable t) {
+            notifier.notify(project, NotificationType.ERROR,
+                    "Get FileMaker Clipboard Content",
+                    "Unrecognized clipboard content: " + safeMessage(t));
+            return;
         }
 
-        if (clipboardText.isBlank()) {
-            notifier.notify(project, NotificationType.INFORMATION,
+        switch (capture.getKind()) {
+            case EMPTY -> notifier.notify(project, NotificationType.INFORMATION,
                     "Get FileMaker Clipboard Content",
                     "Clipboard is empty or has no text content.");
-            return;
+            case FM_XML -> publishXml(project, capture);
+            case CALCULATION -> publishCalculation(project, capture);
         }
+    }
 
-        String xml;
-        try {
-            // Try to treat it as FM object(s) -> fmxmlsnippet
-            xml = converter.convertToXml(clipboardText);
-
-            // 1) Run the existing routine that saves XML to a new file
-            try {
-                new ReadClipboardIntoNewXmlFileAction().perform(e);
-            } catch (Throwable t) {
-                LOG.warn("Delegated file creation action failed (continuing to clipboard write)", t);
-            }
-
-            // 2) Optionally preview and then replace the clipboard with the XML
-            boolean proceed = true;
-            try {
-                if (project != null) {
-                    FmCuttingBoardSettingsState st = FmCuttingBoardSettingsState.getInstance(project);
-                    if (st != null && st.isPreviewBeforeClipboardWrite()) {
-                        proceed = PreviewDialogs.confirmWrite(project,
-                                "Preview: Replace Clipboard With XML",
-                                xml,
-                                800);
-                    }
-                }
-            } catch (Throwable t) {
-                LOG.warn("Preview failed; proceeding with clipboard write", t);
-            }
-            if (!proceed) {
-                notifier.notify(project, NotificationType.INFORMATION,
-                        "Get FileMaker Clipboard Content",
-                        "Canceled: Clipboard was not modified.");
-                return;
-            }
+    // 1) Save XML to a new file (background) while 2) optionally previewing and replacing the clipboard
+    private void publishXml(Project project, ClipboardCapturePipeline.Capture capture) {
+        ClipboardCapturePipeline.XmlFanOutResult result = pipeline.fanOutXml(capture,
+                xml -> xmlFileSink.writeXmlFile(project, xml),
+                () -> confirmClipboardWrite(project, capture.getXml()));
 
-            try {
-                clipboardService.writeText(xml);
-            } catch (ClipboardAccessException ex) {
-                Notifier.notifyWithDetails(project, NotificationType.ERROR,
-                        "Get FileMaker Clipboard Content",
-                        "Saved XML to file, but failed to write XML to clipboard: " + safeMessage(ex), ex);
-                return;
-            }
+        if (result.getFileError() != null) {
+            LOG.warn("XML file creation failed (clipboard write continued)", result.getFileError());
+        }
+        String fileOutcome = result.getFile() != null
+                ? "Saved XML to file"
+                : "Failed to save XML to file (" + safeMessage(result.getFileError()) + ")";
 
-            notifier.notify(project, NotificationType.INFORMATION,
+        if (result.getClipboardError() != null) {
+            Notifier.notifyWithDetails(project, NotificationType.ERROR,
                     "Get FileMaker Clipboard Content",
-                    "Success: Saved XML to file and replaced clipboard with XML.");
+                    fileOutcome + ", but failed to write XML to clipboard: " + safeMessage(result.getClipboardError()),
+                    result.getClipboardError());
             return;
-        } catch (ConversionException notFmXml) {
-            // Not fmxmlsnippet. Treat as text calculation
-            try {
-                new GetFileMakerCalculationFromClipboardAction().perform(e);
-            } catch (Throwable t) {
-                LOG.warn("Delegated calculation action failed", t);
-                notifier.notify(project, NotificationType.ERROR,
-                        "Get FileMaker Clipboard Content",
-                        "Failed to create .fmcalc file: " + safeMessage(t));
-            }
+        }
+        if (result.isClipboardSkipped()) {
+            notifier.notify(project, NotificationType.INFORMATION,
+                    "Get FileMaker Clipboard Content",
+                    "Canceled: Clipboard was not modified.");
             return;
+        }
+        notifier.notify(project,
+                result.getFile() != null ? NotificationType.INFORMATION : NotificationType.WARNING,
+                "Get FileMaker Clipboard Content",
+                (result.getFile() != null ? "Success: " : "") + fileOutcome + " and replaced clipboard with XML.");
+    }
+
+    // Not fmxmlsnippet. Treat as text calculation
+    private void publishCalculation(Project project, ClipboardCapturePipeline.Capture capture) {
+        try {
+            Path file = pipeline.writeCalculation(capture, text -> calcFileSink.writeCalculationFile(project, text));
+            notifier.notify(project, NotificationType.INFORMATION,
+                    "Get FileMaker Clipboard Content",
+                    "Created: " + file.getFileName());
         } catch (Throwable t) {
+            LOG.warn("Calculation file creation failed", t);
             notifier.notify(project, NotificationType.ERROR,
                     "Get FileMaker Clipboard Content",
-                    "Unrecognized clipboard content: " + safeMessage(t));
+                    "Failed to create .fmcalc file: " + safeMessage(t));
+        }
+    }
+
+    private static boolean confirmClipboardWrite(Project project, String xml) {
+        try {
+            if (project != null) {
+                FmCuttingBoardSettingsState st = FmCuttingBoardSettingsState.getInstance(project);
+                if (st != null && st.isPreviewBeforeClipboardWrite()) {
+                    return PreviewDialogs.confirmWrite(project,
+                            "Preview: Replace Clipboard With XML",
+                            xml,
+                            800);
+                }
+            }
+        } catch (Throwable t) {
+            LOG.warn("Preview failed; proceeding with clipboard write", t);
         }
+        return true;
     }
 
     private static String safeMessage(Throwable t) {
@@ -9,6 +9,9 @@ import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -20,7 +23,8 @@ import dev.fmcuttingboard.fm.DefaultXmlToClipboardConverter;
 import dev.fmcuttingboard.fm.XmlToClipboardConverter;
 import dev.fmcuttingboard.util.Notifier;
 import dev.fmcuttingboard.util.UserNotifier;
-import dev.fmcuttingboard.util.Diagnostics;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.metrics.EdtWatchdog;
 import dev.fmcuttingboard.util.PreviewDialogs;
 import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
 import java.nio.charset.StandardCharsets;
@@ -32,9 +36,12 @@ import org.jetbrains.annotations.NotNull;
  * Reads XML from the currently active editor (if available), validates/converts to
  * a FileMaker-compatible clipboard payload, and writes it to the system clipboard.
  * The action is only enabled when a project is open and an XML file is active.
+ * EDT time is measured per stage by {@link EdtWatchdog}; large files are read and
+ * converted in a background task.
  */
 public class PushClipboardIntoFileMakerAction extends AnAction {
     private static final Logger LOG = Logger.getInstance(PushClipboardIntoFileMakerAction.class);
+    private static final String TITLE = "Push Clipboard Into FileMaker";
 
     private final ClipboardService clipboardService;
     private final XmlToClipboardConverter converter;
@@ -100,50 +107,101 @@ public class PushClipboardIntoFileMakerAction extends AnAction {
 
         if (!isXmlFile(vf)) {
             LOG.info("Active editor is not an XML file or no file active.");
-            notifier.notify(project, NotificationType.WARNING, "Push Clipboard Into FileMaker",
+            notifier.notify(project, NotificationType.WARNING, TITLE,
                     "Please focus an XML file to push into FileMaker.");
             return;
         }
 
-        // 1) Read content as XML (prefer in-memory editor document when available)
-        final String xml;
-        if (document != null) {
-            xml = document.getText();
-        } else {
-            try {
-                xml = VfsUtilCore.loadText(vf);
-            } catch (Throwable t) {
-                LOG.warn("Failed to read active XML file: " + safeName(vf), t);
-                Notifier.notifyWithDetails(project, NotificationType.ERROR, "Push Clipboard Into FileMaker",
-                        "Failed to read the active XML file: " + safeMessage(t), t);
+        try (EdtWatchdog.Invocation inv = EdtWatchdog.getInstance().begin("PushClipboardIntoFileMakerAction")) {
+            // Large files are read (when not open in an editor) and converted off the EDT
+            long size = document != null ? document.getTextLength() : vf.getLength();
+            if (inv.shouldOffload(size)) {
+                final String documentText;
+                try (EdtWatchdog.Stage s = inv.stage("readDocument")) {
+                    documentText = document != null ? document.getText() : null;
+                }
+                final VirtualFile file = vf;
+                ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+                    private String payload;
+
+                    @Override
+                    public void run(@NotNull ProgressIndicator indicator) {
+                        indicator.setIndeterminate(true);
+                        String xml = documentText != null ? checkNotBlank(project, documentText) : readXml(project, file);
+                        if (xml == null) return;
+                        indicator.checkCanceled();
+                        payload = convert(project, xml);
+                    }
+
+                    @Override
+                    public void onSuccess() {
+                        if (payload == null) return;
+                        try (EdtWatchdog.Invocation rest = EdtWatchdog.getInstance().begin("PushClipboardIntoFileMakerAction")) {
+                            writeToClipboard(project, payload, rest);
+                        }
+                    }
+                });
                 return;
             }
+
+            // 1) Read content as XML (prefer in-memory editor document when available)
+            final String xml;
+            try (EdtWatchdog.Stage s = inv.stage("readXml")) {
+                xml = document != null ? checkNotBlank(project, document.getText()) : readXml(project, vf);
+            }
+            if (xml == null) return;
+
+            // 2) Convert XML to FileMaker-compatible clipboard payload
+            final String payload;
+            try (EdtWatchdog.Stage s = inv.stage("convert")) {
+                payload = convert(project, xml);
+            }
+            if (payload == null) return;
+            writeToClipboard(project, payload, inv);
         }
+    }
 
+    // Returns null after notifying the user when the file cannot be read or is empty
+    private String readXml(Project project, VirtualFile vf) {
+        try {
+            return checkNotBlank(project, VfsUtilCore.loadText(vf));
+        } catch (Throwable t) {
+            LOG.warn("Failed to read active XML file: " + safeName(vf), t);
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                    "Failed to read the active XML file: " + safeMessage(t), t);
+            return null;
+        }
+    }
+
+    private String checkNotBlank(Project project, String xml) {
         if (xml.isBlank()) {
             LOG.info("Active XML file is empty.");
-            notifier.notify(project, NotificationType.INFORMATION, "Push Clipboard Into FileMaker",
+            notifier.notify(project, NotificationType.INFORMATION, TITLE,
                     "The active XML file is empty.");
-            return;
+            return null;
         }
+        return xml;
+    }
 
-        // 2) Convert XML to FileMaker-compatible clipboard payload
-        final String payload;
+    // Returns null after notifying the user when the XML cannot be converted
+    private String convert(Project project, String xml) {
         try {
-            Diagnostics.vInfo(LOG, "Converting XML to FileMaker clipboard payload; xmlLen=" + xml.length());
-            payload = converter.convertToClipboardPayload(xml);
+            FmDiagnostics.CONVERSION.debug(() -> "Converting XML to FileMaker clipboard payload; xmlLen=" + xml.length());
+            return converter.convertToClipboardPayload(xml);
         } catch (ConversionException ce) {
             LOG.info("XML content is not a supported fmxmlsnippet.");
-            notifier.notify(project, NotificationType.WARNING, "Push Clipboard Into FileMaker",
+            notifier.notify(project, NotificationType.WARNING, TITLE,
                     "The file does not contain a supported fmxmlsnippet.");
-            return;
+            return null;
         } catch (Throwable t) {
             LOG.warn("Unexpected error during XML→clipboard conversion", t);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "Push Clipboard Into FileMaker",
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
                     "Unexpected error during conversion: " + safeMessage(t), t);
-            return;
+            return null;
         }
+    }
 
+    private void writeToClipboard(Project project, String payload, EdtWatchdog.Invocation inv) {
         // 3) Optional preview before writing
         if (project != null) {
             try {
@@ -155,7 +213,7 @@ public class PushClipboardIntoFileMakerAction extends AnAction {
                             800);
                     if (!proceed) {
                         LOG.info("User canceled clipboard write after preview.");
-                        notifier.notify(project, NotificationType.INFORMATION, "Push Clipboard Into FileMaker",
+                        notifier.notify(project, NotificationType.INFORMATION, TITLE,
                                 "Canceled: No changes were made to the clipboard.");
                         return;
                     }
@@ -166,19 +224,19 @@ public class PushClipboardIntoFileMakerAction extends AnAction {
         }
 
         // 4) Write payload to system clipboard
-        try {
+        try (EdtWatchdog.Stage s = inv.stage("writeClipboard")) {
             clipboardService.writeText(payload);
         } catch (ClipboardAccessException ex) {
             LOG.warn("Clipboard write failed", ex);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "Push Clipboard Into FileMaker",
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
                     "Converted payload ready, but failed to write to clipboard: " + safeMessage(ex), ex);
             return;
         }
 
-        int bytes = payload.getBytes(StandardCharsets.UTF_8).length;
-        LOG.info("Push successful; payload written to clipboard (bytes=" + bytes + ")");
-        Diagnostics.vInfo(LOG, "Payload preview (first 120 chars): " + payload.substring(0, Math.min(120, payload.length())));
-        notifier.notify(project, NotificationType.INFORMATION, "Push Clipboard Into FileMaker",
+        LOG.info("Push successful; payload written to clipboard (chars=" + payload.length() + ")");
+        FmDiagnostics.CLIPBOARD.debug(() -> "Payload bytes=" + payload.getBytes(StandardCharsets.UTF_8).length
+                + ", preview (first 120 chars): " + payload.substring(0, Math.min(120, payload.length())));
+        notifier.notify(project, NotificationType.INFORMATION, TITLE,
                 "Success: Converted XML and placed FileMaker-compatible content on the clipboard.");
     }
 
@@ -0,0 +1,232 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import dev.fmcuttingboard.clipboard.ClipboardAccessException;
+import dev.fmcuttingboard.clipboard.ClipboardService;
+import dev.fmcuttingboard.clipboard.DefaultClipboardService;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.DefaultXmlToClipboardConverter;
+import dev.fmcuttingboard.fm.FmSnippetMerger;
+import dev.fmcuttingboard.fm.XmlToClipboardConverter;
+import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
+import dev.fmcuttingboard.util.Notifier;
+import dev.fmcuttingboard.util.PreviewDialogs;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Batch variant of "Push Clipboard Into FileMaker" for the Project view.
+ *
+ * Merges the children of all selected fmxmlsnippet XML files into one snippet and places it on
+ * the clipboard, so a set of fields, scripts or custom functions can be pasted in one go. Files
+ * are streamed and extracted in parallel in a background task; all of them must map to the same
+ * FileMaker clipboard format ({@link DefaultClipboardService.SnippetType}) or the push is rejected.
+ */
+public class PushSelectedXmlFilesIntoFileMakerAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(PushSelectedXmlFilesIntoFileMakerAction.class);
+    private static final String TITLE = "Push Selected XML Files Into FileMaker";
+
+    /** A named, lazily opened fmxmlsnippet source. */
+    record SnippetSource(String name, Callable<Reader> opener) {
+    }
+
+    private final ClipboardService clipboardService;
+    private final XmlToClipboardConverter converter;
+    private final UserNotifier notifier;
+    private final FmSnippetMerger merger;
+    private final Executor executor;
+
+    public PushSelectedXmlFilesIntoFileMakerAction() {
+        this(new DefaultClipboardService(), new DefaultXmlToClipboardConverter(), Notifier::notify,
+                AppExecutorUtil.getAppExecutorService());
+    }
+
+    // Visible for testing / DI
+    public PushSelectedXmlFilesIntoFileMakerAction(ClipboardService clipboardService,
+                                                   XmlToClipboardConverter converter,
+                                                   UserNotifier notifier,
+                                                   Executor executor) {
+        this.clipboardService = clipboardService;
+        this.converter = converter;
+        this.notifier = notifier;
+        this.merger = new FmSnippetMerger();
+        this.executor = executor;
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        // update() only inspects the selection
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && countXmlFiles(files) > 1);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        LOG.info("Invoke: PushSelectedXmlFilesIntoFileMakerAction");
+
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        List<SnippetSource> sources = new ArrayList<>();
+        if (files != null) {
+            for (VirtualFile vf : files) {
+                if (PushClipboardIntoFileMakerAction.isXmlFile(vf)) {
+                    sources.add(toSource(vf));
+                }
+            }
+        }
+        if (sources.isEmpty()) {
+            notifier.notify(project, NotificationType.WARNING, TITLE,
+                    "Please select one or more XML files to push into FileMaker.");
+            return;
+        }
+
+        // 1-3) Files are read and merged off the EDT; the preview and clipboard write return to it
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                final String payload;
+                try {
+                    payload = converter.convertToClipboardPayload(mergeSources(sources));
+                } catch (ConversionException ce) {
+                    LOG.info("Batch push rejected: " + ce.getMessage());
+                    notifier.notify(project, NotificationType.WARNING, TITLE, safeMessage(ce));
+                    return;
+                } catch (Throwable t) {
+                    LOG.warn("Unexpected error while merging selected XML files", t);
+                    Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                            "Unexpected error while merging files: " + safeMessage(t), t);
+                    return;
+                }
+                ApplicationManager.getApplication().invokeLater(() -> publish(project, payload, sources.size()));
+            }
+        });
+    }
+
+    /** Previews (when enabled) and writes the merged payload to the clipboard. Runs on the EDT. */
+    private void publish(Project project, String payload, int fileCount) {
+        // 2) Optional preview before writing
+        if (project != null) {
+            try {
+                FmCuttingBoardSettingsState st = FmCuttingBoardSettingsState.getInstance(project);
+                if (st.isPreviewBeforeClipboardWrite()
+                        && !PreviewDialogs.confirmWrite(project, "Preview: " + TITLE, payload, 800)) {
+                    notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                            "Canceled: No changes were made to the clipboard.");
+                    return;
+                }
+            } catch (Throwable t) {
+                LOG.warn("Preview handling failed; proceeding without preview", t);
+            }
+        }
+
+        // 3) Publish a single clipboard payload
+        try {
+            clipboardService.writeText(payload);
+        } catch (ClipboardAccessException ex) {
+            LOG.warn("Clipboard write failed", ex);
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                    "Merged payload ready, but failed to write to clipboard: " + safeMessage(ex), ex);
+            return;
+        }
+        notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                "Success: Merged " + fileCount + " files into one FileMaker clipboard payload.");
+    }
+
+    /**
+     * Extracts every source in parallel, checks that all of them map to the same FileMaker
+     * clipboard format, and merges them in selection order. Package-private for tests.
+     */
+    String mergeSources(List<SnippetSource> sources) throws ConversionException {
+        List<CompletableFuture<FmSnippetMerger.Fragment>> futures = new ArrayList<>(sources.size());
+        for (SnippetSource source : sources) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try (Reader reader = source.opener().call()) {
+                    return merger.extract(source.name(), reader);
+                } catch (Exception ex) {
+                    throw new CompletionException(ex);
+                }
+            }, executor));
+        }
+
+        List<FmSnippetMerger.Fragment> fragments = new ArrayList<>(futures.size());
+        DefaultClipboardService.SnippetType expected = null;
+        String expectedFrom = null;
+        for (CompletableFuture<FmSnippetMerger.Fragment> future : futures) {
+            FmSnippetMerger.Fragment fragment;
+            try {
+                fragment = future.join();
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof ConversionException ce) throw ce;
+                throw new ConversionException("Failed to read snippet: " + safeMessage(cause), cause);
+            }
+            DefaultClipboardService.SnippetType type = DefaultClipboardService.detectSnippetType(fragment.getContent());
+            if (type == DefaultClipboardService.SnippetType.UNKNOWN) {
+                throw new ConversionException(fragment.getName() + " does not contain a supported fmxmlsnippet type.");
+            }
+            if (expected == null) {
+                expected = type;
+                expectedFrom = fragment.getName();
+            } else if (expected != type) {
+                throw new ConversionException("Cannot merge " + type + " (" + fragment.getName() + ") with "
+                        + expected + " (" + expectedFrom + "); FileMaker only accepts one object type per paste.");
+            }
+            fragments.add(fragment);
+        }
+        return merger.merge(fragments);
+    }
+
+    private static SnippetSource toSource(VirtualFile vf) {
+        // Prefer unsaved editor content; otherwise stream the file from disk on the worker thread.
+        Document document = FileDocumentManager.getInstance().getCachedDocument(vf);
+        if (document != null) {
+            String text = document.getText();
+            return new SnippetSource(vf.getName(), () -> new StringReader(text));
+        }
+        return new SnippetSource(vf.getName(), () -> new InputStreamReader(vf.getInputStream(), vf.getCharset()));
+    }
+
+    static int countXmlFiles(VirtualFile[] files) {
+        if (files == null) return 0;
+        int n = 0;
+        for (VirtualFile vf : files) {
+            if (PushClipboardIntoFileMakerAction.isXmlFile(vf)) n++;
+        }
+        return n;
+    }
+
+    private static String safeMessage(Throwable t) {
+        String msg = t.getMessage();
+        return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
+    }
+}
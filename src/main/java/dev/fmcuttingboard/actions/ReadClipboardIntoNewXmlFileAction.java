@@ -4,6 +4,9 @@ import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.notification.NotificationType;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.vfs.LocalFileSystem;
@@ -15,23 +18,31 @@ import dev.fmcuttingboard.clipboard.ClipboardService;
 import dev.fmcuttingboard.clipboard.DefaultClipboardService;
 import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
 import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmSnippetCanonicalizer;
 import dev.fmcuttingboard.fs.ProjectFiles;
+import dev.fmcuttingboard.jfr.PipelineEvent;
+import dev.fmcuttingboard.jfr.SnippetFileWriteEvent;
+import dev.fmcuttingboard.jfr.VfsPublishEvent;
+import dev.fmcuttingboard.metrics.EdtWatchdog;
+import dev.fmcuttingboard.metrics.PipelineMetrics;
 import dev.fmcuttingboard.util.Notifier;
 import dev.fmcuttingboard.util.UserNotifier;
-import dev.fmcuttingboard.util.Diagnostics;
+import dev.fmcuttingboard.log.FmDiagnostics;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Phase 4.3 — Action Implementation
  * Reads clipboard, attempts to parse FileMaker content, converts to XML,
- * and writes it into a new timestamped file inside .fmCuttingBoard.
+ * and writes it into a new timestamped file inside .fmCuttingBoard. EDT time is
+ * measured per stage by {@link EdtWatchdog}; large payloads are converted and
+ * written in a background task.
  */
 public class ReadClipboardIntoNewXmlFileAction extends AnAction {
     private static final Logger LOG = Logger.getInstance(ReadClipboardIntoNewXmlFileAction.class);
+    private static final String TITLE = "New XML File From FM Clipboard";
     private final ClipboardService clipboardService;
     private final ClipboardToXmlConverter converter;
     private final UserNotifier notifier;
@@ -64,82 +75,120 @@ public class ReadClipboardIntoNewXmlFileAction extends AnAction {
         Project project = e.getProject();
         LOG.info("Invoke: ReadClipboardIntoNewXmlFileAction");
 
-        // 1) Read clipboard text
-        final String clipboardText;
-        try {
-            clipboardText = clipboardService.readText().orElse("");
-        } catch (ClipboardAccessException ex) {
-            LOG.warn("Clipboard read failed", ex);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "New XML File From FM Clipboard",
-                    "Could not read clipboard: " + safeMessage(ex), ex);
-            return;
-        }
+        try (EdtWatchdog.Invocation inv = EdtWatchdog.getInstance().begin("ReadClipboardIntoNewXmlFileAction")) {
+            // 1) Read clipboard text
+            final String clipboardText;
+            try (EdtWatchdog.Stage s = inv.stage("readClipboard")) {
+                clipboardText = clipboardService.readText().orElse("");
+            } catch (ClipboardAccessException ex) {
+                LOG.warn("Clipboard read failed", ex);
+                Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                        "Could not read clipboard: " + safeMessage(ex), ex);
+                return;
+            }
 
-        if (clipboardText.isBlank()) {
-            LOG.info("Clipboard is empty or does not contain text.");
-            notifier.notify(project, NotificationType.INFORMATION, "New XML File From FM Clipboard",
-                    "Clipboard is empty or contains no text to save.");
-            return;
+            if (clipboardText.isBlank()) {
+                LOG.info("Clipboard is empty or does not contain text.");
+                notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                        "Clipboard is empty or contains no text to save.");
+                return;
+            }
+
+            // 2-3) Convert and write; large payloads are handled entirely off the EDT
+            if (inv.shouldOffload(clipboardText.length())) {
+                ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+                    @Override
+                    public void run(@NotNull ProgressIndicator indicator) {
+                        indicator.setIndeterminate(true);
+                        // The EDT invocation is closed by now; stages off the EDT are not measured
+                        try (EdtWatchdog.Invocation rest = EdtWatchdog.getInstance().begin("ReadClipboardIntoNewXmlFileAction")) {
+                            convertAndWrite(project, clipboardText, rest);
+                        }
+                    }
+                });
+                return;
+            }
+            convertAndWrite(project, clipboardText, inv);
         }
+    }
 
+    private void convertAndWrite(Project project, String clipboardText, EdtWatchdog.Invocation inv) {
         // 2) Convert using parser/converter
         final String xml;
-        try {
+        try (EdtWatchdog.Stage s = inv.stage("convert")) {
             xml = converter.convertToXml(clipboardText);
         } catch (ConversionException ce) {
             LOG.info("Clipboard does not contain recognizable FileMaker content.");
-            notifier.notify(project, NotificationType.WARNING, "New XML File From FM Clipboard",
+            notifier.notify(project, NotificationType.WARNING, TITLE,
                     "Clipboard does not contain recognizable FileMaker content or fmxmlsnippet.");
             return;
         } catch (Throwable t) {
             LOG.warn("Unexpected error during conversion", t);
-            Notifier.notifyWithDetails(project, NotificationType.ERROR, "New XML File From FM Clipboard",
+            Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
                     "Unexpected error during conversion: " + safeMessage(t), t);
             return;
         }
 
         // 3) Create timestamped file inside .fmCuttingBoard and write XML
-        try {
+        try (EdtWatchdog.Stage s = inv.stage("writeFile")) {
             Path projectRoot = ProjectFiles.getProjectRoot(project);
-            Path file = processIntoNewXmlFile(project, projectRoot, xml);
-            String display = displayPath(projectRoot, file);
+            Path file = writeXmlFile(project, xml);
+            notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                    "Success: Wrote XML to file: " + displayPath(projectRoot, file));
+        } catch (IllegalArgumentException | IOException ex) {
+            LOG.warn("Failed to create/write XML file in projectRoot=" + safeProjectRoot(project), ex);
+            notifier.notify(project, NotificationType.ERROR, TITLE,
+                    "Failed to create/write XML file: " + safeMessage(ex));
+        }
+    }
 
-            // 3a) Refresh VFS for the new file and its parent directory
-            if (project != null) {
-                ApplicationManager.getApplication().invokeLater(() -> {
-                    try {
-                        VirtualFile vFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(file);
-                        if (vFile != null) {
-                            VirtualFile parent = vFile.getParent();
+    /**
+     * Writes already-converted XML into a new settings-based file under the project root, then
+     * refreshes the VFS and opens the file. Safe to call off the EDT; IDE updates are posted via
+     * invokeLater. Used as the file sink of {@link ClipboardCapturePipeline}.
+     */
+    public Path writeXmlFile(Project project, String xml) throws IOException {
+        Path projectRoot = ProjectFiles.getProjectRoot(project);
+        Path file = processIntoNewXmlFile(project, projectRoot, xml);
+
+        // Refresh VFS for the new file and its parent directory
+        if (project != null) {
+            ApplicationManager.getApplication().invokeLater(() -> {
+                long publishStartNs = System.nanoTime();
+                VfsPublishEvent publishEvent = new VfsPublishEvent();
+                publishEvent.begin();
+                String publishOutcome = PipelineEvent.FAILED;
+                try {
+                    VirtualFile vFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(file);
+                    publishOutcome = vFile != null ? PipelineEvent.OK : PipelineEvent.EMPTY;
+                    if (vFile != null) {
+                        VirtualFile parent = vFile.getParent();
+                        if (parent != null) {
+                            // Ensure IDE reloads the directory contents from disk
+                            VfsUtil.markDirtyAndRefresh(false, true, true, parent);
+                        }
+                        // Open the newly created file in the editor
+                        FileEditorManager.getInstance(project).openFile(vFile, true);
+                    } else {
+                        // As a fallback, refresh parent dir by path
+                        Path parentPath = file.getParent();
+                        if (parentPath != null) {
+                            VirtualFile parent = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(parentPath);
                             if (parent != null) {
-                                // Ensure IDE reloads the directory contents from disk
                                 VfsUtil.markDirtyAndRefresh(false, true, true, parent);
                             }
-                            // Open the newly created file in the editor
-                            FileEditorManager.getInstance(project).openFile(vFile, true);
-                        } else {
-                            // As a fallback, refresh parent dir by path
-                            Path parentPath = file.getParent();
-                            if (parentPath != null) {
-                                VirtualFile parent = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(parentPath);
-                                if (parent != null) {
-                                    VfsUtil.markDirtyAndRefresh(false, true, true, parent);
-                                }
-                            }
                         }
-                    } catch (Throwable t) {
-                        LOG.warn("Post-create IDE refresh/open failed for file=" + file, t);
                     }
-                });
-            }
-            notifier.notify(project, NotificationType.INFORMATION, "New XML File From FM Clipboard",
-                    "Success: Wrote XML to file: " + display);
-        } catch (IllegalArgumentException | IOException ex) {
-            LOG.warn("Failed to create/write XML file in projectRoot=" + safeProjectRoot(project), ex);
-            notifier.notify(project, NotificationType.ERROR, "New XML File From FM Clipboard",
-                    "Failed to create/write XML file: " + safeMessage(ex));
-            return;
+                } catch (Throwable t) {
+                    publishOutcome = PipelineEvent.FAILED;
+                    LOG.warn("Post-create IDE refresh/open failed for file=" + file, t);
+                } finally {
+                    PipelineMetrics.VFS_REFRESH.recordSince(publishStartNs, -1, !PipelineEvent.FAILED.equals(publishOutcome));
+                    publishEvent.finish(file, publishOutcome);
+                }
+            });
         }
+        return file;
     }
 
     @Override
@@ -154,6 +203,8 @@ public class ReadClipboardIntoNewXmlFileAction extends AnAction {
         // Try to use settings; fall back to defaults if unavailable.
         String baseDir = null;
         String pattern = null;
+        boolean canonicalize = false;
+        boolean stripVolatile = false;
         try {
             if (project != null) {
                 dev.fmcuttingboard.settings.FmCuttingBoardSettingsState settings =
@@ -161,6 +212,8 @@ public class ReadClipboardIntoNewXmlFileAction extends AnAction {
                 if (settings != null) {
                     baseDir = settings.getBaseDirName();
                     pattern = settings.getFileNamePattern();
+                    canonicalize = settings.isCanonicalizeCaptures();
+                    stripVolatile = settings.isStripVolatileAttributes();
                 }
             }
         } catch (Throwable ignore) {
@@ -173,16 +226,38 @@ public class ReadClipboardIntoNewXmlFileAction extends AnAction {
         } else {
             file = ProjectFiles.createTimestampedXmlFile(projectRoot);
         }
+        if (canonicalize) {
+            xml = canonicalizeForFile(xml, stripVolatile);
+        }
         long startNs = System.nanoTime();
-        Files.writeString(file, xml, StandardCharsets.UTF_8);
+        SnippetFileWriteEvent writeEvent = new SnippetFileWriteEvent();
+        writeEvent.begin();
+        String writeOutcome = PipelineEvent.FAILED;
+        try {
+            ProjectFiles.writeUtf8(file, xml);
+            writeOutcome = PipelineEvent.OK;
+        } finally {
+            PipelineMetrics.FILE_WRITE.recordSince(startNs, xml.length(), !PipelineEvent.FAILED.equals(writeOutcome));
+            writeEvent.finish(file, xml.length(), writeOutcome);
+        }
         long elapsedMs = (System.nanoTime() - startNs) / 1_000_000L;
-        int byteCount = xml.getBytes(StandardCharsets.UTF_8).length;
-        int charCount = xml.length();
-        LOG.info("Wrote XML to: " + file + " (bytes=" + byteCount + ", chars=" + charCount + ", took=" + elapsedMs + "ms)");
-        Diagnostics.vInfo(LOG, "XML preview (first 120 chars): " + xml.substring(0, Math.min(120, xml.length())));
+        String written = xml;
+        LOG.info("Wrote XML to: " + file + " (chars=" + written.length() + ", took=" + elapsedMs + "ms)");
+        FmDiagnostics.FILES.debug(() -> "XML bytes=" + written.getBytes(StandardCharsets.UTF_8).length
+                + ", preview (first 120 chars): " + written.substring(0, Math.min(120, written.length())));
         return file;
     }
 
+    // Only the saved file is canonicalized; the clipboard keeps FileMaker's original payload.
+    static String canonicalizeForFile(String xml, boolean stripVolatile) {
+        try {
+            return new FmSnippetCanonicalizer(stripVolatile).canonicalize(xml);
+        } catch (ConversionException ex) {
+            LOG.warn("Canonicalization skipped; writing XML as captured: " + safeMessage(ex));
+            return xml;
+        }
+    }
+
     private static String safeMessage(Throwable t) {
         String msg = t.getMessage();
         return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
@@ -0,0 +1,132 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmSnippetSplitter;
+import dev.fmcuttingboard.util.Notifier;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Splits the selected fmxmlsnippet XML file into one file per top-level object (script, custom
+ * function, table, value list or step group) inside a sibling "{name}-split" directory.
+ *
+ * Runs as a background task: the input is streamed with {@link FmSnippetSplitter} rather than
+ * loaded into a DOM, and output files are written on a bounded pool.
+ */
+public class SplitSnippetIntoObjectFilesAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(SplitSnippetIntoObjectFilesAction.class);
+    private static final String TITLE = "Split Snippet Into Object Files";
+    private static final int WRITER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final UserNotifier notifier;
+
+    public SplitSnippetIntoObjectFilesAction() {
+        this(Notifier::notify);
+    }
+
+    // Visible for testing / DI
+    public SplitSnippetIntoObjectFilesAction(UserNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile vf = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && PushClipboardIntoFileMakerAction.isXmlFile(vf));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        LOG.info("Invoke: SplitSnippetIntoObjectFilesAction");
+
+        VirtualFile vf = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (!PushClipboardIntoFileMakerAction.isXmlFile(vf) || !vf.isInLocalFileSystem()) {
+            notifier.notify(project, NotificationType.WARNING, TITLE, "Please select an fmxmlsnippet XML file to split.");
+            return;
+        }
+
+        // The splitter streams from disk, so flush unsaved editor changes first.
+        FileDocumentManager fdm = FileDocumentManager.getInstance();
+        Document document = fdm.getCachedDocument(vf);
+        if (document != null && fdm.isDocumentUnsaved(document)) {
+            fdm.saveDocument(document);
+        }
+
+        Path source = vf.toNioPath();
+        Path outputDir = outputDirFor(source);
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                indicator.setText("Splitting " + vf.getName());
+                ExecutorService writers = AppExecutorUtil.createBoundedApplicationPoolExecutor("FMCuttingBoard Split", WRITER_THREADS);
+                long startNs = System.nanoTime();
+                try (Reader reader = new BufferedReader(new InputStreamReader(vf.getInputStream(), vf.getCharset()))) {
+                    FmSnippetSplitter.Result result = new FmSnippetSplitter().split(reader, outputDir, writers, WRITER_THREADS * 2);
+                    long elapsedMs = (System.nanoTime() - startNs) / 1_000_000L;
+                    LOG.info("Split " + source + " into " + result.files().size() + " files (took=" + elapsedMs + "ms)");
+                    refresh(outputDir);
+                    notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                            "Success: Wrote " + result.files().size() + " files to " + outputDir.getFileName());
+                } catch (ConversionException ce) {
+                    LOG.info("Split rejected: " + ce.getMessage());
+                    notifier.notify(project, NotificationType.WARNING, TITLE,
+                            "The file does not contain a valid fmxmlsnippet: " + safeMessage(ce));
+                } catch (Throwable t) {
+                    LOG.warn("Failed to split snippet " + source, t);
+                    Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                            "Failed to split snippet: " + safeMessage(t), t);
+                } finally {
+                    writers.shutdown();
+                }
+            }
+        });
+    }
+
+    // Package-private for tests: output directory is a sibling named after the source file
+    static Path outputDirFor(Path source) {
+        return FmSnippetSplitter.defaultOutputDir(source);
+    }
+
+    private static void refresh(Path dir) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            try {
+                VirtualFile vDir = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(dir);
+                if (vDir != null) {
+                    VfsUtil.markDirtyAndRefresh(false, true, true, vDir);
+                }
+            } catch (Throwable t) {
+                LOG.warn("Post-split IDE refresh failed for dir=" + dir, t);
+            }
+        });
+    }
+
+    private static String safeMessage(Throwable t) {
+        String msg = t.getMessage();
+        return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
+    }
+}
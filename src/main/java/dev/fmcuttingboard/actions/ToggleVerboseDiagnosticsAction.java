@@ -0,0 +1,32 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbAwareToggleAction;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Switches every {@link FmDiagnostics} channel between DEBUG (payload details, previews, timings)
+ * and WARN without restarting the IDE. Not persisted; the next start uses -Dfmcuttingboard.verbose.
+ */
+public class ToggleVerboseDiagnosticsAction extends DumbAwareToggleAction {
+    private static final Logger LOG = Logger.getInstance(ToggleVerboseDiagnosticsAction.class);
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        return FmDiagnostics.CLIPBOARD.isDebug();
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        FmDiagnostics.setAllLevels(state ? FmDiagnostics.Level.DEBUG : FmDiagnostics.Level.WARN);
+        LOG.info("Diagnostics levels: " + FmDiagnostics.channels());
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        super.update(e);
+        e.getPresentation().setEnabledAndVisible(DumpDiagnosticsAction.diagnosticsEnabled(e.getProject()));
+    }
+}
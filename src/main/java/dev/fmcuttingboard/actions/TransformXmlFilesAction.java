@@ -0,0 +1,179 @@
+package dev.fmcuttingboard.actions;
+
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.InputValidator;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmSnippetTransformer;
+import dev.fmcuttingboard.fm.SnippetTransforms;
+import dev.fmcuttingboard.fm.XmlFileRewriter;
+import dev.fmcuttingboard.settings.FmCuttingBoardSettingsState;
+import dev.fmcuttingboard.util.Notifier;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies a transform spec (renames, id remaps, step filters; see
+ * {@link SnippetTransforms#parseSpec(String)}) to the selected fmxmlsnippet XML files in place.
+ *
+ * Each file is rewritten in a single streaming pass through {@link FmSnippetTransformer} on a
+ * background task; files that do not parse are left untouched and reported.
+ */
+public class TransformXmlFilesAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(TransformXmlFilesAction.class);
+    private static final String TITLE = "Transform XML Files";
+    private static final String SPEC_HELP = "One instruction per line:\n"
+            + "  table OldTable -> NewTable\n"
+            + "  field Table::OldField -> NewField\n"
+            + "  id Field 12 -> 40\n"
+            + "  strip comment-steps\n"
+            + "  strip disabled-steps";
+
+    private final UserNotifier notifier;
+
+    public TransformXmlFilesAction() {
+        this(Notifier::notify);
+    }
+
+    // Visible for testing / DI
+    public TransformXmlFilesAction(UserNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null
+                && PushSelectedXmlFilesIntoFileMakerAction.countXmlFiles(files) > 0);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        LOG.info("Invoke: TransformXmlFilesAction");
+
+        VirtualFile[] selected = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        List<VirtualFile> files = new ArrayList<>();
+        if (selected != null) {
+            for (VirtualFile vf : selected) {
+                if (PushClipboardIntoFileMakerAction.isXmlFile(vf) && vf.isInLocalFileSystem()) {
+                    files.add(vf);
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            notifier.notify(project, NotificationType.WARNING, TITLE, "Please select one or more XML files to transform.");
+            return;
+        }
+
+        FmCuttingBoardSettingsState settings = null;
+        try {
+            if (project != null) settings = FmCuttingBoardSettingsState.getInstance(project);
+        } catch (Throwable ignore) {
+            // no remembered spec
+        }
+        String spec = Messages.showMultilineInputDialog(project, SPEC_HELP, TITLE,
+                settings != null ? settings.getLastTransformSpec() : "", Messages.getQuestionIcon(), SPEC_VALIDATOR);
+        if (spec == null) {
+            return; // canceled
+        }
+        final FmSnippetTransformer transformer;
+        try {
+            transformer = new FmSnippetTransformer(SnippetTransforms.parseSpec(spec));
+        } catch (ConversionException ce) {
+            notifier.notify(project, NotificationType.WARNING, TITLE, safeMessage(ce));
+            return;
+        }
+        if (settings != null) settings.setLastTransformSpec(spec);
+
+        // Files are rewritten on disk, so flush unsaved editor changes first.
+        FileDocumentManager.getInstance().saveAllDocuments();
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                int changed = 0;
+                List<String> rejected = new ArrayList<>();
+                long startNs = System.nanoTime();
+                for (int i = 0; i < files.size(); i++) {
+                    indicator.checkCanceled();
+                    VirtualFile vf = files.get(i);
+                    indicator.setFraction((double) i / files.size());
+                    indicator.setText("Transforming " + vf.getName());
+                    try {
+                        if (XmlFileRewriter.rewrite(vf.toNioPath(), transformer::transform)) changed++;
+                    } catch (ConversionException ce) {
+                        LOG.info("Transform rejected for " + vf.getPath() + ": " + ce.getMessage());
+                        rejected.add(vf.getName());
+                    } catch (IOException ex) {
+                        LOG.warn("Failed to transform " + vf.getPath(), ex);
+                        Notifier.notifyWithDetails(project, NotificationType.ERROR, TITLE,
+                                "Failed to transform " + vf.getName() + ": " + safeMessage(ex), ex);
+                        return;
+                    }
+                }
+                long elapsedMs = (System.nanoTime() - startNs) / 1_000_000L;
+                LOG.info("Transformed " + files.size() + " files, changed=" + changed + " (took=" + elapsedMs + "ms)");
+                refresh(files);
+
+                if (rejected.isEmpty()) {
+                    notifier.notify(project, NotificationType.INFORMATION, TITLE,
+                            "Success: " + changed + " of " + files.size() + " files changed.");
+                } else {
+                    notifier.notify(project, NotificationType.WARNING, TITLE,
+                            changed + " of " + files.size() + " files changed; skipped (not a valid fmxmlsnippet): "
+                                    + String.join(", ", rejected));
+                }
+            }
+        });
+    }
+
+    private static final InputValidator SPEC_VALIDATOR = new InputValidator() {
+        @Override
+        public boolean checkInput(String input) {
+            try {
+                SnippetTransforms.parseSpec(input);
+                return true;
+            } catch (ConversionException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean canClose(String input) {
+            return checkInput(input);
+        }
+    };
+
+    private static void refresh(List<VirtualFile> files) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            try {
+                VfsUtil.markDirtyAndRefresh(true, false, false, files.toArray(VirtualFile[]::new));
+            } catch (Throwable t) {
+                LOG.warn("Post-transform IDE refresh failed", t);
+            }
+        });
+    }
+
+    private static String safeMessage(Throwable t) {
+        String msg = t.getMessage();
+        return (msg == null || msg.isBlank()) ? t.getClass().getSimpleName() : msg;
+    }
+}
@@ -0,0 +1,311 @@
+package dev.fmcuttingboard.clipboard;
+
+import dev.fmcuttingboard.clipboard.DefaultClipboardService.SnippetType;
+import dev.fmcuttingboard.jfr.ClipboardDecodeEvent;
+import dev.fmcuttingboard.jfr.PipelineEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pure text/byte codecs behind {@link DefaultClipboardService}: decoding raw clipboard bytes,
+ * locating fmxmlsnippet blocks, snippet type detection and the native clipboard format encoders.
+ *
+ * Kept free of IntelliJ classes so the hot paths can be benchmarked (src/jmh) and tested
+ * without an IDE on the classpath.
+ */
+final class ClipboardCodecs {
+
+    private ClipboardCodecs() {}
+
+    static SnippetType detectSnippetType(String text) {
+        if (text == null || text.isEmpty()) return SnippetType.UNKNOWN;
+        // Simple heuristics per roadmap 1.4
+        // Order matters; check the most specific/common first
+        // Important: detect full Script before bare Step selection, since scripts contain steps
+        if (text.contains("<Script")) return SnippetType.SCRIPT;
+        if (text.contains("<Step")) return SnippetType.SCRIPT_STEPS;
+        // Important: check for BaseTable before Field/FieldDefinition because table snippets often contain <Field>
+        // and must be classified as TABLE_DEFINITION to target Mac-XMTB (not Mac-XMFD).
+        if (text.contains("<BaseTable")) return SnippetType.TABLE_DEFINITION;
+        // Layout-related tags should be detected BEFORE fields because layout object XML may include
+        // <Field> references inside DDRInfo or nested elements; we must still treat the snippet as layout objects.
+        if (text.contains("<Layout") || text.contains("<ObjectList") || text.contains("<LayoutObject") || text.contains("<Object ") || text.contains("<Part")) {
+            return SnippetType.LAYOUT_OBJECTS;
+        }
+        if (text.contains("<FieldDefinition") || text.contains("<Field ")) return SnippetType.FIELD_DEFINITION;
+        // Custom Functions and Value Lists
+        if (text.contains("<CustomFunction")) return SnippetType.CUSTOM_FUNCTION;
+        if (text.contains("<ValueList")) return SnippetType.VALUE_LIST;
+        return SnippetType.UNKNOWN;
+    }
+
+    // The encoders write straight into the final array instead of getBytes() + arraycopy, so a
+    // multi-MB payload is encoded once rather than copied twice.
+    static byte[] utf16leNullTerminated(String s) {
+        String text = s == null ? "" : s;
+        byte[] out = new byte[2 * text.length() + 2];
+        for (int i = 0, j = 0; i < text.length(); i++, j += 2) {
+            char c = text.charAt(i);
+            if (Character.isSurrogate(c) && !isPaired(text, i)) c = '\uFFFD'; // as String.getBytes does
+            out[j] = (byte) c;
+            out[j + 1] = (byte) (c >>> 8);
+        }
+        // last two bytes already zero
+        return out;
+    }
+
+    static byte[] utf8NullTerminated(String s) {
+        String text = s == null ? "" : s;
+        int len = utf8Length(text);
+        byte[] out = new byte[len + 1];
+        encodeUtf8(text, out, 0, len);
+        // last byte zero
+        return out;
+    }
+
+    // Build: [4-byte little-endian payload length] + [UTF-8 payload without BOM], no trailing NUL
+    static byte[] utf8LengthPrefixedNoBom(String s) {
+        String text = s == null ? "" : s;
+        int len = utf8Length(text);
+        byte[] out = new byte[4 + len];
+        out[0] = (byte) (len & 0xFF);
+        out[1] = (byte) ((len >>> 8) & 0xFF);
+        out[2] = (byte) ((len >>> 16) & 0xFF);
+        out[3] = (byte) ((len >>> 24) & 0xFF);
+        encodeUtf8(text, out, 4, len);
+        return out;
+    }
+
+    private static boolean isPaired(String s, int i) {
+        char c = s.charAt(i);
+        return Character.isHighSurrogate(c)
+                ? i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))
+                : i > 0 && Character.isHighSurrogate(s.charAt(i - 1));
+    }
+
+    // Encoded size matching String.getBytes(UTF_8), which writes '?' for unpaired surrogates
+    static int utf8Length(String s) {
+        int len = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                len += 1;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                len += 1;
+            } else {
+                len += 3;
+            }
+        }
+        return len;
+    }
+
+    private static void encodeUtf8(String s, byte[] out, int offset, int length) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer dst = ByteBuffer.wrap(out, offset, length);
+        encoder.encode(CharBuffer.wrap(s), dst, true);
+        encoder.flush(dst);
+    }
+
+    // Normalize any mix of CRLF/CR/LF to LF newlines for custom Mac-* formats based on analysis.
+    static String normalizeToLfNewlines(String s) {
+        if (s == null || s.isEmpty()) return "";
+        String tmp = s.replace("\r\n", "\n");
+        tmp = tmp.replace("\r", "\n");
+        return tmp;
+    }
+
+    static String decodeBytesWithBomHeuristics(byte[] bytes) {
+        ClipboardDecodeEvent event = new ClipboardDecodeEvent();
+        event.begin();
+        String text = decode(bytes, event);
+        event.bytes = bytes == null ? 0 : bytes.length;
+        event.chars = text.length();
+        event.finish(text.isEmpty() ? PipelineEvent.EMPTY : PipelineEvent.OK);
+        return text;
+    }
+
+    private static String decode(byte[] bytes, ClipboardDecodeEvent event) {
+        if (bytes == null || bytes.length == 0) return "";
+
+        // BOM detection
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+            event.encoding = "UTF-8 (bom)";
+            return stripNulls(new String(bytes, 3, trimNulPadding(bytes, 3, 1) - 3, StandardCharsets.UTF_8));
+        }
+        if (bytes.length >= 2) {
+            int b0 = bytes[0] & 0xFF;
+            int b1 = bytes[1] & 0xFF;
+            if (b0 == 0xFE && b1 == 0xFF) {
+                event.encoding = "UTF-16BE (bom)";
+                return stripNulls(new String(bytes, 2, trimNulPadding(bytes, 2, 2) - 2, StandardCharsets.UTF_16BE));
+            }
+            if (b0 == 0xFF && b1 == 0xFE) {
+                event.encoding = "UTF-16LE (bom)";
+                return stripNulls(new String(bytes, 2, trimNulPadding(bytes, 2, 2) - 2, StandardCharsets.UTF_16LE));
+            }
+        }
+
+        // Heuristic for UTF-16 without BOM (check zero distribution)
+        int zerosEven = 0, zerosOdd = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == 0) {
+                if ((i & 1) == 0) zerosEven++; else zerosOdd++;
+            }
+        }
+        int threshold = Math.max(2, bytes.length / 10); // 10% zeros is a hint
+        // ASCII in UTF-16LE puts the zero byte second (odd offset), in UTF-16BE first
+        if (zerosOdd > zerosEven && zerosOdd >= threshold) {
+            event.encoding = "UTF-16LE (heuristic)";
+            return stripNulls(new String(bytes, 0, trimNulPadding(bytes, 0, 2), StandardCharsets.UTF_16LE));
+        } else if (zerosEven > zerosOdd && zerosEven >= threshold) {
+            event.encoding = "UTF-16BE (heuristic)";
+            return stripNulls(new String(bytes, 0, trimNulPadding(bytes, 0, 2), StandardCharsets.UTF_16BE));
+        }
+
+        // Fallback to UTF-8 (as PS script does)
+        event.encoding = "UTF-8 (default)";
+        String utf8 = new String(bytes, 0, trimNulPadding(bytes, 0, 1), StandardCharsets.UTF_8);
+        return stripNulls(utf8);
+    }
+
+    // End of the data once trailing NUL code units are dropped, so terminators and allocation
+    // padding are not decoded into characters only to be stripped again by another full copy
+    private static int trimNulPadding(byte[] bytes, int start, int unit) {
+        int end = bytes.length;
+        int partial = (end - start) % unit;
+        if (partial != 0) {
+            // A trailing partial unit is only padding when it is all zero; otherwise let the decoder see it
+            if (!isNulUnit(bytes, end - partial, partial)) return end;
+            end -= partial;
+        }
+        while (end - unit >= start && isNulUnit(bytes, end - unit, unit)) end -= unit;
+        return end;
+    }
+
+    private static boolean isNulUnit(byte[] bytes, int at, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[at + i] != 0) return false;
+        }
+        return true;
+    }
+
+    /** Case-insensitive check for an opening fmxmlsnippet tag without copying {@code s}. */
+    static boolean containsFmxml(String s) {
+        if (s == null) return false;
+        String tag = "<fmxmlsnippet";
+        for (int i = s.indexOf('<'); i >= 0 && i <= s.length() - tag.length(); i = s.indexOf('<', i + 1)) {
+            if (s.regionMatches(true, i, tag, 0, tag.length())) return true;
+        }
+        return false;
+    }
+
+    static int countNulls(String s) {
+        int n = 0;
+        for (int i = s.indexOf('\u0000'); i >= 0; i = s.indexOf('\u0000', i + 1)) n++;
+        return n;
+    }
+
+    static String stripNulls(String s) {
+        if (s == null) return null;
+        // Remove embedded NULs which can cause isBlank() to see effectively empty text
+        return s.replace("\u0000", "");
+    }
+
+    /**
+     * Attempts to locate an <fmxmlsnippet>…</fmxmlsnippet> block directly in the raw bytes in common encodings
+     * (UTF-8/ASCII, UTF-16LE, UTF-16BE). If found, decodes and returns the snippet; otherwise returns null.
+     */
+    static String extractFmxmlFromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return null;
+
+        // UTF-8 / ASCII search
+        int startUtf8 = indexOf(bytes, ascii("<fmxmlsnippet"), 1);
+        if (startUtf8 >= 0) {
+            int endUtf8 = lastIndexOf(bytes, ascii("</fmxmlsnippet>"), 1);
+            if (endUtf8 >= 0 && endUtf8 >= startUtf8) {
+                int endPos = endUtf8 + ascii("</fmxmlsnippet>").length;
+                return new String(bytes, startUtf8, endPos - startUtf8, StandardCharsets.UTF_8).trim();
+            }
+        }
+
+        // UTF-16 searches only match at even offsets: "<\0f\0..." also occurs one byte into UTF-16BE text
+        // UTF-16LE search
+        byte[] startLe = utf16le("<fmxmlsnippet");
+        byte[] endLe = utf16le("</fmxmlsnippet>");
+        int start16le = indexOf(bytes, startLe, 2);
+        if (start16le >= 0) {
+            int end16le = lastIndexOf(bytes, endLe, 2);
+            if (end16le >= 0 && end16le >= start16le) {
+                int endPos = end16le + endLe.length;
+                String s = new String(bytes, start16le, endPos - start16le, StandardCharsets.UTF_16LE);
+                return stripNulls(s).trim();
+            }
+        }
+
+        // UTF-16BE search
+        byte[] startBe = utf16be("<fmxmlsnippet");
+        byte[] endBe = utf16be("</fmxmlsnippet>");
+        int start16be = indexOf(bytes, startBe, 2);
+        if (start16be >= 0) {
+            int end16be = lastIndexOf(bytes, endBe, 2);
+            if (end16be >= 0 && end16be >= start16be) {
+                int endPos = end16be + endBe.length;
+                String s = new String(bytes, start16be, endPos - start16be, StandardCharsets.UTF_16BE);
+                return stripNulls(s).trim();
+            }
+        }
+
+        return null;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] utf16le(String s) {
+        // Encode and drop potential BOM
+        byte[] b = s.getBytes(StandardCharsets.UTF_16LE);
+        return b;
+    }
+
+    private static byte[] utf16be(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_16BE);
+        return b;
+    }
+
+    // Only offsets that are a multiple of step are considered
+    private static int indexOf(byte[] data, byte[] pattern, int step) {
+        if (pattern.length == 0) return 0;
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i += step) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, byte[] pattern, int step) {
+        if (pattern.length == 0) return data.length;
+        outer:
+        for (int i = (data.length - pattern.length) / step * step; i >= 0; i -= step) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
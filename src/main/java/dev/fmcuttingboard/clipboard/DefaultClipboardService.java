@@ -2,7 +2,12 @@ package dev.fmcuttingboard.clipboard;
 
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.ide.CopyPasteManager;
-import dev.fmcuttingboard.util.Diagnostics;
+import dev.fmcuttingboard.jfr.ClipboardFlavorProbeEvent;
+import dev.fmcuttingboard.jfr.ClipboardReadEvent;
+import dev.fmcuttingboard.jfr.ClipboardWriteEvent;
+import dev.fmcuttingboard.jfr.PipelineEvent;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.metrics.PipelineMetrics;
 
 import java.awt.*;
 import java.awt.datatransfer.*;
@@ -17,6 +22,13 @@ import java.util.Optional;
 public class DefaultClipboardService implements ClipboardService {
 
     private static final Logger LOG = Logger.getInstance(DefaultClipboardService.class);
+    // Read-path tracing; payload-derived details are DEBUG so nothing rescans the text unless enabled
+    private static final FmDiagnostics.Channel CB = FmDiagnostics.CLIPBOARD;
+    private static final String SOURCE_CPM_FAST = "cpm-fast";
+    private static final String SOURCE_CPM = "cpm";
+    private static final String SOURCE_AWT = "awt";
+    private static final String SOURCE_NATIVE = "native";
+    private static final String ROUTE_AWT = "awt";
 
     private final CopyPasteManager manager; // may be null in non-IDE test environments
     private final NativeClipboardReader nativeReader; // may be null when not supported
@@ -37,36 +49,58 @@ public class DefaultClipboardService implements ClipboardService {
 
     @Override
     public Optional<String> readText() throws ClipboardAccessException {
+        ClipboardReadEvent event = new ClipboardReadEvent();
+        event.begin();
+        String outcome = PipelineEvent.FAILED;
+        long startNs = System.nanoTime();
+        try {
+            Optional<String> result = probeClipboard(event);
+            if (result.isPresent()) {
+                event.chars = result.get().length();
+                PipelineMetrics.READ_FAST_PATH.record(SOURCE_CPM_FAST.equals(event.source));
+            }
+            PipelineMetrics.READ_TEXT.record(System.nanoTime() - startNs, event.chars);
+            outcome = result.isPresent() ? PipelineEvent.OK : PipelineEvent.EMPTY;
+            return result;
+        } catch (ClipboardAccessException ex) {
+            PipelineMetrics.READ_TEXT.failed(System.nanoTime() - startNs);
+            throw ex;
+        } finally {
+            event.finish(outcome);
+        }
+    }
+
+    private Optional<String> probeClipboard(ClipboardReadEvent read) throws ClipboardAccessException {
         try {
             maybeDumpClipboardFormats("pre-read");
             // Environment diagnostics (once per call; lightweight)
-            try {
-                String os = System.getProperty("os.name", "");
-                String ver = System.getProperty("os.version", "");
-                String arch = System.getProperty("os.arch", "");
-                String java = System.getProperty("java.version", "");
-                LOG.info("[CB] Env: os=" + os + " " + ver + ", arch=" + arch + ", java=" + java + ")");
-            } catch (Throwable ignore) {
-                // ignore env log failures
-            }
+            CB.debug(() -> "[CB] Env: os=" + System.getProperty("os.name", "") + " " + System.getProperty("os.version", "")
+                    + ", arch=" + System.getProperty("os.arch", "") + ", java=" + System.getProperty("java.version", ""));
             // 1) Fast path: IntelliJ's CopyPasteManager with plain String flavor
             if (manager != null) {
                 boolean sfAvail = manager.areDataFlavorsAvailable(DataFlavor.stringFlavor);
-                LOG.info("[CB] CPM stringFlavor available=" + sfAvail);
+                CB.info(() -> "[CB] CPM stringFlavor available=" + sfAvail);
                 if (sfAvail) {
-                    String s = (String) manager.getContents(DataFlavor.stringFlavor);
-                    if (s != null) {
-                        int nul = (int) s.chars().filter(ch -> ch == 0).count();
-                        boolean containsFmxml = s.toLowerCase().contains("<fmxmlsnippet");
-                        LOG.info("[CB] CPM stringFlavor len=" + s.length() + ", nulCount=" + nul + ", containsFmxml=" + containsFmxml);
-                        s = stripNulls(s);
-                        if (s.isBlank()) {
-                            LOG.info("[CB] CPM stringFlavor normalized to blank after NUL strip; continuing to probe CPM flavors");
+                    ClipboardFlavorProbeEvent probe = startProbe(SOURCE_CPM_FAST);
+                    try {
+                        String raw = (String) manager.getContents(DataFlavor.stringFlavor);
+                        if (raw != null) {
+                            CB.debug(() -> "[CB] CPM stringFlavor len=" + raw.length() + ", nulCount=" + ClipboardCodecs.countNulls(raw)
+                                    + ", containsFmxml=" + ClipboardCodecs.containsFmxml(raw));
+                            String s = ClipboardCodecs.stripNulls(raw);
+                            if (s.isBlank()) {
+                                CB.info(() -> "[CB] CPM stringFlavor normalized to blank after NUL strip; continuing to probe CPM flavors");
+                            } else {
+                                return Optional.of(hit(read, probe, s));
+                            }
                         } else {
-                            return Optional.of(s);
+                            CB.info(() -> "[CB] CPM stringFlavor returned null; continuing to probe CPM flavors");
                         }
-                    } else {
-                        LOG.info("[CB] CPM stringFlavor returned null; continuing to probe CPM flavors");
+                    } catch (RuntimeException ex) {
+                        probe.outcome = PipelineEvent.FAILED;
+                        throw ex;
+                    } finally {
+                        finishProbe(probe, DataFlavor.stringFlavor);
                     }
                 }
 
@@ -84,23 +118,7 @@ public class DefaultClipboardService implements ClipboardService {
                     };
 
                     // Log which candidates are reported available
-                    StringBuilder avail = new StringBuilder("[CB] CPM available candidate flavors: ");
-                    boolean anyAvail = false;
-                    for (int i = 0; i < candidates.length; i++) {
-                        DataFlavor f = candidates[i];
-                        boolean available;
-                        try {
-                            available = manager.areDataFlavorsAvailable(f);
-                        } catch (Throwable t) {
-                            available = false;
-                        }
-                        if (available) {
-                            if (anyAvail) avail.append(", ");
-                            avail.append('[').append(f.getMimeType()).append("]");
-                            anyAvail = true;
-                        }
-                    }
-                    LOG.info(anyAvail ? avail.toString() : "[CB] CPM no candidate flavors reported available");
+                    CB.debug(() -> describeAvailableCandidates(candidates));
 
                     for (DataFlavor flavor : candidates) {
                         boolean available;
@@ -110,49 +128,48 @@ public class DefaultClipboardService implements ClipboardService {
                             available = false;
                         }
                         if (!available) continue;
+                        ClipboardFlavorProbeEvent probe = startProbe(SOURCE_CPM);
                         try {
                             Object data = manager.getContents(flavor);
-                            try {
-                                LOG.info("[CB] CPM Flavor (candidate): " + flavor.getMimeType() + "; class=" + flavor.getRepresentationClass().getName() + "; isText=" + flavor.isFlavorTextType());
-                            } catch (Throwable ignore) {
-                                // logging only
-                            }
+                            CB.debug(() -> "[CB] CPM Flavor (candidate): " + describe(flavor));
                             if (data == null) continue;
 
                             if (data instanceof String) {
-                                String s = stripNulls((String) data);
-                                boolean containsFmxml = s.toLowerCase().contains("<fmxmlsnippet");
-                                LOG.info("[CB] CPM as String len=" + s.length() + ", containsFmxml=" + containsFmxml);
-                                if (!s.isBlank()) return Optional.of(s);
+                                String s = ClipboardCodecs.stripNulls((String) data);
+                                CB.debug(() -> "[CB] CPM as String len=" + s.length() + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                                if (!s.isBlank()) return Optional.of(hit(read, probe, s));
                             } else if (data instanceof Reader) {
-                                String s = readAll((Reader) data);
-                                s = stripNulls(s);
-                                boolean containsFmxml = s != null && s.toLowerCase().contains("<fmxmlsnippet");
-                                LOG.info("[CB] CPM as Reader decodedLen=" + (s == null ? -1 : s.length()) + ", containsFmxml=" + containsFmxml);
-                                if (s != null && !s.isBlank()) return Optional.of(s);
+                                String s = ClipboardCodecs.stripNulls(readAll((Reader) data));
+                                CB.debug(() -> "[CB] CPM as Reader decodedLen=" + (s == null ? -1 : s.length()) + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                                if (s != null && !s.isBlank()) return Optional.of(hit(read, probe, s));
                             } else if (data instanceof InputStream) {
                                 byte[] bytes = readAllBytes((InputStream) data);
-                                String s = decodeBytesWithBomHeuristics(bytes);
-                                LOG.info("[CB] CPM as InputStream bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length()) + ", containsFmxml=" + (s != null && s.toLowerCase().contains("<fmxmlsnippet")));
-                                if (s != null && !s.isBlank()) return Optional.of(s);
-                                String extracted = extractFmxmlFromBytes(bytes);
-                                LOG.info("[CB] CPM as InputStream extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
-                                if (extracted != null && !extracted.isBlank()) return Optional.of(extracted);
+                                probe.bytes = bytes.length;
+                                String s = ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
+                                CB.debug(() -> "[CB] CPM as InputStream bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length()) + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                                if (s != null && !s.isBlank()) return Optional.of(hit(read, probe, s));
+                                String extracted = ClipboardCodecs.extractFmxmlFromBytes(bytes);
+                                CB.info(() -> "[CB] CPM as InputStream extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
+                                if (extracted != null && !extracted.isBlank()) return Optional.of(hit(read, probe, extracted));
                             } else if (data instanceof byte[]) {
                                 byte[] bytes = (byte[]) data;
-                                String s = decodeBytesWithBomHeuristics(bytes);
-                                LOG.info("[CB] CPM as byte[] bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length()) + ", containsFmxml=" + (s != null && s.toLowerCase().contains("<fmxmlsnippet")));
-                                if (s != null && !s.isBlank()) return Optional.of(s);
-                                String extracted = extractFmxmlFromBytes(bytes);
-                                LOG.info("[CB] CPM as byte[] extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
-                                if (extracted != null && !extracted.isBlank()) return Optional.of(extracted);
+                                probe.bytes = bytes.length;
+                                String s = ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
+                                CB.debug(() -> "[CB] CPM as byte[] bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length()) + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                                if (s != null && !s.isBlank()) return Optional.of(hit(read, probe, s));
+                                String extracted = ClipboardCodecs.extractFmxmlFromBytes(bytes);
+                                CB.info(() -> "[CB] CPM as byte[] extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
+                                if (extracted != null && !extracted.isBlank()) return Optional.of(hit(read, probe, extracted));
                             }
                         } catch (Throwable cpmFlavorErr) {
-                            LOG.info("[CB] CPM candidate flavor read failed: " + cpmFlavorErr.getClass().getSimpleName());
+                            probe.outcome = PipelineEvent.FAILED;
+                            CB.info(() -> "[CB] CPM candidate flavor read failed: " + cpmFlavorErr.getClass().getSimpleName());
+                        } finally {
+                            finishProbe(probe, flavor);
                         }
                     }
                 } catch (Throwable cpmErr) {
-                    LOG.info("[CB] CPM full-flavor probing failed (candidates): " + cpmErr.getClass().getSimpleName());
+                    CB.info(() -> "[CB] CPM full-flavor probing failed (candidates): " + cpmErr.getClass().getSimpleName());
                 }
             }
 
@@ -160,15 +177,15 @@ public class DefaultClipboardService implements ClipboardService {
             //    and try to coerce to text using several strategies (String, Reader, InputStream, bytes).
             Clipboard sysClipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
             if (sysClipboard == null) {
-                LOG.info("[CB] AWT early-exit: Toolkit.getSystemClipboard() returned null");
-                Optional<String> nativeResultEarly = tryNativeClipboard();
+                CB.info(() -> "[CB] AWT early-exit: Toolkit.getSystemClipboard() returned null");
+                Optional<String> nativeResultEarly = tryNativeClipboard(read);
                 if (nativeResultEarly.isPresent()) return nativeResultEarly;
                 return Optional.empty();
             }
             Transferable t = sysClipboard.getContents(null);
             if (t == null) {
-                LOG.info("[CB] AWT early-exit: sysClipboard.getContents(null) returned null");
-                Optional<String> nativeResultEarly = tryNativeClipboard();
+                CB.info(() -> "[CB] AWT early-exit: sysClipboard.getContents(null) returned null");
+                Optional<String> nativeResultEarly = tryNativeClipboard(read);
                 if (nativeResultEarly.isPresent()) return nativeResultEarly;
                 return Optional.empty();
             }
@@ -176,14 +193,14 @@ public class DefaultClipboardService implements ClipboardService {
             // Prefer text flavors first
             DataFlavor[] flavors = t.getTransferDataFlavors();
             if (flavors == null || flavors.length == 0) {
-                LOG.info("[CB] AWT early-exit: getTransferDataFlavors() is null/empty");
-                Optional<String> nativeResultEarly = tryNativeClipboard();
+                CB.info(() -> "[CB] AWT early-exit: getTransferDataFlavors() is null/empty");
+                Optional<String> nativeResultEarly = tryNativeClipboard(read);
                 if (nativeResultEarly.isPresent()) return nativeResultEarly;
                 return Optional.empty();
             }
 
             // 2a) Try a few known text-like flavors explicitly (some platforms may not mark them as flavorTextType)
-            String direct = trySpecificTextFlavors(t,
+            String direct = trySpecificTextFlavors(read, t,
                     new String[]{
                             "text/plain;class=java.lang.String",
                             "text/plain;charset=utf-16;class=java.io.InputStream",
@@ -201,15 +218,18 @@ public class DefaultClipboardService implements ClipboardService {
             try {
                 DataFlavor best = DataFlavor.selectBestTextFlavor(flavors);
                 if (best != null) {
+                    ClipboardFlavorProbeEvent probe = startProbe(SOURCE_AWT);
                     try (Reader rdr = best.getReaderForText(t)) {
                         if (rdr != null) {
                             String s = readAll(rdr);
                             if (s != null && !s.isEmpty()) {
-                                return Optional.of(s);
+                                return Optional.of(hit(read, probe, s));
                             }
                         }
                     } catch (UnsupportedFlavorException ignore) {
                         // fall through
+                    } finally {
+                        finishProbe(probe, best);
                     }
                 }
             } catch (Throwable ignore) {
@@ -217,24 +237,19 @@ public class DefaultClipboardService implements ClipboardService {
             }
 
             for (DataFlavor flavor : flavors) {
+                ClipboardFlavorProbeEvent probe = startProbe(SOURCE_AWT);
                 try {
-                    try {
-                        LOG.info("[CB] Flavor: " + flavor.getMimeType() + "; class=" + flavor.getRepresentationClass().getName() + "; isText=" + flavor.isFlavorTextType());
-                    } catch (Throwable ignore) {
-                        // logging only
-                    }
+                    CB.debug(() -> "[CB] Flavor: " + describe(flavor));
                     // If it's declared as text, try the standard reader path
                     if (flavor.isFlavorTextType()) {
                         try {
                             Reader reader = flavor.getReaderForText(t);
                             if (reader != null) {
-                                String s = readAll(reader);
+                                String s = ClipboardCodecs.stripNulls(readAll(reader));
                                 if (s != null) {
-                                    s = stripNulls(s);
-                                    boolean containsFmxml = s.toLowerCase().contains("<fmxmlsnippet");
-                                    LOG.info("[CB] ReaderForText decodedLen=" + s.length() + ", containsFmxml=" + containsFmxml);
+                                    CB.debug(() -> "[CB] ReaderForText decodedLen=" + s.length() + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
                                 }
-                                if (s != null && !s.isBlank()) return Optional.of(s);
+                                if (s != null && !s.isBlank()) return Optional.of(hit(read, probe, s));
                             }
                         } catch (UnsupportedFlavorException ignore) {
                             // fall through to other attempts
@@ -245,57 +260,43 @@ public class DefaultClipboardService implements ClipboardService {
                     if (data == null) continue;
 
                     if (data instanceof String) {
-                        String s = stripNulls((String) data);
-                        try {
-                            int nul = 0; // already stripped
-                            boolean containsFmxml = s.toLowerCase().contains("<fmxmlsnippet");
-                            LOG.info("[CB] Data as String len=" + s.length() + ", nulCount=" + nul + ", containsFmxml=" + containsFmxml);
-                        } catch (Throwable ignore) {
-                            // logging only
-                        }
-                        if (!s.isBlank()) return Optional.of(s);
+                        String s = ClipboardCodecs.stripNulls((String) data);
+                        CB.debug(() -> "[CB] Data as String len=" + s.length() + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                        if (!s.isBlank()) return Optional.of(hit(read, probe, s));
                     } else if (data instanceof InputStream) {
                         byte[] bytes = readAllBytes((InputStream) data);
-                        String s = decodeBytesWithBomHeuristics(bytes);
-                        try {
-                            LOG.info("[CB] Data as InputStream bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length()) +
-                                    ", containsFmxml=" + (s != null && s.toLowerCase().contains("<fmxmlsnippet")));
-                        } catch (Throwable ignore) {
-                            // logging only
-                        }
-                        if (s != null && !s.isBlank()) return Optional.of(s);
+                        probe.bytes = bytes.length;
+                        String s = ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
+                        CB.debug(() -> "[CB] Data as InputStream bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length())
+                                + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                        if (s != null && !s.isBlank()) return Optional.of(hit(read, probe, s));
                         // Raw fmxmlsnippet extraction as last resort for this flavor
-                        String extracted = extractFmxmlFromBytes(bytes);
-                        try {
-                            LOG.info("[CB] Data as InputStream extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
-                        } catch (Throwable ignore) {
-                            // logging only
-                        }
-                        if (extracted != null && !extracted.isBlank()) return Optional.of(extracted);
+                        String extracted = ClipboardCodecs.extractFmxmlFromBytes(bytes);
+                        CB.info(() -> "[CB] Data as InputStream extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
+                        if (extracted != null && !extracted.isBlank()) return Optional.of(hit(read, probe, extracted));
                     } else if (data instanceof byte[]) {
-                        String s = decodeBytesWithBomHeuristics((byte[]) data);
-                        try {
-                            LOG.info("[CB] Data as byte[] bytesLen=" + ((byte[]) data).length + ", decodedLen=" + (s == null ? -1 : s.length()) +
-                                    ", containsFmxml=" + (s != null && s.toLowerCase().contains("<fmxmlsnippet")));
-                        } catch (Throwable ignore) {
-                            // logging only
-                        }
-                        if (s != null && !s.isBlank()) return Optional.of(s);
-                        String extracted = extractFmxmlFromBytes((byte[]) data);
-                        try {
-                            LOG.info("[CB] Data as byte[] extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
-                        } catch (Throwable ignore) {
-                            // logging only
-                        }
-                        if (extracted != null && !extracted.isBlank()) return Optional.of(extracted);
+                        byte[] bytes = (byte[]) data;
+                        probe.bytes = bytes.length;
+                        String s = ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
+                        CB.debug(() -> "[CB] Data as byte[] bytesLen=" + bytes.length + ", decodedLen=" + (s == null ? -1 : s.length())
+                                + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
+                        if (s != null && !s.isBlank()) return Optional.of(hit(read, probe, s));
+                        String extracted = ClipboardCodecs.extractFmxmlFromBytes(bytes);
+                        CB.info(() -> "[CB] Data as byte[] extracted snippet len=" + (extracted == null ? -1 : extracted.length()));
+                        if (extracted != null && !extracted.isBlank()) return Optional.of(hit(read, probe, extracted));
                     }
                 } catch (UnsupportedFlavorException ignored) {
                     // Try next flavor
+                } catch (IOException | RuntimeException ex) {
+                    probe.outcome = PipelineEvent.FAILED;
+                    throw ex;
+                } finally {
+                    finishProbe(probe, flavor);
                 }
             }
 
             // Diagnostics: log discovered flavors to help troubleshoot
-            try {
+            CB.info(() -> {
                 StringBuilder sb = new StringBuilder();
                 sb.append("Clipboard had flavors but none yielded non-empty text. Flavors= ");
                 for (int i = 0; i < flavors.length; i++) {
@@ -307,13 +308,11 @@ public class DefaultClipboardService implements ClipboardService {
                       .append(f.getRepresentationClass().getSimpleName())
                       .append(']');
                 }
-                LOG.info(sb.toString());
-            } catch (Throwable ignore) {
-                // ignore logging failures
-            }
+                return sb.toString();
+            });
 
             // 3) Windows-native fallback via JNA (CF_UNICODETEXT / CF_TEXT)
-            Optional<String> nativeResult = tryNativeClipboard();
+            Optional<String> nativeResult = tryNativeClipboard(read);
             if (nativeResult.isPresent()) return nativeResult;
 
             Optional<String> res = Optional.empty();
@@ -331,21 +330,46 @@ public class DefaultClipboardService implements ClipboardService {
 
     @Override
     public void writeText(String text) throws ClipboardAccessException {
+        final String toWrite = text == null ? "" : text;
+        ClipboardWriteEvent event = new ClipboardWriteEvent();
+        event.begin();
+        String outcome = PipelineEvent.FAILED;
+        long startNs = System.nanoTime();
+        try {
+            event.route = writeWithFallbacks(toWrite);
+            outcome = PipelineEvent.OK;
+            PipelineMetrics.CLIPBOARD_WRITE.record(System.nanoTime() - startNs, toWrite.length());
+            if (!toWrite.isEmpty()) PipelineMetrics.WRITE_NATIVE.record(!ROUTE_AWT.equals(event.route));
+        } catch (ClipboardAccessException ex) {
+            PipelineMetrics.CLIPBOARD_WRITE.failed(System.nanoTime() - startNs);
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.chars = toWrite.length();
+                event.snippetType = ClipboardCodecs.detectSnippetType(toWrite).name();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    // Returns the route that placed the text on the clipboard (windows-native, mac-native or awt)
+    private String writeWithFallbacks(String toWrite) throws ClipboardAccessException {
         try {
             maybeDumpClipboardFormats("pre-write");
-            String toWrite = text == null ? "" : text;
             // Try Windows-native write if available to mirror FileMaker's custom formats.
             // For empty payloads, prefer the AWT/CPM path to preserve historical behavior and
             // avoid platform quirks observed in some environments.
-            if (!toWrite.isEmpty() && tryWindowsNativeWrite(toWrite)) {
+            if (!toWrite.isEmpty() && timedNativeWrite(toWrite, this::tryWindowsNativeWrite)) {
                 maybeDumpClipboardFormats("post-write");
-                return;
+                return "windows-native";
             }
             // Try macOS-specific path (Phase 2.3 integration). If not active/available, this returns false
             // and we fall back to the broader AWT/CopyPasteManager multi-flavor writer below.
-            if (!toWrite.isEmpty() && tryMacNativeWrite(toWrite)) {
+            if (!toWrite.isEmpty() && timedNativeWrite(toWrite, this::tryMacNativeWrite)) {
                 maybeDumpClipboardFormats("post-write");
-                return;
+                return "mac-native";
             }
             // Publish multiple text flavors to improve compatibility with apps like FileMaker on macOS
             // that may probe XML, UTF-16, or generic text representations. This mirrors the breadth
@@ -362,6 +386,7 @@ public class DefaultClipboardService implements ClipboardService {
                 sysClipboard.setContents(multi, null);
             }
             maybeDumpClipboardFormats("post-write");
+            return ROUTE_AWT;
         } catch (IllegalStateException e) { // clipboard busy/locked
             throw new ClipboardAccessException("Clipboard is currently unavailable (locked).", e);
         } catch (Throwable t) {
@@ -369,6 +394,14 @@ public class DefaultClipboardService implements ClipboardService {
         }
     }
 
+    // Native writers bail out quickly on other platforms, so only attempts that wrote count as a sample
+    private static boolean timedNativeWrite(String text, java.util.function.Predicate<String> writer) {
+        long startNs = System.nanoTime();
+        boolean ok = writer.test(text);
+        if (ok) PipelineMetrics.NATIVE_WRITE.record(System.nanoTime() - startNs, text.length());
+        return ok;
+    }
+
     // Phase 2.3 — Integrate MacClipboardWriter into DefaultClipboardService
     private boolean tryMacNativeWrite(String text) {
         try {
@@ -427,14 +460,14 @@ public class DefaultClipboardService implements ClipboardService {
         LOG.info("[CB-DIAG] Detected snippet type=" + type.name());
 
         // Guard extremely large payloads to avoid excessive allocations
-        final byte[] utf16 = utf16leNullTerminated(text);
+        final byte[] utf16 = ClipboardCodecs.utf16leNullTerminated(text);
         // For FileMaker's custom Mac-* formats, normalize newlines to LF ("\n").
-        final String customPayload = normalizeToLfNewlines(text);
+        final String customPayload = ClipboardCodecs.normalizeToLfNewlines(text);
         // FileMaker's custom Mac-* formats: 4-byte LE length prefix + UTF-8 (no BOM), no trailing NUL.
-        final byte[] fmCustom = utf8LengthPrefixedNoBom(customPayload);
+        final byte[] fmCustom = ClipboardCodecs.utf8LengthPrefixedNoBom(customPayload);
 
         // Diagnostics: verify BOMs, terminators, newline normalization and length prefix expectations at runtime.
-        if (Diagnostics.isVerbose()) {
+        if (CB.isDebug()) {
             // CF_UNICODETEXT: should NOT include BOM by spec; should end with two NUL bytes.
             boolean utf16HasBom = utf16.length >= 2 && (utf16[0] == (byte)0xFF && utf16[1] == (byte)0xFE);
             boolean utf16HasNullTerm = utf16.length >= 2 && (utf16[utf16.length - 1] == 0x00) && (utf16[utf16.length - 2] == 0x00);
@@ -631,37 +664,9 @@ public class DefaultClipboardService implements ClipboardService {
         }
     }
 
-    private static byte[] utf16leNullTerminated(String s) {
-        byte[] data = (s == null ? "" : s).getBytes(StandardCharsets.UTF_16LE);
-        byte[] out = new byte[data.length + 2];
-        System.arraycopy(data, 0, out, 0, data.length);
-        // last two bytes already zero
-        return out;
-    }
-
-    private static byte[] utf8NullTerminated(String s) {
-        byte[] data = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
-        byte[] out = new byte[data.length + 1];
-        System.arraycopy(data, 0, out, 0, data.length);
-        // last byte zero
-        return out;
-    }
-
-    // Build: [4-byte little-endian payload length] + [UTF-8 payload without BOM], no trailing NUL
-    private static byte[] utf8LengthPrefixedNoBom(String s) {
-        byte[] payload = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
-        int len = payload.length;
-        byte[] out = new byte[4 + len];
-        out[0] = (byte) (len & 0xFF);
-        out[1] = (byte) ((len >>> 8) & 0xFF);
-        out[2] = (byte) ((len >>> 16) & 0xFF);
-        out[3] = (byte) ((len >>> 24) & 0xFF);
-        System.arraycopy(payload, 0, out, 4, len);
-        return out;
-    }
-
-    // Snippet type classification to select FileMaker custom clipboard format
-    static enum SnippetType {
+    // Snippet type classification to select FileMaker custom clipboard format.
+    // Public so batch operations can check that several snippets target the same FileMaker format.
+    public static enum SnippetType {
         SCRIPT,
         SCRIPT_STEPS,
         FIELD_DEFINITION,
@@ -672,35 +677,9 @@ public class DefaultClipboardService implements ClipboardService {
         UNKNOWN
     }
 
-    // Package-private for unit testing
-    static SnippetType detectSnippetType(String text) {
-        if (text == null || text.isEmpty()) return SnippetType.UNKNOWN;
-        // Simple heuristics per roadmap 1.4
-        // Order matters; check the most specific/common first
-        // Important: detect full Script before bare Step selection, since scripts contain steps
-        if (text.contains("<Script")) return SnippetType.SCRIPT;
-        if (text.contains("<Step")) return SnippetType.SCRIPT_STEPS;
-        // Important: check for BaseTable before Field/FieldDefinition because table snippets often contain <Field>
-        // and must be classified as TABLE_DEFINITION to target Mac-XMTB (not Mac-XMFD).
-        if (text.contains("<BaseTable")) return SnippetType.TABLE_DEFINITION;
-        // Layout-related tags should be detected BEFORE fields because layout object XML may include
-        // <Field> references inside DDRInfo or nested elements; we must still treat the snippet as layout objects.
-        if (text.contains("<Layout") || text.contains("<ObjectList") || text.contains("<LayoutObject") || text.contains("<Object ") || text.contains("<Part")) {
-            return SnippetType.LAYOUT_OBJECTS;
-        }
-        if (text.contains("<FieldDefinition") || text.contains("<Field ")) return SnippetType.FIELD_DEFINITION;
-        // Custom Functions and Value Lists
-        if (text.contains("<CustomFunction")) return SnippetType.CUSTOM_FUNCTION;
-        if (text.contains("<ValueList")) return SnippetType.VALUE_LIST;
-        return SnippetType.UNKNOWN;
-    }
-
-    // Normalize any mix of CRLF/CR/LF to LF newlines for custom Mac-* formats based on analysis.
-    private static String normalizeToLfNewlines(String s) {
-        if (s == null || s.isEmpty()) return "";
-        String tmp = s.replace("\r\n", "\n");
-        tmp = tmp.replace("\r", "\n");
-        return tmp;
+    // Public for batch push compatibility checks and unit testing
+    public static SnippetType detectSnippetType(String text) {
+        return ClipboardCodecs.detectSnippetType(text);
     }
 
     // Utility: simple non-overlapping substring count for diagnostics
@@ -743,7 +722,7 @@ public class DefaultClipboardService implements ClipboardService {
     private static volatile boolean jnaAvailable = false;
 
     private void maybeDumpClipboardFormats(String phase) {
-        if (!Diagnostics.isVerbose()) return;
+        if (!CB.isDebug()) return;
         String os = System.getProperty("os.name", "");
         if (os == null || !os.toLowerCase().startsWith("windows")) return;
         ensureJna();
@@ -911,6 +890,69 @@ public class DefaultClipboardService implements ClipboardService {
         }
     }
 
+    private static String describe(DataFlavor flavor) {
+        return flavor.getMimeType() + "; class=" + flavor.getRepresentationClass().getName() + "; isText=" + flavor.isFlavorTextType();
+    }
+
+    private String describeAvailableCandidates(DataFlavor[] candidates) {
+        StringBuilder avail = new StringBuilder("[CB] CPM available candidate flavors: ");
+        boolean anyAvail = false;
+        for (DataFlavor f : candidates) {
+            boolean available;
+            try {
+                available = manager.areDataFlavorsAvailable(f);
+            } catch (Throwable t) {
+                available = false;
+            }
+            if (available) {
+                if (anyAvail) avail.append(", ");
+                avail.append('[').append(f.getMimeType()).append("]");
+                anyAvail = true;
+            }
+        }
+        return anyAvail ? avail.toString() : "[CB] CPM no candidate flavors reported available";
+    }
+
+    private static ClipboardFlavorProbeEvent startProbe(String source) {
+        ClipboardFlavorProbeEvent probe = new ClipboardFlavorProbeEvent();
+        probe.source = source;
+        probe.begin();
+        return probe;
+    }
+
+    // Marks the probe as the one that produced the clipboard text
+    private static String hit(ClipboardReadEvent read, ClipboardFlavorProbeEvent probe, String text) {
+        probe.chars = text.length();
+        probe.outcome = PipelineEvent.OK;
+        read.source = probe.source;
+        return text;
+    }
+
+    private static void finishProbe(ClipboardFlavorProbeEvent probe, DataFlavor flavor) {
+        probe.end();
+        if (!probe.shouldCommit()) return;
+        // Flavor names are only formatted when a recording actually wants the event
+        String name;
+        try {
+            probe.representation = flavor.getRepresentationClass().getName();
+            name = flavor.getMimeType();
+        } catch (Throwable ignore) {
+            name = String.valueOf(flavor);
+        }
+        commitProbe(probe, name);
+    }
+
+    private static void finishProbe(ClipboardFlavorProbeEvent probe, String flavor) {
+        probe.end();
+        if (probe.shouldCommit()) commitProbe(probe, flavor);
+    }
+
+    private static void commitProbe(ClipboardFlavorProbeEvent probe, String flavor) {
+        probe.flavor = flavor;
+        if (probe.outcome == null) probe.outcome = PipelineEvent.EMPTY;
+        probe.commit();
+    }
+
     private static String readAll(Reader reader) {
         try (BufferedReader br = new BufferedReader(reader)) {
             StringBuilder sb = new StringBuilder();
@@ -938,134 +980,6 @@ public class DefaultClipboardService implements ClipboardService {
         }
     }
 
-    private static String decodeBytesWithBomHeuristics(byte[] bytes) {
-        if (bytes == null || bytes.length == 0) return "";
-
-        // BOM detection
-        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
-            return new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
-        }
-        if (bytes.length >= 2) {
-            int b0 = bytes[0] & 0xFF;
-            int b1 = bytes[1] & 0xFF;
-            if (b0 == 0xFE && b1 == 0xFF) {
-                return stripNulls(new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_16BE));
-            }
-            if (b0 == 0xFF && b1 == 0xFE) {
-                return stripNulls(new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_16LE));
-            }
-        }
-
-        // Heuristic for UTF-16 without BOM (check zero distribution)
-        int zerosEven = 0, zerosOdd = 0;
-        for (int i = 0; i < bytes.length; i++) {
-            if (bytes[i] == 0) {
-                if ((i & 1) == 0) zerosEven++; else zerosOdd++;
-            }
-        }
-        int threshold = Math.max(2, bytes.length / 10); // 10% zeros is a hint
-        if (zerosOdd > zerosEven && zerosOdd >= threshold) {
-            return stripNulls(new String(bytes, StandardCharsets.UTF_16BE));
-        } else if (zerosEven > zerosOdd && zerosEven >= threshold) {
-            return stripNulls(new String(bytes, StandardCharsets.UTF_16LE));
-        }
-
-        // Fallback to UTF-8 (as PS script does)
-        String utf8 = new String(bytes, StandardCharsets.UTF_8);
-        return stripNulls(utf8);
-    }
-
-    private static String stripNulls(String s) {
-        if (s == null) return null;
-        // Remove embedded NULs which can cause isBlank() to see effectively empty text
-        return s.replace("\u0000", "");
-    }
-
-    /**
-     * Attempts to locate an <fmxmlsnippet>…</fmxmlsnippet> block directly in the raw bytes in common encodings
-     * (UTF-8/ASCII, UTF-16LE, UTF-16BE). If found, decodes and returns the snippet; otherwise returns null.
-     */
-    private static String extractFmxmlFromBytes(byte[] bytes) {
-        if (bytes == null || bytes.length == 0) return null;
-
-        // UTF-8 / ASCII search
-        int startUtf8 = indexOf(bytes, ascii("<fmxmlsnippet"));
-        if (startUtf8 >= 0) {
-            int endUtf8 = lastIndexOf(bytes, ascii("</fmxmlsnippet>"));
-            if (endUtf8 >= 0 && endUtf8 >= startUtf8) {
-                int endPos = endUtf8 + ascii("</fmxmlsnippet>").length;
-                return new String(bytes, startUtf8, endPos - startUtf8, StandardCharsets.UTF_8).trim();
-            }
-        }
-
-        // UTF-16LE search
-        byte[] startLe = utf16le("<fmxmlsnippet");
-        byte[] endLe = utf16le("</fmxmlsnippet>");
-        int start16le = indexOf(bytes, startLe);
-        if (start16le >= 0) {
-            int end16le = lastIndexOf(bytes, endLe);
-            if (end16le >= 0 && end16le >= start16le) {
-                int endPos = end16le + endLe.length;
-                String s = new String(bytes, start16le, endPos - start16le, StandardCharsets.UTF_16LE);
-                return stripNulls(s).trim();
-            }
-        }
-
-        // UTF-16BE search
-        byte[] startBe = utf16be("<fmxmlsnippet");
-        byte[] endBe = utf16be("</fmxmlsnippet>");
-        int start16be = indexOf(bytes, startBe);
-        if (start16be >= 0) {
-            int end16be = lastIndexOf(bytes, endBe);
-            if (end16be >= 0 && end16be >= start16be) {
-                int endPos = end16be + endBe.length;
-                String s = new String(bytes, start16be, endPos - start16be, StandardCharsets.UTF_16BE);
-                return stripNulls(s).trim();
-            }
-        }
-
-        return null;
-    }
-
-    private static byte[] ascii(String s) {
-        return s.getBytes(StandardCharsets.US_ASCII);
-    }
-
-    private static byte[] utf16le(String s) {
-        // Encode and drop potential BOM
-        byte[] b = s.getBytes(StandardCharsets.UTF_16LE);
-        return b;
-    }
-
-    private static byte[] utf16be(String s) {
-        byte[] b = s.getBytes(StandardCharsets.UTF_16BE);
-        return b;
-    }
-
-    private static int indexOf(byte[] data, byte[] pattern) {
-        if (pattern.length == 0) return 0;
-        outer:
-        for (int i = 0; i <= data.length - pattern.length; i++) {
-            for (int j = 0; j < pattern.length; j++) {
-                if (data[i + j] != pattern[j]) continue outer;
-            }
-            return i;
-        }
-        return -1;
-    }
-
-    private static int lastIndexOf(byte[] data, byte[] pattern) {
-        if (pattern.length == 0) return data.length;
-        outer:
-        for (int i = data.length - pattern.length; i >= 0; i--) {
-            for (int j = 0; j < pattern.length; j++) {
-                if (data[i + j] != pattern[j]) continue outer;
-            }
-            return i;
-        }
-        return -1;
-    }
-
     private static CopyPasteManager safeCopyPasteManager() {
         try {
             return CopyPasteManager.getInstance();
@@ -1075,7 +989,7 @@ public class DefaultClipboardService implements ClipboardService {
         }
     }
 
-    private Optional<String> tryNativeClipboard() {
+    private Optional<String> tryNativeClipboard(ClipboardReadEvent read) {
         try {
             if (nativeReader == null) return Optional.empty();
             String os = System.getProperty("os.name", "");
@@ -1088,27 +1002,36 @@ public class DefaultClipboardService implements ClipboardService {
                     Class.forName("com.sun.jna.Native");
                     Class.forName("com.sun.jna.win32.W32APIOptions");
                 } catch (Throwable jnaMissing) {
-                    LOG.info("[CB] Native path: JNA classes not found in runtime: " + jnaMissing.getClass().getSimpleName());
+                    CB.info(() -> "[CB] Native path: JNA classes not found in runtime: " + jnaMissing.getClass().getSimpleName());
                     return Optional.empty();
                 }
-                LOG.info("[CB] Native path: attempting Windows clipboard read (CF_UNICODETEXT/CF_TEXT)");
+                CB.info(() -> "[CB] Native path: attempting Windows clipboard read (CF_UNICODETEXT/CF_TEXT)");
             } else if (isMac) {
-                LOG.info("[CB] Native path: attempting macOS clipboard probe (public.utf16-plain-text, NSStringPboardType, XML/text)");
+                CB.info(() -> "[CB] Native path: attempting macOS clipboard probe (public.utf16-plain-text, NSStringPboardType, XML/text)");
             } else {
                 // Other OS not supported by native path
                 return Optional.empty();
             }
-            Optional<String> result = nativeReader.read();
+            ClipboardFlavorProbeEvent probe = startProbe(SOURCE_NATIVE);
+            Optional<String> result;
+            try {
+                result = nativeReader.read();
+                result.ifPresent(text -> hit(read, probe, text));
+            } catch (RuntimeException ex) {
+                probe.outcome = PipelineEvent.FAILED;
+                throw ex;
+            } finally {
+                finishProbe(probe, isWindows ? "CF_UNICODETEXT/CF_TEXT" : "NSPasteboard");
+            }
             if (result.isPresent()) {
                 String s = result.get();
-                boolean containsFmxml = s.toLowerCase().contains("<fmxmlsnippet");
-                LOG.info("[CB] Native path: success, len=" + s.length() + ", containsFmxml=" + containsFmxml);
+                CB.debug(() -> "[CB] Native path: success, len=" + s.length() + ", containsFmxml=" + ClipboardCodecs.containsFmxml(s));
             } else {
-                LOG.info("[CB] Native path: no usable text returned");
+                CB.info(() -> "[CB] Native path: no usable text returned");
             }
             return result;
         } catch (Throwable t) {
-            LOG.info("[CB] Native path failed: " + t.getClass().getSimpleName());
+            CB.info(() -> "[CB] Native path failed: " + t.getClass().getSimpleName());
             return Optional.empty();
         }
     }
@@ -1128,26 +1051,34 @@ public class DefaultClipboardService implements ClipboardService {
         return null;
     }
 
-    private static String trySpecificTextFlavors(Transferable t, String[] mimeTypes) {
+    private static String trySpecificTextFlavors(ClipboardReadEvent read, Transferable t, String[] mimeTypes) {
         for (String mime : mimeTypes) {
             try {
                 DataFlavor flavor = new DataFlavor(mime);
                 if (!t.isDataFlavorSupported(flavor)) continue;
-                Object data = t.getTransferData(flavor);
-                if (data == null) continue;
-                if (data instanceof String) {
-                    String s = (String) data;
-                    if (!s.isEmpty()) return s;
-                } else if (data instanceof Reader) {
-                    String s = readAll((Reader) data);
-                    if (s != null && !s.isEmpty()) return s;
-                } else if (data instanceof InputStream) {
-                    byte[] bytes = readAllBytes((InputStream) data);
-                    String s = decodeBytesWithBomHeuristics(bytes);
-                    if (s != null && !s.isEmpty()) return s;
-                } else if (data instanceof byte[]) {
-                    String s = decodeBytesWithBomHeuristics((byte[]) data);
-                    if (s != null && !s.isEmpty()) return s;
+                ClipboardFlavorProbeEvent probe = startProbe(SOURCE_AWT);
+                try {
+                    Object data = t.getTransferData(flavor);
+                    if (data == null) continue;
+                    String s = null;
+                    if (data instanceof String) {
+                        s = (String) data;
+                    } else if (data instanceof Reader) {
+                        s = readAll((Reader) data);
+                    } else if (data instanceof InputStream) {
+                        byte[] bytes = readAllBytes((InputStream) data);
+                        probe.bytes = bytes.length;
+                        s = ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
+                    } else if (data instanceof byte[]) {
+                        probe.bytes = ((byte[]) data).length;
+                        s = ClipboardCodecs.decodeBytesWithBomHeuristics((byte[]) data);
+                    }
+                    if (s != null && !s.isEmpty()) return hit(read, probe, s);
+                } catch (Throwable ex) {
+                    probe.outcome = PipelineEvent.FAILED;
+                    throw ex;
+                } finally {
+                    finishProbe(probe, flavor);
                 }
             } catch (ClassNotFoundException | UnsupportedFlavorException | LinkageError ignored) {
                 // Ignore and continue
@@ -1,7 +1,6 @@
 package dev.fmcuttingboard.clipboard;
 
-import com.intellij.openapi.diagnostic.Logger;
-import dev.fmcuttingboard.util.Diagnostics;
+import dev.fmcuttingboard.log.FmDiagnostics;
 
 import java.awt.*;
 import java.awt.datatransfer.*;
@@ -21,7 +20,6 @@ import java.nio.charset.StandardCharsets;
  *   to standard multi-flavor AWT/CopyPasteManager writes.
  */
 final class MacClipboardWriter {
-    private static final Logger LOG = Logger.getInstance(MacClipboardWriter.class);
 
     private MacClipboardWriter() {}
 
@@ -39,10 +37,8 @@ final class MacClipboardWriter {
         // Placeholder for future JNA/JNI NSPasteboard path. We emit diagnostics to make
         // behavior traceable in verbose logs and immediately return false to allow the
         // caller to use the generic multi-flavor AWT path.
-        if (Diagnostics.isVerbose()) {
-            int bytes = text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length;
-            LOG.info("[CB-mac] Native pasteboard writer not active; falling back to AWT flavors. bytes=" + bytes);
-        }
+        FmDiagnostics.CLIPBOARD.debug(() -> "[CB-mac] Native pasteboard writer not active; falling back to AWT flavors. bytes="
+                + (text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length));
 
         // Example idea (not used currently): publish UTF-16 stream flavor directly via AWT
         // to increase compatibility. We intentionally do not claim success here, so the
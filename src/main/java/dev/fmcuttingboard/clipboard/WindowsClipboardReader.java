@@ -209,16 +209,15 @@ class WindowsClipboardReader implements NativeClipboardReader {
             }
 
             // Decode text heuristically
-            String decoded = decodeBytesWithBomHeuristics(bytes);
+            String decoded = ClipboardCodecs.decodeBytesWithBomHeuristics(bytes);
             if (decoded != null && !decoded.isBlank()) {
-                boolean contains = decoded.toLowerCase().contains("<fmxmlsnippet");
-                if (contains) {
+                if (ClipboardCodecs.containsFmxml(decoded)) {
                     LOG.info("[CB] Native path: fmxmlsnippet detected in decoded text for id=" + id + (name == null ? "" : ", name='" + name + "'"));
                     return Optional.of(decoded);
                 }
             }
             // Raw snippet extraction
-            String snippet = extractFmxmlFromBytes(bytes);
+            String snippet = ClipboardCodecs.extractFmxmlFromBytes(bytes);
             if (snippet != null && !snippet.isBlank()) {
                 LOG.info("[CB] Native path: fmxmlsnippet extracted from format id=" + id + (name == null ? "" : ", name='" + name + "'"));
                 return Optional.of(snippet);
@@ -243,92 +242,7 @@ class WindowsClipboardReader implements NativeClipboardReader {
         return null;
     }
 
-    // Minimal decoding/scan helpers (mirrors DefaultClipboardService logic)
-    private static String decodeBytesWithBomHeuristics(byte[] bytes) {
-        if (bytes == null || bytes.length == 0) return "";
-        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
-            return stripNulls(new String(bytes, 3, bytes.length - 3, java.nio.charset.StandardCharsets.UTF_8));
-        }
-        if (bytes.length >= 2) {
-            int b0 = bytes[0] & 0xFF;
-            int b1 = bytes[1] & 0xFF;
-            if (b0 == 0xFE && b1 == 0xFF) {
-                return stripNulls(new String(bytes, 2, bytes.length - 2, java.nio.charset.StandardCharsets.UTF_16BE));
-            }
-            if (b0 == 0xFF && b1 == 0xFE) {
-                return stripNulls(new String(bytes, 2, bytes.length - 2, java.nio.charset.StandardCharsets.UTF_16LE));
-            }
-        }
-        int zerosEven = 0, zerosOdd = 0;
-        for (int i = 0; i < bytes.length; i++) {
-            if (bytes[i] == 0) {
-                if ((i & 1) == 0) zerosEven++; else zerosOdd++;
-            }
-        }
-        int threshold = Math.max(2, bytes.length / 10);
-        if (zerosOdd > zerosEven && zerosOdd >= threshold) {
-            return stripNulls(new String(bytes, java.nio.charset.StandardCharsets.UTF_16BE));
-        } else if (zerosEven > zerosOdd && zerosEven >= threshold) {
-            return stripNulls(new String(bytes, java.nio.charset.StandardCharsets.UTF_16LE));
-        }
-        return stripNulls(new String(bytes, java.nio.charset.StandardCharsets.UTF_8));
-    }
-
-    private static String extractFmxmlFromBytes(byte[] bytes) {
-        if (bytes == null || bytes.length == 0) return null;
-        int startUtf8 = indexOf(bytes, ascii("<fmxmlsnippet"));
-        if (startUtf8 >= 0) {
-            int endUtf8 = lastIndexOf(bytes, ascii("</fmxmlsnippet>"));
-            if (endUtf8 >= 0 && endUtf8 >= startUtf8) {
-                int endPos = endUtf8 + ascii("</fmxmlsnippet>").length;
-                return new String(bytes, startUtf8, endPos - startUtf8, java.nio.charset.StandardCharsets.UTF_8).trim();
-            }
-        }
-        byte[] startLe = utf16le("<fmxmlsnippet");
-        byte[] endLe = utf16le("</fmxmlsnippet>");
-        int start16le = indexOf(bytes, startLe);
-        if (start16le >= 0) {
-            int end16le = lastIndexOf(bytes, endLe);
-            if (end16le >= 0 && end16le >= start16le) {
-                int endPos = end16le + endLe.length;
-                String s = new String(bytes, start16le, endPos - start16le, java.nio.charset.StandardCharsets.UTF_16LE);
-                return stripNulls(s).trim();
-            }
-        }
-        byte[] startBe = utf16be("<fmxmlsnippet");
-        byte[] endBe = utf16be("</fmxmlsnippet>");
-        int start16be = indexOf(bytes, startBe);
-        if (start16be >= 0) {
-            int end16be = lastIndexOf(bytes, endBe);
-            if (end16be >= 0 && end16be >= start16be) {
-                int endPos = end16be + endBe.length;
-                String s = new String(bytes, start16be, endPos - start16be, java.nio.charset.StandardCharsets.UTF_16BE);
-                return stripNulls(s).trim();
-            }
-        }
-        return null;
-    }
-
-    private static byte[] ascii(String s) { return s.getBytes(java.nio.charset.StandardCharsets.US_ASCII); }
-    private static byte[] utf16le(String s) { return s.getBytes(java.nio.charset.StandardCharsets.UTF_16LE); }
-    private static byte[] utf16be(String s) { return s.getBytes(java.nio.charset.StandardCharsets.UTF_16BE); }
-    private static int indexOf(byte[] data, byte[] pattern) {
-        if (pattern.length == 0) return 0;
-        outer: for (int i = 0; i <= data.length - pattern.length; i++) {
-            for (int j = 0; j < pattern.length; j++) { if (data[i + j] != pattern[j]) continue outer; }
-            return i;
-        }
-        return -1;
-    }
-    private static int lastIndexOf(byte[] data, byte[] pattern) {
-        if (pattern.length == 0) return data.length;
-        outer: for (int i = data.length - pattern.length; i >= 0; i--) {
-            for (int j = 0; j < pattern.length; j++) { if (data[i + j] != pattern[j]) continue outer; }
-            return i;
-        }
-        return -1;
-    }
-
+    // Byte decoding and snippet extraction live in ClipboardCodecs
     private static String stripNulls(String s) {
         return s == null ? null : s.replace("\u0000", "");
     }
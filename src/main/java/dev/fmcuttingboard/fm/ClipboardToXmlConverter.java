@@ -1,5 +1,11 @@
 package dev.fmcuttingboard.fm;
 
+import dev.fmcuttingboard.jfr.PipelineEvent;
+import dev.fmcuttingboard.jfr.SnippetClassifyEvent;
+import dev.fmcuttingboard.jfr.SnippetNormalizeEvent;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.metrics.PipelineMetrics;
+
 import java.util.EnumSet;
 import java.util.Objects;
 
@@ -9,6 +15,7 @@ import java.util.Objects;
  * a lightweight internal model (FmSnippet).
  */
 public class ClipboardToXmlConverter {
+    private static final FmDiagnostics.Channel DIAG = FmDiagnostics.CONVERSION;
 
     private final FileMakerClipboardParser parser;
 
@@ -26,21 +33,18 @@ public class ClipboardToXmlConverter {
     public FmSnippet convert(String clipboardText) throws ConversionException {
         try {
             long t0 = System.nanoTime();
-            return parser.normalizeToXmlText(clipboardText)
-                    .map(xml -> {
-                        long t1 = System.nanoTime();
-                        EnumSet<ElementType> types = FmSnippet.detectTypes(xml);
-                        long t2 = System.nanoTime();
-                        // Lightweight diagnostics; only logs when verbose is enabled
-                        if (dev.fmcuttingboard.util.Diagnostics.isVerbose()) {
-                            long parseMs = (t1 - t0) / 1_000_000L;
-                            long typeMs = (t2 - t1) / 1_000_000L;
-                            com.intellij.openapi.diagnostic.Logger.getInstance(ClipboardToXmlConverter.class)
-                                    .info("[PERF] normalizeToXmlText=" + parseMs + "ms, detectTypes=" + typeMs + "ms");
-                        }
-                        return new FmSnippet(xml, types);
-                    })
-                    .orElseThrow(() -> new ConversionException("Clipboard does not contain a recognizable FileMaker fmxmlsnippet."));
+            String xml = normalize(clipboardText);
+            if (xml == null) {
+                throw new ConversionException("Clipboard does not contain a recognizable FileMaker fmxmlsnippet.");
+            }
+            long t1 = System.nanoTime();
+            EnumSet<ElementType> types = classify(xml);
+            long t2 = System.nanoTime();
+            PipelineMetrics.DETECT_TYPES.record(t2 - t1, xml.length());
+            // Lightweight diagnostics; only logs when verbose is enabled
+            DIAG.debug(() -> "[PERF] normalizeToXmlText=" + (t1 - t0) / 1_000_000L + "ms, detectTypes="
+                    + (t2 - t1) / 1_000_000L + "ms");
+            return new FmSnippet(xml, types);
         } catch (ConversionException ce) {
             throw ce;
         } catch (Throwable t) {
@@ -48,6 +52,38 @@ public class ClipboardToXmlConverter {
         }
     }
 
+    // Returns null when the text holds no fmxmlsnippet
+    private String normalize(String clipboardText) {
+        SnippetNormalizeEvent event = new SnippetNormalizeEvent();
+        event.begin();
+        event.inputChars = clipboardText == null ? 0 : clipboardText.length();
+        String outcome = PipelineEvent.FAILED;
+        long startNs = System.nanoTime();
+        try {
+            String xml = parser.normalizeToXmlText(clipboardText).orElse(null);
+            if (xml != null) event.outputChars = xml.length();
+            outcome = xml == null ? PipelineEvent.REJECTED : PipelineEvent.OK;
+            return xml;
+        } finally {
+            PipelineMetrics.NORMALIZE.recordSince(startNs, event.inputChars, !PipelineEvent.FAILED.equals(outcome));
+            event.finish(outcome);
+        }
+    }
+
+    private static EnumSet<ElementType> classify(String xml) {
+        SnippetClassifyEvent event = new SnippetClassifyEvent();
+        event.begin();
+        EnumSet<ElementType> types = FmSnippet.detectTypes(xml);
+        event.end();
+        if (event.shouldCommit()) {
+            event.chars = xml.length();
+            event.snippetTypes = types.toString();
+            event.outcome = types.isEmpty() ? PipelineEvent.EMPTY : PipelineEvent.OK;
+            event.commit();
+        }
+        return types;
+    }
+
     /**
      * Convenience method returning only the XML string.
      */
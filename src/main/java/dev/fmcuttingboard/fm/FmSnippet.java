@@ -28,25 +28,31 @@ public class FmSnippet {
      */
     public static EnumSet<ElementType> detectTypes(String xml) {
         if (xml == null || xml.isBlank()) return EnumSet.of(ElementType.UNKNOWN);
-        String s = xml.toLowerCase();
         EnumSet<ElementType> set = EnumSet.noneOf(ElementType.class);
 
-        // Fields — FileMaker exports often contain <Field> or <FieldDefinition>
-        if (s.contains("<field") || s.contains("<fielddefinition")) {
-            set.add(ElementType.FIELDS);
+        // One pass over the tag openings, matched case-insensitively in place (no lower-cased copy)
+        for (int i = xml.indexOf('<'); i >= 0 && set.size() < 3; i = xml.indexOf('<', i + 1)) {
+            // Fields — FileMaker exports often contain <Field> or <FieldDefinition>
+            if (startsWithIgnoreCase(xml, i, "<field")) {
+                set.add(ElementType.FIELDS);
+            // Scripts — presence of <Script> or <Step>
+            } else if (startsWithIgnoreCase(xml, i, "<script") || startsWithIgnoreCase(xml, i, "<step")) {
+                set.add(ElementType.SCRIPTS);
+            // Layouts — presence of <Layout> or LayoutObjects
+            } else if (startsWithIgnoreCase(xml, i, "<layout") || startsWithIgnoreCase(xml, i, "<object")) {
+                set.add(ElementType.LAYOUTS);
+            }
         }
-
-        // Scripts — presence of <Script> or <Step>
-        if (s.contains("<script") || s.contains("<step")) {
-            set.add(ElementType.SCRIPTS);
-        }
-
-        // Layouts — presence of <Layout> or LayoutObjects
-        if (s.contains("<layout") || s.contains("layoutobjects") || s.contains("<object")) {
+        if (!set.contains(ElementType.LAYOUTS)
+                && DefaultFileMakerClipboardParser.indexOfIgnoreCase(xml, "layoutobjects") >= 0) {
             set.add(ElementType.LAYOUTS);
         }
 
         if (set.isEmpty()) set.add(ElementType.UNKNOWN);
         return set;
     }
+
+    private static boolean startsWithIgnoreCase(String s, int offset, String prefix) {
+        return s.regionMatches(true, offset, prefix, 0, prefix.length());
+    }
 }
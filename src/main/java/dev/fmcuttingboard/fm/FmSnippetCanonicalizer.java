@@ -0,0 +1,343 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Streaming canonicalizer for fmxmlsnippet XML, so that two captures of the same objects produce
+ * byte-identical files and VCS diffs only show real changes.
+ *
+ * Canonical form:
+ * - attributes sorted by name;
+ * - whitespace-only text between elements dropped and elements re-indented by two spaces;
+ *   text-only elements (e.g. {@code <Text>}, {@code <Calculation>}) keep their content verbatim;
+ * - LF line endings everywhere, a trailing newline, no XML declaration;
+ * - CDATA sections and comments preserved;
+ * - optionally, volatile attributes (object ids, UUIDs, layout keys) removed.
+ *
+ * Uses the StAX cursor API and keeps only per-depth state, so memory use does not grow with
+ * the size of the snippet.
+ */
+public class FmSnippetCanonicalizer {
+
+    /** Attributes that FileMaker regenerates per file/copy; {@code id} is handled separately. */
+    private static final Set<String> VOLATILE_ATTRIBUTES = Set.of("UUID", "uuid", "key", "modCount");
+    private static final String INDENT = "  ";
+
+    private final XMLInputFactory inputFactory;
+    private final boolean stripVolatile;
+
+    public FmSnippetCanonicalizer() {
+        this(false);
+    }
+
+    public FmSnippetCanonicalizer(boolean stripVolatile) {
+        this.inputFactory = StaxSupport.newInputFactory();
+        this.stripVolatile = stripVolatile;
+    }
+
+    /**
+     * Convenience overload for in-memory XML.
+     *
+     * @throws ConversionException when the XML is malformed or not an fmxmlsnippet
+     */
+    public String canonicalize(String xml) throws ConversionException {
+        StringWriter out = new StringWriter(xml == null ? 16 : xml.length());
+        try {
+            canonicalize(new StringReader(xml == null ? "" : xml), out);
+        } catch (IOException ex) {
+            // StringWriter does not throw
+            throw new ConversionException("Failed to canonicalize XML.", ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Streams {@code in} to {@code out} in canonical form.
+     *
+     * @throws ConversionException when the XML is malformed or not an fmxmlsnippet
+     * @throws IOException when writing fails
+     */
+    public void canonicalize(Reader in, Writer out) throws ConversionException, IOException {
+        XMLStreamReader r = null;
+        try {
+            r = inputFactory.createXMLStreamReader(in);
+            new Pass(r, out).run();
+        } catch (XMLStreamException ex) {
+            throw new ConversionException("Failed to parse XML.", ex);
+        } finally {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (XMLStreamException ignore) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true when the attribute is regenerated by FileMaker and therefore noise in a diff.
+     * {@code id} on {@code <Step>} is the step type, not an instance id, and is always kept.
+     */
+    static boolean isVolatile(String element, String attribute) {
+        if (VOLATILE_ATTRIBUTES.contains(attribute)) return true;
+        return "id".equals(attribute) && !"Step".equals(element);
+    }
+
+    // One canonicalization run; holds the per-depth state.
+    private final class Pass {
+        private final XMLStreamReader r;
+        private final Writer out;
+        private final StringBuilder pendingWhitespace = new StringBuilder();
+        // Per depth: element has non-whitespace text (inline mode) / element has child nodes
+        private boolean[] hasText = new boolean[16];
+        private boolean[] hasChildren = new boolean[16];
+        private String[] names = new String[16];
+        private int depth = 0;
+        private boolean startTagOpen = false;
+        private boolean rootSeen = false;
+
+        Pass(XMLStreamReader r, Writer out) {
+            this.r = r;
+            this.out = out;
+        }
+
+        void run() throws XMLStreamException, IOException, ConversionException {
+            while (r.hasNext()) {
+                int ev = r.next();
+                switch (ev) {
+                    case XMLStreamConstants.START_ELEMENT -> startElement();
+                    case XMLStreamConstants.END_ELEMENT -> endElement();
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE -> characters(false);
+                    case XMLStreamConstants.CDATA -> characters(true);
+                    case XMLStreamConstants.COMMENT -> comment();
+                    default -> {
+                        // Declarations, PIs and DTD events are not part of the canonical form
+                    }
+                }
+            }
+            if (!rootSeen) {
+                throw new ConversionException("XML has no root element.");
+            }
+            out.write('\n');
+            out.flush();
+        }
+
+        private void startElement() throws IOException, ConversionException {
+            String name = qualifiedName(r.getPrefix(), r.getLocalName());
+            if (depth == 0) {
+                if (rootSeen) throw new ConversionException("XML has more than one root element.");
+                if (!StaxSupport.ROOT.equalsIgnoreCase(r.getLocalName())) {
+                    throw new ConversionException("Root element is not <fmxmlsnippet>.");
+                }
+                rootSeen = true;
+            } else {
+                hasChildren[depth - 1] = true;
+                closeStartTag();
+                if (hasText[depth - 1]) {
+                    flushWhitespace();
+                } else {
+                    pendingWhitespace.setLength(0);
+                    newline(depth);
+                }
+            }
+            push(name);
+            out.write('<');
+            out.write(name);
+            writeAttributes(name);
+            startTagOpen = true;
+        }
+
+        private void endElement() throws IOException {
+            depth--;
+            String name = names[depth];
+            if (startTagOpen) {
+                startTagOpen = false;
+                if (pendingWhitespace.length() > 0) {
+                    // Whitespace-only value (e.g. <Text> </Text>) is content, keep it
+                    out.write('>');
+                    flushWhitespace();
+                    writeEndTag(name);
+                } else {
+                    out.write("/>");
+                }
+                return;
+            }
+            if (hasText[depth]) {
+                flushWhitespace();
+            } else {
+                pendingWhitespace.setLength(0);
+                newline(depth);
+            }
+            writeEndTag(name);
+        }
+
+        private void characters(boolean cdata) throws IOException {
+            if (depth == 0) return; // outside the root
+            String text = r.getText();
+            if (!cdata && isWhitespace(text)) {
+                if (!hasChildren[depth - 1] || hasText[depth - 1]) {
+                    pendingWhitespace.append(text);
+                }
+                return;
+            }
+            closeStartTag();
+            hasText[depth - 1] = true;
+            flushWhitespace();
+            if (cdata) {
+                out.write("<![CDATA[");
+                out.write(normalizeNewlines(text));
+                out.write("]]>");
+            } else {
+                writeEscapedText(text);
+            }
+        }
+
+        private void comment() throws IOException {
+            if (depth == 0) return; // comments outside the root are dropped
+            hasChildren[depth - 1] = true;
+            closeStartTag();
+            if (hasText[depth - 1]) {
+                flushWhitespace();
+            } else {
+                pendingWhitespace.setLength(0);
+                newline(depth);
+            }
+            out.write("<!--");
+            out.write(normalizeNewlines(r.getText()));
+            out.write("-->");
+        }
+
+        private void writeAttributes(String element) throws IOException {
+            int nsCount = r.getNamespaceCount();
+            for (int i = 0; i < nsCount; i++) {
+                String prefix = r.getNamespacePrefix(i);
+                out.write(' ');
+                out.write(prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix);
+                out.write("=\"");
+                writeEscapedAttribute(r.getNamespaceURI(i));
+                out.write('"');
+            }
+
+            int count = r.getAttributeCount();
+            if (count == 0) return;
+            String[] keys = new String[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                String local = r.getAttributeLocalName(i);
+                if (stripVolatile && isVolatile(r.getLocalName(), local)) continue;
+                // Encode the original index after the name so sorting keeps name order stable
+                keys[n++] = qualifiedName(r.getAttributePrefix(i), local) + '\u0000' + i;
+            }
+            Arrays.sort(keys, 0, n);
+            for (int k = 0; k < n; k++) {
+                String key = keys[k];
+                int sep = key.indexOf('\u0000');
+                int i = Integer.parseInt(key.substring(sep + 1));
+                out.write(' ');
+                out.write(key, 0, sep);
+                out.write("=\"");
+                writeEscapedAttribute(r.getAttributeValue(i));
+                out.write('"');
+            }
+        }
+
+        private void closeStartTag() throws IOException {
+            if (startTagOpen) {
+                out.write('>');
+                startTagOpen = false;
+            }
+        }
+
+        private void flushWhitespace() throws IOException {
+            if (pendingWhitespace.length() > 0) {
+                out.write(normalizeNewlines(pendingWhitespace.toString()));
+                pendingWhitespace.setLength(0);
+            }
+        }
+
+        private void newline(int level) throws IOException {
+            out.write('\n');
+            for (int i = 0; i < level; i++) out.write(INDENT);
+        }
+
+        private void writeEndTag(String name) throws IOException {
+            out.write("</");
+            out.write(name);
+            out.write('>');
+        }
+
+        private void push(String name) {
+            if (depth == names.length) {
+                int cap = names.length * 2;
+                names = Arrays.copyOf(names, cap);
+                hasText = Arrays.copyOf(hasText, cap);
+                hasChildren = Arrays.copyOf(hasChildren, cap);
+            }
+            names[depth] = name;
+            hasText[depth] = false;
+            hasChildren[depth] = false;
+            depth++;
+        }
+
+        private void writeEscapedText(String s) throws IOException {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '&' -> out.write("&amp;");
+                    case '<' -> out.write("&lt;");
+                    case '>' -> out.write("&gt;");
+                    case '\r' -> {
+                        if (i + 1 >= s.length() || s.charAt(i + 1) != '\n') out.write('\n');
+                    }
+                    default -> out.write(c);
+                }
+            }
+        }
+
+        private void writeEscapedAttribute(String s) throws IOException {
+            if (s == null) return;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '&' -> out.write("&amp;");
+                    case '<' -> out.write("&lt;");
+                    case '"' -> out.write("&quot;");
+                    case '\t' -> out.write("&#9;");
+                    case '\n' -> out.write("&#10;");
+                    case '\r' -> {
+                        if (i + 1 >= s.length() || s.charAt(i + 1) != '\n') out.write("&#10;");
+                    }
+                    default -> out.write(c);
+                }
+            }
+        }
+    }
+
+    private static String qualifiedName(String prefix, String local) {
+        return (prefix == null || prefix.isEmpty()) ? local : prefix + ":" + local;
+    }
+
+    private static boolean isWhitespace(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return false;
+        }
+        return true;
+    }
+
+    private static String normalizeNewlines(String s) {
+        if (s.indexOf('\r') < 0) return s;
+        return s.replace("\r\n", "\n").replace('\r', '\n');
+    }
+}
@@ -0,0 +1,398 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Structural diff between two fmxmlsnippet documents.
+ *
+ * Each side is streamed once with StAX and reduced to an outline: elements down to
+ * {@link #DEFAULT_OUTLINE_DEPTH} levels below the root (e.g. scripts and their steps, tables and
+ * their fields, layouts and their objects) are kept as small nodes, while everything deeper only
+ * contributes to a 64-bit Merkle hash of the enclosing node. Attribute order and formatting
+ * whitespace do not affect hashes. Equal hashes let whole subtrees be skipped without descending.
+ *
+ * Children are aligned in order: common prefix/suffix by hash, then a longest-common-subsequence
+ * on hashes for the remainder (bounded; falls back to key matching for very long lists), and
+ * remaining nodes with the same type/name/id key are reported as changed rather than as an
+ * add/remove pair.
+ */
+public class FmSnippetDiff {
+
+    /** Levels below the root that are kept as separate nodes and reported individually. */
+    public static final int DEFAULT_OUTLINE_DEPTH = 2;
+    // Upper bound on LCS table cells before falling back to key-based matching
+    private static final long MAX_LCS_CELLS = 4_000_000L;
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+
+    public enum ChangeKind { ADDED, REMOVED, CHANGED }
+
+    /** One reported difference; {@code path} identifies the node, e.g. {@code Script "Main" / Step #3 "If"}. */
+    public record Change(ChangeKind kind, String path) {
+        @Override
+        public String toString() {
+            return switch (kind) {
+                case ADDED -> "+ " + path;
+                case REMOVED -> "- " + path;
+                case CHANGED -> "~ " + path;
+            };
+        }
+    }
+
+    /** All differences, in document order. */
+    public record Result(List<Change> changes) {
+        public boolean isIdentical() { return changes.isEmpty(); }
+
+        public long count(ChangeKind kind) {
+            return changes.stream().filter(c -> c.kind() == kind).count();
+        }
+
+        /** One-line summary such as {@code 2 added, 1 removed, 3 changed}. */
+        public String summary() {
+            if (changes.isEmpty()) return "No structural differences";
+            return count(ChangeKind.ADDED) + " added, " + count(ChangeKind.REMOVED) + " removed, "
+                    + count(ChangeKind.CHANGED) + " changed";
+        }
+    }
+
+    // Outline node: identity for alignment, Merkle hash of the whole subtree, and outline children
+    static final class Node {
+        final String tag;
+        final String name;
+        final String id;
+        final String key;
+        long hash;
+        // Hash of tag + attributes + own text only; differs => the node itself changed, not just a child
+        long selfHash;
+        final List<Node> children = new ArrayList<>(0);
+
+        Node(String tag, String name, String id) {
+            this.tag = tag;
+            this.name = name;
+            this.id = id;
+            this.key = tag + '\u0000' + (name != null ? name : "") + '\u0000' + (id != null ? id : "");
+        }
+
+        String label(int ordinal) {
+            StringBuilder sb = new StringBuilder(tag);
+            // Step ids are step types, not identities; position is what identifies a step
+            if ("Step".equals(tag)) sb.append(" #").append(ordinal + 1);
+            if (name != null && !name.isEmpty()) sb.append(" \"").append(name).append('"');
+            else if (id != null && !"Step".equals(tag)) sb.append(" id=").append(id);
+            return sb.toString();
+        }
+    }
+
+    private final XMLInputFactory inputFactory;
+    private final boolean ignoreVolatile;
+    private final int outlineDepth;
+
+    public FmSnippetDiff() {
+        this(false, DEFAULT_OUTLINE_DEPTH);
+    }
+
+    /**
+     * @param ignoreVolatile when true, attributes FileMaker regenerates per copy (see
+     *                       {@link FmSnippetCanonicalizer}) do not count as changes
+     * @param outlineDepth   levels below the root reported individually (at least 1)
+     */
+    public FmSnippetDiff(boolean ignoreVolatile, int outlineDepth) {
+        if (outlineDepth < 1) throw new IllegalArgumentException("outlineDepth must be >= 1");
+        this.inputFactory = StaxSupport.newInputFactory();
+        this.ignoreVolatile = ignoreVolatile;
+        this.outlineDepth = outlineDepth;
+    }
+
+    /** Convenience overload for in-memory XML. */
+    public Result diff(String before, String after) throws ConversionException {
+        return diff(new StringReader(before == null ? "" : before), new StringReader(after == null ? "" : after));
+    }
+
+    /**
+     * Streams both documents and reports structural differences.
+     *
+     * @throws ConversionException when either side is malformed or not an fmxmlsnippet
+     */
+    public Result diff(Reader before, Reader after) throws ConversionException {
+        Objects.requireNonNull(before, "before");
+        Objects.requireNonNull(after, "after");
+        Node left = outline(before, "before");
+        Node right = outline(after, "after");
+        List<Change> changes = new ArrayList<>();
+        if (left.hash != right.hash) {
+            diffChildren(left.children, right.children, "", changes);
+        }
+        return new Result(Collections.unmodifiableList(changes));
+    }
+
+    // --- Outline construction (single streaming pass per side) ---
+
+    Node outline(Reader reader, String side) throws ConversionException {
+        XMLStreamReader r = null;
+        try {
+            r = inputFactory.createXMLStreamReader(reader);
+            // Per-depth hashing state; nodes are only materialized down to outlineDepth
+            long[] hashes = new long[16];
+            long[] selfHashes = new long[16];
+            Node[] nodes = new Node[16];
+            int depth = 0;
+            Node root = null;
+            // Text may arrive in several events (entities, buffer boundaries); hash the whole run
+            long textHash = FNV_OFFSET;
+            boolean textSeen = false;
+            while (r.hasNext()) {
+                int ev = r.next();
+                if (depth > 0 && (ev == XMLStreamConstants.CHARACTERS || ev == XMLStreamConstants.CDATA
+                        || ev == XMLStreamConstants.SPACE)) {
+                    textHash = textHash(textHash, r.getTextCharacters(), r.getTextStart(), r.getTextLength());
+                    textSeen |= !r.isWhiteSpace();
+                    continue;
+                }
+                if (depth > 0 && textHash != FNV_OFFSET) {
+                    // Whitespace-only runs are formatting, not content
+                    if (textSeen) {
+                        hashes[depth - 1] = mix(hashes[depth - 1], textHash);
+                        selfHashes[depth - 1] = mix(selfHashes[depth - 1], textHash);
+                    }
+                    textHash = FNV_OFFSET;
+                    textSeen = false;
+                }
+                if (ev == XMLStreamConstants.START_ELEMENT) {
+                    if (depth == 0) {
+                        if (root != null) throw new ConversionException(side + ": XML has more than one root element.");
+                        if (!StaxSupport.ROOT.equalsIgnoreCase(r.getLocalName())) {
+                            throw new ConversionException(side + ": Root element is not <fmxmlsnippet>.");
+                        }
+                    }
+                    if (depth == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, depth * 2);
+                        selfHashes = Arrays.copyOf(selfHashes, depth * 2);
+                        nodes = Arrays.copyOf(nodes, depth * 2);
+                    }
+                    String tag = r.getLocalName();
+                    long h = mix(SEED, tag.hashCode());
+                    h = mix(h, attributesHash(r, tag));
+                    hashes[depth] = h;
+                    selfHashes[depth] = h;
+                    if (depth <= outlineDepth) {
+                        Node node = new Node(tag, r.getAttributeValue(null, "name"), r.getAttributeValue(null, "id"));
+                        if (depth == 0) root = node;
+                        else nodes[depth - 1].children.add(node);
+                        nodes[depth] = node;
+                    }
+                    depth++;
+                } else if (ev == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    long h = mix(hashes[depth], 0x2F); // end marker so <a><b/></a> != <a/><b/>
+                    if (depth <= outlineDepth) {
+                        nodes[depth].hash = h;
+                        nodes[depth].selfHash = selfHashes[depth];
+                        nodes[depth] = null;
+                    }
+                    if (depth > 0) hashes[depth - 1] = mix(hashes[depth - 1], h);
+                }
+            }
+            if (root == null) throw new ConversionException(side + ": XML has no root element.");
+            return root;
+        } catch (XMLStreamException ex) {
+            throw new ConversionException(side + ": Failed to parse XML.", ex);
+        } finally {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (XMLStreamException ignore) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    // Order-independent combination, so attribute order never counts as a change
+    private long attributesHash(XMLStreamReader r, String tag) {
+        long sum = 0;
+        for (int i = 0; i < r.getAttributeCount(); i++) {
+            String name = r.getAttributeLocalName(i);
+            if (ignoreVolatile && FmSnippetCanonicalizer.isVolatile(tag, name)) continue;
+            sum += fmix(mix(name.hashCode(), r.getAttributeValue(i).hashCode()));
+        }
+        return sum;
+    }
+
+    private static long textHash(long h, char[] chars, int start, int len) {
+        for (int i = start; i < start + len; i++) {
+            char c = chars[i];
+            if (c == '\r') continue; // line endings are not content
+            h = (h ^ c) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        return fmix(h * 31 + v + SEED);
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    // --- Alignment ---
+
+    private void diffChildren(List<Node> left, List<Node> right, String prefix, List<Change> out) {
+        int n = left.size();
+        int m = right.size();
+        int start = 0;
+        while (start < n && start < m && left.get(start).hash == right.get(start).hash) start++;
+        int endL = n;
+        int endR = m;
+        while (endL > start && endR > start && left.get(endL - 1).hash == right.get(endR - 1).hash) {
+            endL--;
+            endR--;
+        }
+
+        // matchL[i] = index in right matched to left[i] (identical or same key), or -1
+        int[] matchL = new int[n];
+        Arrays.fill(matchL, -1);
+        boolean[] matchedR = new boolean[m];
+        for (int i = 0; i < start; i++) {
+            matchL[i] = i;
+            matchedR[i] = true;
+        }
+        for (int i = endL, j = endR; i < n; i++, j++) {
+            matchL[i] = j;
+            matchedR[j] = true;
+        }
+        alignMiddle(left, right, start, endL, start, endR, matchL, matchedR);
+
+        // Emit in document order of the "after" side, with removals placed where they occurred
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            int mj = matchL[i];
+            if (mj < 0) {
+                out.add(new Change(ChangeKind.REMOVED, path(prefix, left.get(i), i)));
+                continue;
+            }
+            for (; j < mj; j++) {
+                if (!matchedR[j]) out.add(new Change(ChangeKind.ADDED, path(prefix, right.get(j), j)));
+            }
+            Node a = left.get(i);
+            Node b = right.get(mj);
+            if (a.hash != b.hash) {
+                String p = path(prefix, b, mj);
+                boolean selfChanged = a.selfHash != b.selfHash;
+                if (selfChanged) out.add(new Change(ChangeKind.CHANGED, p));
+                int mark = out.size();
+                diffChildren(a.children, b.children, p + " / ", out);
+                if (!selfChanged && out.size() == mark) {
+                    // The difference is below the outline depth
+                    out.add(new Change(ChangeKind.CHANGED, p));
+                }
+            }
+            j = Math.max(j, mj + 1);
+        }
+        for (; j < m; j++) {
+            if (!matchedR[j]) out.add(new Change(ChangeKind.ADDED, path(prefix, right.get(j), j)));
+        }
+    }
+
+    private static void alignMiddle(List<Node> left, List<Node> right, int l0, int l1, int r0, int r1,
+                                    int[] matchL, boolean[] matchedR) {
+        // LCS on hashes pins down unchanged nodes; the gaps between them are then aligned by key
+        lcsAlign(left, right, l0, l1, r0, r1, matchL, matchedR, false);
+    }
+
+    /**
+     * Longest-common-subsequence alignment of left[l0, l1) with right[r0, r1), either on subtree
+     * hashes (identical nodes) or on keys (same node, changed). Hash anchors recurse into key
+     * alignment for the gaps between them. Lists too long for the table use greedy key matching.
+     */
+    private static void lcsAlign(List<Node> left, List<Node> right, int l0, int l1, int r0, int r1,
+                                 int[] matchL, boolean[] matchedR, boolean byKey) {
+        int n = l1 - l0;
+        int m = r1 - r0;
+        if (n <= 0 || m <= 0) return;
+        if ((long) (n + 1) * (m + 1) > MAX_LCS_CELLS) {
+            matchByKey(left, right, l0, l1, r0, r1, matchL, matchedR);
+            return;
+        }
+
+        int[][] lcs = new int[n + 1][m + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            Node a = left.get(l0 + i);
+            for (int k = m - 1; k >= 0; k--) {
+                lcs[i][k] = same(a, right.get(r0 + k), byKey) ? lcs[i + 1][k + 1] + 1 : Math.max(lcs[i + 1][k], lcs[i][k + 1]);
+            }
+        }
+        int i = 0;
+        int k = 0;
+        int gapL = 0;
+        int gapR = 0;
+        while (i < n && k < m) {
+            if (same(left.get(l0 + i), right.get(r0 + k), byKey) && lcs[i][k] == lcs[i + 1][k + 1] + 1) {
+                if (!byKey) lcsAlign(left, right, l0 + gapL, l0 + i, r0 + gapR, r0 + k, matchL, matchedR, true);
+                matchL[l0 + i] = r0 + k;
+                matchedR[r0 + k] = true;
+                i++;
+                k++;
+                gapL = i;
+                gapR = k;
+            } else if (lcs[i + 1][k] >= lcs[i][k + 1]) {
+                i++;
+            } else {
+                k++;
+            }
+        }
+        if (!byKey) lcsAlign(left, right, l0 + gapL, l1, r0 + gapR, r1, matchL, matchedR, true);
+    }
+
+    private static boolean same(Node a, Node b, boolean byKey) {
+        return byKey ? a.key.equals(b.key) : a.hash == b.hash;
+    }
+
+    // Pairs unmatched nodes with the same type/name/id key, preserving order on both sides
+    private static void matchByKey(List<Node> left, List<Node> right, int l0, int l1, int r0, int r1,
+                                   int[] matchL, boolean[] matchedR) {
+        if (l0 >= l1 || r0 >= r1) return;
+        Map<String, ArrayList<Integer>> byKey = new HashMap<>();
+        for (int k = r0; k < r1; k++) {
+            if (!matchedR[k]) byKey.computeIfAbsent(right.get(k).key, x -> new ArrayList<>()).add(k);
+        }
+        int lastMatched = r0 - 1;
+        for (int i = l0; i < l1; i++) {
+            if (matchL[i] >= 0) continue;
+            ArrayList<Integer> candidates = byKey.get(left.get(i).key);
+            if (candidates == null) continue;
+            // Take the first candidate after the previous match so the pairing stays monotonic
+            for (int c = 0; c < candidates.size(); c++) {
+                int k = candidates.get(c);
+                if (k > lastMatched && !matchedR[k]) {
+                    matchL[i] = k;
+                    matchedR[k] = true;
+                    lastMatched = k;
+                    candidates.remove(c);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String path(String prefix, Node node, int ordinal) {
+        return prefix + node.label(ordinal);
+    }
+}
@@ -0,0 +1,166 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Merges the content of several fmxmlsnippet documents into a single snippet.
+ *
+ * Each input is streamed once with StAX: the root element is validated and its children are
+ * re-serialized as a fragment, so no DOM is built per file. Children are written back with
+ * {@link SnippetEventWriter}, keeping attribute order and {@code <Tag/>} elements as FileMaker wrote
+ * them. Fragments are independent of each other and can be extracted in parallel;
+ * {@link #merge(List)} then concatenates them in order under a single {@code <fmxmlsnippet>} root.
+ */
+public class FmSnippetMerger {
+
+    private static final String ROOT = StaxSupport.ROOT;
+
+    /** Children of one fmxmlsnippet, serialized, plus the root attributes they were found under. */
+    public static final class Fragment {
+        private final String name;
+        private final Map<String, String> rootAttributes;
+        private final List<String> rootAttributeOrder;
+        private final String content;
+        private final int childCount;
+
+        Fragment(String name, Map<String, String> rootAttributes, String content, int childCount) {
+            this.name = name;
+            this.rootAttributes = Map.copyOf(rootAttributes);
+            this.rootAttributeOrder = List.copyOf(rootAttributes.keySet());
+            this.content = content;
+            this.childCount = childCount;
+        }
+
+        /** Display name of the source (usually the file name). */
+        public String getName() { return name; }
+
+        public Map<String, String> getRootAttributes() { return rootAttributes; }
+
+        /** Serialized top-level children, trimmed of surrounding whitespace. */
+        public String getContent() { return content; }
+
+        /** Number of top-level child elements. */
+        public int getChildCount() { return childCount; }
+    }
+
+    private final XMLInputFactory inputFactory;
+
+    public FmSnippetMerger() {
+        this.inputFactory = StaxSupport.newOrderedInputFactory();
+    }
+
+    /**
+     * Streams one fmxmlsnippet and captures its children. Thread-safe; may be called concurrently.
+     *
+     * @throws ConversionException when the input is malformed, not an fmxmlsnippet, or empty
+     */
+    public Fragment extract(String name, Reader reader) throws ConversionException {
+        Objects.requireNonNull(reader, "reader");
+        XMLEventReader events = null;
+        try {
+            events = inputFactory.createXMLEventReader(reader);
+            StartElement root = null;
+            while (events.hasNext()) {
+                XMLEvent ev = events.nextEvent();
+                if (ev.isStartElement()) {
+                    root = ev.asStartElement();
+                    break;
+                }
+            }
+            if (root == null) {
+                throw new ConversionException(name + ": XML has no root element.");
+            }
+            if (!StaxSupport.isRoot(root)) {
+                throw new ConversionException(name + ": Root element is not <fmxmlsnippet>.");
+            }
+
+            Map<String, String> attrs = new LinkedHashMap<>();
+            for (Iterator<Attribute> it = root.getAttributes(); it.hasNext(); ) {
+                Attribute a = it.next();
+                attrs.put(a.getName().getLocalPart(), a.getValue());
+            }
+
+            StringWriter out = new StringWriter();
+            SnippetEventWriter writer = new SnippetEventWriter(out);
+            int depth = 0;
+            int children = 0;
+            while (events.hasNext()) {
+                XMLEvent ev = events.nextEvent();
+                if (ev.isStartElement()) {
+                    if (depth == 0) children++;
+                    depth++;
+                } else if (ev.isEndElement()) {
+                    if (depth == 0) break; // </fmxmlsnippet>
+                    depth--;
+                } else if (ev.isEndDocument()) {
+                    break;
+                }
+                writer.add(ev);
+            }
+            writer.flush();
+
+            if (children == 0) {
+                throw new ConversionException(name + ": <fmxmlsnippet> has no content elements.");
+            }
+            return new Fragment(name, attrs, out.toString().trim(), children);
+        } catch (XMLStreamException ex) {
+            throw new ConversionException(name + ": Failed to parse XML.", ex);
+        } finally {
+            if (events != null) {
+                try {
+                    events.close();
+                } catch (XMLStreamException ignore) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    /**
+     * Concatenates fragments, in order, under a single root. The root attributes are taken from
+     * the first fragment; fragments declaring a different {@code type} attribute are rejected since
+     * FileMaker would not accept them in a single paste.
+     *
+     * @throws ConversionException when no fragments are given or their root types disagree
+     */
+    public String merge(List<Fragment> fragments) throws ConversionException {
+        if (fragments == null || fragments.isEmpty()) {
+            throw new ConversionException("No snippets to merge.");
+        }
+        Fragment first = fragments.get(0);
+        String type = first.getRootAttributes().get("type");
+        int size = 64;
+        for (Fragment f : fragments) {
+            String t = f.getRootAttributes().get("type");
+            if (type != null && t != null && !type.equals(t)) {
+                throw new ConversionException("Incompatible fmxmlsnippet type in " + f.getName()
+                        + ": expected type=\"" + type + "\" but found type=\"" + t + "\".");
+            }
+            size += f.getContent().length() + 1;
+        }
+
+        StringBuilder sb = new StringBuilder(size);
+        sb.append('<').append(ROOT);
+        for (String key : first.rootAttributeOrder) {
+            sb.append(' ').append(key).append("=\"").append(StaxSupport.escapeAttribute(first.getRootAttributes().get(key))).append('"');
+        }
+        sb.append(">\n");
+        for (Fragment f : fragments) {
+            sb.append(f.getContent()).append('\n');
+        }
+        sb.append("</").append(ROOT).append('>');
+        return sb.toString();
+    }
+}
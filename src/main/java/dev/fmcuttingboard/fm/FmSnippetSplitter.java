@@ -0,0 +1,313 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Splits one fmxmlsnippet into one file per top-level object using a streaming (StAX) reader.
+ *
+ * Top-level {@code <Script>}, {@code <CustomFunction>}, {@code <BaseTable>} and {@code <ValueList>}
+ * elements each become their own file. Runs of top-level {@code <Step>} elements are grouped, with
+ * a new group starting at every comment step, so section headings in a script become files. Any
+ * other consecutive top-level elements of the same tag are kept together.
+ *
+ * Only the object currently being read is held in memory; finished objects are written on the
+ * provided executor with at most {@code maxInFlight} pending writes, which bounds heap use on very
+ * large captures. Output names are derived from document order and object names only, so running
+ * the split twice on the same input yields identical files. Objects are copied with
+ * {@link SnippetEventWriter}, so attribute order and {@code <Tag/>} elements survive the split.
+ */
+public class FmSnippetSplitter {
+
+    /** Suffix of the default output directory, see {@link #defaultOutputDir(Path)}. */
+    public static final String SPLIT_DIR_SUFFIX = "-split";
+
+    private static final String ROOT = StaxSupport.ROOT;
+    private static final Set<String> OBJECT_TAGS = Set.of("script", "customfunction", "basetable", "valuelist");
+    // Matches files produced by a previous split so re-running replaces them instead of piling up.
+    private static final Pattern OUTPUT_NAME = Pattern.compile("\\d{4}-[A-Za-z]+(-[A-Za-z0-9._-]*)?\\.xml");
+    private static final int MAX_NAME_LENGTH = 60;
+
+    /** Files written by a split, in document order. */
+    public record Result(List<Path> files) {
+    }
+
+    private final XMLInputFactory inputFactory;
+
+    public FmSnippetSplitter() {
+        this.inputFactory = StaxSupport.newOrderedInputFactory();
+    }
+
+    /** Default output directory for {@code source}: a sibling named {@code {base}-split}. */
+    public static Path defaultOutputDir(Path source) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return source.resolveSibling(base + SPLIT_DIR_SUFFIX);
+    }
+
+    /**
+     * Streams {@code reader} and writes one fmxmlsnippet file per object into {@code outputDir}.
+     * Files are staged in a temporary directory inside {@code outputDir}; only once the whole input
+     * has been read and written are the files of an earlier split removed and the new ones moved in,
+     * so a failed split leaves the previous output untouched.
+     *
+     * @throws ConversionException when the input is malformed, not an fmxmlsnippet, or empty
+     * @throws IOException when an output file cannot be written
+     */
+    public Result split(Reader reader, Path outputDir, Executor executor, int maxInFlight)
+            throws ConversionException, IOException {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(outputDir, "outputDir");
+        Objects.requireNonNull(executor, "executor");
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
+
+        Files.createDirectories(outputDir);
+        Path staging = Files.createTempDirectory(outputDir, ".split-");
+        try {
+            List<Path> staged = stage(reader, staging, executor, maxInFlight);
+            deletePreviousOutput(outputDir);
+            List<Path> files = new ArrayList<>(staged.size());
+            for (Path file : staged) {
+                files.add(Files.move(file, outputDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING));
+            }
+            return new Result(List.copyOf(files));
+        } finally {
+            deleteStaging(staging);
+        }
+    }
+
+    // Reads the whole input and writes every object into staging; returns the files in document order
+    private List<Path> stage(Reader reader, Path staging, Executor executor, int maxInFlight)
+            throws ConversionException, IOException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+
+        XMLEventReader events = null;
+        try {
+            events = inputFactory.createXMLEventReader(reader);
+            String header = readRootHeader(events);
+
+            Unit current = null;
+            int ordinal = 0;
+            while (events.hasNext()) {
+                XMLEvent ev = events.peek();
+                if (ev.isEndElement() || ev.isEndDocument()) break; // </fmxmlsnippet>
+                if (!ev.isStartElement()) {
+                    events.nextEvent(); // whitespace/comments between top-level objects
+                    continue;
+                }
+                StartElement start = ev.asStartElement();
+                String tag = start.getName().getLocalPart();
+                if (current == null || !current.accepts(tag, start)) {
+                    if (current != null) {
+                        files.add(submit(current, ++ordinal, header, staging, executor, inFlight, writes));
+                    }
+                    current = new Unit(tag, StaxSupport.attribute(start, "name"));
+                }
+                current.append(copyElement(events));
+            }
+            if (current != null) {
+                files.add(submit(current, ++ordinal, header, staging, executor, inFlight, writes));
+            }
+            if (files.isEmpty()) {
+                throw new ConversionException("<fmxmlsnippet> has no content elements.");
+            }
+        } catch (XMLStreamException ex) {
+            ConversionException failure = new ConversionException("Failed to parse XML.", ex);
+            addWriteFailures(failure, writes);
+            throw failure;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            IOException failure = new IOException("Interrupted while splitting snippet.", ex);
+            addWriteFailures(failure, writes);
+            throw failure;
+        } catch (ConversionException | RuntimeException ex) {
+            addWriteFailures(ex, writes);
+            throw ex;
+        } finally {
+            if (events != null) {
+                try {
+                    events.close();
+                } catch (XMLStreamException ignore) {
+                    // best effort
+                }
+            }
+        }
+        awaitWrites(writes);
+        return files;
+    }
+
+    // Group of one or more top-level elements that becomes a single output file
+    private static final class Unit {
+        final String tag;
+        final String name;
+        final StringBuilder content = new StringBuilder();
+
+        Unit(String tag, String name) {
+            this.tag = tag;
+            this.name = name;
+        }
+
+        boolean accepts(String nextTag, StartElement next) {
+            if (!tag.equals(nextTag)) return false;
+            String lower = tag.toLowerCase(Locale.ROOT);
+            if (OBJECT_TAGS.contains(lower)) return false;
+            if (lower.equals("step")) return !StaxSupport.isCommentStep(next);
+            return true;
+        }
+
+        void append(String element) {
+            if (content.length() > 0) content.append("\n  ");
+            content.append(element);
+        }
+
+        String fileName(int ordinal) {
+            String kind = tag.replaceAll("[^A-Za-z]", "");
+            if (kind.isEmpty()) kind = "Object";
+            String safe = sanitize(name);
+            return String.format(Locale.ROOT, "%04d-%s%s.xml", ordinal, kind, safe.isEmpty() ? "" : "-" + safe);
+        }
+    }
+
+    private Path submit(Unit unit, int ordinal, String header, Path dir, Executor executor,
+                        Semaphore inFlight, List<CompletableFuture<Void>> writes) throws InterruptedException {
+        Path file = dir.resolve(unit.fileName(ordinal));
+        String xml = header + "\n  " + unit.content + "\n</" + ROOT + ">\n";
+        inFlight.acquire();
+        try {
+            writes.add(CompletableFuture.runAsync(() -> {
+                try {
+                    Files.writeString(file, xml, StandardCharsets.UTF_8);
+                } catch (IOException ex) {
+                    throw new CompletionException(ex);
+                } finally {
+                    inFlight.release();
+                }
+            }, executor));
+        } catch (RuntimeException rejected) {
+            inFlight.release();
+            throw rejected;
+        }
+        return file;
+    }
+
+    private String readRootHeader(XMLEventReader events) throws XMLStreamException, ConversionException {
+        while (events.hasNext()) {
+            XMLEvent ev = events.nextEvent();
+            if (!ev.isStartElement()) continue;
+            StartElement root = ev.asStartElement();
+            if (!StaxSupport.isRoot(root)) {
+                throw new ConversionException("Root element is not <fmxmlsnippet>.");
+            }
+            StringBuilder sb = new StringBuilder("<").append(ROOT);
+            for (Iterator<Attribute> it = root.getAttributes(); it.hasNext(); ) {
+                Attribute a = it.next();
+                sb.append(' ').append(a.getName().getLocalPart()).append("=\"")
+                        .append(StaxSupport.escapeAttribute(a.getValue())).append('"');
+            }
+            return sb.append('>').toString();
+        }
+        throw new ConversionException("XML has no root element.");
+    }
+
+    // Serializes the element at the reader's position (start tag through matching end tag)
+    private String copyElement(XMLEventReader events) throws XMLStreamException {
+        StringWriter out = new StringWriter();
+        SnippetEventWriter writer = new SnippetEventWriter(out);
+        int depth = 0;
+        do {
+            XMLEvent ev = events.nextEvent();
+            if (ev.isStartElement()) depth++;
+            else if (ev.isEndElement()) depth--;
+            writer.add(ev);
+        } while (depth > 0 && events.hasNext());
+        writer.flush();
+        return out.toString();
+    }
+
+    static String sanitize(String name) {
+        if (name == null) return "";
+        StringBuilder sb = new StringBuilder(Math.min(name.length(), MAX_NAME_LENGTH));
+        for (int i = 0; i < name.length() && sb.length() < MAX_NAME_LENGTH; i++) {
+            char c = name.charAt(i);
+            boolean ok = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '_' || c == '-';
+            sb.append(ok ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static void deletePreviousOutput(Path outputDir) throws IOException {
+        try (DirectoryStream<Path> existing = Files.newDirectoryStream(outputDir)) {
+            for (Path p : existing) {
+                if (OUTPUT_NAME.matcher(p.getFileName().toString()).matches()) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    // All writes have completed by now; leftovers are files of a failed split
+    private static void deleteStaging(Path staging) {
+        try {
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(staging)) {
+                for (Path p : leftovers) {
+                    Files.deleteIfExists(p);
+                }
+            }
+            Files.deleteIfExists(staging);
+        } catch (IOException ignore) {
+            // best effort; must not hide the split's own outcome
+        }
+    }
+
+    /**
+     * Waits for the writes already submitted when the split fails, and attaches their failures to
+     * {@code failure} as suppressed exceptions so the parse error stays the one reported.
+     */
+    private static void addWriteFailures(Throwable failure, List<CompletableFuture<Void>> writes) {
+        for (CompletableFuture<Void> write : writes) {
+            try {
+                write.join();
+            } catch (CompletionException | CancellationException ex) {
+                failure.addSuppressed(ex.getCause() != null ? ex.getCause() : ex);
+            }
+        }
+    }
+
+    private static void awaitWrites(List<CompletableFuture<Void>> writes) throws IOException {
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof IOException io) throw io;
+            throw new IOException("Failed to write split output: " + cause.getMessage(), cause);
+        }
+    }
+}
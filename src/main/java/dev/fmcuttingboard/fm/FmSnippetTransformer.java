@@ -0,0 +1,103 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single-pass rewrite of an fmxmlsnippet: StAX reader → {@link SnippetTransform} stages → writer.
+ *
+ * Events flow through the stages one at a time and are written as soon as the last stage forwards
+ * them, so memory use does not depend on snippet size. Attribute order, empty-element tags and the
+ * presence of an XML declaration are preserved, so an empty pipeline is close to an identity copy.
+ * The root element is validated before any stage sees it. Instances are immutable and may be
+ * reused; stages are created per run via the supplied factory when they hold state.
+ */
+public class FmSnippetTransformer {
+
+    /** Creates fresh stage instances for one run (stages may keep per-document state). */
+    @FunctionalInterface
+    public interface StageFactory {
+        List<SnippetTransform> create();
+    }
+
+    private final XMLInputFactory inputFactory;
+    private final StageFactory stages;
+
+    public FmSnippetTransformer(StageFactory stages) {
+        this.inputFactory = StaxSupport.newInputFactory();
+        this.stages = Objects.requireNonNull(stages, "stages");
+    }
+
+    /** Convenience overload for in-memory XML. */
+    public String transform(String xml) throws ConversionException {
+        StringWriter out = new StringWriter(xml == null ? 16 : xml.length());
+        try {
+            transform(new StringReader(xml == null ? "" : xml), out);
+        } catch (IOException ex) {
+            // StringWriter does not throw
+            throw new ConversionException("Failed to transform XML.", ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Streams {@code in} through all stages into {@code out}.
+     *
+     * @throws ConversionException when the XML is malformed or not an fmxmlsnippet
+     * @throws IOException when writing fails
+     */
+    public void transform(Reader in, Writer out) throws ConversionException, IOException {
+        List<SnippetTransform> chain = List.copyOf(stages.create());
+        XMLStreamReader r = null;
+        try {
+            r = inputFactory.createXMLStreamReader(in);
+            SnippetEventWriter writer = new SnippetEventWriter(out);
+            SnippetTransform.Sink head = link(chain, 0, writer::add);
+            boolean rootSeen = false;
+            while (true) {
+                if (r.getEventType() == XMLStreamConstants.START_ELEMENT && !rootSeen) {
+                    if (!StaxSupport.ROOT.equalsIgnoreCase(r.getLocalName())) {
+                        throw new ConversionException("Root element is not <fmxmlsnippet>.");
+                    }
+                    rootSeen = true;
+                }
+                XMLEvent ev = StaxSupport.toEvent(r);
+                if (ev != null) head.accept(ev);
+                if (!r.hasNext()) break;
+                r.next();
+            }
+            if (!rootSeen) {
+                throw new ConversionException("XML has no root element.");
+            }
+            writer.flush();
+        } catch (XMLStreamException ex) {
+            if (ex.getNestedException() instanceof IOException io) throw io;
+            throw new ConversionException("Failed to transform XML.", ex);
+        } finally {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (XMLStreamException ignore) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    private static SnippetTransform.Sink link(List<SnippetTransform> chain, int index, SnippetTransform.Sink tail) {
+        if (index == chain.size()) return tail;
+        SnippetTransform stage = chain.get(index);
+        SnippetTransform.Sink next = link(chain, index + 1, tail);
+        return ev -> stage.process(ev, next);
+    }
+}
@@ -1,5 +1,8 @@
 package dev.fmcuttingboard.fm;
 
+import dev.fmcuttingboard.jfr.PipelineEvent;
+import dev.fmcuttingboard.jfr.SnippetParseEvent;
+import dev.fmcuttingboard.metrics.PipelineMetrics;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -24,6 +27,31 @@ public class FmXmlParser {
      * @throws ConversionException when the XML is malformed or not an fmxmlsnippet
      */
     public ParsedSnippet parse(String xmlText) throws ConversionException {
+        SnippetParseEvent event = new SnippetParseEvent();
+        event.begin();
+        event.chars = xmlText == null ? 0 : xmlText.length();
+        String outcome = PipelineEvent.FAILED;
+        ParsedSnippet model = null;
+        long startNs = System.nanoTime();
+        try {
+            model = parseDocument(xmlText);
+            outcome = PipelineEvent.OK;
+            return model;
+        } catch (ConversionException ex) {
+            outcome = PipelineEvent.REJECTED;
+            throw ex;
+        } finally {
+            PipelineMetrics.PARSE.recordSince(startNs, event.chars, model != null);
+            event.end();
+            if (event.shouldCommit()) {
+                if (model != null) event.snippetTypes = model.getElementTypes().toString();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private ParsedSnippet parseDocument(String xmlText) throws ConversionException {
         if (xmlText == null || xmlText.isBlank()) {
             throw new ConversionException("XML text is empty.");
         }
@@ -0,0 +1,107 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link StartElement} that keeps attributes in document order.
+ *
+ * The JDK event implementations store attributes in a hash map, so a read/write round trip
+ * shuffles attribute order and every transformed file would differ from its source on every line.
+ * {@link FmSnippetTransformer} creates these instead, and stages should rebuild start elements
+ * through {@link #of(QName, List, List)}.
+ */
+final class OrderedStartElement implements StartElement {
+    private final QName name;
+    private final List<Attribute> attributes;
+    private final List<Namespace> namespaces;
+
+    private OrderedStartElement(QName name, List<Attribute> attributes, List<Namespace> namespaces) {
+        this.name = name;
+        this.attributes = attributes;
+        this.namespaces = namespaces;
+    }
+
+    static OrderedStartElement of(QName name, List<Attribute> attributes, List<Namespace> namespaces) {
+        return new OrderedStartElement(name, List.copyOf(attributes), List.copyOf(namespaces));
+    }
+
+    @Override public QName getName() { return name; }
+    @Override public Iterator<Attribute> getAttributes() { return attributes.iterator(); }
+    @Override public Iterator<Namespace> getNamespaces() { return namespaces.iterator(); }
+
+    @Override
+    public Attribute getAttributeByName(QName qname) {
+        for (Attribute a : attributes) {
+            if (a.getName().equals(qname)) return a;
+        }
+        return null;
+    }
+
+    @Override public NamespaceContext getNamespaceContext() { return null; }
+
+    @Override
+    public String getNamespaceURI(String prefix) {
+        for (Namespace ns : namespaces) {
+            if (ns.getPrefix().equals(prefix)) return ns.getNamespaceURI();
+        }
+        return null;
+    }
+
+    @Override public int getEventType() { return XMLStreamConstants.START_ELEMENT; }
+    @Override public Location getLocation() { return null; }
+    @Override public boolean isStartElement() { return true; }
+    @Override public boolean isAttribute() { return false; }
+    @Override public boolean isNamespace() { return false; }
+    @Override public boolean isEndElement() { return false; }
+    @Override public boolean isEntityReference() { return false; }
+    @Override public boolean isProcessingInstruction() { return false; }
+    @Override public boolean isCharacters() { return false; }
+    @Override public boolean isStartDocument() { return false; }
+    @Override public boolean isEndDocument() { return false; }
+    @Override public StartElement asStartElement() { return this; }
+    @Override public EndElement asEndElement() { throw new ClassCastException("Not an end element"); }
+    @Override public Characters asCharacters() { throw new ClassCastException("Not characters"); }
+    @Override public QName getSchemaType() { return null; }
+
+    @Override
+    public void writeAsEncodedUnicode(Writer writer) throws XMLStreamException {
+        try {
+            writer.write('<');
+            writer.write(SnippetEventWriter.qualified(name));
+            for (Namespace ns : namespaces) {
+                writer.write(ns.isDefaultNamespaceDeclaration() ? " xmlns" : " xmlns:" + ns.getPrefix());
+                writer.write("=\"");
+                writer.write(StaxSupport.escapeAttribute(ns.getNamespaceURI()));
+                writer.write('"');
+            }
+            for (Attribute a : attributes) {
+                writer.write(' ');
+                writer.write(SnippetEventWriter.qualified(a.getName()));
+                writer.write("=\"");
+                writer.write(StaxSupport.escapeAttribute(a.getValue()));
+                writer.write('"');
+            }
+            writer.write('>');
+        } catch (IOException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "<" + SnippetEventWriter.qualified(name) + " …>";
+    }
+}
@@ -0,0 +1,162 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.Comment;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.ProcessingInstruction;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+/**
+ * Minimal event serializer for {@link FmSnippetTransformer} and {@link FmSnippetMerger}.
+ *
+ * Unlike the JDK XMLEventWriter it writes attributes in iterator order, writes empty elements as
+ * {@code <Tag/>} and only writes an XML declaration when the input had one, so an identity
+ * transform reproduces FileMaker's output closely. Holds at most one open start tag.
+ */
+final class SnippetEventWriter {
+    private final Writer out;
+    private boolean startTagOpen;
+
+    SnippetEventWriter(Writer out) {
+        this.out = out;
+    }
+
+    void add(XMLEvent event) throws XMLStreamException {
+        try {
+            write(event);
+        } catch (IOException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    private void write(XMLEvent event) throws IOException {
+        if (event.isEndElement()) {
+            if (startTagOpen) {
+                startTagOpen = false;
+                out.write("/>");
+            } else {
+                out.write("</");
+                out.write(qualified(event.asEndElement().getName()));
+                out.write('>');
+            }
+            return;
+        }
+        closeStartTag();
+        switch (event.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT -> writeStartElement(event.asStartElement());
+            case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE, XMLStreamConstants.CDATA -> {
+                Characters c = event.asCharacters();
+                if (c.isCData()) {
+                    // "]]>" cannot appear inside a CDATA section; split it across two sections
+                    out.write("<![CDATA[");
+                    out.write(c.getData().replace("]]>", "]]]]><![CDATA[>"));
+                    out.write("]]>");
+                } else {
+                    writeEscapedText(c.getData());
+                }
+            }
+            case XMLStreamConstants.COMMENT -> {
+                out.write("<!--");
+                out.write(((Comment) event).getText());
+                out.write("-->");
+            }
+            case XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                ProcessingInstruction pi = (ProcessingInstruction) event;
+                out.write("<?");
+                out.write(pi.getTarget());
+                if (pi.getData() != null && !pi.getData().isEmpty()) {
+                    out.write(' ');
+                    out.write(pi.getData());
+                }
+                out.write("?>");
+            }
+            case XMLStreamConstants.START_DOCUMENT -> {
+                StartDocument sd = (StartDocument) event;
+                out.write("<?xml version=\"");
+                out.write(sd.getVersion() == null ? "1.0" : sd.getVersion());
+                out.write('"');
+                if (sd.encodingSet()) {
+                    out.write(" encoding=\"");
+                    out.write(sd.getCharacterEncodingScheme());
+                    out.write('"');
+                }
+                if (sd.standaloneSet()) {
+                    out.write(sd.isStandalone() ? " standalone=\"yes\"" : " standalone=\"no\"");
+                }
+                out.write("?>");
+            }
+            default -> {
+                // End document, DTD and entity declarations are not written
+            }
+        }
+    }
+
+    void flush() throws XMLStreamException {
+        try {
+            closeStartTag();
+            out.flush();
+        } catch (IOException ex) {
+            throw new XMLStreamException(ex);
+        }
+    }
+
+    private void writeStartElement(StartElement start) throws IOException {
+        out.write('<');
+        out.write(qualified(start.getName()));
+        for (Iterator<Namespace> it = start.getNamespaces(); it.hasNext(); ) {
+            Namespace ns = it.next();
+            out.write(ns.isDefaultNamespaceDeclaration() ? " xmlns" : " xmlns:" + ns.getPrefix());
+            out.write("=\"");
+            out.write(StaxSupport.escapeAttribute(ns.getNamespaceURI()));
+            out.write('"');
+        }
+        for (Iterator<Attribute> it = start.getAttributes(); it.hasNext(); ) {
+            Attribute a = it.next();
+            out.write(' ');
+            out.write(qualified(a.getName()));
+            out.write("=\"");
+            out.write(StaxSupport.escapeAttribute(a.getValue()));
+            out.write('"');
+        }
+        startTagOpen = true;
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            startTagOpen = false;
+            out.write('>');
+        }
+    }
+
+    private void writeEscapedText(String s) throws IOException {
+        int last = 0;
+        for (int i = 0; i < s.length(); i++) {
+            String rep = switch (s.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                default -> null;
+            };
+            if (rep != null) {
+                out.write(s, last, i - last);
+                out.write(rep);
+                last = i + 1;
+            }
+        }
+        out.write(s, last, s.length() - last);
+    }
+
+    static String qualified(QName name) {
+        String prefix = name.getPrefix();
+        return prefix == null || prefix.isEmpty() ? name.getLocalPart() : prefix + ":" + name.getLocalPart();
+    }
+}
@@ -0,0 +1,24 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * One stage of an {@link FmSnippetTransformer} pipeline.
+ *
+ * A stage receives every StAX event of the snippet in document order and forwards zero or more
+ * events downstream (unchanged, replaced or dropped). Stages must not buffer more than a bounded
+ * amount of state so pipelines keep running in a single pass with constant memory. Built-in
+ * stages are in {@link SnippetTransforms}.
+ */
+@FunctionalInterface
+public interface SnippetTransform {
+
+    /** Receives the events a stage forwards. */
+    @FunctionalInterface
+    interface Sink {
+        void accept(XMLEvent event) throws XMLStreamException;
+    }
+
+    void process(XMLEvent event, Sink downstream) throws XMLStreamException;
+}
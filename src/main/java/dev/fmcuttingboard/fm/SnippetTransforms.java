@@ -0,0 +1,412 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Built-in {@link SnippetTransform} stages and a small text format to configure them.
+ *
+ * - {@link #rename(Map, Map)}: renames tables and fields in table/field references and in
+ *   {@code Table::Field} references inside calculations (string literals are left alone);
+ * - {@link #remapIds(Set, Map)}: rewrites object ids (never step ids, which are step types);
+ * - {@link #filter(Predicate)}: drops elements with their subtree, e.g. comment or disabled steps.
+ */
+public final class SnippetTransforms {
+
+    private static final XMLEventFactory EVENTS = XMLEventFactory.newFactory();
+    private static final Set<String> TABLE_TAGS = Set.of("Table", "BaseTable", "TableOccurrence");
+    private static final Set<String> WORD_OPERATORS = Set.of("and", "or", "xor", "not");
+
+    private SnippetTransforms() {}
+
+    // --- Rename ---
+
+    /**
+     * Renames tables and fields.
+     *
+     * @param tables old table name → new table name
+     * @param fields {@code OldTable::OldField} → new field name (table part uses the original name)
+     */
+    public static SnippetTransform rename(Map<String, String> tables, Map<String, String> fields) {
+        return new RenameStage(Map.copyOf(tables), Map.copyOf(fields));
+    }
+
+    private static final class RenameStage implements SnippetTransform {
+        private final Map<String, String> tables;
+        private final Map<String, String> fields;
+        // Original name of the enclosing <BaseTable>, for field definitions without a table attribute
+        private String currentBaseTable;
+        // Depth of <Calculation> elements around the current event; layout objects nest the text in <Text>
+        private int calculationDepth;
+        // Text inside a <Calculation> subtree is buffered up to the next tag so references split across
+        // events still match
+        private StringBuilder calculation;
+        private boolean calculationCdata;
+
+        RenameStage(Map<String, String> tables, Map<String, String> fields) {
+            this.tables = tables;
+            this.fields = fields;
+        }
+
+        @Override
+        public void process(XMLEvent event, Sink downstream) throws XMLStreamException {
+            if (calculationDepth > 0 && event.isCharacters()) {
+                Characters c = event.asCharacters();
+                if (calculation == null) {
+                    calculation = new StringBuilder();
+                    calculationCdata = false;
+                }
+                calculation.append(c.getData());
+                calculationCdata |= c.isCData();
+                return;
+            }
+            if (calculation != null) flushCalculation(downstream);
+            if (event.isStartElement()) {
+                StartElement start = event.asStartElement();
+                String tag = start.getName().getLocalPart();
+                if ("BaseTable".equals(tag)) currentBaseTable = StaxSupport.attribute(start, "name");
+                if ("Calculation".equals(tag)) calculationDepth++;
+                downstream.accept(renameAttributes(start, tag));
+                return;
+            }
+            if (event.isEndElement()) {
+                String tag = event.asEndElement().getName().getLocalPart();
+                if ("BaseTable".equals(tag)) currentBaseTable = null;
+                if ("Calculation".equals(tag) && calculationDepth > 0) calculationDepth--;
+            }
+            downstream.accept(event);
+        }
+
+        private void flushCalculation(Sink downstream) throws XMLStreamException {
+            String text = rewriteReferences(calculation.toString());
+            calculation = null;
+            if (text.isEmpty()) return;
+            downstream.accept(calculationCdata ? EVENTS.createCData(text) : EVENTS.createCharacters(text));
+        }
+
+        private XMLEvent renameAttributes(StartElement start, String tag) {
+            String table = StaxSupport.attribute(start, "table");
+            String fieldTable = table != null ? table : currentBaseTable;
+            boolean changed = false;
+            List<Attribute> attrs = new ArrayList<>();
+            for (Iterator<Attribute> it = start.getAttributes(); it.hasNext(); ) {
+                Attribute a = it.next();
+                String local = a.getName().getLocalPart();
+                String value = a.getValue();
+                String renamed = null;
+                if ("table".equals(local)) {
+                    renamed = tables.get(value);
+                } else if ("name".equals(local)) {
+                    if (TABLE_TAGS.contains(tag)) renamed = tables.get(value);
+                    else if ("Field".equals(tag) && fieldTable != null) renamed = fields.get(fieldTable + "::" + value);
+                }
+                if (renamed != null && !renamed.equals(value)) {
+                    attrs.add(EVENTS.createAttribute(a.getName(), renamed));
+                    changed = true;
+                } else {
+                    attrs.add(a);
+                }
+            }
+            return changed ? rebuild(start, attrs) : start;
+        }
+
+        // Fields first (matched on the original table name), then table prefixes; string literals are
+        // left as written
+        String rewriteReferences(String text) {
+            if (text.indexOf('"') < 0) return rewriteCode(text);
+            StringBuilder sb = new StringBuilder(text.length() + 16);
+            int last = 0;
+            int quote = text.indexOf('"');
+            while (quote >= 0) {
+                int close = closingQuote(text, quote + 1);
+                sb.append(rewriteCode(text.substring(last, quote))).append(text, quote, close);
+                last = close;
+                quote = close < text.length() ? text.indexOf('"', close) : -1;
+            }
+            return sb.append(rewriteCode(text.substring(last))).toString();
+        }
+
+        private String rewriteCode(String text) {
+            for (Map.Entry<String, String> f : fields.entrySet()) {
+                String oldRef = f.getKey();
+                int sep = oldRef.indexOf("::");
+                text = replaceReference(text, oldRef, oldRef.substring(0, sep + 2) + f.getValue(), true);
+            }
+            for (Map.Entry<String, String> t : tables.entrySet()) {
+                text = replaceReference(text, t.getKey() + "::", t.getValue() + "::", false);
+            }
+            return text;
+        }
+    }
+
+    // End (exclusive) of the string literal whose text starts at from; \" is an escaped quote
+    private static int closingQuote(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') i++;
+            else if (c == '"') return i + 1;
+        }
+        return text.length();
+    }
+
+    // Replaces whole-name occurrences only, so renaming "Inv::Id" leaves "XInv::Id" and "Inv::Ids" alone.
+    // FileMaker names may contain spaces, so "My Inv::Id" and "Inv::Id Number" are left alone as well.
+    static String replaceReference(String text, String from, String to, boolean checkEnd) {
+        int idx = text.indexOf(from);
+        if (idx < 0) return text;
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        int last = 0;
+        while (idx >= 0) {
+            int end = idx + from.length();
+            boolean startOk = !continuesNameBefore(text, idx);
+            boolean endOk = !checkEnd || !continuesNameAfter(text, end);
+            if (startOk && endOk) {
+                sb.append(text, last, idx).append(to);
+                last = end;
+            }
+            idx = text.indexOf(from, end);
+        }
+        return sb.append(text, last, text.length()).toString();
+    }
+
+    // True when the text before pos belongs to the same name: a name char right before it, or a word
+    // before intervening spaces that is not one of the word operators
+    private static boolean continuesNameBefore(String text, int pos) {
+        int i = pos;
+        while (i > 0 && text.charAt(i - 1) == ' ') i--;
+        if (i == 0 || !isNameChar(text.charAt(i - 1))) return false;
+        if (i == pos) return true;
+        int start = i;
+        while (start > 0 && isNameChar(text.charAt(start - 1))) start--;
+        return !isWordOperator(text.substring(start, i));
+    }
+
+    private static boolean continuesNameAfter(String text, int pos) {
+        int i = pos;
+        while (i < text.length() && text.charAt(i) == ' ') i++;
+        if (i == text.length() || !isNameChar(text.charAt(i))) return false;
+        if (i == pos) return true;
+        int end = i;
+        while (end < text.length() && isNameChar(text.charAt(end))) end++;
+        return !isWordOperator(text.substring(i, end));
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+    }
+
+    // A name that itself contains one of these words next to the renamed part is still ambiguous
+    private static boolean isWordOperator(String word) {
+        return WORD_OPERATORS.contains(word.toLowerCase(Locale.ROOT));
+    }
+
+    // --- Id remap ---
+
+    /**
+     * Rewrites the {@code id} attribute of elements with one of the given tags (all tags when
+     * {@code tags} is empty). {@code <Step>} ids are step types and are never remapped.
+     */
+    public static SnippetTransform remapIds(Set<String> tags, Map<String, String> ids) {
+        Set<String> onTags = Set.copyOf(tags);
+        Map<String, String> map = Map.copyOf(ids);
+        return (event, downstream) -> {
+            if (event.isStartElement()) {
+                StartElement start = event.asStartElement();
+                String tag = start.getName().getLocalPart();
+                if (!"Step".equals(tag) && (onTags.isEmpty() || onTags.contains(tag))) {
+                    String id = StaxSupport.attribute(start, "id");
+                    String mapped = id == null ? null : map.get(id);
+                    if (mapped != null && !mapped.equals(id)) {
+                        List<Attribute> attrs = new ArrayList<>();
+                        for (Iterator<Attribute> it = start.getAttributes(); it.hasNext(); ) {
+                            Attribute a = it.next();
+                            attrs.add("id".equals(a.getName().getLocalPart()) ? EVENTS.createAttribute(a.getName(), mapped) : a);
+                        }
+                        downstream.accept(rebuild(start, attrs));
+                        return;
+                    }
+                }
+            }
+            downstream.accept(event);
+        };
+    }
+
+    // --- Filter ---
+
+    /**
+     * Drops every element matching {@code drop}, including its subtree and the indentation
+     * directly before it. The root element is never dropped.
+     */
+    public static SnippetTransform filter(Predicate<StartElement> drop) {
+        return new FilterStage(drop);
+    }
+
+    /** Drops comment steps (step type 89, or a step name starting with "#"). */
+    public static SnippetTransform stripCommentSteps() {
+        return filter(el -> "Step".equals(el.getName().getLocalPart()) && StaxSupport.isCommentStep(el));
+    }
+
+    /** Drops steps that are disabled in the script workspace. */
+    public static SnippetTransform stripDisabledSteps() {
+        return filter(el -> "Step".equals(el.getName().getLocalPart())
+                && "False".equalsIgnoreCase(StaxSupport.attribute(el, "enable")));
+    }
+
+    private static final class FilterStage implements SnippetTransform {
+        private final Predicate<StartElement> drop;
+        private int depth;
+        // > 0 while inside a dropped element; counts nesting within it
+        private int skipping;
+        // Whitespace held back until we know whether the next element is dropped
+        private XMLEvent pendingWhitespace;
+
+        FilterStage(Predicate<StartElement> drop) {
+            this.drop = drop;
+        }
+
+        @Override
+        public void process(XMLEvent event, Sink downstream) throws XMLStreamException {
+            if (skipping > 0) {
+                if (event.isStartElement()) {
+                    skipping++;
+                } else if (event.isEndElement() && --skipping == 0) {
+                    depth--;
+                }
+                return;
+            }
+            if (event.isCharacters() && event.asCharacters().isWhiteSpace() && !event.asCharacters().isCData()) {
+                flushPending(downstream);
+                pendingWhitespace = event;
+                return;
+            }
+            if (event.isStartElement()) {
+                if (depth > 0 && drop.test(event.asStartElement())) {
+                    pendingWhitespace = null;
+                    skipping = 1;
+                    depth++;
+                    return;
+                }
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+            flushPending(downstream);
+            downstream.accept(event);
+        }
+
+        private void flushPending(Sink downstream) throws XMLStreamException {
+            if (pendingWhitespace != null) {
+                XMLEvent ws = pendingWhitespace;
+                pendingWhitespace = null;
+                downstream.accept(ws);
+            }
+        }
+    }
+
+    private static StartElement rebuild(StartElement start, List<Attribute> attrs) {
+        List<Namespace> namespaces = new ArrayList<>();
+        start.getNamespaces().forEachRemaining(namespaces::add);
+        return OrderedStartElement.of(start.getName(), attrs, namespaces);
+    }
+
+    // --- Text configuration ---
+
+    /**
+     * Parses a transform spec, one instruction per line ({@code #} starts a comment line):
+     * <pre>
+     * table Contacts -> People
+     * field Contacts::First -> FirstName
+     * id Field 12 -> 40
+     * strip comment-steps
+     * strip disabled-steps
+     * </pre>
+     * All renames form one stage; ids are grouped per tag.
+     *
+     * @throws ConversionException with the offending line number when the spec is invalid or empty
+     */
+    public static FmSnippetTransformer.StageFactory parseSpec(String spec) throws ConversionException {
+        Map<String, String> tables = new LinkedHashMap<>();
+        Map<String, String> fields = new LinkedHashMap<>();
+        Map<String, Map<String, String>> idsByTag = new LinkedHashMap<>();
+        boolean stripComments = false;
+        boolean stripDisabled = false;
+
+        String[] lines = spec == null ? new String[0] : spec.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int space = line.indexOf(' ');
+            String verb = (space < 0 ? line : line.substring(0, space)).toLowerCase(Locale.ROOT);
+            String rest = space < 0 ? "" : line.substring(space + 1).trim();
+            switch (verb) {
+                case "table" -> {
+                    String[] ft = arrow(rest, i);
+                    tables.put(ft[0], ft[1]);
+                }
+                case "field" -> {
+                    String[] ft = arrow(rest, i);
+                    if (!ft[0].contains("::") || ft[0].startsWith("::") || ft[0].endsWith("::")) {
+                        throw lineError(i, "field rename must look like 'field Table::Field -> NewName'");
+                    }
+                    fields.put(ft[0], ft[1]);
+                }
+                case "id" -> {
+                    int tagEnd = rest.indexOf(' ');
+                    if (tagEnd < 0) throw lineError(i, "id remap must look like 'id Tag 12 -> 40'");
+                    String[] ft = arrow(rest.substring(tagEnd + 1).trim(), i);
+                    idsByTag.computeIfAbsent(rest.substring(0, tagEnd), k -> new HashMap<>()).put(ft[0], ft[1]);
+                }
+                case "strip" -> {
+                    switch (rest.toLowerCase(Locale.ROOT)) {
+                        case "comment-steps" -> stripComments = true;
+                        case "disabled-steps" -> stripDisabled = true;
+                        default -> throw lineError(i, "unknown strip target '" + rest + "'");
+                    }
+                }
+                default -> throw lineError(i, "unknown instruction '" + verb + "'");
+            }
+        }
+        if (tables.isEmpty() && fields.isEmpty() && idsByTag.isEmpty() && !stripComments && !stripDisabled) {
+            throw new ConversionException("Transform spec has no instructions.");
+        }
+
+        final boolean comments = stripComments;
+        final boolean disabled = stripDisabled;
+        return () -> {
+            List<SnippetTransform> stages = new ArrayList<>();
+            // Filters first so later stages do not process dropped content
+            if (comments) stages.add(stripCommentSteps());
+            if (disabled) stages.add(stripDisabledSteps());
+            if (!tables.isEmpty() || !fields.isEmpty()) stages.add(rename(tables, fields));
+            idsByTag.forEach((tag, ids) -> stages.add(remapIds(Set.of(tag), ids)));
+            return stages;
+        };
+    }
+
+    private static String[] arrow(String text, int line) throws ConversionException {
+        int arrow = text.indexOf("->");
+        if (arrow < 0) throw lineError(line, "expected 'old -> new'");
+        String from = text.substring(0, arrow).trim();
+        String to = text.substring(arrow + 2).trim();
+        if (from.isEmpty() || to.isEmpty()) throw lineError(line, "expected 'old -> new'");
+        return new String[]{from, to};
+    }
+
+    private static ConversionException lineError(int line, String message) {
+        return new ConversionException("Transform spec line " + (line + 1) + ": " + message + ".");
+    }
+}
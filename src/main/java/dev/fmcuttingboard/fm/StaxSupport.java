@@ -0,0 +1,170 @@
+package dev.fmcuttingboard.fm;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.XMLEventAllocator;
+import javax.xml.stream.util.XMLEventConsumer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Shared StAX setup for the streaming fmxmlsnippet tools (merge, split, canonicalize, ...).
+ * Package-private; the DOM-based {@link FmXmlParser} keeps its own configuration.
+ */
+final class StaxSupport {
+    static final String ROOT = "fmxmlsnippet";
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+    private static final XMLEventFactory EVENTS = XMLEventFactory.newFactory();
+
+    private StaxSupport() {}
+
+    /**
+     * Creates an input factory with the same hardening as FmXmlParser (no DTDs, no external
+     * entities) that reports CDATA sections as such, so FileMaker calculations round-trip as CDATA.
+     */
+    static XMLInputFactory newInputFactory() {
+        XMLInputFactory f = XMLInputFactory.newFactory();
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        f.setProperty(XMLInputFactory.IS_COALESCING, false);
+        try {
+            f.setProperty(REPORT_CDATA, true);
+        } catch (IllegalArgumentException ignore) {
+            // Not supported by this StAX implementation; CDATA content is then written escaped.
+        }
+        return f;
+    }
+
+    /**
+     * Like {@link #newInputFactory()}, but event readers created from it return start elements
+     * that keep attributes in document order (the JDK's own events do not). Use it wherever events
+     * are written back with {@link SnippetEventWriter}.
+     */
+    static XMLInputFactory newOrderedInputFactory() {
+        XMLInputFactory f = newInputFactory();
+        f.setEventAllocator(new OrderedEventAllocator());
+        return f;
+    }
+
+    /**
+     * Builds the event for the reader's current position; start elements keep attribute order.
+     * Returns null for a start document without an XML declaration and for unsupported events.
+     */
+    static XMLEvent toEvent(XMLStreamReader r) {
+        switch (r.getEventType()) {
+            case XMLStreamConstants.START_DOCUMENT:
+                // Only reproduce a declaration that was actually present
+                if (r.getVersion() == null) return null;
+                return r.getCharacterEncodingScheme() != null
+                        ? EVENTS.createStartDocument(r.getCharacterEncodingScheme(), r.getVersion())
+                        : EVENTS.createStartDocument(null, r.getVersion());
+            case XMLStreamConstants.START_ELEMENT: {
+                List<Attribute> attrs = new ArrayList<>(r.getAttributeCount());
+                for (int i = 0; i < r.getAttributeCount(); i++) {
+                    attrs.add(EVENTS.createAttribute(nullToEmpty(r.getAttributePrefix(i)),
+                            nullToEmpty(r.getAttributeNamespace(i)), r.getAttributeLocalName(i), r.getAttributeValue(i)));
+                }
+                List<Namespace> namespaces = new ArrayList<>(r.getNamespaceCount());
+                for (int i = 0; i < r.getNamespaceCount(); i++) {
+                    String prefix = r.getNamespacePrefix(i);
+                    namespaces.add(prefix == null || prefix.isEmpty()
+                            ? EVENTS.createNamespace(r.getNamespaceURI(i))
+                            : EVENTS.createNamespace(prefix, r.getNamespaceURI(i)));
+                }
+                return OrderedStartElement.of(r.getName(), attrs, namespaces);
+            }
+            case XMLStreamConstants.END_ELEMENT:
+                return EVENTS.createEndElement(r.getName(), null);
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+                return EVENTS.createCharacters(r.getText());
+            case XMLStreamConstants.CDATA:
+                return EVENTS.createCData(r.getText());
+            case XMLStreamConstants.COMMENT:
+                return EVENTS.createComment(r.getText());
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                return EVENTS.createProcessingInstruction(r.getPITarget(), r.getPIData());
+            case XMLStreamConstants.END_DOCUMENT:
+                return EVENTS.createEndDocument();
+            default:
+                return null;
+        }
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    // Event readers never get a null event: a missing declaration still yields a StartDocument
+    private static final class OrderedEventAllocator implements XMLEventAllocator {
+        @Override
+        public XMLEventAllocator newInstance() {
+            return this;
+        }
+
+        @Override
+        public XMLEvent allocate(XMLStreamReader r) throws XMLStreamException {
+            XMLEvent ev = toEvent(r);
+            if (ev != null) return ev;
+            if (r.getEventType() == XMLStreamConstants.START_DOCUMENT) return EVENTS.createStartDocument();
+            throw new XMLStreamException("Unsupported XML event type " + r.getEventType(), r.getLocation());
+        }
+
+        @Override
+        public void allocate(XMLStreamReader r, XMLEventConsumer consumer) throws XMLStreamException {
+            consumer.add(allocate(r));
+        }
+    }
+
+    static boolean isRoot(StartElement el) {
+        return ROOT.equalsIgnoreCase(el.getName().getLocalPart());
+    }
+
+    /** Comment step: step type 89, or a step whose name starts with "#". */
+    static boolean isCommentStep(StartElement step) {
+        String id = attribute(step, "id");
+        String name = attribute(step, "name");
+        return "89".equals(id) || (name != null && name.startsWith("#"));
+    }
+
+    static String attribute(StartElement el, String localName) {
+        for (Iterator<Attribute> it = el.getAttributes(); it.hasNext(); ) {
+            Attribute a = it.next();
+            if (a.getName().getLocalPart().equals(localName)) return a.getValue();
+        }
+        return null;
+    }
+
+    // Line breaks and tabs are escaped too, or attribute normalization turns them into spaces on re-read
+    static String escapeAttribute(String v) {
+        if (v == null) return "";
+        StringBuilder sb = null;
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            String rep = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '"' -> "&quot;";
+                case '\n' -> "&#10;";
+                case '\r' -> "&#13;";
+                case '\t' -> "&#9;";
+                default -> null;
+            };
+            if (rep != null && sb == null) {
+                sb = new StringBuilder(v.length() + 16).append(v, 0, i);
+            }
+            if (sb != null) {
+                if (rep != null) sb.append(rep); else sb.append(c);
+            }
+        }
+        return sb == null ? v : sb.toString();
+    }
+}
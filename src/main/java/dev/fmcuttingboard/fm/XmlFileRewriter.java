@@ -0,0 +1,72 @@
+package dev.fmcuttingboard.fm;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * In-place streaming rewrite of an XML file, shared by the batch Project view actions and the CLI.
+ *
+ * The rewrite streams into a temporary sibling which is then moved over the original, so a failed
+ * or rejected rewrite leaves the file untouched and memory use does not depend on file size.
+ */
+public final class XmlFileRewriter {
+
+    /** A streaming rewrite from the original content to the new content. */
+    @FunctionalInterface
+    public interface Rewrite {
+        void apply(Reader in, Writer out) throws IOException, ConversionException;
+    }
+
+    private XmlFileRewriter() {}
+
+    /**
+     * Rewrites {@code file} in place. Returns false (and leaves the file untouched) when the
+     * rewrite produces identical content.
+     *
+     * @throws ConversionException when the rewrite rejects the content
+     */
+    public static boolean rewrite(Path file, Rewrite rewrite) throws IOException, ConversionException {
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), ".fmcb-", ".tmp");
+        try {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                 BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                rewrite.apply(in, out);
+            }
+            if (sameContent(file, tmp)) {
+                return false;
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static boolean sameContent(Path a, Path b) throws IOException {
+        if (Files.size(a) != Files.size(b)) return false;
+        byte[] bufA = new byte[8192];
+        byte[] bufB = new byte[8192];
+        try (InputStream ia = Files.newInputStream(a); InputStream ib = Files.newInputStream(b)) {
+            while (true) {
+                int na = ia.readNBytes(bufA, 0, bufA.length);
+                int nb = ib.readNBytes(bufB, 0, bufB.length);
+                if (na != nb || !Arrays.equals(bufA, 0, na, bufB, 0, nb)) return false;
+                if (na == 0) return true;
+            }
+        }
+    }
+}
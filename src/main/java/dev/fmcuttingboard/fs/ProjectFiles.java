@@ -3,6 +3,7 @@ package dev.fmcuttingboard.fs;
 import com.intellij.openapi.project.Project;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -184,4 +185,16 @@ public final class ProjectFiles {
             throw new IOException("Failed to create XML file at: " + candidate, ioe);
         }
     }
+
+    /**
+     * Writes {@code text} to {@code file} as UTF-8 through a small buffer.
+     * Unlike Files.writeString, which encodes the whole text into a worst-case sized byte array
+     * first, this never holds more than one buffer of encoded bytes, so large captures are not
+     * copied again on their way to disk.
+     */
+    public static void writeUtf8(Path file, String text) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(text);
+        }
+    }
 }
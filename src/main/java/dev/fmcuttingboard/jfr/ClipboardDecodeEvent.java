@@ -0,0 +1,25 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Decoding raw clipboard bytes into text (BOM sniffing, UTF-16 heuristics, NUL stripping). */
+@Name("dev.fmcuttingboard.ClipboardDecode")
+@Label("Clipboard Decode")
+@Category({"FMCuttingBoard", "Clipboard"})
+@Description("Decoding clipboard bytes into text")
+public final class ClipboardDecodeEvent extends PipelineEvent {
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Characters")
+    public int chars;
+
+    @Label("Encoding")
+    @Description("Charset chosen, with how it was detected (bom, heuristic or default)")
+    public String encoding;
+}
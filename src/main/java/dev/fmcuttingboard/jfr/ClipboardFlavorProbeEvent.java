@@ -0,0 +1,31 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One clipboard flavor (or native format) tried while reading; {@code ok} marks the one used. */
+@Name("dev.fmcuttingboard.ClipboardFlavorProbe")
+@Label("Clipboard Flavor Probe")
+@Category({"FMCuttingBoard", "Clipboard"})
+@Description("Fetching and decoding one clipboard data flavor")
+public final class ClipboardFlavorProbeEvent extends PipelineEvent {
+    @Label("Source")
+    @Description("cpm (CopyPasteManager), awt (system clipboard) or native")
+    public String source;
+
+    @Label("Flavor")
+    public String flavor;
+
+    @Label("Representation")
+    public String representation;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes = -1;
+
+    @Label("Characters")
+    public int chars = -1;
+}
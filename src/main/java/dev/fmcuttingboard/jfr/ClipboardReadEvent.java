@@ -0,0 +1,20 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One {@code ClipboardService.readText()} call, across all flavors and fallbacks it probed. */
+@Name("dev.fmcuttingboard.ClipboardRead")
+@Label("Clipboard Read")
+@Category({"FMCuttingBoard", "Clipboard"})
+@Description("Reading text from the system clipboard")
+public final class ClipboardReadEvent extends PipelineEvent {
+    @Label("Characters")
+    public int chars;
+
+    @Label("Source")
+    @Description("Probe that produced the text: cpm-fast, cpm, awt or native")
+    public String source;
+}
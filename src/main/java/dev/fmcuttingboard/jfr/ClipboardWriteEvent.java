@@ -0,0 +1,23 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One {@code ClipboardService.writeText()} call. */
+@Name("dev.fmcuttingboard.ClipboardWrite")
+@Label("Clipboard Write")
+@Category({"FMCuttingBoard", "Clipboard"})
+@Description("Placing text (and FileMaker's native formats) on the system clipboard")
+public final class ClipboardWriteEvent extends PipelineEvent {
+    @Label("Characters")
+    public int chars;
+
+    @Label("Snippet Type")
+    public String snippetType;
+
+    @Label("Route")
+    @Description("windows-native, mac-native or awt")
+    public String route;
+}
@@ -0,0 +1,43 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for the clipboard-to-file pipeline's JDK Flight Recorder events.
+ *
+ * Usage follows the usual JFR pattern: create, {@link #begin()}, set cheap primitive fields while
+ * the stage runs, then {@link #finish(String)}. When no recording has the event enabled,
+ * {@code finish} only checks a flag, so instrumented code costs a few branches. Fields that need
+ * real work to compute (file sizes, type sets) should be filled in only when
+ * {@link #shouldCommit()} is true.
+ *
+ * Record with {@code -XX:StartFlightRecording:filename=fm.jfr} and inspect with
+ * {@code jfr print --categories FMCuttingBoard fm.jfr} or JDK Mission Control.
+ */
+@Category("FMCuttingBoard")
+@StackTrace(false)
+public abstract class PipelineEvent extends Event {
+    /** The stage produced a result. */
+    public static final String OK = "ok";
+    /** The stage ran but found nothing usable (empty clipboard, flavor without text, ...). */
+    public static final String EMPTY = "empty";
+    /** The input was read but is not an fmxmlsnippet / not valid for this stage. */
+    public static final String REJECTED = "rejected";
+    /** The stage threw. */
+    public static final String FAILED = "failed";
+
+    @Label("Outcome")
+    public String outcome;
+
+    /** Ends the event and commits it with the given outcome if a recording wants it. */
+    public final void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
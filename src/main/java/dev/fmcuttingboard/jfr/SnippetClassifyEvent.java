@@ -0,0 +1,19 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Detecting which FileMaker object types a snippet contains. */
+@Name("dev.fmcuttingboard.SnippetClassify")
+@Label("Snippet Classify")
+@Category({"FMCuttingBoard", "Conversion"})
+@Description("Detecting the object types in an fmxmlsnippet")
+public final class SnippetClassifyEvent extends PipelineEvent {
+    @Label("Characters")
+    public int chars;
+
+    @Label("Snippet Types")
+    public String snippetTypes;
+}
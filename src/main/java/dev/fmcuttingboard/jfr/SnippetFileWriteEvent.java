@@ -0,0 +1,43 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Writing a captured snippet or calculation to a new file on disk. */
+@Name("dev.fmcuttingboard.SnippetFileWrite")
+@Label("Snippet File Write")
+@Category({"FMCuttingBoard", "Files"})
+@Description("Writing captured clipboard content to a file")
+public final class SnippetFileWriteEvent extends PipelineEvent {
+    @Label("Path")
+    public String path;
+
+    @Label("Characters")
+    public int chars;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes = -1;
+
+    /** Ends the event; the path and on-disk size are only resolved when a recording wants it. */
+    public void finish(Path file, int chars, String outcome) {
+        end();
+        if (!shouldCommit()) return;
+        this.path = String.valueOf(file);
+        this.chars = chars;
+        try {
+            if (file != null) this.bytes = Files.size(file);
+        } catch (IOException | RuntimeException ignore) {
+            // size stays unknown
+        }
+        this.outcome = outcome;
+        commit();
+    }
+}
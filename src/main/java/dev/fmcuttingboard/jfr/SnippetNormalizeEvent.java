@@ -0,0 +1,19 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Locating and normalizing the fmxmlsnippet inside raw clipboard text. */
+@Name("dev.fmcuttingboard.SnippetNormalize")
+@Label("Snippet Normalize")
+@Category({"FMCuttingBoard", "Conversion"})
+@Description("Extracting normalized fmxmlsnippet XML from clipboard text")
+public final class SnippetNormalizeEvent extends PipelineEvent {
+    @Label("Input Characters")
+    public int inputChars;
+
+    @Label("Output Characters")
+    public int outputChars = -1;
+}
@@ -0,0 +1,19 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Full DOM parse of an fmxmlsnippet by {@code FmXmlParser}. */
+@Name("dev.fmcuttingboard.SnippetParse")
+@Label("Snippet Parse")
+@Category({"FMCuttingBoard", "Conversion"})
+@Description("Parsing and validating fmxmlsnippet XML")
+public final class SnippetParseEvent extends PipelineEvent {
+    @Label("Characters")
+    public int chars;
+
+    @Label("Snippet Types")
+    public String snippetTypes;
+}
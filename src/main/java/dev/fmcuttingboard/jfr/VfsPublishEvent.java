@@ -0,0 +1,28 @@
+package dev.fmcuttingboard.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.file.Path;
+
+/** Refreshing the IDE's virtual file system so a newly written file shows up and opens. */
+@Name("dev.fmcuttingboard.VfsPublish")
+@Label("VFS Publish")
+@Category({"FMCuttingBoard", "Files"})
+@Description("Refreshing the VFS and opening a newly written file")
+public final class VfsPublishEvent extends PipelineEvent {
+    @Label("Path")
+    public String path;
+
+    /** Ends the event, formatting the path only when a recording wants it. */
+    public void finish(Path file, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.path = String.valueOf(file);
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
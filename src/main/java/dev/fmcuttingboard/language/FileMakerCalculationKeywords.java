@@ -0,0 +1,96 @@
+package dev.fmcuttingboard.language;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keyword classification for the calculation lexer.
+ *
+ * The JFlex grammar matches every word as a plain identifier and asks this table whether it is a
+ * keyword, so adding a function no longer means editing and regenerating the lexer. The control,
+ * logical and type lists are generated into {@link GeneratedFunctionCatalog} from the Notepad++
+ * language definition in resources/FileMakerCalcs_InNotepadPlusPlus.xml (Words1-3, which is case
+ * sensitive) plus the JSON, text style and layout object constants in calculation-keywords.txt.
+ * Every function in {@link FileMakerFunctionRegistry} is classified as a function.
+ *
+ * Lookups hash the matched characters straight out of the lexer buffer into an open-addressing
+ * table, so classifying a token allocates nothing. Matching is case sensitive, as in the lists:
+ * {@code if} is a control keyword while {@code If} is the function.
+ */
+public final class FileMakerCalculationKeywords {
+
+    /** Keyword groups, highest priority first when a word appears in two lists. */
+    public enum Kind { CONTROL, LOGICAL, TYPE, FUNCTION }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final String[] KEYS;
+    private static final byte[] KIND_ORDINALS;
+    private static final int MASK;
+    private static final int MAX_LENGTH;
+
+    static {
+        int count = GeneratedFunctionCatalog.CONTROL_KEYWORDS.length + GeneratedFunctionCatalog.LOGICAL_KEYWORDS.length
+                + GeneratedFunctionCatalog.TYPE_KEYWORDS.length + FileMakerFunctionRegistry.size();
+        // At most 25% full keeps probe sequences short
+        int capacity = Integer.highestOneBit(count * 4 - 1) << 1;
+        KEYS = new String[capacity];
+        KIND_ORDINALS = new byte[capacity];
+        MASK = capacity - 1;
+        int max = 0;
+        max = addAll(GeneratedFunctionCatalog.CONTROL_KEYWORDS, Kind.CONTROL, max);
+        max = addAll(GeneratedFunctionCatalog.LOGICAL_KEYWORDS, Kind.LOGICAL, max);
+        max = addAll(GeneratedFunctionCatalog.TYPE_KEYWORDS, Kind.TYPE, max);
+        max = addAll(FileMakerFunctionRegistry.getFunctionNames().toArray(new String[0]), Kind.FUNCTION, max);
+        MAX_LENGTH = max;
+    }
+
+    private FileMakerCalculationKeywords() {}
+
+    /** Keyword group of {@code text[start, end)}, or null for an ordinary identifier. */
+    public static @Nullable Kind classify(@NotNull CharSequence text, int start, int end) {
+        int len = end - start;
+        if (len <= 0 || len > MAX_LENGTH) return null;
+        int slot = hash(text, start, end) & MASK;
+        for (String key; (key = KEYS[slot]) != null; slot = (slot + 1) & MASK) {
+            if (matches(key, text, start, len)) return KINDS[KIND_ORDINALS[slot]];
+        }
+        return null;
+    }
+
+    public static @Nullable Kind classify(@NotNull CharSequence word) {
+        return classify(word, 0, word.length());
+    }
+
+    private static int addAll(String[] words, Kind kind, int max) {
+        for (String word : words) {
+            int slot = hash(word, 0, word.length()) & MASK;
+            while (KEYS[slot] != null && !KEYS[slot].equals(word)) {
+                slot = (slot + 1) & MASK;
+            }
+            // The first list a word appears in wins, like the first matching rule in the grammar
+            if (KEYS[slot] == null) {
+                KEYS[slot] = word;
+                KIND_ORDINALS[slot] = (byte) kind.ordinal();
+                max = Math.max(max, word.length());
+            }
+        }
+        return max;
+    }
+
+    private static boolean matches(String key, CharSequence text, int start, int len) {
+        if (key.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (key.charAt(i) != text.charAt(start + i)) return false;
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + text.charAt(i);
+        }
+        // Spread the high bits, as HashMap does, since only the low bits pick the slot
+        return h ^ (h >>> 16);
+    }
+}
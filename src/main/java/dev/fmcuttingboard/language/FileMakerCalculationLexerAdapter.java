@@ -5,6 +5,11 @@ import com.intellij.lexer.FlexAdapter;
 /**
  * Lexer adapter that wraps the generated JFlex lexer for the FileMaker Calculation language.
  * This is used by IntelliJ Platform APIs (e.g., syntax highlighter) to obtain tokens.
+ *
+ * The lexer has a single state, so {@link #getState()} is 0 at every token start and the editor
+ * highlighter can restart at any token near an edit instead of at the start of the file. Block
+ * comments and unterminated strings are single tokens for the same reason; see
+ * FileMakerCalculationIncrementalLexingTest.
  */
 public class FileMakerCalculationLexerAdapter extends FlexAdapter {
     public FileMakerCalculationLexerAdapter() {
@@ -38,6 +38,19 @@ public final class FileMakerCalculationTokenType {
     public static final IElementType KEYWORD_TYPE = token("KEYWORD_TYPE"); // boolean, int, etc
     public static final IElementType KEYWORD_FUNCTION = token("KEYWORD_FUNCTION"); // functions like Abs, Date, Get(), etc
 
+    /** Token type of the identifier {@code buffer[start, end)}: a keyword group or IDENTIFIER. */
+    @NotNull
+    public static IElementType identifierOrKeyword(@NotNull CharSequence buffer, int start, int end) {
+        FileMakerCalculationKeywords.Kind kind = FileMakerCalculationKeywords.classify(buffer, start, end);
+        if (kind == null) return IDENTIFIER;
+        return switch (kind) {
+            case CONTROL -> KEYWORD_CONTROL;
+            case LOGICAL -> KEYWORD_LOGICAL;
+            case TYPE -> KEYWORD_TYPE;
+            case FUNCTION -> KEYWORD_FUNCTION;
+        };
+    }
+
     @NotNull
     private static IElementType token(@NonNls @NotNull String debugName) {
         return new IElementType(debugName, FileMakerCalculationLanguage.INSTANCE);
@@ -0,0 +1,181 @@
+package dev.fmcuttingboard.language;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import static dev.fmcuttingboard.language.GeneratedFunctionCatalog.*;
+
+/**
+ * Read-only views over the flat tables of {@link GeneratedFunctionCatalog}, behind
+ * {@link FileMakerFunctionRegistry}.
+ *
+ * Nothing is copied out of the tables up front. A function is materialized on first lookup as one
+ * {@link FunctionMetadata} whose strings come from the shared pool and whose parameter list is a
+ * view over its slice of the parameter rows; {@link FunctionParameter}s are built when read and not
+ * kept. Name sets, category lists and Get() constants are views as well, so the retained heap is
+ * the tables plus one small object per function actually used.
+ */
+final class FunctionCatalog {
+
+    static final int COUNT = FUNCTIONS.length / FUNCTION_STRIDE;
+
+    /** Materialized entries, filled on demand. FunctionMetadata is immutable, so a racy fill is harmless. */
+    private final FunctionMetadata[] entries = new FunctionMetadata[COUNT];
+
+    private final List<FunctionMetadata> all = new Functions(null, 0, COUNT);
+    private final Set<String> names = new Names();
+    private final List<String> getConstants = new Strings(GET_CONSTANTS);
+
+    @NotNull List<FunctionMetadata> all() {
+        return all;
+    }
+
+    @Nullable FunctionMetadata find(@NotNull String name) {
+        int index = GeneratedFunctionCatalog.find(name);
+        return index < 0 ? null : entry(index);
+    }
+
+    @NotNull List<FunctionMetadata> byCategory(@NotNull String category) {
+        for (int ordinal = 0; ordinal < CATEGORIES.length; ordinal++) {
+            if (STRINGS[CATEGORIES[ordinal]].equals(category)) {
+                return new Functions(CATEGORY_MEMBERS, CATEGORY_START[ordinal], CATEGORY_START[ordinal + 1]);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    @NotNull Set<String> names() {
+        return names;
+    }
+
+    @NotNull List<String> getConstants() {
+        return getConstants;
+    }
+
+    FunctionMetadata entry(int index) {
+        FunctionMetadata m = entries[index];
+        if (m == null) {
+            int row = index * FUNCTION_STRIDE;
+            m = new FunctionMetadata(STRINGS[FUNCTIONS[row + NAME]], STRINGS[CATEGORIES[FUNCTIONS[row + CATEGORY]]],
+                    STRINGS[FUNCTIONS[row + RETURN_TYPE]], STRINGS[FUNCTIONS[row + DESCRIPTION]],
+                    new Parameters(FUNCTIONS[row + FIRST_PARAMETER], FUNCTIONS[row + PARAMETER_COUNT]));
+            entries[index] = m;
+        }
+        return m;
+    }
+
+    private static String name(int index) {
+        return STRINGS[FUNCTIONS[index * FUNCTION_STRIDE + NAME]];
+    }
+
+    /** Functions {@code from} to {@code to} in catalog order, or through {@code members} when given. */
+    private final class Functions extends AbstractList<FunctionMetadata> implements RandomAccess {
+        private final char[] members;
+        private final int from;
+        private final int to;
+
+        Functions(char[] members, int from, int to) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public FunctionMetadata get(int index) {
+            Objects.checkIndex(index, size());
+            return entry(members == null ? from + index : members[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /** One function's slice of the parameter rows; each read builds a fresh {@link FunctionParameter}. */
+    private static final class Parameters extends AbstractList<FunctionParameter> implements RandomAccess {
+        private final char first;
+        private final char count;
+
+        Parameters(char first, char count) {
+            this.first = first;
+            this.count = count;
+        }
+
+        @Override
+        public FunctionParameter get(int index) {
+            Objects.checkIndex(index, count);
+            int row = (first + index) * PARAMETER_STRIDE;
+            int flags = PARAMETERS[row + PARAMETER_FLAGS];
+            return new FunctionParameter(STRINGS[PARAMETERS[row + PARAMETER_NAME]], STRINGS[PARAMETERS[row + PARAMETER_TYPE]],
+                    (flags & OPTIONAL) != 0, (flags & REPEATING) != 0);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /** Function names in catalog order; {@code contains} is exact, like the name set it replaces. */
+    private static final class Names extends AbstractSet<String> {
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof String s)) return false;
+            int index = GeneratedFunctionCatalog.find(s);
+            return index >= 0 && name(index).equals(s);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < COUNT;
+                }
+
+                @Override
+                public String next() {
+                    if (next >= COUNT) throw new NoSuchElementException();
+                    return name(next++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return COUNT;
+        }
+    }
+
+    /** Pool strings by index. */
+    private static final class Strings extends AbstractList<String> implements RandomAccess {
+        private final char[] indices;
+
+        Strings(char[] indices) {
+            this.indices = indices;
+        }
+
+        @Override
+        public String get(int index) {
+            return STRINGS[indices[index]];
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+}
@@ -15,8 +15,14 @@ public class FunctionMetadata {
     private final String description;
 
     public FunctionMetadata(String name, List<FunctionParameter> parameters, String category, String returnType, String description) {
+        this(name, category, returnType, description,
+                parameters != null ? Collections.unmodifiableList(parameters) : Collections.emptyList());
+    }
+
+    /** Keeps {@code readOnlyParameters} as is, without a wrapper; for the generated catalog's read-only views. */
+    FunctionMetadata(String name, String category, String returnType, String description, List<FunctionParameter> readOnlyParameters) {
         this.name = name;
-        this.parameters = parameters != null ? Collections.unmodifiableList(parameters) : Collections.emptyList();
+        this.parameters = readOnlyParameters;
         this.category = category;
         this.returnType = returnType;
         this.description = description;
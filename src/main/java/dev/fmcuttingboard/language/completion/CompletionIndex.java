@@ -0,0 +1,226 @@
+package dev.fmcuttingboard.language.completion;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive completion index over a fixed list of names (function names, Get() constants).
+ *
+ * Two sorted arrays are kept: the lower-cased names, and the lower-cased hump initials
+ * ("GetLayoutObjectAttribute" → "gloa", "JSONSetElement" → "jse"). A typed prefix is looked up in
+ * both with a binary search, so only the entries that match are visited. A pattern with several
+ * humps of its own ("GetLOA", "JSet") is also checked against the names starting with its first
+ * hump, where later humps of the pattern may skip humps of the name, as in the IDE's own camel-hump
+ * matching. The cost follows the number of names sharing the typed prefix (or first hump), not the
+ * size of the catalog.
+ *
+ * Results are indices into the list given to the constructor: prefix matches first, then hump
+ * matches, each in alphabetical order and without duplicates. The index is immutable and safe to
+ * share between threads.
+ */
+final class CompletionIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] names;
+    private final String[] nameKeys;
+    private final int[] nameOrder;
+    private final String[] humpKeys;
+    private final int[] humpOrder;
+
+    CompletionIndex(@NotNull List<String> names) {
+        this.names = names.toArray(new String[0]);
+        int n = this.names.length;
+        String[] folded = new String[n];
+        String[] initials = new String[n];
+        for (int i = 0; i < n; i++) {
+            folded[i] = fold(this.names[i]);
+            initials[i] = initials(this.names[i]);
+        }
+        nameOrder = sortedBy(folded);
+        nameKeys = permute(folded, nameOrder);
+        humpOrder = sortedBy(initials);
+        humpKeys = permute(initials, humpOrder);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /** Indices of the names matching {@code pattern}; every name, in list order, for an empty pattern. */
+    int[] match(@NotNull String pattern) {
+        if (pattern.isEmpty()) {
+            int[] all = new int[names.length];
+            for (int i = 0; i < all.length; i++) all[i] = i;
+            return all;
+        }
+        String key = fold(pattern);
+        Results results = new Results();
+        int from = lowerBound(nameKeys, key);
+        for (int i = from; i < nameKeys.length && nameKeys[i].startsWith(key); i++) {
+            results.add(nameOrder[i]);
+        }
+        results.endPrefixMatches();
+        from = lowerBound(humpKeys, key);
+        for (int i = from; i < humpKeys.length && humpKeys[i].startsWith(key); i++) {
+            results.addIfAbsent(humpOrder[i]);
+        }
+        int firstHump = firstHumpLength(pattern);
+        if (firstHump < pattern.length()) {
+            String head = key.substring(0, firstHump);
+            from = lowerBound(nameKeys, head);
+            for (int i = from; i < nameKeys.length && nameKeys[i].startsWith(head); i++) {
+                if (matchesHumps(names[nameOrder[i]], pattern)) results.addIfAbsent(nameOrder[i]);
+            }
+        }
+        return results.toArray(Comparator.comparing(i -> names[i], String.CASE_INSENSITIVE_ORDER));
+    }
+
+    /**
+     * True when the humps of {@code pattern} match, in order, the starts of humps of {@code name}
+     * (ignoring case); the first pattern hump must match at the start of the name.
+     */
+    static boolean matchesHumps(@NotNull String name, @NotNull String pattern) {
+        return matchFrom(name, humpStarts(name), 0, pattern, 0);
+    }
+
+    private static boolean matchFrom(String name, int[] humps, int hump, String pattern, int at) {
+        if (at == pattern.length()) return true;
+        int end = at + firstHumpLength(pattern.substring(at));
+        for (int h = hump; h < humps.length; h++) {
+            int start = humps[h];
+            // A pattern hump may run on into the following humps of the name: "Getla" → "GetLayout…"
+            if (name.regionMatches(true, start, pattern, at, end - at)) {
+                int next = h + 1;
+                while (next < humps.length && humps[next] < start + (end - at)) next++;
+                if (matchFrom(name, humps, next, pattern, end)) return true;
+            }
+            if (at == 0) return false; // the first pattern hump is anchored at the start
+        }
+        return false;
+    }
+
+    /** Length of the first hump of {@code pattern}: up to the next upper-case letter or separator. */
+    private static int firstHumpLength(String pattern) {
+        for (int i = 1; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (Character.isUpperCase(c) || !Character.isLetterOrDigit(c)) return i;
+        }
+        return pattern.length();
+    }
+
+    /** Lower-cased first letters of the humps of {@code name}. */
+    static @NotNull String initials(@NotNull String name) {
+        int[] starts = humpStarts(name);
+        StringBuilder sb = new StringBuilder(starts.length);
+        for (int start : starts) sb.append(Character.toLowerCase(name.charAt(start)));
+        return sb.toString();
+    }
+
+    /**
+     * Offsets where a hump starts: the first character, an upper-case letter after a lower-case
+     * letter or digit, the last capital of an acronym followed by lower case ("JSONSet" → J, S),
+     * and a letter or digit after a separator. Digits after letters do not start a hump.
+     */
+    private static int[] humpStarts(String name) {
+        if (name.isEmpty()) return NONE;
+        int[] starts = new int[name.length()];
+        int count = 0;
+        starts[count++] = 0;
+        for (int i = 1; i < name.length(); i++) {
+            char prev = name.charAt(i - 1);
+            char c = name.charAt(i);
+            boolean start;
+            if (!Character.isLetterOrDigit(c)) {
+                start = false;
+            } else if (!Character.isLetterOrDigit(prev)) {
+                start = true;
+            } else if (Character.isUpperCase(c)) {
+                start = !Character.isUpperCase(prev)
+                        || (i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1)));
+            } else {
+                start = false;
+            }
+            if (start) starts[count++] = i;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] sortedBy(String[] keys) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing((Integer i) -> keys[i]).thenComparing(i -> i));
+        int[] out = new int[order.length];
+        for (int i = 0; i < out.length; i++) out[i] = order[i];
+        return out;
+    }
+
+    private static String[] permute(String[] keys, int[] order) {
+        String[] out = new String[keys.length];
+        for (int i = 0; i < out.length; i++) out[i] = keys[order[i]];
+        return out;
+    }
+
+    /** First position whose key is not less than {@code key}. */
+    private static int lowerBound(String[] keys, String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Prefix matches, then the other matches. Those come from ranges that overlap the prefix range,
+     * so membership is checked by binary search in the sorted prefix matches plus a scan of the few
+     * others.
+     */
+    private static final class Results {
+        int[] values = new int[16];
+        int size;
+        int[] sortedPrefix;
+        int prefixCount;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void endPrefixMatches() {
+            prefixCount = size;
+            sortedPrefix = Arrays.copyOf(values, size);
+            Arrays.sort(sortedPrefix);
+        }
+
+        void addIfAbsent(int value) {
+            if (Arrays.binarySearch(sortedPrefix, value) >= 0) return;
+            for (int i = prefixCount; i < size; i++) {
+                if (values[i] == value) return;
+            }
+            add(value);
+        }
+
+        /** The matches, with the ones after the prefix matches sorted by {@code order}. */
+        int[] toArray(Comparator<Integer> order) {
+            int[] out = Arrays.copyOf(values, size);
+            if (size - prefixCount > 1) {
+                Integer[] tail = new Integer[size - prefixCount];
+                for (int i = 0; i < tail.length; i++) tail[i] = out[prefixCount + i];
+                Arrays.sort(tail, order);
+                for (int i = 0; i < tail.length; i++) out[prefixCount + i] = tail[i];
+            }
+            return out;
+        }
+    }
+}
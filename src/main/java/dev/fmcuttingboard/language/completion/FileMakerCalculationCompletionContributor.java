@@ -1,6 +1,7 @@
 package dev.fmcuttingboard.language.completion;
 
 import com.intellij.codeInsight.completion.*;
+import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.codeInsight.template.Template;
 import com.intellij.codeInsight.template.TemplateManager;
@@ -17,25 +18,21 @@ import dev.fmcuttingboard.language.FunctionParameter;
 import dev.fmcuttingboard.language.psi.FileMakerPsiUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Phase 2 – Enhanced Code Completion
  * 2.1 Context-Aware Completion using FileMakerFunctionRegistry
  * 2.2 Smart insertion with parameter placeholders via IntelliJ Live Templates (implemented)
+ *
+ * Candidates come from a {@link CompletionIndex} over the function catalog and one over the full set
+ * of Get() constants, so only the prefix and camel-hump matches of what was typed are visited. Lookup
+ * elements are immutable and built once per entry, on first offer.
  */
 public class FileMakerCalculationCompletionContributor extends CompletionContributor {
 
-    // Representative subset of Get() parameter constants (Phase 2.1 requirement)
-    private static final List<String> GET_CONSTANTS = Arrays.asList(
-            "AccountName", "ApplicationLanguage", "CurrentTimeUTCMilliseconds",
-            "Device", "DocumentsPath", "FileName", "HostName", "LastError",
-            "LayoutName", "ModelName", "ModifiedFields", "NetworkProtocol",
-            "PersistentID", "PreferencesPath", "ScreenScale", "ScriptName",
-            "SystemLanguage", "TotalRecordCount", "UserName", "WindowName"
-    );
-
     public FileMakerCalculationCompletionContributor() {
         extend(CompletionType.BASIC,
                 PlatformPatterns.psiElement().withLanguage(FileMakerCalculationLanguage.INSTANCE),
@@ -47,31 +44,62 @@ public class FileMakerCalculationCompletionContributor extends CompletionContrib
                         PsiElement position = parameters.getPosition();
                         if (FileMakerPsiUtil.isInStringOrComment(position)) return;
 
+                        String prefix = result.getPrefixMatcher().getPrefix();
+
                         // Offer function completions from the registry
-                        for (FunctionMetadata meta : FileMakerFunctionRegistry.getAll()) {
-                            result.addElement(
-                                    LookupElementBuilder.create(meta.getName())
-                                            .withPresentableText(meta.getName())
-                                            .withTypeText(meta.getCategory() + (meta.getReturnType() != null ? " → " + meta.getReturnType() : ""), true)
-                                            .withTailText("  " + meta.getSimpleSignature(), true)
-                                            .withInsertHandler((context1, item) -> insertFunctionTemplate(context1, meta))
-                            );
+                        for (int index : Functions.INDEX.match(prefix)) {
+                            result.addElement(Functions.element(index));
                         }
 
                         // Provide Get() constants when caret is inside a Get( … ) call (PSI-based)
                         FileMakerPsiUtil.FunctionCallInfo call = FileMakerPsiUtil.getEnclosingFunctionCall(position);
                         if (call != null && "Get".equalsIgnoreCase(call.name)) {
-                            for (String name : GET_CONSTANTS) {
-                                result.addElement(
-                                        LookupElementBuilder.create(name)
-                                                .withTypeText("Get() constant", true)
-                                );
+                            for (int index : GetConstants.INDEX.match(prefix)) {
+                                result.addElement(GetConstants.element(index));
                             }
                         }
                     }
                 });
     }
 
+    // Holders: built on the first completion that needs them
+
+    private static final class Functions {
+        static final List<String> NAMES = new ArrayList<>(FileMakerFunctionRegistry.getFunctionNames());
+        static final CompletionIndex INDEX = new CompletionIndex(NAMES);
+        /** Filled on demand; lookup elements are immutable, so a racy fill is harmless. */
+        static final LookupElement[] ELEMENTS = new LookupElement[NAMES.size()];
+
+        static LookupElement element(int index) {
+            LookupElement element = ELEMENTS[index];
+            if (element == null) {
+                FunctionMetadata meta = Objects.requireNonNull(FileMakerFunctionRegistry.findByName(NAMES.get(index)));
+                element = LookupElementBuilder.create(meta.getName())
+                        .withPresentableText(meta.getName())
+                        .withTypeText(meta.getCategory() + (meta.getReturnType() != null ? " → " + meta.getReturnType() : ""), true)
+                        .withTailText("  " + meta.getSimpleSignature(), true)
+                        .withInsertHandler((context, item) -> insertFunctionTemplate(context, meta));
+                ELEMENTS[index] = element;
+            }
+            return element;
+        }
+    }
+
+    private static final class GetConstants {
+        static final List<String> NAMES = FileMakerFunctionRegistry.getGetConstants();
+        static final CompletionIndex INDEX = new CompletionIndex(NAMES);
+        static final LookupElement[] ELEMENTS = new LookupElement[NAMES.size()];
+
+        static LookupElement element(int index) {
+            LookupElement element = ELEMENTS[index];
+            if (element == null) {
+                element = LookupElementBuilder.create(NAMES.get(index)).withTypeText("Get() constant", true);
+                ELEMENTS[index] = element;
+            }
+            return element;
+        }
+    }
+
     // Insert a live template like: Name($param1$; $param2$)
     private static void insertFunctionTemplate(@NotNull InsertionContext context, @NotNull FunctionMetadata meta) {
         Project project = context.getProject();
@@ -12,46 +12,41 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Advanced IDE Feature: Code folding for Let(), Case(), If() blocks (Post-MVP).
+ * Advanced IDE Feature: Code folding for Let(), Case(), If(), While(), ExecuteSQL() and
+ * JSONSetElement() calls, multi-line block comments and long strings (Post-MVP).
  *
- * This builder scans the file text for occurrences of Let( ... ), Case( ... ), If( ... )
- * and creates fold regions that collapse the content inside the outer parentheses.
- *
- * Note: This is a lightweight implementation that relies on balanced parentheses; it does not
- * require a full PSI parser and works purely on the document text.
+ * The fold regions are collected in one pass over the tokens of the file (the leaves of its tree),
+ * so parentheses inside strings and comments are ignored and nested calls fold at every level; see
+ * {@link FoldRegions}. The leaves are the lexer's tokens whether or not the parser understood them,
+ * so folding does not depend on the calculation being well formed.
  */
 public class FileMakerCalculationFoldingBuilder extends FoldingBuilderEx {
 
-    private static final String[] FOLDING_FUNCTIONS = new String[]{"Let(", "Case(", "If("};
-
     @Override
     public FoldingDescriptor @NotNull [] buildFoldRegions(@NotNull ASTNode node, @NotNull Document document) {
-        List<FoldingDescriptor> descriptors = new ArrayList<>();
-        CharSequence text = document.getCharsSequence();
-        int length = text.length();
-
-        for (String marker : FOLDING_FUNCTIONS) {
-            int idx = 0;
-            while (idx >= 0 && idx < length) {
-                idx = indexOf(text, marker, idx);
-                if (idx < 0) break;
-
-                int openParen = idx + marker.length() - 1; // position of '('
-                int closeParen = findMatchingParen(text, openParen + 1);
-                if (closeParen > openParen + 1) {
-                    // Create a fold inside the parentheses if there's content
-                    int start = openParen + 1;
-                    int end = closeParen;
-                    if (end - start > 1) {
-                        descriptors.add(new FoldingDescriptor(node, new TextRange(start, end)));
-                    }
-                    idx = closeParen + 1;
-                } else {
-                    idx = openParen + 1;
-                }
+        FoldRegions regions = new FoldRegions();
+        int offset = node.getStartOffset();
+        // Leaves in document order, without recursion so that deep nesting cannot overflow the stack
+        ASTNode current = node;
+        while (current != null) {
+            ASTNode child = current.getFirstChildNode();
+            if (child != null) {
+                current = child;
+                continue;
             }
+            CharSequence text = current.getChars();
+            if (text.length() > 0) {
+                regions.token(current.getElementType(), text, offset);
+                offset += text.length();
+            }
+            while (current != node && current.getTreeNext() == null) current = current.getTreeParent();
+            current = current == node ? null : current.getTreeNext();
         }
 
+        List<FoldingDescriptor> descriptors = new ArrayList<>(regions.regions().size());
+        for (FoldRegions.Region region : regions.regions()) {
+            descriptors.add(new FoldingDescriptor(node, new TextRange(region.start(), region.end()), null, region.placeholder()));
+        }
         return descriptors.toArray(FoldingDescriptor[]::new);
     }
 
@@ -74,29 +69,4 @@ public class FileMakerCalculationFoldingBuilder extends FoldingBuilderEx {
     public boolean isCollapsedByDefault(@NotNull ASTNode node) {
         return false;
     }
-
-    private static int indexOf(CharSequence text, String needle, int from) {
-        int max = text.length() - needle.length();
-        outer:
-        for (int i = Math.max(0, from); i <= max; i++) {
-            for (int j = 0; j < needle.length(); j++) {
-                if (text.charAt(i + j) != needle.charAt(j)) continue outer;
-            }
-            return i;
-        }
-        return -1;
-    }
-
-    private static int findMatchingParen(CharSequence text, int from) {
-        int depth = 1;
-        for (int i = from; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c == '(') depth++;
-            else if (c == ')') {
-                depth--;
-                if (depth == 0) return i;
-            }
-        }
-        return -1; // not found
-    }
 }
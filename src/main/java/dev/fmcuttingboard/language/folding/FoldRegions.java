@@ -0,0 +1,98 @@
+package dev.fmcuttingboard.language.folding;
+
+import com.intellij.psi.tree.IElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationTokenType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fold regions of a calculation, collected from its tokens in one pass.
+ *
+ * Open parentheses are kept on a stack together with whether they follow a folding function name
+ * (Let, Case, If, While, ExecuteSQL, JSONSetElement; in any case, comments and whitespace allowed in
+ * between), and each is resolved when its closing parenthesis arrives. Parentheses inside strings and
+ * comments are part of those tokens and never reach the stack. Block comments spanning several lines
+ * and long string literals fold as well. The cost is linear in the number of tokens however deeply
+ * the calls nest.
+ */
+final class FoldRegions {
+
+    private static final String[] FOLDING_FUNCTIONS = {"Let", "Case", "If", "While", "ExecuteSQL", "JSONSetElement"};
+
+    /** Strings longer than this (quotes included) fold to their quotes. */
+    static final int LONG_STRING = 80;
+
+    record Region(int start, int end, @NotNull String placeholder) {}
+
+    private final List<Region> regions = new ArrayList<>();
+    private int[] openOffsets = new int[16];
+    private boolean[] openFolds = new boolean[16];
+    private int depth;
+    private boolean afterFoldingName;
+
+    /** Feeds the next token, which covers {@code text} starting at {@code start}. */
+    void token(@NotNull IElementType type, @NotNull CharSequence text, int start) {
+        int end = start + text.length();
+        if (type == FileMakerCalculationTokenType.WHITE_SPACE || type == FileMakerCalculationTokenType.LINE_COMMENT) {
+            return;
+        }
+        if (type == FileMakerCalculationTokenType.BLOCK_COMMENT) {
+            if (containsLineBreak(text)) regions.add(new Region(start, end, "/*...*/"));
+            return;
+        }
+        if (type == FileMakerCalculationTokenType.STRING) {
+            if (text.length() > LONG_STRING) regions.add(new Region(start + 1, end - 1, "..."));
+        } else if (type == FileMakerCalculationTokenType.LPAREN) {
+            push(start, afterFoldingName);
+        } else if (type == FileMakerCalculationTokenType.RPAREN && depth > 0) {
+            depth--;
+            int contentStart = openOffsets[depth] + 1;
+            // Fold only if there's more than a character inside the parentheses
+            if (openFolds[depth] && start - contentStart > 1) regions.add(new Region(contentStart, start, "..."));
+        }
+        afterFoldingName = (type == FileMakerCalculationTokenType.KEYWORD_FUNCTION
+                || type == FileMakerCalculationTokenType.KEYWORD_CONTROL
+                || type == FileMakerCalculationTokenType.IDENTIFIER) && isFoldingFunction(text);
+    }
+
+    /** Regions found so far, inner ones before the ones enclosing them. Unclosed parentheses do not fold. */
+    @NotNull List<Region> regions() {
+        return regions;
+    }
+
+    private void push(int offset, boolean fold) {
+        if (depth == openOffsets.length) {
+            openOffsets = Arrays.copyOf(openOffsets, depth * 2);
+            openFolds = Arrays.copyOf(openFolds, depth * 2);
+        }
+        openOffsets[depth] = offset;
+        openFolds[depth] = fold;
+        depth++;
+    }
+
+    private static boolean isFoldingFunction(CharSequence name) {
+        for (String function : FOLDING_FUNCTIONS) {
+            if (equalsIgnoreCase(function, name)) return true;
+        }
+        return false;
+    }
+
+    private static boolean equalsIgnoreCase(String expected, CharSequence text) {
+        if (expected.length() != text.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(expected.charAt(i)) != Character.toLowerCase(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean containsLineBreak(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
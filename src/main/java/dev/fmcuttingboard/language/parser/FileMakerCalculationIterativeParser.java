@@ -0,0 +1,224 @@
+package dev.fmcuttingboard.language.parser;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiParser;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+import dev.fmcuttingboard.language.FileMakerCalculationElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationTokenType;
+
+import java.util.Arrays;
+
+import static dev.fmcuttingboard.language.parser.FileMakerCalculationPsiParser.currentOperatorPrecedence;
+import static dev.fmcuttingboard.language.parser.FileMakerCalculationPsiParser.isLiteral;
+import static dev.fmcuttingboard.language.parser.FileMakerCalculationPsiParser.isNameToken;
+import static dev.fmcuttingboard.language.parser.FileMakerCalculationPsiParser.isSemicolon;
+import static dev.fmcuttingboard.language.parser.FileMakerCalculationPsiParser.tokenTextIs;
+
+/**
+ * The grammar of {@link FileMakerCalculationPsiParser} run on an explicit stack instead of the Java
+ * call stack, so nesting depth is limited only by the heap. Machine-generated calculations (long
+ * Case() or JSONSetElement() chains pasted from FileMaker) nest deeply enough to overflow the
+ * recursive parser.
+ *
+ * Each rule of the recursive parser becomes a frame state, and each point where it would return from
+ * a nested call becomes a continuation state. The builder sees the same calls in the same order, so
+ * the tree, including error and recovery behaviour, is identical; FileMakerCalculationIterativeParserTest
+ * checks that against the recursive parser.
+ */
+public class FileMakerCalculationIterativeParser implements PsiParser {
+
+    private static final int EXPRESSION = 0;
+    private static final int BINARY = 1;
+    private static final int BINARY_AFTER_LEFT = 2;
+    private static final int BINARY_OPERATOR = 3;
+    private static final int BINARY_AFTER_RIGHT = 4;
+    private static final int UNARY = 5;
+    private static final int UNARY_DONE = 6;
+    private static final int PRIMARY = 7;
+    private static final int CALL_DONE = 8;
+    private static final int PAREN_DONE = 9;
+    private static final int ARG_LIST = 10;
+    private static final int ARG_LIST_NEXT = 11;
+    private static final int ARGUMENT = 12;
+    private static final int ARGUMENT_DONE = 13;
+
+    @Override
+    public @NotNull ASTNode parse(@NotNull IElementType root, @NotNull PsiBuilder builder) {
+        PsiBuilder.Marker rootMarker = builder.mark();
+        // Parse a single top-level expression (FileMaker calcs are typically single expressions)
+        new Frames(builder).run();
+        // Consume trailing tokens to avoid parser hanging on unexpected input
+        while (!builder.eof()) builder.advanceLexer();
+        rootMarker.done(root);
+        return builder.getTreeBuilt();
+    }
+
+    /** The stack of pending rules: a state, the minimum precedence of a binary rule, and an open marker. */
+    private static final class Frames {
+        private final PsiBuilder builder;
+        private int[] states = new int[64];
+        private int[] precedences = new int[64];
+        private PsiBuilder.Marker[] markers = new PsiBuilder.Marker[64];
+        private int depth;
+
+        Frames(PsiBuilder builder) {
+            this.builder = builder;
+        }
+
+        void run() {
+            push(EXPRESSION, 0);
+            while (depth > 0) {
+                int top = depth - 1;
+                switch (states[top]) {
+                    case EXPRESSION -> {
+                        if (builder.eof()) pop();
+                        else states[top] = BINARY;
+                    }
+                    // Pratt/precedence-climbing for binary expressions
+                    case BINARY -> {
+                        markers[top] = builder.mark();
+                        states[top] = BINARY_AFTER_LEFT;
+                        push(UNARY, 0);
+                    }
+                    case BINARY_AFTER_LEFT -> {
+                        markers[top].drop(); // we'll wrap as we see operators
+                        markers[top] = null;
+                        states[top] = BINARY_OPERATOR;
+                    }
+                    case BINARY_OPERATOR -> {
+                        int prec = currentOperatorPrecedence(builder);
+                        if (prec < precedences[top]) {
+                            pop();
+                        } else {
+                            markers[top] = builder.mark();
+                            builder.advanceLexer(); // consume operator
+                            states[top] = BINARY_AFTER_RIGHT;
+                            push(BINARY, prec + 1);
+                        }
+                    }
+                    case BINARY_AFTER_RIGHT -> {
+                        markers[top].done(FileMakerCalculationElementType.BINARY_EXPRESSION);
+                        markers[top] = null;
+                        states[top] = BINARY_OPERATOR;
+                    }
+                    case UNARY -> {
+                        // Unary NOT
+                        if (builder.getTokenType() == FileMakerCalculationTokenType.KEYWORD_LOGICAL
+                                && tokenTextIs(builder, "not")) {
+                            markers[top] = builder.mark();
+                            builder.advanceLexer();
+                            states[top] = UNARY_DONE;
+                            push(UNARY, 0);
+                        } else {
+                            states[top] = PRIMARY;
+                        }
+                    }
+                    case UNARY_DONE -> doneAndPop(FileMakerCalculationElementType.UNARY_EXPRESSION);
+                    case PRIMARY -> primary(top);
+                    case CALL_DONE, PAREN_DONE -> {
+                        if (builder.getTokenType() == FileMakerCalculationTokenType.RPAREN) {
+                            builder.advanceLexer(); // consume ')'
+                        }
+                        doneAndPop(states[top] == CALL_DONE
+                                ? FileMakerCalculationElementType.FUNCTION_CALL
+                                : FileMakerCalculationElementType.PAREN_EXPRESSION);
+                    }
+                    case ARG_LIST -> {
+                        markers[top] = builder.mark();
+                        // Empty argument list
+                        if (builder.getTokenType() == FileMakerCalculationTokenType.RPAREN) {
+                            doneAndPop(FileMakerCalculationElementType.ARG_LIST);
+                        } else {
+                            states[top] = ARG_LIST_NEXT;
+                            push(ARGUMENT, 0);
+                        }
+                    }
+                    case ARG_LIST_NEXT -> {
+                        // One or more arguments separated by semicolons
+                        if (isSemicolon(builder)) {
+                            builder.advanceLexer(); // consume ';'
+                            push(ARGUMENT, 0);
+                        } else {
+                            doneAndPop(FileMakerCalculationElementType.ARG_LIST);
+                        }
+                    }
+                    case ARGUMENT -> {
+                        markers[top] = builder.mark();
+                        states[top] = ARGUMENT_DONE;
+                        push(EXPRESSION, 0);
+                    }
+                    case ARGUMENT_DONE -> doneAndPop(FileMakerCalculationElementType.ARGUMENT);
+                    default -> throw new IllegalStateException("Unknown parser state " + states[top]);
+                }
+            }
+        }
+
+        private void primary(int top) {
+            if (builder.eof()) {
+                pop();
+                return;
+            }
+
+            IElementType token = builder.getTokenType();
+            if (isNameToken(token)) {
+                // Lookahead to see if it's a function call: name LPAREN
+                PsiBuilder.Marker marker = builder.mark();
+                builder.advanceLexer(); // consume name
+                if (builder.getTokenType() == FileMakerCalculationTokenType.LPAREN) {
+                    builder.advanceLexer(); // consume '('
+                    markers[top] = marker;
+                    states[top] = CALL_DONE;
+                    push(ARG_LIST, 0);
+                } else {
+                    // standalone identifier expression
+                    marker.done(FileMakerCalculationElementType.IDENTIFIER_EXPRESSION);
+                    pop();
+                }
+                return;
+            }
+
+            if (token == FileMakerCalculationTokenType.LPAREN) {
+                markers[top] = builder.mark();
+                builder.advanceLexer(); // '('
+                states[top] = PAREN_DONE;
+                push(EXPRESSION, 0);
+                return;
+            }
+
+            if (isLiteral(token)) {
+                PsiBuilder.Marker marker = builder.mark();
+                builder.advanceLexer();
+                marker.done(FileMakerCalculationElementType.LITERAL);
+                pop();
+                return;
+            }
+
+            // Fallback: consume one token to prevent infinite loop
+            builder.advanceLexer();
+            pop();
+        }
+
+        private void push(int state, int minPrecedence) {
+            if (depth == states.length) {
+                states = Arrays.copyOf(states, depth * 2);
+                precedences = Arrays.copyOf(precedences, depth * 2);
+                markers = Arrays.copyOf(markers, depth * 2);
+            }
+            states[depth] = state;
+            precedences[depth] = minPrecedence;
+            markers[depth] = null;
+            depth++;
+        }
+
+        private void doneAndPop(IElementType type) {
+            markers[depth - 1].done(type);
+            pop();
+        }
+
+        private void pop() {
+            markers[--depth] = null;
+        }
+    }
+}
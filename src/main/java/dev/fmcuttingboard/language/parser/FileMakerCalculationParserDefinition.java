@@ -41,7 +41,8 @@ public class FileMakerCalculationParserDefinition implements ParserDefinition {
 
     @Override
     public @NotNull PsiParser createParser(Project project) {
-        return new FileMakerCalculationPsiParser();
+        // Same tree as FileMakerCalculationPsiParser, without recursion: deeply nested calcs cannot overflow the stack
+        return new FileMakerCalculationIterativeParser();
     }
 
     @Override
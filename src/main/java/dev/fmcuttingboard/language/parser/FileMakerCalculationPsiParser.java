@@ -131,24 +131,24 @@ public class FileMakerCalculationPsiParser implements PsiParser {
         builder.advanceLexer();
     }
 
-    private boolean isNameToken(IElementType type) {
+    static boolean isNameToken(IElementType type) {
         return type == FileMakerCalculationTokenType.IDENTIFIER
                 || type == FileMakerCalculationTokenType.KEYWORD_FUNCTION;
     }
 
-    private boolean isLiteral(IElementType type) {
+    static boolean isLiteral(IElementType type) {
         return type == FileMakerCalculationTokenType.NUMBER
                 || type == FileMakerCalculationTokenType.STRING;
     }
 
-    private boolean isSemicolon(PsiBuilder builder) {
+    static boolean isSemicolon(PsiBuilder builder) {
         IElementType t = builder.getTokenType();
         if (t != FileMakerCalculationTokenType.OPERATOR) return false;
         String text = builder.getTokenText();
         return ";".equals(text);
     }
 
-    private int currentOperatorPrecedence(PsiBuilder builder) {
+    static int currentOperatorPrecedence(PsiBuilder builder) {
         IElementType t = builder.getTokenType();
         if (t == null) return -1;
         // Do not treat semicolon as operator here; it's an argument separator
@@ -171,7 +171,7 @@ public class FileMakerCalculationPsiParser implements PsiParser {
         return -1;
     }
 
-    private boolean tokenTextIs(PsiBuilder builder, String expectedLowercase) {
+    static boolean tokenTextIs(PsiBuilder builder, String expectedLowercase) {
         String txt = builder.getTokenText();
         return txt != null && txt.equalsIgnoreCase(expectedLowercase);
     }
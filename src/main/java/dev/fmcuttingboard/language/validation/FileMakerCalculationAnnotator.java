@@ -5,255 +5,307 @@ import com.intellij.lang.annotation.Annotator;
 import com.intellij.lang.annotation.HighlightSeverity;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
-import com.intellij.psi.util.PsiTreeUtil;
 import dev.fmcuttingboard.language.FileMakerCalculationElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationTokenType;
 import dev.fmcuttingboard.language.FunctionMetadata;
 import dev.fmcuttingboard.language.FunctionParameter;
 import dev.fmcuttingboard.language.FileMakerFunctionRegistry;
-import dev.fmcuttingboard.language.psi.FileMakerPsiElements;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.lang.ASTNode;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Phase 6.1 Enhanced Error Detection
  *
  * Adds lightweight PSI-aware validations on top of basic lexical checks:
  * - Existing: unmatched closing delimiters and invalid control characters
  * - New: function existence and parameter count validation using FunctionRegistry
+ *
+ * Annotations are made per element, so the daemon only re-checks the elements in the changed part
+ * of the file: a FUNCTION_CALL checks its own name and arguments, an IDENTIFIER_EXPRESSION looks up
+ * its verdict, and the file reports a lexical error. The verdicts come from one walk over the file
+ * that keeps the offset, the delimiter counts and the enclosing Let() scopes as it goes (see
+ * {@link LetScopes}); it runs once per PSI modification and is cached on the file, so its cost is
+ * linear in the size of the file and shared by every element annotated after the same change.
  */
 public class FileMakerCalculationAnnotator implements Annotator {
 
     @Override
     public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
-        // Only operate once at file root to avoid repeated scans
-        if (element.getParent() != null) return;
-
-        CharSequence text = element.getContainingFile().getViewProvider().getContents();
-
-        // Detect unmatched closing delimiters using a simple stack counter
-        int round = 0, square = 0, curly = 0;
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            switch (c) {
-                case '(': round++; break;
-                case ')': round--; if (round < 0) { annotateUnmatched(holder, i, ")"); return; } break;
-                case '[': square++; break;
-                case ']': square--; if (square < 0) { annotateUnmatched(holder, i, "]"); return; } break;
-                case '{': curly++; break;
-                case '}': curly--; if (curly < 0) { annotateUnmatched(holder, i, "}"); return; } break;
-                default:
-                    // Flag control chars except common whitespace (\t,\r,\n)
-                    if (c < 32 && c != '\t' && c != '\r' && c != '\n') {
-                        holder.newAnnotation(HighlightSeverity.ERROR, "Invalid control character")
-                                .range(new TextRange(i, i + 1))
-                                .create();
-                        return;
-                    }
+        ASTNode node = element.getNode();
+        IElementType type = node != null ? node.getElementType() : null;
+        boolean file = element instanceof PsiFile;
+        if (!file && type != FileMakerCalculationElementType.FUNCTION_CALL
+                && type != FileMakerCalculationElementType.IDENTIFIER_EXPRESSION) {
+            return;
+        }
+
+        PsiFile psiFile = file ? (PsiFile) element : element.getContainingFile();
+        if (psiFile == null) return;
+        Analysis analysis = analysisOf(psiFile);
+        if (analysis.lexicalError() != null) {
+            // A lexical error is reported alone; the rest of the tree is unreliable until it is fixed
+            if (file) create(holder, analysis.lexicalError());
+            return;
+        }
+        if (type == FileMakerCalculationElementType.FUNCTION_CALL) {
+            checkCall(element, holder);
+        } else if (type == FileMakerCalculationElementType.IDENTIFIER_EXPRESSION) {
+            String warning = analysis.variableWarnings().get(element);
+            if (warning != null) {
+                holder.newAnnotation(HighlightSeverity.WEAK_WARNING, warning)
+                        .range(element.getTextRange())
+                        .create();
             }
         }
-        // Do not flag unmatched opening here to reduce noise; IDE brace matcher highlights it already.
+    }
+
+    /**
+     * The result of walking a whole file: the first lexical error, if any, and the warnings for
+     * identifiers that no enclosing Let() binds. Valid until the next PSI change.
+     */
+    record Analysis(Finding lexicalError, Map<PsiElement, String> variableWarnings) {}
 
-        // PSI-based validations (function calls)
-        validateFunctions(element, holder);
+    record Finding(HighlightSeverity severity, String message, TextRange range) {}
 
-        // Undefined variable checks (Let() local variables and $/$$ script variables)
-        validateUndefinedVariables(element, holder);
+    static @NotNull Analysis analysisOf(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> {
+            Walk walk = new Walk();
+            file.accept(walk);
+            return CachedValueProvider.Result.create(walk.result(), PsiModificationTracker.MODIFICATION_COUNT);
+        });
     }
 
-    private static void annotateUnmatched(AnnotationHolder holder, int offset, String brace) {
-        holder.newAnnotation(HighlightSeverity.ERROR, "Unmatched closing " + brace)
-                .range(new TextRange(offset, offset + 1))
+    private static void create(AnnotationHolder holder, Finding finding) {
+        holder.newAnnotation(finding.severity(), finding.message())
+                .range(finding.range())
                 .create();
     }
 
-    // === Phase 6.1: Undefined variable warnings (best-effort) ===
-    private static void validateUndefinedVariables(@NotNull PsiElement root, @NotNull AnnotationHolder holder) {
-        // Build simple Let() scopes: for each Let(bindings; result) collect variable names from bindings
-        java.util.List<LetScope> scopes = new java.util.ArrayList<>();
+    // Function existence and argument count
+    private static void checkCall(PsiElement call, AnnotationHolder holder) {
+        String fnName = extractFunctionName(call);
+        if (fnName == null || fnName.isEmpty()) return;
 
-        for (FileMakerPsiElements.FileMakerFunctionCallImpl call : PsiTreeUtil.findChildrenOfType(root, FileMakerPsiElements.FileMakerFunctionCallImpl.class)) {
-            String fn = extractFunctionName(call);
-            if (fn == null || !fn.equalsIgnoreCase("Let")) continue;
-
-            PsiElement bindingsArg = getArgumentAt(call, 0);
-            PsiElement resultArg = getArgumentAt(call, 1);
-            if (bindingsArg == null || resultArg == null) continue;
+        FunctionMetadata meta = FileMakerFunctionRegistry.findByName(fnName);
+        if (meta == null) {
+            // Unknown function – weak warning
+            holder.newAnnotation(HighlightSeverity.WEAK_WARNING, "Unknown function '" + fnName + "'")
+                    .range(call.getTextRange())
+                    .create();
+            return;
+        }
 
-            java.util.Set<String> names = extractLetBindingNames(bindingsArg);
-            if (!names.isEmpty()) {
-                scopes.add(new LetScope(resultArg.getTextRange(), names));
+        int argCount = countArguments(argumentList(call));
+        // Compute min/max based on metadata
+        int min = 0;
+        int max = 0;
+        boolean hasRepeating = false;
+        for (FunctionParameter p : meta.getParameters()) {
+            if (!p.isOptional() && !p.isRepeating()) min++;
+            if (p.isRepeating()) {
+                hasRepeating = true;
+            } else {
+                max++;
             }
         }
+        if (hasRepeating) {
+            max = Integer.MAX_VALUE;
+        }
 
-        if (scopes.isEmpty()) return;
+        if (argCount < min) {
+            String msg = String.format("Too few arguments for %s: expected at least %d, got %d", meta.getName(), min, argCount);
+            holder.newAnnotation(HighlightSeverity.ERROR, msg).range(call.getTextRange()).create();
+        } else if (argCount > max) {
+            String expected = hasRepeating ? (min + "+") : String.valueOf(max);
+            String msg = String.format("Too many arguments for %s: expected %s, got %d", meta.getName(), expected, argCount);
+            holder.newAnnotation(HighlightSeverity.ERROR, msg).range(call.getTextRange()).create();
+        }
+    }
 
-        // For each identifier expression, if inside any scope but not defined in a containing scope chain, warn
-        for (FileMakerPsiElements.FileMakerIdentifierExpressionImpl id : PsiTreeUtil.findChildrenOfType(root, FileMakerPsiElements.FileMakerIdentifierExpressionImpl.class)) {
-            String name = id.getText();
-            if (name == null || name.isEmpty()) continue;
+    private static final class Walk extends PsiRecursiveElementWalkingVisitor {
+        private final Map<PsiElement, String> variableWarnings = new HashMap<>();
+        /** A lexical error; the walk stops there. */
+        private Finding fatal;
+        private int offset;
+        private int round, square, curly;
 
-            // Function names are not IDENTIFIER_EXPRESSIONs (they appear in FUNCTION_CALL), so safe.
-            // Skip literals disguised as identifiers (unlikely) or True/False which lexer marks differently anyway.
+        private final LetScopes scopes = new LetScopes();
+        /** Let() bindings arguments not yet walked, and the results they scope. */
+        private final Map<PsiElement, LetScopes.Bindings> bindingsArguments = new HashMap<>();
+        private final Map<PsiElement, LetScopes.Bindings> resultArguments = new HashMap<>();
+        /** Bindings being collected (the innermost gets the tokens) and the arguments they belong to. */
+        private final ArrayDeque<LetScopes.Bindings> collecting = new ArrayDeque<>();
+        private final ArrayDeque<PsiElement> collectingOwners = new ArrayDeque<>();
+        private final ArrayDeque<PsiElement> scopeOwners = new ArrayDeque<>();
 
-            // Determine if this identifier is within any Let() result scope
-            int offset = id.getTextRange().getStartOffset();
-            LetScope innermost = findInnermostScope(scopes, offset);
-            if (innermost == null) {
-                // Outside Let result; only warn for $/$$ variables as a weak warning that they may be undefined
-                if (isScriptVariable(name)) {
-                    holder.newAnnotation(HighlightSeverity.WEAK_WARNING, "Script variable may be undefined here: " + name)
-                            .range(id.getTextRange())
-                            .create();
-                }
-                continue;
+        @Override
+        public void visitElement(@NotNull PsiElement element) {
+            ASTNode node = element.getNode();
+            IElementType type = node != null ? node.getElementType() : null;
+            if (type == FileMakerCalculationElementType.FUNCTION_CALL) {
+                visitCall(element);
+            } else if (type == FileMakerCalculationElementType.IDENTIFIER_EXPRESSION) {
+                visitIdentifier(element);
             }
 
-            // Inside a Let() result. Check if defined in any containing scope.
-            if (!isDefinedInAnyContainingScope(scopes, offset, name)) {
-                holder.newAnnotation(HighlightSeverity.WEAK_WARNING, "Undefined variable '" + name + "' (not bound in any Let())")
-                        .range(id.getTextRange())
-                        .create();
+            LetScopes.Bindings bindings = bindingsArguments.remove(element);
+            if (bindings != null) {
+                collecting.push(bindings);
+                collectingOwners.push(element);
+            }
+            LetScopes.Bindings scope = resultArguments.remove(element);
+            if (scope != null && !scope.names().isEmpty()) {
+                scopes.push(scope.names());
+                scopeOwners.push(element);
             }
-        }
-    }
 
-    private static boolean isDefinedInAnyContainingScope(java.util.List<LetScope> scopes, int offset, String name) {
-        // Consider all scopes that contain the offset; if any defines the name, return true.
-        for (LetScope s : scopes) {
-            if (s.range.containsOffset(offset) && s.definedNames.contains(name)) return true;
+            if (element.getFirstChild() == null) {
+                visitLeaf(element);
+            } else {
+                super.visitElement(element);
+            }
         }
-        return false;
-    }
 
-    private static LetScope findInnermostScope(java.util.List<LetScope> scopes, int offset) {
-        LetScope best = null;
-        for (LetScope s : scopes) {
-            if (s.range.containsOffset(offset)) {
-                if (best == null || (s.range.getLength() < best.range.getLength())) {
-                    best = s;
-                }
+        @Override
+        protected void elementFinished(@NotNull PsiElement element) {
+            if (collectingOwners.peek() == element) {
+                collectingOwners.pop();
+                collecting.pop();
+            }
+            if (scopeOwners.peek() == element) {
+                scopeOwners.pop();
+                scopes.pop();
             }
         }
-        return best;
-    }
 
-    private static boolean isScriptVariable(String name) {
-        return name.startsWith("$"); // $ or $$
-    }
+        private void visitLeaf(PsiElement leaf) {
+            CharSequence text = leaf.getNode() != null ? leaf.getNode().getChars() : leaf.getText();
+            boolean whitespace = leaf instanceof PsiWhiteSpace
+                    || (leaf.getNode() != null && leaf.getNode().getElementType() == FileMakerCalculationTokenType.WHITE_SPACE);
+            if (!collecting.isEmpty()) collecting.peek().token(text, whitespace);
 
-    private static PsiElement getArgumentAt(FileMakerPsiElements.FileMakerFunctionCallImpl call, int index) {
-        // Find ARG_LIST child and the Nth ARGUMENT
-        for (PsiElement child : call.getChildren()) {
-            ASTNode node = child.getNode();
-            if (node == null) continue;
-            if (node.getElementType() == FileMakerCalculationElementType.ARG_LIST) {
-                int i = 0;
-                for (PsiElement argChild : child.getChildren()) {
-                    ASTNode n = argChild.getNode();
-                    if (n != null && n.getElementType() == FileMakerCalculationElementType.ARGUMENT) {
-                        if (i == index) return argChild;
-                        i++;
+            // Unmatched closing delimiters and control characters, in document order
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                int at = offset + i;
+                switch (c) {
+                    case '(' -> round++;
+                    case ')' -> { if (--round < 0) { stop(unmatched(at, ")")); return; } }
+                    case '[' -> square++;
+                    case ']' -> { if (--square < 0) { stop(unmatched(at, "]")); return; } }
+                    case '{' -> curly++;
+                    case '}' -> { if (--curly < 0) { stop(unmatched(at, "}")); return; } }
+                    default -> {
+                        // Flag control chars except common whitespace (\t,\r,\n)
+                        if (c < 32 && c != '\t' && c != '\r' && c != '\n') {
+                            stop(new Finding(HighlightSeverity.ERROR, "Invalid control character", new TextRange(at, at + 1)));
+                            return;
+                        }
                     }
                 }
             }
+            // Do not flag unmatched opening here to reduce noise; IDE brace matcher highlights it already.
+            offset += text.length();
         }
-        return null;
-    }
 
-    private static java.util.Set<String> extractLetBindingNames(PsiElement bindingsArg) {
-        String text = bindingsArg.getText();
-        java.util.Set<String> names = new java.util.LinkedHashSet<>();
-        if (text == null || text.isEmpty()) return names;
-        // Heuristic: find tokens that look like identifiers or $/$$ vars immediately followed by '='
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile("(?m)(?:^|\\[|;|\\s)\\s*([\u0024]{0,2}[A-Za-z_][A-Za-z0-9_]*)\\s*=");
-        java.util.regex.Matcher m = p.matcher(text);
-        while (m.find()) {
-            String name = m.group(1);
-            if (name != null && !name.isEmpty()) names.add(name);
+        private void stop(Finding finding) {
+            fatal = finding;
+            stopWalking();
         }
-        return names;
-    }
 
-    private static class LetScope {
-        final TextRange range;
-        final java.util.Set<String> definedNames;
-        LetScope(TextRange range, java.util.Set<String> names) {
-            this.range = range;
-            this.definedNames = names;
+        private static Finding unmatched(int offset, String brace) {
+            return new Finding(HighlightSeverity.ERROR, "Unmatched closing " + brace, new TextRange(offset, offset + 1));
         }
-    }
 
-    private static void validateFunctions(@NotNull PsiElement root, @NotNull AnnotationHolder holder) {
-        // Traverse all function call PSI nodes
-        for (FileMakerPsiElements.FileMakerFunctionCallImpl call : PsiTreeUtil.findChildrenOfType(root, FileMakerPsiElements.FileMakerFunctionCallImpl.class)) {
+        // A Let() opens a scope for its result
+        private void visitCall(PsiElement call) {
             String fnName = extractFunctionName(call);
-            if (fnName == null || fnName.isEmpty()) continue;
-
-            FunctionMetadata meta = FileMakerFunctionRegistry.findByName(fnName);
-            if (meta == null) {
-                // Unknown function – weak warning
-                holder.newAnnotation(HighlightSeverity.WEAK_WARNING, "Unknown function '" + fnName + "'")
-                        .range(call.getTextRange())
-                        .create();
-                continue;
+            if (fnName == null || !fnName.equalsIgnoreCase("Let")) return;
+            PsiElement argList = argumentList(call);
+            PsiElement bindingsArg = getArgumentAt(argList, 0);
+            PsiElement resultArg = getArgumentAt(argList, 1);
+            if (bindingsArg != null && resultArg != null) {
+                LetScopes.Bindings bindings = new LetScopes.Bindings();
+                bindingsArguments.put(bindingsArg, bindings);
+                resultArguments.put(resultArg, bindings);
             }
+        }
+
+        // === Phase 6.1: Undefined variable warnings (best-effort) ===
+        private void visitIdentifier(PsiElement id) {
+            String name = id.getText();
+            if (name == null || name.isEmpty()) return;
 
-            int argCount = countArguments(call);
-            // Compute min/max based on metadata
-            int min = 0;
-            int max = 0;
-            boolean hasRepeating = false;
-            for (FunctionParameter p : meta.getParameters()) {
-                if (!p.isOptional() && !p.isRepeating()) min++;
-                if (p.isRepeating()) {
-                    hasRepeating = true;
-                } else {
-                    max++;
+            // Function names are not IDENTIFIER_EXPRESSIONs (they appear in FUNCTION_CALL), so safe.
+            if (!scopes.inScope()) {
+                // Outside Let result; only warn for $/$$ variables as a weak warning that they may be undefined
+                if (isScriptVariable(name)) {
+                    variableWarnings.put(id, "Script variable may be undefined here: " + name);
                 }
+                return;
             }
-            if (hasRepeating) {
-                max = Integer.MAX_VALUE;
+
+            // Inside a Let() result. Check if defined in any containing scope.
+            if (!scopes.isBound(name)) {
+                variableWarnings.put(id, "Undefined variable '" + name + "' (not bound in any Let())");
             }
+        }
 
-            if (argCount < min) {
-                String msg = String.format("Too few arguments for %s: expected at least %d, got %d", meta.getName(), min, argCount);
-                holder.newAnnotation(HighlightSeverity.ERROR, msg)
-                        .range(call.getTextRange())
-                        .create();
-            } else if (argCount > max) {
-                String expected = hasRepeating ? (min + "+") : String.valueOf(max);
-                String msg = String.format("Too many arguments for %s: expected %s, got %d", meta.getName(), expected, argCount);
-                holder.newAnnotation(HighlightSeverity.ERROR, msg)
-                        .range(call.getTextRange())
-                        .create();
+        Analysis result() {
+            return fatal != null ? new Analysis(fatal, Map.of()) : new Analysis(null, variableWarnings);
+        }
+    }
+
+    private static boolean isScriptVariable(String name) {
+        return name.startsWith("$"); // $ or $$
+    }
+
+    private static PsiElement argumentList(PsiElement call) {
+        for (PsiElement child = call.getFirstChild(); child != null; child = child.getNextSibling()) {
+            ASTNode node = child.getNode();
+            if (node != null && node.getElementType() == FileMakerCalculationElementType.ARG_LIST) return child;
+        }
+        return null;
+    }
+
+    private static PsiElement getArgumentAt(PsiElement argList, int index) {
+        if (argList == null) return null;
+        int i = 0;
+        for (PsiElement argChild = argList.getFirstChild(); argChild != null; argChild = argChild.getNextSibling()) {
+            ASTNode n = argChild.getNode();
+            if (n != null && n.getElementType() == FileMakerCalculationElementType.ARGUMENT) {
+                if (i == index) return argChild;
+                i++;
             }
         }
+        return null;
     }
 
-    private static String extractFunctionName(FileMakerPsiElements.FileMakerFunctionCallImpl call) {
+    private static String extractFunctionName(PsiElement call) {
         // FUNCTION_CALL node layout: NAME TOKEN, '(', ARG_LIST?, ')'
         PsiElement first = call.getFirstChild();
         if (first == null) return null;
-        String text = first.getText();
-        return text != null ? text : null;
+        return first.getText();
     }
 
-    private static int countArguments(FileMakerPsiElements.FileMakerFunctionCallImpl call) {
-        // Find ARG_LIST child and count ARGUMENT children
-        for (PsiElement child : call.getChildren()) {
-            ASTNode node = child.getNode();
-            if (node == null) continue;
-            IElementType type = node.getElementType();
-            if (type == FileMakerCalculationElementType.ARG_LIST) {
-                int count = 0;
-                for (PsiElement argChild : child.getChildren()) {
-                    ASTNode n = argChild.getNode();
-                    if (n != null && n.getElementType() == FileMakerCalculationElementType.ARGUMENT) count++;
-                }
-                return count;
-            }
+    private static int countArguments(PsiElement argList) {
+        if (argList == null) return 0; // no args
+        int count = 0;
+        for (PsiElement argChild = argList.getFirstChild(); argChild != null; argChild = argChild.getNextSibling()) {
+            ASTNode n = argChild.getNode();
+            if (n != null && n.getElementType() == FileMakerCalculationElementType.ARGUMENT) count++;
         }
-        return 0; // no args
+        return count;
     }
 }
@@ -0,0 +1,70 @@
+package dev.fmcuttingboard.language.validation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The Let() scopes enclosing the current position of a tree walk.
+ *
+ * Scopes are pushed on entering a Let() result and popped on leaving it. Names visible in any of
+ * them are counted in one map, so checking an identifier costs the same however deep the nesting.
+ */
+final class LetScopes {
+
+    private final ArrayDeque<Set<String>> stack = new ArrayDeque<>();
+    private final Map<String, Integer> visible = new HashMap<>();
+
+    void push(@NotNull Set<String> names) {
+        stack.push(names);
+        for (String name : names) visible.merge(name, 1, Integer::sum);
+    }
+
+    void pop() {
+        for (String name : stack.pop()) {
+            visible.compute(name, (k, count) -> count == null || count == 1 ? null : count - 1);
+        }
+    }
+
+    /** True inside the result of at least one Let(). */
+    boolean inScope() {
+        return !stack.isEmpty();
+    }
+
+    /** True when an enclosing Let() binds {@code name}. */
+    boolean isBound(@NotNull String name) {
+        return visible.containsKey(name);
+    }
+
+    /**
+     * Names bound by a Let() bindings argument, collected from its tokens in order: a name at the
+     * start, after '[', ';' or whitespace, followed by '=' (e.g. "x = 1", "[ $a = 1 ; b = 2 ]").
+     */
+    static final class Bindings {
+        private static final Pattern NAME = Pattern.compile("\\${0,2}[A-Za-z_][A-Za-z0-9_]*");
+
+        private final Set<String> names = new LinkedHashSet<>();
+        private String candidate;
+        private boolean boundaryBefore = true;
+
+        void token(@NotNull CharSequence text, boolean whitespace) {
+            if (whitespace) {
+                boundaryBefore = true;
+                return;
+            }
+            if (candidate != null && "=".contentEquals(text)) names.add(candidate);
+            candidate = boundaryBefore && NAME.matcher(text).matches() ? text.toString() : null;
+            boundaryBefore = "[".contentEquals(text) || ";".contentEquals(text);
+        }
+
+        @NotNull Set<String> names() {
+            return Collections.unmodifiableSet(names);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package dev.fmcuttingboard.log;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Structured diagnostics with per-subsystem {@link Channel}s, lazily built messages and an
+ * in-memory ring buffer of recent events.
+ *
+ * Each channel caches its {@link Level} in a volatile field, so a disabled check is one read and
+ * message suppliers (which may scan the clipboard payload) never run unless the level is enabled.
+ * The initial level is DEBUG when verbose mode is on, WARN otherwise, and can be set per channel
+ * with -Dfmcuttingboard.diag.&lt;channel&gt;=off|warn|info|debug; levels can be changed at runtime.
+ * Enabled events go to the channel's logger at their own level and to the ring buffer, which keeps
+ * the last {@link #CAPACITY} entries across all channels for {@link #dump(Appendable)}.
+ */
+public final class FmDiagnostics {
+
+    public enum Level { OFF, WARN, INFO, DEBUG }
+
+    /** One recorded event. */
+    public record Entry(long timeMillis, String channel, Level level, String thread, String message) {
+        public String format() {
+            return Instant.ofEpochMilli(timeMillis) + " " + level + " [" + channel + "] (" + thread + ") " + message;
+        }
+    }
+
+    static final int CAPACITY = 512;
+    private static final String LEVEL_PROPERTY_PREFIX = "fmcuttingboard.diag.";
+
+    private static final Map<String, Channel> CHANNELS = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<Entry> RING = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    public static final Channel CLIPBOARD = channel("clipboard");
+    public static final Channel CONVERSION = channel("conversion");
+    public static final Channel FILES = channel("files");
+
+    private FmDiagnostics() {}
+
+    /** Returns the channel with this name, creating it with its configured initial level. */
+    public static Channel channel(String name) {
+        return CHANNELS.computeIfAbsent(name, n -> new Channel(n, initialLevel(n)));
+    }
+
+    public static Collection<Channel> channels() {
+        return List.copyOf(CHANNELS.values());
+    }
+
+    /** Sets every known channel to {@code level}. */
+    public static void setAllLevels(Level level) {
+        for (Channel c : CHANNELS.values()) c.setLevel(level);
+    }
+
+    /** Recent events, oldest first. */
+    public static List<Entry> recent() {
+        long end = NEXT.get();
+        long start = Math.max(0, end - CAPACITY);
+        List<Entry> out = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            Entry e = RING.get((int) (i % CAPACITY));
+            // Slot may be unset if a writer claimed it but has not stored yet
+            if (e != null) out.add(e);
+        }
+        return out;
+    }
+
+    /** Writes {@link #recent()} to {@code out}, one line per event. */
+    public static void dump(Appendable out) throws IOException {
+        for (Entry e : recent()) {
+            out.append(e.format()).append('\n');
+        }
+    }
+
+    public static void clear() {
+        for (int i = 0; i < CAPACITY; i++) RING.set(i, null);
+        NEXT.set(0);
+    }
+
+    static Level parseLevel(String v, Level fallback) {
+        if (v == null) return fallback;
+        try {
+            return Level.valueOf(v.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return fallback;
+        }
+    }
+
+    private static Level initialLevel(String name) {
+        Level fallback = FmLogs.isVerbose() ? Level.DEBUG : Level.WARN;
+        try {
+            return parseLevel(System.getProperty(LEVEL_PROPERTY_PREFIX + name), fallback);
+        } catch (SecurityException ex) {
+            return fallback;
+        }
+    }
+
+    private static void record(Entry e) {
+        RING.set((int) (NEXT.getAndIncrement() % CAPACITY), e);
+    }
+
+    /** A diagnostics subsystem with its own cached level and logger. */
+    public static final class Channel {
+        private final String name;
+        private final FmLog log;
+        private volatile Level level;
+
+        private Channel(String name, Level level) {
+            this.name = name;
+            this.log = FmLogs.getLogger("dev.fmcuttingboard.diag." + name);
+            this.level = level;
+        }
+
+        public String getName() { return name; }
+
+        public Level getLevel() { return level; }
+
+        public void setLevel(Level level) {
+            this.level = level == null ? Level.OFF : level;
+        }
+
+        public boolean isEnabled(Level at) {
+            return at != Level.OFF && level.compareTo(at) >= 0;
+        }
+
+        public boolean isDebug() {
+            return level == Level.DEBUG;
+        }
+
+        /** Records a WARN event; {@code message} is only evaluated when WARN is enabled. */
+        public void warn(Supplier<String> message) {
+            if (isEnabled(Level.WARN)) emit(Level.WARN, message.get());
+        }
+
+        /** Records an INFO event; {@code message} is only evaluated when INFO is enabled. */
+        public void info(Supplier<String> message) {
+            if (isEnabled(Level.INFO)) emit(Level.INFO, message.get());
+        }
+
+        /** Records a DEBUG event; {@code message} is only evaluated when DEBUG is enabled. */
+        public void debug(Supplier<String> message) {
+            if (level == Level.DEBUG) emit(Level.DEBUG, message.get());
+        }
+
+        private void emit(Level at, String message) {
+            record(new Entry(System.currentTimeMillis(), name, at, Thread.currentThread().getName(), message));
+            switch (at) {
+                case WARN -> log.warn(message);
+                case DEBUG -> log.debug(message);
+                default -> log.info(message);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + level;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package dev.fmcuttingboard.log;
+
+/**
+ * Minimal logging facade for code that must also run outside the IDE (the fm package and the
+ * headless CLI). Inside the plugin it is backed by the IntelliJ {@code Logger}; elsewhere by
+ * java.util.logging. Obtain instances via {@link FmLogs#getLogger(Class)}.
+ */
+public interface FmLog {
+
+    void debug(String message);
+
+    void info(String message);
+
+    void warn(String message);
+
+    void warn(String message, Throwable t);
+
+    boolean isDebugEnabled();
+
+    /** Creates loggers for one backend; discovered through {@link java.util.ServiceLoader}. */
+    interface Factory {
+        FmLog getLogger(String category);
+    }
+}
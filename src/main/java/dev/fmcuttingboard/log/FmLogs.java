@@ -0,0 +1,79 @@
+package dev.fmcuttingboard.log;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entry point for {@link FmLog} loggers and the shared verbose flag.
+ *
+ * The backend is the first {@link FmLog.Factory} registered under META-INF/services (the plugin
+ * registers one backed by the IntelliJ Logger); without one, java.util.logging is used.
+ * Enable verbose output with -Dfmcuttingboard.verbose=true or FMCUTTINGBOARD_VERBOSE=true.
+ * Hot paths should check a cached {@link FmDiagnostics} channel level instead of {@link #isVerbose()}.
+ */
+public final class FmLogs {
+    private static final String FLAG = "fmcuttingboard.verbose";
+    private static final FmLog.Factory FACTORY = loadFactory();
+    // The environment cannot change while the JVM runs, so read it once
+    private static final String ENV_VERBOSE = readEnv("FMCUTTINGBOARD_VERBOSE");
+
+    private FmLogs() {}
+
+    public static FmLog getLogger(Class<?> type) {
+        return FACTORY.getLogger(type.getName());
+    }
+
+    public static FmLog getLogger(String category) {
+        return FACTORY.getLogger(category);
+    }
+
+    public static boolean isVerbose() {
+        try {
+            String v = System.getProperty(FLAG, ENV_VERBOSE);
+            return v != null && v.equalsIgnoreCase("true");
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static String readEnv(String name) {
+        try {
+            return System.getenv(name);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static FmLog.Factory loadFactory() {
+        try {
+            Iterator<FmLog.Factory> it = ServiceLoader.load(FmLog.Factory.class, FmLogs.class.getClassLoader()).iterator();
+            while (it.hasNext()) {
+                try {
+                    return it.next();
+                } catch (Throwable ignore) {
+                    // Backend not usable here (e.g. IntelliJ classes missing); try the next one
+                }
+            }
+        } catch (Throwable ignore) {
+            // fall through to java.util.logging
+        }
+        return JulLog::new;
+    }
+
+    /** java.util.logging backend used by the CLI and plain unit tests. */
+    private static final class JulLog implements FmLog {
+        private final Logger delegate;
+
+        JulLog(String category) {
+            this.delegate = Logger.getLogger(category);
+        }
+
+        @Override public void debug(String message) { delegate.fine(message); }
+        @Override public void info(String message) { delegate.info(message); }
+        @Override public void warn(String message) { delegate.warning(message); }
+        @Override public void warn(String message, Throwable t) { delegate.log(Level.WARNING, message, t); }
+        @Override public boolean isDebugEnabled() { return delegate.isLoggable(Level.FINE); }
+    }
+}
@@ -0,0 +1,188 @@
+package dev.fmcuttingboard.metrics;
+
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.log.FmLog;
+import dev.fmcuttingboard.log.FmLogs;
+
+import java.awt.EventQueue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long plugin actions keep the event dispatch thread busy, stage by stage.
+ *
+ * <pre>
+ * try (EdtWatchdog.Invocation inv = EdtWatchdog.getInstance().begin("ConvertClipboardToXmlAction")) {
+ *     try (EdtWatchdog.Stage s = inv.stage("readClipboard")) { ... }
+ *     if (inv.shouldOffload(text.length())) { ... run the heavy stages in a background task ... }
+ * }
+ * </pre>
+ *
+ * Stages that run on the EDT longer than the frame budget (16 ms) are reported on the "edt"
+ * diagnostics channel. When a stage is still running at the freeze budget (100 ms), a watchdog
+ * thread samples the EDT's stack, which is logged as a warning when the stage ends. Per action, the
+ * total EDT time goes to {@link PipelineMetrics} as {@code edt:<action>} together with the share of
+ * invocations that stayed within the frame budget. {@link Invocation#shouldOffload(long)} tells an
+ * action to move its remaining heavy stages off the EDT when the payload is large, or once that
+ * action has frozen the EDT on a payload at least half as large. Stages started off the EDT are not
+ * measured. Budgets: -Dfmcuttingboard.edt.frameBudgetMs, -Dfmcuttingboard.edt.freezeBudgetMs and
+ * -Dfmcuttingboard.edt.offloadChars (default 262144).
+ */
+public final class EdtWatchdog {
+    private static final FmLog LOG = FmLogs.getLogger(EdtWatchdog.class);
+    private static final FmDiagnostics.Channel DIAG = FmDiagnostics.channel("edt");
+    private static final int MAX_SAMPLE_FRAMES = 40;
+
+    // Shared by every watchdog; its thread exits after a few idle seconds, so nothing has to shut it down
+    private static final ScheduledThreadPoolExecutor SAMPLER = newSampler();
+
+    private static final EdtWatchdog INSTANCE = new EdtWatchdog(
+            Long.getLong("fmcuttingboard.edt.frameBudgetMs", 16),
+            Long.getLong("fmcuttingboard.edt.freezeBudgetMs", 100),
+            Long.getLong("fmcuttingboard.edt.offloadChars", 256 * 1024));
+
+    private final long frameBudgetNanos;
+    private final long freezeBudgetNanos;
+    private final long offloadChars;
+    // Smallest payload (chars) on which each action froze the EDT
+    private final Map<String, Long> frozeAt = new ConcurrentHashMap<>();
+
+    // Visible for tests
+    EdtWatchdog(long frameBudgetMs, long freezeBudgetMs, long offloadChars) {
+        this.frameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(frameBudgetMs);
+        this.freezeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(freezeBudgetMs);
+        this.offloadChars = offloadChars;
+    }
+
+    public static EdtWatchdog getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts measuring one invocation of {@code action}; close it when the action returns. */
+    public Invocation begin(String action) {
+        return new Invocation(action);
+    }
+
+    /** One action invocation; accumulates the EDT time of its stages. */
+    public final class Invocation implements AutoCloseable {
+        private final String action;
+        private long edtNanos;
+        private long payloadChars = -1;
+        private boolean withinBudget = true;
+        private boolean measured;
+
+        private Invocation(String action) {
+            this.action = action;
+        }
+
+        /** Starts a stage; returns a no-op stage when not called on the EDT. */
+        public Stage stage(String name) {
+            if (!EventQueue.isDispatchThread()) return Stage.NONE;
+            return new Stage(this, name, Thread.currentThread());
+        }
+
+        /** Records the payload size used for offload decisions and metrics. */
+        public void payload(long chars) {
+            this.payloadChars = chars;
+        }
+
+        /**
+         * True when the remaining heavy stages for a payload of {@code chars} should run in a
+         * background task: the payload is above the offload threshold, or this action already froze
+         * the EDT on a payload at most twice as large.
+         */
+        public boolean shouldOffload(long chars) {
+            payload(chars);
+            if (!EventQueue.isDispatchThread()) return false;
+            Long froze = frozeAt.get(action);
+            boolean offload = chars >= offloadChars || (froze != null && chars >= froze / 2);
+            if (offload) {
+                DIAG.info(() -> "[EDT] " + action + ": moving heavy stages to a background task (payload=" + chars
+                        + " chars" + (froze != null ? ", froze before at " + froze : "") + ")");
+            }
+            return offload;
+        }
+
+        private EdtWatchdog watchdog() {
+            return EdtWatchdog.this;
+        }
+
+        private void stageEnded(Stage stage, long elapsed, StackTraceElement[] sample) {
+            edtNanos += elapsed;
+            measured = true;
+            if (elapsed <= frameBudgetNanos) return;
+            withinBudget = false;
+            long ms = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            DIAG.info(() -> "[EDT] " + action + "/" + stage.name + " took " + ms + "ms on the EDT (payload="
+                    + payloadChars + " chars, frame budget " + TimeUnit.NANOSECONDS.toMillis(frameBudgetNanos) + "ms)");
+            if (elapsed > freezeBudgetNanos) {
+                if (payloadChars >= 0) frozeAt.merge(action, payloadChars, Math::min);
+                String trace = format(sample);
+                DIAG.info(() -> "[EDT] " + action + "/" + stage.name + " froze the EDT; stack sample:\n" + trace);
+                LOG.warn("EDT freeze: " + action + "/" + stage.name + " took " + ms + "ms (payload=" + payloadChars
+                        + " chars). EDT stack sampled after " + TimeUnit.NANOSECONDS.toMillis(freezeBudgetNanos) + "ms:\n" + trace);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!measured) return;
+            PipelineMetrics.stage("edt:" + action).record(edtNanos, payloadChars);
+            PipelineMetrics.hitRate("edt:" + action + ".withinFrameBudget").record(withinBudget);
+        }
+    }
+
+    /** A timed stage of an {@link Invocation}. */
+    public static final class Stage implements AutoCloseable {
+        static final Stage NONE = new Stage(null, null, null);
+
+        private final Invocation invocation;
+        private final String name;
+        private final long startNanos;
+        private final ScheduledFuture<?> sampling;
+        private volatile StackTraceElement[] sample;
+
+        private Stage(Invocation invocation, String name, Thread edt) {
+            this.invocation = invocation;
+            this.name = name;
+            this.startNanos = System.nanoTime();
+            this.sampling = invocation == null ? null : SAMPLER.schedule(
+                    () -> sample = edt.getStackTrace(), invocation.watchdog().freezeBudgetNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void close() {
+            if (invocation == null) return;
+            long elapsed = System.nanoTime() - startNanos;
+            sampling.cancel(false);
+            invocation.stageEnded(this, elapsed, sample);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor newSampler() {
+        ScheduledThreadPoolExecutor sampler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "FMCuttingBoard EDT watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.setKeepAliveTime(10, TimeUnit.SECONDS);
+        sampler.allowCoreThreadTimeOut(true);
+        // Most stages end before their sample is due; drop the cancelled samples right away
+        sampler.setRemoveOnCancelPolicy(true);
+        return sampler;
+    }
+
+    private static String format(StackTraceElement[] sample) {
+        if (sample == null || sample.length == 0) return "\t(no sample)";
+        StringBuilder sb = new StringBuilder();
+        int n = Math.min(sample.length, MAX_SAMPLE_FRAMES);
+        for (int i = 0; i < n; i++) {
+            sb.append("\tat ").append(sample[i]).append('\n');
+        }
+        if (sample.length > n) sb.append("\t... ").append(sample.length - n).append(" more\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package dev.fmcuttingboard.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Hit/miss counter pair, e.g. how often the first clipboard probe already yields the text. */
+public final class HitRate {
+    private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    HitRate(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Hits as a fraction of all lookups, or NaN before the first one. */
+    public double getRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? Double.NaN : (double) h / total;
+    }
+
+    void reset() {
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,130 @@
+package dev.fmcuttingboard.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry of per-stage latency/size histograms and hit rates for the clipboard
+ * pipeline, kept since IDE (or CLI) start.
+ *
+ * Stages are registered up front as constants so instrumented code pays no map lookup:
+ * {@code long t0 = System.nanoTime(); ...; PipelineMetrics.PARSE.record(System.nanoTime() - t0, chars)}.
+ * The "FMCuttingBoard Performance" tool window renders {@link #snapshot()} and exports
+ * {@link #writeCsv(Writer)}.
+ */
+public final class PipelineMetrics {
+    private static final Map<String, StageMetrics> STAGES = new ConcurrentHashMap<>();
+    private static final Map<String, HitRate> HIT_RATES = new ConcurrentHashMap<>();
+    private static final List<String> ORDER = new ArrayList<>();
+
+    /** {@code ClipboardService.readText()}; size = characters returned. */
+    public static final StageMetrics READ_TEXT = stage("readText");
+    /** Locating/normalizing the fmxmlsnippet in clipboard text; size = input characters. */
+    public static final StageMetrics NORMALIZE = stage("normalizeToXmlText");
+    /** {@code FmSnippet.detectTypes}; size = XML characters. */
+    public static final StageMetrics DETECT_TYPES = stage("detectTypes");
+    /** {@code FmXmlParser.parse}; size = XML characters. */
+    public static final StageMetrics PARSE = stage("FmXmlParser.parse");
+    /** {@code ClipboardService.writeText()} end to end; size = characters written. */
+    public static final StageMetrics CLIPBOARD_WRITE = stage("writeText");
+    /** Windows/macOS native clipboard write attempt inside writeText; size = characters. */
+    public static final StageMetrics NATIVE_WRITE = stage("nativeWrite");
+    /** Writing a captured snippet or calculation file; size = characters. */
+    public static final StageMetrics FILE_WRITE = stage("fileWrite");
+    /** VFS refresh and open of a newly written file (on the EDT). */
+    public static final StageMetrics VFS_REFRESH = stage("vfsRefresh");
+
+    /** Reads answered by the first probe (CopyPasteManager string flavor) rather than a fallback. */
+    public static final HitRate READ_FAST_PATH = hitRate("readText.fastPath");
+    /** Writes that went through a native clipboard writer rather than the AWT fallback. */
+    public static final HitRate WRITE_NATIVE = hitRate("writeText.native");
+
+    private PipelineMetrics() {}
+
+    /** Returns the stage with this name, registering it on first use. */
+    public static StageMetrics stage(String name) {
+        return STAGES.computeIfAbsent(name, n -> {
+            register(n);
+            return new StageMetrics(n);
+        });
+    }
+
+    /** Returns the hit rate with this name, registering it on first use. */
+    public static HitRate hitRate(String name) {
+        return HIT_RATES.computeIfAbsent(name, n -> {
+            register(n);
+            return new HitRate(n);
+        });
+    }
+
+    private static void register(String name) {
+        synchronized (ORDER) {
+            ORDER.add(name);
+        }
+    }
+
+    /** One row per stage and hit rate, in registration order. */
+    public record Row(String name, String kind, long count, long failures,
+                      double p50Ms, double p90Ms, double p99Ms, double maxMs, double meanMs,
+                      long sizeP50, long sizeP99, long sizeMax, double hitRate) {
+    }
+
+    public static List<Row> snapshot() {
+        List<String> names;
+        synchronized (ORDER) {
+            names = List.copyOf(ORDER);
+        }
+        List<Row> rows = new ArrayList<>(names.size());
+        for (String name : names) {
+            StageMetrics s = STAGES.get(name);
+            if (s != null) {
+                Histogram lat = s.getLatencyNanos();
+                Histogram size = s.getSizes();
+                rows.add(new Row(name, "stage", lat.count(), s.getFailures(),
+                        ms(lat.percentile(50)), ms(lat.percentile(90)), ms(lat.percentile(99)), ms(lat.max()), lat.mean() / 1e6,
+                        size.percentile(50), size.percentile(99), size.max(), Double.NaN));
+                continue;
+            }
+            HitRate h = HIT_RATES.get(name);
+            if (h != null) {
+                rows.add(new Row(name, "hitRate", h.getHits() + h.getMisses(), 0,
+                        Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, -1, -1, -1, h.getRatio()));
+            }
+        }
+        return rows;
+    }
+
+    public static void writeCsv(Writer out) throws IOException {
+        out.write("metric,kind,count,failures,p50_ms,p90_ms,p99_ms,max_ms,mean_ms,size_p50,size_p99,size_max,hit_rate\n");
+        for (Row r : snapshot()) {
+            out.write(String.join(",", r.name(), r.kind(), Long.toString(r.count()), Long.toString(r.failures()),
+                    num(r.p50Ms()), num(r.p90Ms()), num(r.p99Ms()), num(r.maxMs()), num(r.meanMs()),
+                    size(r.sizeP50()), size(r.sizeP99()), size(r.sizeMax()), num(r.hitRate())));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /** Clears all recorded values; registered stages stay. */
+    public static void reset() {
+        STAGES.values().forEach(StageMetrics::reset);
+        HIT_RATES.values().forEach(HitRate::reset);
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String num(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.3f", v);
+    }
+
+    private static String size(long v) {
+        return v < 0 ? "" : Long.toString(v);
+    }
+}
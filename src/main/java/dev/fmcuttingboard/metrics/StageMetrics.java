@@ -0,0 +1,59 @@
+package dev.fmcuttingboard.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latency and payload-size distributions plus a failure count for one pipeline stage. */
+public final class StageMetrics {
+    private final String name;
+    private final Histogram latencyNanos = new Histogram();
+    private final Histogram sizes = new Histogram();
+    private final LongAdder failures = new LongAdder();
+
+    StageMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Records one successful run; pass a negative size when the stage has no meaningful payload. */
+    public void record(long elapsedNanos, long size) {
+        latencyNanos.record(elapsedNanos);
+        if (size >= 0) sizes.record(size);
+    }
+
+    /** Records one failed run; failures count towards latency but not towards payload sizes. */
+    public void failed(long elapsedNanos) {
+        latencyNanos.record(elapsedNanos);
+        failures.increment();
+    }
+
+    /** Records a run that started at {@code startNanos} ({@link System#nanoTime()}). */
+    public void recordSince(long startNanos, long size, boolean succeeded) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (succeeded) {
+            record(elapsed, size);
+        } else {
+            failed(elapsed);
+        }
+    }
+
+    public Histogram getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public Histogram getSizes() {
+        return sizes;
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    void reset() {
+        latencyNanos.reset();
+        sizes.reset();
+        failures.reset();
+    }
+}
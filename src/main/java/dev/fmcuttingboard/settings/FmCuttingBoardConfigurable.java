@@ -21,6 +21,8 @@ public class FmCuttingBoardConfigurable implements Configurable {
     private JLabel helpLabel;
     private JCheckBox previewBeforeClipboardWriteCheckbox;
     private JCheckBox enableDiagnosticsCheckbox;
+    private JCheckBox canonicalizeCapturesCheckbox;
+    private JCheckBox stripVolatileAttributesCheckbox;
     private JButton docsButton;
 
     public FmCuttingBoardConfigurable(Project project) {
@@ -61,6 +63,14 @@ public class FmCuttingBoardConfigurable implements Configurable {
             enableDiagnosticsCheckbox = new JCheckBox("Enable Diagnostics");
             fields.add(enableDiagnosticsCheckbox, gc);
 
+            gc.gridx = 0; gc.gridy = 4; gc.gridwidth = 2; gc.weightx = 1; gc.fill = GridBagConstraints.HORIZONTAL; gc.anchor = GridBagConstraints.LINE_START;
+            canonicalizeCapturesCheckbox = new JCheckBox("Canonicalize captured XML (stable attribute order and whitespace)");
+            fields.add(canonicalizeCapturesCheckbox, gc);
+
+            gc.gridx = 0; gc.gridy = 5; gc.gridwidth = 2; gc.weightx = 1; gc.fill = GridBagConstraints.HORIZONTAL; gc.anchor = GridBagConstraints.LINE_START;
+            stripVolatileAttributesCheckbox = new JCheckBox("Strip volatile attributes (ids, UUIDs) when canonicalizing");
+            fields.add(stripVolatileAttributesCheckbox, gc);
+
             mainPanel.add(fields, BorderLayout.NORTH);
 
             helpLabel = new JLabel("Use {timestamp} for epoch millis. Defaults: .fmCuttingBoard and {timestamp}. Extensions (.xml, .fmcalc) are added automatically.");
@@ -92,7 +102,10 @@ public class FmCuttingBoardConfigurable implements Configurable {
         String pat = filePatternField.getText().trim();
         boolean preview = previewBeforeClipboardWriteCheckbox.isSelected();
         boolean diag = enableDiagnosticsCheckbox.isSelected();
-        return !bd.equals(st.getBaseDirName()) || !pat.equals(st.getFileNamePattern()) || preview != st.isPreviewBeforeClipboardWrite() || diag != st.isEnableDiagnostics();
+        boolean canonical = canonicalizeCapturesCheckbox.isSelected();
+        boolean strip = stripVolatileAttributesCheckbox.isSelected();
+        return !bd.equals(st.getBaseDirName()) || !pat.equals(st.getFileNamePattern()) || preview != st.isPreviewBeforeClipboardWrite() || diag != st.isEnableDiagnostics()
+                || canonical != st.isCanonicalizeCaptures() || strip != st.isStripVolatileAttributes();
     }
 
     @Override
@@ -102,6 +115,8 @@ public class FmCuttingBoardConfigurable implements Configurable {
         st.setFileNamePattern(filePatternField.getText().trim());
         st.setPreviewBeforeClipboardWrite(previewBeforeClipboardWriteCheckbox.isSelected());
         st.setEnableDiagnostics(enableDiagnosticsCheckbox.isSelected());
+        st.setCanonicalizeCaptures(canonicalizeCapturesCheckbox.isSelected());
+        st.setStripVolatileAttributes(stripVolatileAttributesCheckbox.isSelected());
     }
 
     @Override
@@ -111,6 +126,8 @@ public class FmCuttingBoardConfigurable implements Configurable {
         filePatternField.setText(st.getFileNamePattern());
         previewBeforeClipboardWriteCheckbox.setSelected(st.isPreviewBeforeClipboardWrite());
         enableDiagnosticsCheckbox.setSelected(st.isEnableDiagnostics());
+        canonicalizeCapturesCheckbox.setSelected(st.isCanonicalizeCaptures());
+        stripVolatileAttributesCheckbox.setSelected(st.isStripVolatileAttributes());
     }
 
     @Override
@@ -121,5 +138,7 @@ public class FmCuttingBoardConfigurable implements Configurable {
         helpLabel = null;
         previewBeforeClipboardWriteCheckbox = null;
         enableDiagnosticsCheckbox = null;
+        canonicalizeCapturesCheckbox = null;
+        stripVolatileAttributesCheckbox = null;
     }
 }
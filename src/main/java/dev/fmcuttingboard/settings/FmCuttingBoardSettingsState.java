@@ -26,6 +26,11 @@ public final class FmCuttingBoardSettingsState implements PersistentStateCompone
         public String fileNamePattern = "{timestamp}";
         public boolean previewBeforeClipboardWrite = false;
         public boolean enableDiagnostics = false;
+        // Rewrite captured XML into canonical form (sorted attributes, normalized whitespace)
+        public boolean canonicalizeCaptures = false;
+        public boolean stripVolatileAttributes = false;
+        // Last spec used by "Transform XML Files", offered again next time
+        public String lastTransformSpec = "";
     }
 
     private State state = new State();
@@ -67,4 +72,13 @@ public final class FmCuttingBoardSettingsState implements PersistentStateCompone
 
     public boolean isEnableDiagnostics() { return state.enableDiagnostics; }
     public void setEnableDiagnostics(boolean v) { state.enableDiagnostics = v; }
+
+    public boolean isCanonicalizeCaptures() { return state.canonicalizeCaptures; }
+    public void setCanonicalizeCaptures(boolean v) { state.canonicalizeCaptures = v; }
+
+    public boolean isStripVolatileAttributes() { return state.stripVolatileAttributes; }
+    public void setStripVolatileAttributes(boolean v) { state.stripVolatileAttributes = v; }
+
+    public String getLastTransformSpec() { return state.lastTransformSpec == null ? "" : state.lastTransformSpec; }
+    public void setLastTransformSpec(String v) { state.lastTransformSpec = v == null ? "" : v; }
 }
@@ -0,0 +1,124 @@
+package dev.fmcuttingboard.ui;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.table.JBTable;
+import dev.fmcuttingboard.metrics.PipelineMetrics;
+import dev.fmcuttingboard.util.Notifier;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * "FMCuttingBoard Performance" tool window: per-stage latency percentiles, payload sizes and hit
+ * rates from {@link PipelineMetrics} since IDE start, refreshed every two seconds while visible,
+ * with Reset and Export to CSV.
+ */
+public class PerformanceToolWindowFactory implements ToolWindowFactory, DumbAware {
+    private static final Logger LOG = Logger.getInstance(PerformanceToolWindowFactory.class);
+    private static final String TITLE = "FMCuttingBoard Performance";
+    private static final int REFRESH_MS = 2000;
+    private static final String[] COLUMNS = {
+            "Stage", "Count", "Failures", "p50 ms", "p90 ms", "p99 ms", "Max ms", "Mean ms",
+            "Size p50", "Size p99", "Size max", "Hit rate"
+    };
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JBTable table = new JBTable(model);
+
+        SimpleToolWindowPanel panel = new SimpleToolWindowPanel(true, true);
+        panel.setContent(new JBScrollPane(table));
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(DumbAwareAction.create("Refresh", AllIcons.Actions.Refresh, e -> fill(model)));
+        group.add(DumbAwareAction.create("Reset", AllIcons.Actions.GC, e -> {
+            PipelineMetrics.reset();
+            fill(model);
+        }));
+        group.add(DumbAwareAction.create("Export to CSV…", AllIcons.ToolbarDecorator.Export, e -> exportCsv(project)));
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("FMCuttingBoardPerformance", group, true);
+        toolbar.setTargetComponent(panel);
+        panel.setToolbar(toolbar.getComponent());
+
+        Timer timer = new Timer(REFRESH_MS, e -> {
+            if (panel.isShowing()) fill(model);
+        });
+        timer.start();
+        fill(model);
+
+        Content content = ContentFactory.getInstance().createContent(panel, "", false);
+        content.setDisposer(timer::stop);
+        toolWindow.getContentManager().addContent(content);
+    }
+
+    private static void fill(DefaultTableModel model) {
+        List<PipelineMetrics.Row> rows = PipelineMetrics.snapshot();
+        model.setRowCount(0);
+        for (PipelineMetrics.Row r : rows) {
+            model.addRow(new Object[]{
+                    r.name(), r.count(), r.failures(),
+                    ms(r.p50Ms()), ms(r.p90Ms()), ms(r.p99Ms()), ms(r.maxMs()), ms(r.meanMs()),
+                    size(r.sizeP50()), size(r.sizeP99()), size(r.sizeMax()),
+                    Double.isNaN(r.hitRate()) ? "" : String.format(Locale.ROOT, "%.1f%%", r.hitRate() * 100)
+            });
+        }
+    }
+
+    private static void exportCsv(Project project) {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(TITLE, "Export pipeline metrics as CSV", "csv");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save((VirtualFile) null, "fmcuttingboard-metrics.csv");
+        if (target == null) {
+            return; // canceled
+        }
+        Path file = target.getFile().toPath();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            PipelineMetrics.writeCsv(out);
+            Notifier.notify(project, NotificationType.INFORMATION, TITLE, "Exported metrics to " + file);
+        } catch (IOException ex) {
+            LOG.warn("Failed to export metrics to " + file, ex);
+            Notifier.notify(project, NotificationType.ERROR, TITLE, "Failed to export metrics: " + ex.getMessage());
+        }
+    }
+
+    private static String ms(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.2f", v);
+    }
+
+    private static String size(long v) {
+        return v < 0 ? "" : Long.toString(v);
+    }
+}
@@ -1,23 +1,20 @@
 package dev.fmcuttingboard.util;
 
 import com.intellij.openapi.diagnostic.Logger;
+import dev.fmcuttingboard.log.FmDiagnostics;
+import dev.fmcuttingboard.log.FmLogs;
 
 /**
  * Simple diagnostics helper to enable extra verbose logging via a system property.
  * Enable by starting IDE with: -Dfmcuttingboard.verbose=true
+ * The flag itself lives in {@link FmLogs} so IDE-independent code can check it too.
+ * Messages that are costly to build should go through an {@link FmDiagnostics} channel instead.
  */
 public final class Diagnostics {
-    private static final String FLAG = "fmcuttingboard.verbose";
-
     private Diagnostics() {}
 
     public static boolean isVerbose() {
-        try {
-            String v = System.getProperty(FLAG, System.getenv("FMCUTTINGBOARD_VERBOSE"));
-            return v != null && v.equalsIgnoreCase("true");
-        } catch (Throwable t) {
-            return false;
-        }
+        return FmLogs.isVerbose();
     }
 
     public static void vInfo(Logger log, String msg) {
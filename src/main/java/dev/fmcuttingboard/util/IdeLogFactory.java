@@ -0,0 +1,29 @@
+package dev.fmcuttingboard.util;
+
+import com.intellij.openapi.diagnostic.Logger;
+import dev.fmcuttingboard.log.FmLog;
+
+/**
+ * {@link FmLog} backend that routes IDE-independent code (fm package) to the IntelliJ Logger,
+ * so its output lands in idea.log like the rest of the plugin. Registered in
+ * META-INF/services/dev.fmcuttingboard.log.FmLog$Factory.
+ */
+public final class IdeLogFactory implements FmLog.Factory {
+
+    public IdeLogFactory() {
+        // Fail fast when IntelliJ classes are absent so FmLogs falls back to java.util.logging
+        Logger.class.getName();
+    }
+
+    @Override
+    public FmLog getLogger(String category) {
+        Logger log = Logger.getInstance(category);
+        return new FmLog() {
+            @Override public void debug(String message) { log.debug(message); }
+            @Override public void info(String message) { log.info(message); }
+            @Override public void warn(String message) { log.warn(message); }
+            @Override public void warn(String message, Throwable t) { log.warn(message, t); }
+            @Override public boolean isDebugEnabled() { return log.isDebugEnabled(); }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package dev.fmcuttingboard.actions;
+
+import dev.fmcuttingboard.clipboard.ClipboardAccessException;
+import dev.fmcuttingboard.clipboard.ClipboardService;
+import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClipboardCapturePipelineTest {
+
+    private static class CountingClipboard implements ClipboardService {
+        final String content;
+        int reads;
+        String lastWritten;
+
+        CountingClipboard(String content) { this.content = content; }
+
+        @Override
+        public Optional<String> readText() throws ClipboardAccessException {
+            reads++;
+            return Optional.ofNullable(content);
+        }
+
+        @Override
+        public void writeText(String text) throws ClipboardAccessException { this.lastWritten = text; }
+    }
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void fmXmlCapture_readsOnce_andFansOutToFileAndClipboard() throws Exception {
+        CountingClipboard clipboard = new CountingClipboard(
+                "noise\n<fmxmlsnippet type=\"FMObjectList\"><Script name=\"A\"/></fmxmlsnippet>\nnoise");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ClipboardCapturePipeline pipeline = new ClipboardCapturePipeline(
+                    clipboard, new ClipboardToXmlConverter(), executor);
+
+            ClipboardCapturePipeline.Capture capture = pipeline.capture();
+            assertEquals(ClipboardCapturePipeline.Kind.FM_XML, capture.getKind());
+            assertTrue(capture.getXml().startsWith("<fmxmlsnippet"));
+
+            Path target = tmpDir.resolve("out.xml");
+            ClipboardCapturePipeline.XmlFanOutResult result = pipeline.fanOutXml(capture,
+                    xml -> Files.writeString(target, xml, StandardCharsets.UTF_8), () -> true);
+
+            assertEquals(1, clipboard.reads, "Clipboard should be read exactly once");
+            assertEquals(target, result.getFile());
+            assertNull(result.getFileError());
+            assertTrue(result.isClipboardWritten());
+            assertEquals(capture.getXml(), clipboard.lastWritten);
+            assertEquals(capture.getXml(), Files.readString(target, StandardCharsets.UTF_8));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void closedGate_skipsClipboardButStillWritesFile() throws Exception {
+        CountingClipboard clipboard = new CountingClipboard("<fmxmlsnippet><Step id=\"1\"/></fmxmlsnippet>");
+        ClipboardCapturePipeline pipeline = new ClipboardCapturePipeline(
+                clipboard, new ClipboardToXmlConverter(), Runnable::run);
+
+        ClipboardCapturePipeline.Capture capture = pipeline.capture();
+        Path target = tmpDir.resolve("gated.xml");
+        ClipboardCapturePipeline.XmlFanOutResult result = pipeline.fanOutXml(capture,
+                xml -> Files.writeString(target, xml, StandardCharsets.UTF_8), () -> false);
+
+        assertTrue(result.isClipboardSkipped());
+        assertNull(clipboard.lastWritten);
+        assertTrue(Files.exists(target));
+    }
+
+    @Test
+    void fileSinkFailure_isReportedWithoutBlockingClipboardWrite() throws Exception {
+        CountingClipboard clipboard = new CountingClipboard("<fmxmlsnippet><Step id=\"1\"/></fmxmlsnippet>");
+        ClipboardCapturePipeline pipeline = new ClipboardCapturePipeline(
+                clipboard, new ClipboardToXmlConverter(), Runnable::run);
+
+        ClipboardCapturePipeline.XmlFanOutResult result = pipeline.fanOutXml(pipeline.capture(),
+                xml -> { throw new java.io.IOException("disk full"); }, () -> true);
+
+        assertNull(result.getFile());
+        assertEquals("disk full", result.getFileError().getMessage());
+        assertTrue(result.isClipboardWritten());
+    }
+
+    @Test
+    void plainText_isClassifiedAsCalculation_andBlankAsEmpty() throws Exception {
+        CountingClipboard calc = new CountingClipboard("Let ( x = 1 ; x + 1 )");
+        ClipboardCapturePipeline pipeline = new ClipboardCapturePipeline(
+                calc, new ClipboardToXmlConverter(), Runnable::run);
+        ClipboardCapturePipeline.Capture capture = pipeline.capture();
+        assertEquals(ClipboardCapturePipeline.Kind.CALCULATION, capture.getKind());
+        assertNull(capture.getXml());
+
+        Path target = tmpDir.resolve("calc.fmcalc");
+        pipeline.writeCalculation(capture, text -> Files.writeString(target, text, StandardCharsets.UTF_8));
+        assertEquals("Let ( x = 1 ; x + 1 )", Files.readString(target, StandardCharsets.UTF_8));
+
+        ClipboardCapturePipeline empty = new ClipboardCapturePipeline(
+                new CountingClipboard("   "), new ClipboardToXmlConverter(), Runnable::run);
+        assertEquals(ClipboardCapturePipeline.Kind.EMPTY, empty.capture().getKind());
+    }
+}
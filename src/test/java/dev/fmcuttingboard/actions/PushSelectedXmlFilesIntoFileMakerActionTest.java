@@ -0,0 +1,95 @@
+package dev.fmcuttingboard.actions;
+
+import dev.fmcuttingboard.clipboard.ClipboardAccessException;
+import dev.fmcuttingboard.clipboard.ClipboardService;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.DefaultXmlToClipboardConverter;
+import dev.fmcuttingboard.fm.FmXmlParser;
+import dev.fmcuttingboard.fm.ParsedSnippet;
+import dev.fmcuttingboard.util.UserNotifier;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PushSelectedXmlFilesIntoFileMakerActionTest {
+
+    private static final UserNotifier NOOP = (p, t, title, content) -> {};
+
+    private static class NoOpClipboard implements ClipboardService {
+        @Override
+        public Optional<String> readText() throws ClipboardAccessException { return Optional.empty(); }
+        @Override
+        public void writeText(String text) throws ClipboardAccessException { }
+    }
+
+    private static PushSelectedXmlFilesIntoFileMakerAction.SnippetSource source(String name, String xml) {
+        return new PushSelectedXmlFilesIntoFileMakerAction.SnippetSource(name, () -> new StringReader(xml));
+    }
+
+    @Test
+    void mergesCompatibleCustomFunctionsInSelectionOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PushSelectedXmlFilesIntoFileMakerAction action = new PushSelectedXmlFilesIntoFileMakerAction(
+                    new NoOpClipboard(), new DefaultXmlToClipboardConverter(), NOOP, executor);
+
+            String merged = action.mergeSources(List.of(
+                    source("a.xml", "<fmxmlsnippet type=\"FMObjectList\"><CustomFunction name=\"A\"><Calculation><![CDATA[1 < 2]]></Calculation></CustomFunction></fmxmlsnippet>"),
+                    source("b.xml", "<?xml version=\"1.0\"?>\n<fmxmlsnippet type=\"FMObjectList\">\n  <CustomFunction name=\"B\"/>\n</fmxmlsnippet>"),
+                    source("c.xml", "<fmxmlsnippet type=\"FMObjectList\"><CustomFunction name=\"C\"/><CustomFunction name=\"D\"/></fmxmlsnippet>")));
+
+            assertTrue(merged.startsWith("<fmxmlsnippet type=\"FMObjectList\">"));
+            assertTrue(merged.contains("<![CDATA[1 < 2]]>"), "CDATA sections should be preserved");
+            assertTrue(merged.indexOf("name=\"A\"") < merged.indexOf("name=\"B\""));
+            assertTrue(merged.indexOf("name=\"B\"") < merged.indexOf("name=\"D\""));
+
+            ParsedSnippet parsed = new FmXmlParser().parse(merged);
+            assertNotNull(parsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mergedChildren_areWrittenBackByteForByte() throws Exception {
+        PushSelectedXmlFilesIntoFileMakerAction action = new PushSelectedXmlFilesIntoFileMakerAction(
+                new NoOpClipboard(), new DefaultXmlToClipboardConverter(), NOOP, Runnable::run);
+        // Attributes out of alphabetical order, empty elements, CDATA and escaped text, as FileMaker writes them
+        String xml = "<fmxmlsnippet type=\"FMObjectList\">\n"
+                + "<Step enable=\"True\" id=\"141\" name=\"Set Variable\"><Value><Calculation><![CDATA[1 < 2 & \"a\"]]></Calculation></Value>"
+                + "<Name>$x</Name><Repetition/></Step>\n"
+                + "<Step name=\"Comment\" id=\"89\" enable=\"False\"><Text>a &amp; b &lt; c</Text></Step>\n"
+                + "</fmxmlsnippet>";
+
+        assertEquals(xml, action.mergeSources(List.of(source("one.xml", xml))));
+    }
+
+    @Test
+    void rejectsMixedSnippetTypes() {
+        PushSelectedXmlFilesIntoFileMakerAction action = new PushSelectedXmlFilesIntoFileMakerAction(
+                new NoOpClipboard(), new DefaultXmlToClipboardConverter(), NOOP, Runnable::run);
+
+        ConversionException ex = assertThrows(ConversionException.class, () -> action.mergeSources(List.of(
+                source("fields.xml", "<fmxmlsnippet type=\"FMObjectList\"><FieldDefinition name=\"F\"/></fmxmlsnippet>"),
+                source("steps.xml", "<fmxmlsnippet type=\"FMObjectList\"><Step id=\"1\"/></fmxmlsnippet>"))));
+        assertTrue(ex.getMessage().contains("steps.xml"));
+    }
+
+    @Test
+    void rejectsMalformedOrNonSnippetFiles() {
+        PushSelectedXmlFilesIntoFileMakerAction action = new PushSelectedXmlFilesIntoFileMakerAction(
+                new NoOpClipboard(), new DefaultXmlToClipboardConverter(), NOOP, Runnable::run);
+
+        assertThrows(ConversionException.class, () -> action.mergeSources(List.of(
+                source("ok.xml", "<fmxmlsnippet><Step id=\"1\"/></fmxmlsnippet>"),
+                source("other.xml", "<root><Step id=\"2\"/></root>"))));
+        assertThrows(ConversionException.class, () -> action.mergeSources(List.of(
+                source("broken.xml", "<fmxmlsnippet><Step id=\"1\"></fmxmlsnippet>"))));
+    }
+}
@@ -0,0 +1,137 @@
+package dev.fmcuttingboard.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmCuttingBoardCliTest {
+
+    private static final String SCRIPT = "<fmxmlsnippet type=\"FMObjectList\"><Script id=\"3\" name=\"Main\">"
+            + "<Step enable=\"True\" id=\"89\" name=\"# Section\"/></Script></fmxmlsnippet>";
+    private static final String FIELD = "<fmxmlsnippet type=\"FMObjectList\"><Field name=\"First\" id=\"1\" dataType=\"Text\"/></fmxmlsnippet>";
+    private static final String FIELD_REORDERED = "<fmxmlsnippet type=\"FMObjectList\">\r\n<Field dataType=\"Text\" id=\"1\" name=\"First\"/>\r\n</fmxmlsnippet>";
+
+    @TempDir
+    Path tmpDir;
+
+    private final ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return FmCuttingBoardCli.run(args, new PrintStream(outBytes, true, StandardCharsets.UTF_8),
+                new PrintStream(errBytes, true, StandardCharsets.UTF_8));
+    }
+
+    private String out() {
+        return outBytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private Path write(String name, String content) throws Exception {
+        Path p = tmpDir.resolve(name);
+        Files.createDirectories(p.getParent());
+        Files.writeString(p, content, StandardCharsets.UTF_8);
+        return p;
+    }
+
+    @Test
+    void validate_reportsInvalidFilesAndExitsNonZero() throws Exception {
+        write("a/script.xml", SCRIPT);
+        write("a/b/field.xml", FIELD);
+        write("a/broken.xml", "<fmxmlsnippet><Script></fmxmlsnippet>");
+        write("a/notes.txt", "ignored");
+        write("a/.idea/workspace.xml", "<project/>");
+
+        int code = run("validate", "-j", "3", tmpDir.resolve("a").toString());
+
+        assertEquals(FmCuttingBoardCli.EXIT_FAILURES, code, out());
+        assertTrue(out().contains("FAIL broken.xml"), out());
+        assertTrue(out().contains("OK   script.xml"), out());
+        assertFalse(out().contains("workspace.xml"), out());
+        assertTrue(errBytes.toString(StandardCharsets.UTF_8).contains("validate: 3 files, 1 failed"));
+    }
+
+    @Test
+    void classify_readsUtf16CapturesWithNuls() throws Exception {
+        byte[] bom = {(byte) 0xFF, (byte) 0xFE};
+        byte[] body = ("Clipboard dump: " + SCRIPT + "\0\0").getBytes(StandardCharsets.UTF_16LE);
+        Path capture = tmpDir.resolve("capture.xml");
+        Files.write(capture, concat(bom, body));
+        write("field.xml", FIELD);
+
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("classify", tmpDir.toString()), out());
+        List<String> lines = out().lines().toList();
+        assertEquals(List.of("capture.xml\tSCRIPTS", "field.xml\tFIELDS"), lines);
+    }
+
+    @Test
+    void canonicalize_checkThenRewrite() throws Exception {
+        Path f = write("field.xml", FIELD_REORDERED);
+
+        assertEquals(FmCuttingBoardCli.EXIT_FAILURES, run("canonicalize", "--check", f.toString()));
+        assertEquals(FIELD_REORDERED, Files.readString(f));
+
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("canonicalize", "-q", f.toString()));
+        assertFalse(Files.readString(f).contains("\r"));
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("canonicalize", "--check", f.toString()));
+    }
+
+    @Test
+    void split_writesSiblingDirectoriesAndSkipsThemOnRerun() throws Exception {
+        write("s/script.xml", SCRIPT);
+
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("split", tmpDir.resolve("s").toString()));
+        Path splitDir = tmpDir.resolve("s/script-split");
+        assertTrue(Files.isDirectory(splitDir));
+        assertEquals(1, Files.list(splitDir).count());
+
+        outBytes.reset();
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("split", tmpDir.resolve("s").toString()));
+        assertEquals(1, out().lines().count(), out());
+    }
+
+    @Test
+    void index_givesEquivalentSnippetsTheSameCanonicalHash() throws Exception {
+        write("i/one.xml", FIELD);
+        write("i/two.xml", FIELD_REORDERED);
+        write("i/script.xml", SCRIPT);
+        Path index = tmpDir.resolve("index.tsv");
+
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("index", "-o", index.toString(), tmpDir.resolve("i").toString()));
+
+        List<String[]> rows = Files.readAllLines(index).stream().map(l -> l.split("\t", -1)).toList();
+        assertEquals("path", rows.get(0)[0]);
+        assertEquals(4, rows.size());
+        assertEquals("one.xml", rows.get(1)[0]);
+        assertEquals("script.xml", rows.get(2)[0]);
+        assertEquals("Main", rows.get(2)[3]);
+        assertEquals("two.xml", rows.get(3)[0]);
+        assertEquals(rows.get(1)[2], rows.get(3)[2]);
+        assertNotEquals(rows.get(1)[2], rows.get(2)[2]);
+        assertEquals("First", rows.get(1)[5]);
+    }
+
+    @Test
+    void usageErrors() {
+        assertEquals(FmCuttingBoardCli.EXIT_USAGE, run());
+        assertEquals(FmCuttingBoardCli.EXIT_USAGE, run("frobnicate", "x"));
+        assertEquals(FmCuttingBoardCli.EXIT_USAGE, run("validate"));
+        assertEquals(FmCuttingBoardCli.EXIT_USAGE, run("validate", "--check", "x"));
+        assertEquals(FmCuttingBoardCli.EXIT_USAGE, run("validate", "-j", "0", "x"));
+        assertEquals(FmCuttingBoardCli.EXIT_OK, run("--help"));
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] r = new byte[a.length + b.length];
+        System.arraycopy(a, 0, r, 0, a.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+}
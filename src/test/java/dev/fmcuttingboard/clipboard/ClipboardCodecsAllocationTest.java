@@ -0,0 +1,60 @@
+package dev.fmcuttingboard.clipboard;
+
+import dev.fmcuttingboard.fixtures.AllocationBudget;
+import dev.fmcuttingboard.fixtures.SnippetCorpus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets for the clipboard decoders and native format encoders, as multiples of the
+ * decoded text's UTF-16 size. The JDK decoders themselves need up to about 2.6x (UTF-8) and 3.5x
+ * (UTF-16); anything above the budgets below is an extra copy made by our code.
+ */
+class ClipboardCodecsAllocationTest {
+
+    private static final SnippetCorpus CORPUS = new SnippetCorpus(38);
+    private static final int PAYLOAD_CHARS = 1 << 20;
+    private static final long SLACK = 64 * 1024;
+
+    private static final double DECODE_UTF8_FACTOR = 3.0;
+    private static final double DECODE_UTF16_FACTOR = 4.0;
+    /** Encoders write the final array directly. */
+    private static final double ENCODE_FACTOR = 1.1;
+
+    @BeforeEach
+    void requireAllocationCounters() {
+        assumeTrue(AllocationBudget.isSupported(), "Per-thread allocation counters not available");
+    }
+
+    @Test
+    void decodeAndExtract_stayWithinBudgetForEveryEncoding() throws Exception {
+        String xml = CORPUS.snippet(SnippetCorpus.Kind.SCRIPT, PAYLOAD_CHARS);
+        long textBytes = AllocationBudget.utf16Bytes(xml);
+        for (SnippetCorpus.Encoding enc : SnippetCorpus.Encoding.values()) {
+            double factor = enc.charset().name().startsWith("UTF-16") ? DECODE_UTF16_FACTOR : DECODE_UTF8_FACTOR;
+            // NUL padding must not cost another copy of the text
+            for (boolean nul : new boolean[] {false, true}) {
+                byte[] bytes = SnippetCorpus.encode(xml, enc, nul);
+                String label = enc + (nul ? "/nul" : "");
+                AllocationBudget.assertWithin("decodeBytesWithBomHeuristics(" + label + ")", textBytes, factor, SLACK,
+                        () -> ClipboardCodecs.decodeBytesWithBomHeuristics(bytes));
+                AllocationBudget.assertWithin("extractFmxmlFromBytes(" + label + ")", textBytes, factor, SLACK,
+                        () -> ClipboardCodecs.extractFmxmlFromBytes(bytes));
+            }
+        }
+    }
+
+    @Test
+    void nativeFormatEncoders_encodeWithoutIntermediateCopies() throws Exception {
+        String xml = CORPUS.snippet(SnippetCorpus.Kind.LAYOUT_OBJECTS, PAYLOAD_CHARS);
+        long textBytes = AllocationBudget.utf16Bytes(xml);
+        AllocationBudget.assertWithin("utf16leNullTerminated", textBytes, ENCODE_FACTOR, SLACK,
+                () -> ClipboardCodecs.utf16leNullTerminated(xml));
+        AllocationBudget.assertWithin("utf8NullTerminated", textBytes, ENCODE_FACTOR, SLACK,
+                () -> ClipboardCodecs.utf8NullTerminated(xml));
+        AllocationBudget.assertWithin("utf8LengthPrefixedNoBom", textBytes, ENCODE_FACTOR, SLACK,
+                () -> ClipboardCodecs.utf8LengthPrefixedNoBom(xml));
+    }
+}
@@ -0,0 +1,62 @@
+package dev.fmcuttingboard.clipboard;
+
+import dev.fmcuttingboard.fixtures.SnippetCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the byte-level clipboard decoders over every encoding variant the corpus produces. */
+class ClipboardCodecsCorpusTest {
+
+    private static final SnippetCorpus CORPUS = new SnippetCorpus(2024);
+
+    @Test
+    void decodeAndExtract_recoverEverySnippetInEveryEncoding() {
+        for (SnippetCorpus.Kind kind : SnippetCorpus.Kind.values()) {
+            String xml = CORPUS.snippet(kind, 50_000);
+            String expected = xml.trim();
+            int start = expected.indexOf("<fmxmlsnippet");
+            for (SnippetCorpus.Encoding enc : SnippetCorpus.Encoding.values()) {
+                for (boolean nul : new boolean[] {false, true}) {
+                    byte[] bytes = SnippetCorpus.encode(xml, enc, nul);
+                    String label = kind + "/" + enc + (nul ? "/nul" : "");
+
+                    assertEquals(xml, ClipboardCodecs.decodeBytesWithBomHeuristics(bytes), label);
+                    assertEquals(expected.substring(start), ClipboardCodecs.extractFmxmlFromBytes(bytes), label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void detectSnippetType_matchesTheGeneratedKind() {
+        assertEquals(DefaultClipboardService.SnippetType.SCRIPT,
+                ClipboardCodecs.detectSnippetType(CORPUS.snippet(SnippetCorpus.Kind.SCRIPT, 10_000)));
+        assertEquals(DefaultClipboardService.SnippetType.FIELD_DEFINITION,
+                ClipboardCodecs.detectSnippetType(CORPUS.snippet(SnippetCorpus.Kind.FIELDS, 10_000)));
+        assertEquals(DefaultClipboardService.SnippetType.TABLE_DEFINITION,
+                ClipboardCodecs.detectSnippetType(CORPUS.snippet(SnippetCorpus.Kind.TABLES, 10_000)));
+        assertEquals(DefaultClipboardService.SnippetType.CUSTOM_FUNCTION,
+                ClipboardCodecs.detectSnippetType(CORPUS.snippet(SnippetCorpus.Kind.CUSTOM_FUNCTIONS, 10_000)));
+        assertEquals(DefaultClipboardService.SnippetType.LAYOUT_OBJECTS,
+                ClipboardCodecs.detectSnippetType(CORPUS.snippet(SnippetCorpus.Kind.LAYOUT_OBJECTS, 10_000)));
+    }
+
+    @Test
+    void nativeFormatEncoders_matchStringGetBytes() {
+        String xml = CORPUS.snippet(SnippetCorpus.Kind.SCRIPT, 20_000);
+        for (String s : new String[] {xml, "", "emoji \uD83D\uDE00 ok", "lone \uD800 high", "lone \uDC00 low", "end \uD83D"}) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            byte[] utf16 = s.getBytes(StandardCharsets.UTF_16LE);
+
+            assertArrayEquals(Arrays.copyOf(utf16, utf16.length + 2), ClipboardCodecs.utf16leNullTerminated(s));
+            assertArrayEquals(Arrays.copyOf(utf8, utf8.length + 1), ClipboardCodecs.utf8NullTerminated(s));
+            byte[] prefixed = ClipboardCodecs.utf8LengthPrefixedNoBom(s);
+            assertEquals(utf8.length, (prefixed[0] & 0xFF) | (prefixed[1] & 0xFF) << 8 | (prefixed[2] & 0xFF) << 16 | (prefixed[3] & 0xFF) << 24);
+            assertArrayEquals(utf8, Arrays.copyOfRange(prefixed, 4, prefixed.length));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package dev.fmcuttingboard.clipboard;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SnippetDetectionTest {
 
@@ -94,4 +96,14 @@ class SnippetDetectionTest {
         assertEquals(DefaultClipboardService.SnippetType.VALUE_LIST,
                 DefaultClipboardService.detectSnippetType(xml));
     }
+
+    @Test
+    void containsFmxml_isCaseInsensitiveAndNullSafe() {
+        assertTrue(ClipboardCodecs.containsFmxml("junk <FMXMLSnippet type=\"FMObjectList\"/>"));
+        assertTrue(ClipboardCodecs.containsFmxml("<fmxmlsnippet"));
+        assertFalse(ClipboardCodecs.containsFmxml("<fmxmlsnippe"));
+        assertFalse(ClipboardCodecs.containsFmxml("fmxmlsnippet <other/>"));
+        assertFalse(ClipboardCodecs.containsFmxml(null));
+        assertEquals(2, ClipboardCodecs.countNulls("a\u0000b\u0000"));
+    }
 }
@@ -0,0 +1,46 @@
+package dev.fmcuttingboard.fixtures;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculationCorpusTest {
+
+    @Test
+    void sameSeedSameOutput_differentSeedDifferentOutput() {
+        assertEquals(new CalculationCorpus(7).calculation(20_000), new CalculationCorpus(7).calculation(20_000));
+        assertNotEquals(new CalculationCorpus(7).calculation(20_000), new CalculationCorpus(8).calculation(20_000));
+    }
+
+    @Test
+    void hitsTheTargetSizeWithBalancedParentheses() {
+        for (int size : new int[] {1, 1_000, 100_000}) {
+            String calc = new CalculationCorpus(42).calculation(size);
+            assertTrue(calc.length() >= size, "length " + calc.length() + " < " + size);
+            assertTrue(calc.length() < size + 20_000, "overshoot " + calc.length());
+            assertEquals(0, depthOutsideStringsAndComments(calc), "unbalanced parentheses at size " + size);
+        }
+    }
+
+    private static int depthOutsideStringsAndComments(String s) {
+        int depth = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                for (i++; s.charAt(i) != '"'; i++) {
+                    if (s.charAt(i) == '\\') i++;
+                }
+            } else if (s.startsWith("//", i)) {
+                i = s.indexOf('\n', i);
+            } else if (s.startsWith("/*", i)) {
+                i = s.indexOf("*/", i) + 1;
+            } else if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+                assertTrue(depth >= 0, "closing bracket without opener at " + i);
+            }
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,79 @@
+package dev.fmcuttingboard.fixtures;
+
+import dev.fmcuttingboard.fm.ElementType;
+import dev.fmcuttingboard.fm.FmXmlParser;
+import dev.fmcuttingboard.fm.ParsedSnippet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnippetCorpusTest {
+
+    @TempDir
+    Path tmpDir;
+
+    @Test
+    void sameSeedSameOutput_differentSeedDifferentOutput() {
+        SnippetCorpus a = new SnippetCorpus(7);
+        assertEquals(a.snippet(SnippetCorpus.Kind.SCRIPT, 20_000), new SnippetCorpus(7).snippet(SnippetCorpus.Kind.SCRIPT, 20_000));
+        assertNotEquals(a.snippet(SnippetCorpus.Kind.SCRIPT, 20_000), new SnippetCorpus(8).snippet(SnippetCorpus.Kind.SCRIPT, 20_000));
+        // Independent of call order
+        String fields = a.snippet(SnippetCorpus.Kind.FIELDS, 5_000);
+        a.snippet(SnippetCorpus.Kind.TABLES, 5_000);
+        assertEquals(fields, a.snippet(SnippetCorpus.Kind.FIELDS, 5_000));
+    }
+
+    @Test
+    void everyKindParsesAndHitsTheTargetSize() throws Exception {
+        Map<SnippetCorpus.Kind, ElementType> expected = Map.of(
+                SnippetCorpus.Kind.SCRIPT, ElementType.SCRIPTS,
+                SnippetCorpus.Kind.STEPS, ElementType.SCRIPTS,
+                SnippetCorpus.Kind.FIELDS, ElementType.FIELDS,
+                SnippetCorpus.Kind.TABLES, ElementType.TABLES,
+                SnippetCorpus.Kind.CUSTOM_FUNCTIONS, ElementType.CUSTOM_FUNCTIONS,
+                SnippetCorpus.Kind.VALUE_LISTS, ElementType.VALUE_LISTS,
+                SnippetCorpus.Kind.LAYOUT_OBJECTS, ElementType.LAYOUTS);
+        SnippetCorpus corpus = new SnippetCorpus(42);
+        for (SnippetCorpus.Kind kind : SnippetCorpus.Kind.values()) {
+            for (int target : new int[] {1024, 200_000}) {
+                String xml = corpus.snippet(kind, target);
+                assertTrue(xml.length() >= target && xml.length() < target + 8_192, kind + " " + xml.length());
+                ParsedSnippet parsed = new FmXmlParser().parse(xml);
+                assertTrue(parsed.getElementTypes().contains(expected.get(kind)), kind + " " + parsed.getElementTypes());
+            }
+        }
+    }
+
+    @Test
+    void encodeAddsBomAndAlignedNulPadding() {
+        String xml = new SnippetCorpus(1).snippet(SnippetCorpus.Kind.STEPS, 1000);
+
+        byte[] plain = SnippetCorpus.encode(xml, SnippetCorpus.Encoding.UTF16BE, false);
+        assertArrayEquals(xml.getBytes(StandardCharsets.UTF_16BE), plain);
+
+        byte[] padded = SnippetCorpus.encode(xml, SnippetCorpus.Encoding.UTF16LE_BOM, true);
+        assertEquals((byte) 0xFF, padded[0]);
+        assertEquals((byte) 0xFE, padded[1]);
+        assertEquals(0, padded.length % SnippetCorpus.NUL_PADDING_ALIGNMENT);
+        int body = 2 + xml.getBytes(StandardCharsets.UTF_16LE).length;
+        assertTrue(padded.length >= body + 2);
+        for (int i = body; i < padded.length; i++) assertEquals(0, padded[i]);
+    }
+
+    @Test
+    void writeFileStreamsTheSameBytesAsEncode() throws Exception {
+        SnippetCorpus corpus = new SnippetCorpus(99);
+        for (SnippetCorpus.Encoding enc : SnippetCorpus.Encoding.values()) {
+            Path f = tmpDir.resolve(enc + ".xml");
+            corpus.writeFile(f, SnippetCorpus.Kind.LAYOUT_OBJECTS, 30_000, enc, true);
+            byte[] expected = SnippetCorpus.encode(corpus.snippet(SnippetCorpus.Kind.LAYOUT_OBJECTS, 30_000), enc, true);
+            assertArrayEquals(expected, Files.readAllBytes(f), enc.name());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.fmcuttingboard.fm;
+
+import dev.fmcuttingboard.fixtures.AllocationBudget;
+import dev.fmcuttingboard.fixtures.SnippetCorpus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets for the conversion paths, as multiples of the payload's UTF-16 size.
+ * A failure here usually means a new full copy of the payload (toLowerCase, substring, getBytes).
+ */
+class ConversionAllocationTest {
+
+    private static final SnippetCorpus CORPUS = new SnippetCorpus(38);
+    private static final int PAYLOAD_CHARS = 1 << 20;
+    // The DOM parse is costlier and its cost does not depend on the copies this test guards against
+    private static final int PARSE_PAYLOAD_CHARS = 1 << 18;
+    private static final long SLACK = 64 * 1024;
+
+    /**
+     * Extracting the snippet may copy it once when surrounded by other text (substring of a UTF-16
+     * string also tries a Latin-1 compression first, hence 1.5x); classifying must not copy.
+     */
+    private static final double CONVERT_FACTOR = 1.6;
+    private static final double DETECT_TYPES_FACTOR = 0.0;
+    /** DOM tree plus the validated string; measured around 5-9x across the corpus kinds. */
+    private static final double TO_CLIPBOARD_FACTOR = 12.0;
+
+    @BeforeEach
+    void requireAllocationCounters() {
+        assumeTrue(AllocationBudget.isSupported(), "Per-thread allocation counters not available");
+    }
+
+    @Test
+    void convert_copiesThePayloadAtMostOnce() throws Exception {
+        ClipboardToXmlConverter converter = new ClipboardToXmlConverter();
+        for (SnippetCorpus.Kind kind : SnippetCorpus.Kind.values()) {
+            String xml = CORPUS.snippet(kind, PAYLOAD_CHARS);
+            AllocationBudget.assertWithin("convert(" + kind + ")", AllocationBudget.utf16Bytes(xml),
+                    CONVERT_FACTOR, SLACK, () -> converter.convert(xml));
+
+            String wrapped = "Copied from FileMaker:\r\n" + xml + "\r\n";
+            assertEquals(xml.substring(xml.indexOf("<fmxmlsnippet")).trim(), converter.convertToXml(wrapped));
+            AllocationBudget.assertWithin("convert(wrapped " + kind + ")", AllocationBudget.utf16Bytes(wrapped),
+                    CONVERT_FACTOR, SLACK, () -> converter.convert(wrapped));
+        }
+    }
+
+    @Test
+    void detectTypes_doesNotCopyThePayload() throws Exception {
+        for (SnippetCorpus.Kind kind : SnippetCorpus.Kind.values()) {
+            String xml = CORPUS.snippet(kind, PAYLOAD_CHARS);
+            AllocationBudget.assertWithin("detectTypes(" + kind + ")", AllocationBudget.utf16Bytes(xml),
+                    DETECT_TYPES_FACTOR, SLACK, () -> FmSnippet.detectTypes(xml));
+        }
+    }
+
+    @Test
+    void convertToClipboardPayload_staysWithinParseBudget() throws Exception {
+        DefaultXmlToClipboardConverter converter = new DefaultXmlToClipboardConverter();
+        for (SnippetCorpus.Kind kind : SnippetCorpus.Kind.values()) {
+            String xml = CORPUS.snippet(kind, PARSE_PAYLOAD_CHARS);
+            AllocationBudget.assertWithin("convertToClipboardPayload(" + kind + ")", AllocationBudget.utf16Bytes(xml),
+                    TO_CLIPBOARD_FACTOR, SLACK, () -> converter.convertToClipboardPayload(xml));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.fmcuttingboard.fm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmSnippetCanonicalizerTest {
+
+    @Test
+    void sortsAttributes_andReindentsElements() throws Exception {
+        String xml = "<?xml version=\"1.0\"?>\r\n<fmxmlsnippet type=\"FMObjectList\">\r\n"
+                + "<Step name=\"Set Variable\" id=\"141\" enable=\"True\"><Value><Calculation><![CDATA[$x + 1]]></Calculation></Value></Step>"
+                + "    <Step enable=\"True\" id=\"89\" name=\"# note\"></Step>\r\n</fmxmlsnippet>";
+
+        String canonical = new FmSnippetCanonicalizer().canonicalize(xml);
+
+        assertEquals("<fmxmlsnippet type=\"FMObjectList\">\n"
+                + "  <Step enable=\"True\" id=\"141\" name=\"Set Variable\">\n"
+                + "    <Value>\n"
+                + "      <Calculation><![CDATA[$x + 1]]></Calculation>\n"
+                + "    </Value>\n"
+                + "  </Step>\n"
+                + "  <Step enable=\"True\" id=\"89\" name=\"# note\"/>\n"
+                + "</fmxmlsnippet>\n", canonical);
+    }
+
+    @Test
+    void keepsTextContentVerbatim_butNormalizesLineEndings() throws Exception {
+        String xml = "<fmxmlsnippet><Step id=\"89\"><Text>  line one\r\nline &amp; two  </Text><Text> </Text></Step></fmxmlsnippet>";
+
+        String canonical = new FmSnippetCanonicalizer().canonicalize(xml);
+
+        assertTrue(canonical.contains("<Text>  line one\nline &amp; two  </Text>"), canonical);
+        assertTrue(canonical.contains("<Text> </Text>"), canonical);
+        assertFalse(canonical.contains("\r"));
+    }
+
+    @Test
+    void isIdempotent_andIgnoresFormattingDifferences() throws Exception {
+        FmSnippetCanonicalizer c = new FmSnippetCanonicalizer();
+        String a = "<fmxmlsnippet type=\"FMObjectList\"><Field id=\"1\" name=\"A\" dataType=\"Text\"/><!-- keep --></fmxmlsnippet>";
+        String b = "<fmxmlsnippet type=\"FMObjectList\">\n\t<Field  name=\"A\"\n dataType=\"Text\" id=\"1\"></Field>\n\t<!-- keep -->\n</fmxmlsnippet>\n";
+
+        String ca = c.canonicalize(a);
+        assertEquals(ca, c.canonicalize(b));
+        assertEquals(ca, c.canonicalize(ca));
+        assertTrue(ca.contains("<!-- keep -->"));
+    }
+
+    @Test
+    void stripsVolatileAttributes_butKeepsStepIds() throws Exception {
+        String xml = "<fmxmlsnippet type=\"FMObjectList\">"
+                + "<Script id=\"12\" name=\"S\" UUID=\"ABC\"><Step id=\"141\" name=\"Set Variable\"/></Script>"
+                + "<Object key=\"77\" modCount=\"3\" type=\"Field\"/></fmxmlsnippet>";
+
+        String canonical = new FmSnippetCanonicalizer(true).canonicalize(xml);
+
+        assertTrue(canonical.contains("<Script name=\"S\">"), canonical);
+        assertTrue(canonical.contains("<Step id=\"141\" name=\"Set Variable\"/>"), canonical);
+        assertTrue(canonical.contains("<Object type=\"Field\"/>"), canonical);
+        assertTrue(new FmSnippetCanonicalizer(false).canonicalize(xml).contains("UUID=\"ABC\""));
+    }
+
+    @Test
+    void rejectsNonSnippetAndMalformedXml() {
+        FmSnippetCanonicalizer c = new FmSnippetCanonicalizer();
+        assertThrows(ConversionException.class, () -> c.canonicalize("<root/>"));
+        assertThrows(ConversionException.class, () -> c.canonicalize("<fmxmlsnippet><Step></fmxmlsnippet>"));
+        assertThrows(ConversionException.class, () -> c.canonicalize(""));
+    }
+}
@@ -0,0 +1,112 @@
+package dev.fmcuttingboard.fm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmSnippetDiffTest {
+
+    private static String script(String... steps) {
+        StringBuilder sb = new StringBuilder("<fmxmlsnippet type=\"FMObjectList\"><Script id=\"5\" name=\"Main\">");
+        for (String s : steps) sb.append(s);
+        return sb.append("</Script></fmxmlsnippet>").toString();
+    }
+
+    private static String step(String name, String calc) {
+        return "<Step enable=\"True\" id=\"141\" name=\"" + name + "\"><Calculation><![CDATA[" + calc + "]]></Calculation></Step>";
+    }
+
+    private static List<String> lines(FmSnippetDiff.Result result) {
+        return result.changes().stream().map(FmSnippetDiff.Change::toString).toList();
+    }
+
+    @Test
+    void identicalModuloFormattingAndAttributeOrder_hasNoChanges() throws Exception {
+        String a = "<fmxmlsnippet type=\"FMObjectList\"><Field id=\"1\" name=\"A\" dataType=\"Text\"/></fmxmlsnippet>";
+        String b = "<fmxmlsnippet type=\"FMObjectList\">\r\n  <Field dataType=\"Text\"\n name=\"A\" id=\"1\"></Field>\r\n</fmxmlsnippet>";
+
+        FmSnippetDiff.Result result = new FmSnippetDiff().diff(a, b);
+
+        assertTrue(result.isIdentical(), result.changes().toString());
+        assertEquals("No structural differences", result.summary());
+    }
+
+    @Test
+    void reportsInsertedRemovedAndChangedSteps() throws Exception {
+        String before = script(step("Set Variable", "$a"), step("Set Variable", "$b"), step("Set Variable", "$c"), step("Exit Script", ""));
+        String after = script(step("Set Variable", "$a"), step("If", "$x"), step("Set Variable", "$c + 1"), step("Exit Script", ""));
+
+        FmSnippetDiff.Result result = new FmSnippetDiff().diff(before, after);
+
+        // $b -> If is a different step type: removed + added; $c -> $c + 1 is the same step changed
+        assertEquals(List.of(
+                "- Script \"Main\" / Step #2 \"Set Variable\"",
+                "+ Script \"Main\" / Step #2 \"If\"",
+                "~ Script \"Main\" / Step #3 \"Set Variable\""), lines(result));
+        assertEquals("1 added, 1 removed, 1 changed", result.summary());
+    }
+
+    @Test
+    void insertionInLongScript_doesNotShiftFollowingSteps() throws Exception {
+        String[] before = new String[500];
+        String[] after = new String[501];
+        for (int i = 0; i < 500; i++) {
+            before[i] = step("Set Variable", "$v" + i);
+        }
+        System.arraycopy(before, 0, after, 0, 250);
+        after[250] = step("Beep", "");
+        System.arraycopy(before, 250, after, 251, 250);
+
+        FmSnippetDiff.Result result = new FmSnippetDiff().diff(script(before), script(after));
+
+        assertEquals(List.of("+ Script \"Main\" / Step #251 \"Beep\""), lines(result));
+    }
+
+    @Test
+    void alignsTopLevelObjectsByName_andReportsAddedTables() throws Exception {
+        String before = "<fmxmlsnippet type=\"FMObjectList\">"
+                + "<BaseTable id=\"1\" name=\"Contacts\"><Field id=\"1\" name=\"First\" dataType=\"Text\"/><Field id=\"2\" name=\"Age\" dataType=\"Number\"/></BaseTable>"
+                + "</fmxmlsnippet>";
+        String after = "<fmxmlsnippet type=\"FMObjectList\">"
+                + "<BaseTable id=\"1\" name=\"Contacts\"><Field id=\"1\" name=\"First\" dataType=\"Text\"/><Field id=\"2\" name=\"Age\" dataType=\"Text\"/><Field id=\"3\" name=\"Last\" dataType=\"Text\"/></BaseTable>"
+                + "<BaseTable id=\"2\" name=\"Invoices\"/>"
+                + "</fmxmlsnippet>";
+
+        FmSnippetDiff.Result result = new FmSnippetDiff().diff(before, after);
+
+        assertEquals(List.of(
+                "~ BaseTable \"Contacts\" / Field \"Age\"",
+                "+ BaseTable \"Contacts\" / Field \"Last\"",
+                "+ BaseTable \"Invoices\""), lines(result));
+    }
+
+    @Test
+    void changesBelowOutlineDepth_areReportedOnTheEnclosingNode() throws Exception {
+        String before = "<fmxmlsnippet type=\"LayoutObjectList\"><Layout name=\"L\">"
+                + "<LayoutObject type=\"Field\" key=\"1\" name=\"f\"><Bounds top=\"1\" left=\"1\"/></LayoutObject>"
+                + "</Layout></fmxmlsnippet>";
+        String after = before.replace("top=\"1\"", "top=\"2\"");
+
+        FmSnippetDiff.Result result = new FmSnippetDiff().diff(before, after);
+
+        assertEquals(List.of("~ Layout \"L\" / LayoutObject \"f\""), lines(result));
+    }
+
+    @Test
+    void ignoreVolatile_skipsRegeneratedIds() throws Exception {
+        String before = "<fmxmlsnippet type=\"FMObjectList\"><Script id=\"5\" name=\"S\" UUID=\"A\"/></fmxmlsnippet>";
+        String after = "<fmxmlsnippet type=\"FMObjectList\"><Script id=\"9\" name=\"S\" UUID=\"B\"/></fmxmlsnippet>";
+
+        assertFalse(new FmSnippetDiff().diff(before, after).isIdentical());
+        assertTrue(new FmSnippetDiff(true, FmSnippetDiff.DEFAULT_OUTLINE_DEPTH).diff(before, after).isIdentical());
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        FmSnippetDiff diff = new FmSnippetDiff();
+        assertThrows(ConversionException.class, () -> diff.diff("<root/>", "<fmxmlsnippet/>"));
+        assertThrows(ConversionException.class, () -> diff.diff("<fmxmlsnippet/>", "<fmxmlsnippet>"));
+    }
+}
@@ -0,0 +1,158 @@
+package dev.fmcuttingboard.fm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmSnippetSplitterTest {
+
+    @TempDir
+    Path tmpDir;
+
+    private static final String MIXED = """
+            <fmxmlsnippet type="FMObjectList">
+              <Script name="Do Work"><Step id="1" name="Go to Layout"/></Script>
+              <Script name="Cleanup/Reset"><Step id="2"/></Script>
+              <CustomFunction name="Max2"><Calculation><![CDATA[If ( a > b ; a ; b )]]></Calculation></CustomFunction>
+              <ValueList name="Colors"/>
+            </fmxmlsnippet>
+            """;
+
+    private static List<String> names(FmSnippetSplitter.Result r) {
+        List<String> out = new ArrayList<>();
+        for (Path p : r.files()) out.add(p.getFileName().toString());
+        return out;
+    }
+
+    @Test
+    void writesOneParseableFilePerObject_inDocumentOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            FmSnippetSplitter.Result r = new FmSnippetSplitter().split(new StringReader(MIXED), tmpDir, executor, 2);
+
+            assertEquals(List.of("0001-Script-Do_Work.xml", "0002-Script-Cleanup_Reset.xml",
+                    "0003-CustomFunction-Max2.xml", "0004-ValueList-Colors.xml"), names(r));
+
+            FmXmlParser parser = new FmXmlParser();
+            for (Path p : r.files()) {
+                assertNotNull(parser.parse(Files.readString(p, StandardCharsets.UTF_8)));
+            }
+            String cf = Files.readString(r.files().get(2), StandardCharsets.UTF_8);
+            assertTrue(cf.startsWith("<fmxmlsnippet type=\"FMObjectList\">"));
+            assertTrue(cf.contains("<![CDATA[If ( a > b ; a ; b )]]>"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rerunIsDeterministicAndReplacesPreviousOutput() throws Exception {
+        FmSnippetSplitter splitter = new FmSnippetSplitter();
+        FmSnippetSplitter.Result first = splitter.split(new StringReader(MIXED), tmpDir, Runnable::run, 1);
+        List<String> firstContent = new ArrayList<>();
+        for (Path p : first.files()) firstContent.add(Files.readString(p, StandardCharsets.UTF_8));
+
+        Files.writeString(tmpDir.resolve("0099-Script-Stale.xml"), "stale", StandardCharsets.UTF_8);
+        Files.writeString(tmpDir.resolve("notes.txt"), "keep", StandardCharsets.UTF_8);
+
+        FmSnippetSplitter.Result second = splitter.split(new StringReader(MIXED), tmpDir, Runnable::run, 1);
+        assertEquals(names(first), names(second));
+        for (int i = 0; i < second.files().size(); i++) {
+            assertEquals(firstContent.get(i), Files.readString(second.files().get(i), StandardCharsets.UTF_8));
+        }
+        assertFalse(Files.exists(tmpDir.resolve("0099-Script-Stale.xml")));
+        assertTrue(Files.exists(tmpDir.resolve("notes.txt")));
+    }
+
+    @Test
+    void groupsScriptStepsAtCommentSteps() throws Exception {
+        String steps = """
+                <fmxmlsnippet type="FMObjectList">
+                  <Step id="89" name="# (comment)"><Text>Setup</Text></Step>
+                  <Step id="141" name="Set Variable"/>
+                  <Step id="141" name="Set Variable"/>
+                  <Step id="89" name="# (comment)"><Text>Work</Text></Step>
+                  <Step id="6" name="Go to Layout"/>
+                </fmxmlsnippet>
+                """;
+        FmSnippetSplitter.Result r = new FmSnippetSplitter().split(new StringReader(steps), tmpDir, Runnable::run, 1);
+
+        assertEquals(2, r.files().size());
+        String firstGroup = Files.readString(r.files().get(0), StandardCharsets.UTF_8);
+        assertEquals(3, firstGroup.split("<Step ", -1).length - 1);
+        assertTrue(Files.readString(r.files().get(1), StandardCharsets.UTF_8).contains("Go to Layout"));
+    }
+
+    @Test
+    void rejectsNonSnippetInput() {
+        assertThrows(ConversionException.class, () ->
+                new FmSnippetSplitter().split(new StringReader("<root><Script/></root>"), tmpDir, Runnable::run, 1));
+        assertThrows(ConversionException.class, () ->
+                new FmSnippetSplitter().split(new StringReader("<fmxmlsnippet></fmxmlsnippet>"), tmpDir, Runnable::run, 1));
+    }
+
+    @Test
+    void parseErrorIsReported_withFailedWritesSuppressed() {
+        // The first script is written (into a staged path that is a directory) before the parse error is hit
+        String xml = "<fmxmlsnippet type=\"FMObjectList\"><Script name=\"A\"/><Script name=\"B\"/><Script";
+        ConversionException ex = assertThrows(ConversionException.class, () -> new FmSnippetSplitter().split(
+                new StringReader(xml), tmpDir, task -> {
+                    try (Stream<Path> staging = Files.list(tmpDir)) {
+                        Files.createDirectories(staging.filter(Files::isDirectory).findFirst().orElseThrow()
+                                .resolve("0001-Script-A.xml"));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    task.run();
+                }, 1));
+        assertEquals(1, ex.getSuppressed().length);
+        assertTrue(ex.getSuppressed()[0] instanceof IOException, String.valueOf(ex.getSuppressed()[0]));
+    }
+
+    @Test
+    void failedSplit_keepsPreviousOutput() throws Exception {
+        FmSnippetSplitter splitter = new FmSnippetSplitter();
+        FmSnippetSplitter.Result first = splitter.split(new StringReader(MIXED), tmpDir, Runnable::run, 1);
+        String script = Files.readString(first.files().get(0), StandardCharsets.UTF_8);
+
+        String truncated = MIXED.substring(0, MIXED.indexOf("<CustomFunction"));
+        assertThrows(ConversionException.class, () ->
+                splitter.split(new StringReader(truncated), tmpDir, Runnable::run, 1));
+
+        try (Stream<Path> left = Files.list(tmpDir)) {
+            assertEquals(names(first), left.map(p -> p.getFileName().toString()).sorted().toList());
+        }
+        assertEquals(script, Files.readString(first.files().get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void objectsAreCopiedWithAttributeOrderAndEmptyTags() throws Exception {
+        String xml = "<fmxmlsnippet type=\"FMObjectList\">"
+                + "<Script name=\"S\" id=\"7\" includeInMenu=\"True\"><Step name=\"Beep\" id=\"93\" enable=\"True\"/></Script>"
+                + "</fmxmlsnippet>";
+        FmSnippetSplitter.Result r = new FmSnippetSplitter().split(new StringReader(xml), tmpDir, Runnable::run, 1);
+        String out = Files.readString(r.files().get(0), StandardCharsets.UTF_8);
+        assertTrue(out.contains("<Script name=\"S\" id=\"7\" includeInMenu=\"True\">"
+                + "<Step name=\"Beep\" id=\"93\" enable=\"True\"/></Script>"), out);
+    }
+
+    @Test
+    void attributeLineBreaksAndTabs_surviveTheSplit() throws Exception {
+        String xml = "<fmxmlsnippet type=\"FMObjectList\" note=\"a&#10;b&#13;c&#9;d\"><ValueList name=\"V\"/></fmxmlsnippet>";
+        FmSnippetSplitter.Result r = new FmSnippetSplitter().split(new StringReader(xml), tmpDir, Runnable::run, 1);
+        String out = Files.readString(r.files().get(0), StandardCharsets.UTF_8);
+        assertTrue(out.contains("note=\"a&#10;b&#13;c&#9;d\""), out);
+    }
+}
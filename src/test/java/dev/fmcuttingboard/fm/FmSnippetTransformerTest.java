@@ -0,0 +1,132 @@
+package dev.fmcuttingboard.fm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmSnippetTransformerTest {
+
+    private static final String SCRIPT = "<fmxmlsnippet type=\"FMObjectList\"><Script id=\"3\" name=\"S\">\n"
+            + "  <Step enable=\"True\" id=\"89\" name=\"# Comment\"><Text>note</Text></Step>\n"
+            + "  <Step enable=\"False\" id=\"141\" name=\"Set Variable\"><Value><Calculation><![CDATA[Contacts::First]]></Calculation></Value></Step>\n"
+            + "  <Step enable=\"True\" id=\"76\" name=\"Set Field\"><Calculation><![CDATA[Contacts::First & XContacts::First & Contacts::FirstName]]></Calculation>"
+            + "<Field table=\"Contacts\" id=\"1\" name=\"First\"/></Step>\n"
+            + "</Script></fmxmlsnippet>";
+
+    private static FmSnippetTransformer pipeline(SnippetTransform... stages) {
+        return new FmSnippetTransformer(() -> List.of(stages));
+    }
+
+    @Test
+    void emptyPipeline_isAnIdentityCopy() throws Exception {
+        assertEquals(SCRIPT, pipeline().transform(SCRIPT));
+
+        String declared = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><fmxmlsnippet type=\"FMObjectList\"><Text a=\"x &amp; &lt;y&gt;\">1 &lt; 2</Text></fmxmlsnippet>";
+        assertEquals(declared.replace("&gt;\"", ">\""), pipeline().transform(declared));
+    }
+
+    @Test
+    void rename_rewritesAttributesAndCalculationReferences() throws Exception {
+        String out = pipeline(SnippetTransforms.rename(Map.of("Contacts", "People"), Map.of("Contacts::First", "GivenName")))
+                .transform(SCRIPT);
+
+        assertTrue(out.contains("<Field table=\"People\" id=\"1\" name=\"GivenName\""), out);
+        assertTrue(out.contains("<![CDATA[People::GivenName & XContacts::First & People::FirstName]]>"), out);
+        assertFalse(out.contains("Contacts::First]]>"), out);
+    }
+
+    @Test
+    void rename_usesEnclosingBaseTableForFieldDefinitions() throws Exception {
+        String xml = "<fmxmlsnippet type=\"FMObjectList\"><BaseTable id=\"1\" name=\"Contacts\">"
+                + "<Field id=\"1\" name=\"First\" dataType=\"Text\"/></BaseTable>"
+                + "<BaseTable id=\"2\" name=\"Other\"><Field id=\"1\" name=\"First\" dataType=\"Text\"/></BaseTable></fmxmlsnippet>";
+
+        String out = pipeline(SnippetTransforms.rename(Map.of(), Map.of("Contacts::First", "GivenName"))).transform(xml);
+
+        assertTrue(out.contains("<BaseTable id=\"1\" name=\"Contacts\"><Field id=\"1\" name=\"GivenName\""), out);
+        assertTrue(out.contains("<BaseTable id=\"2\" name=\"Other\"><Field id=\"1\" name=\"First\""), out);
+    }
+
+    @Test
+    void rename_rewritesLayoutObjectCalculations_butNotStringLiterals() throws Exception {
+        String xml = "<fmxmlsnippet type=\"LayoutObjectList\"><Layout><Object type=\"Button\"><ButtonObj>"
+                + "<Step enable=\"True\" id=\"76\" name=\"Set Field\"><Calculation><Text><![CDATA["
+                + "Contacts::First & \"Contacts::First and \\\"Contacts::\\\"\" & Contacts::Last"
+                + "]]></Text></Calculation></Step></ButtonObj></Object></Layout></fmxmlsnippet>";
+
+        String out = pipeline(SnippetTransforms.rename(Map.of("Contacts", "People"), Map.of("Contacts::First", "GivenName")))
+                .transform(xml);
+
+        assertTrue(out.contains("<Text><![CDATA[People::GivenName & \"Contacts::First and \\\"Contacts::\\\"\" & People::Last]]></Text>"), out);
+    }
+
+    @Test
+    void rename_leavesLongerNamesWithSpacesAlone() throws Exception {
+        String xml = "<fmxmlsnippet type=\"FMObjectList\"><Step enable=\"True\" id=\"76\" name=\"Set Field\"><Calculation><![CDATA["
+                + "Table::Id Number & My Table::X & Table::Id and not Table::Id & Table::Other"
+                + "]]></Calculation></Step></fmxmlsnippet>";
+
+        String out = pipeline(SnippetTransforms.rename(Map.of("Table", "T2"), Map.of("Table::Id", "Key")))
+                .transform(xml);
+
+        assertTrue(out.contains("<![CDATA[T2::Id Number & My Table::X & T2::Key and not T2::Key & T2::Other]]>"), out);
+    }
+
+    @Test
+    void rename_matchesWholeNamesThatContainSpaces() throws Exception {
+        String xml = "<fmxmlsnippet type=\"FMObjectList\"><Step enable=\"True\" id=\"76\" name=\"Set Field\"><Calculation><![CDATA["
+                + "My Table::Id Number + My Table::Id"
+                + "]]></Calculation></Step></fmxmlsnippet>";
+
+        String out = pipeline(SnippetTransforms.rename(Map.of("My Table", "Sales Lines"), Map.of("My Table::Id Number", "Line No")))
+                .transform(xml);
+
+        assertTrue(out.contains("<![CDATA[Sales Lines::Line No + Sales Lines::Id]]>"), out);
+    }
+
+    @Test
+    void remapIds_neverTouchesStepIds() throws Exception {
+        String out = pipeline(SnippetTransforms.remapIds(Set.of(), Map.of("1", "40", "3", "30", "76", "99")))
+                .transform(SCRIPT);
+
+        assertTrue(out.contains("<Script id=\"30\""), out);
+        assertTrue(out.contains("id=\"40\" name=\"First\""), out);
+        assertTrue(out.contains("id=\"76\" name=\"Set Field\""), out);
+    }
+
+    @Test
+    void filters_dropStepsAndTheirIndentation() throws Exception {
+        String out = pipeline(SnippetTransforms.stripCommentSteps(), SnippetTransforms.stripDisabledSteps())
+                .transform(SCRIPT);
+
+        assertFalse(out.contains("# Comment"), out);
+        assertFalse(out.contains("Set Variable"), out);
+        assertTrue(out.contains("<Script id=\"3\" name=\"S\">\n  <Step enable=\"True\" id=\"76\""), out);
+    }
+
+    @Test
+    void parseSpec_buildsStages_andReportsBadLines() throws Exception {
+        String spec = "# rename\ntable Contacts -> People\nfield Contacts::First -> GivenName\nid Script 3 -> 7\nstrip comment-steps\n";
+        String out = new FmSnippetTransformer(SnippetTransforms.parseSpec(spec)).transform(SCRIPT);
+
+        assertTrue(out.contains("<Script id=\"7\""), out);
+        assertTrue(out.contains("table=\"People\""), out);
+        assertFalse(out.contains("# Comment"), out);
+
+        ConversionException ex = assertThrows(ConversionException.class,
+                () -> SnippetTransforms.parseSpec("table A -> B\nrename X"));
+        assertTrue(ex.getMessage().contains("line 2"), ex.getMessage());
+        assertThrows(ConversionException.class, () -> SnippetTransforms.parseSpec("field NoTable -> X"));
+        assertThrows(ConversionException.class, () -> SnippetTransforms.parseSpec("  \n# only comments"));
+    }
+
+    @Test
+    void rejectsNonSnippetInput() {
+        assertThrows(ConversionException.class, () -> pipeline().transform("<root/>"));
+        assertThrows(ConversionException.class, () -> pipeline().transform("<fmxmlsnippet><a></fmxmlsnippet>"));
+    }
+}
@@ -0,0 +1,38 @@
+package dev.fmcuttingboard.fs;
+
+import dev.fmcuttingboard.fixtures.AllocationBudget;
+import dev.fmcuttingboard.fixtures.SnippetCorpus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ProjectFilesAllocationTest {
+
+    /** Writes go through fixed-size buffers; nothing may scale with the payload. */
+    private static final double WRITE_FACTOR = 0.0;
+    private static final long SLACK = 128 * 1024;
+
+    @Test
+    void createAndWriteCapture_doesNotCopyThePayload(@TempDir Path tmp) throws Exception {
+        assumeTrue(AllocationBudget.isSupported(), "Per-thread allocation counters not available");
+        String xml = new SnippetCorpus(38).snippet(SnippetCorpus.Kind.SCRIPT, 1 << 20);
+
+        AllocationBudget.assertWithin("createTimestampedXmlFile + writeUtf8", AllocationBudget.utf16Bytes(xml),
+                WRITE_FACTOR, SLACK, () -> {
+                    Path file = ProjectFiles.createTimestampedXmlFile(tmp);
+                    ProjectFiles.writeUtf8(file, xml);
+                    Files.delete(file);
+                    return file;
+                });
+
+        Path file = ProjectFiles.createTimestampedXmlFile(tmp);
+        ProjectFiles.writeUtf8(file, xml);
+        assertEquals(xml, Files.readString(file, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,94 @@
+package dev.fmcuttingboard.jfr;
+
+import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
+import dev.fmcuttingboard.fm.ConversionException;
+import dev.fmcuttingboard.fm.FmXmlParser;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineEventsTest {
+
+    private static final String SNIPPET = "<fmxmlsnippet type=\"FMObjectList\"><Script id=\"1\" name=\"S\">"
+            + "<Step enable=\"True\" id=\"89\" name=\"# Comment\"/></Script></fmxmlsnippet>";
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void conversionStagesEmitEventsWithSizesTypesAndOutcome() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            new ClipboardToXmlConverter().convert("noise " + SNIPPET);
+            assertThrows(ConversionException.class, () -> new ClipboardToXmlConverter().convert("no snippet here"));
+            new FmXmlParser().parse(SNIPPET);
+            assertThrows(ConversionException.class, () -> new FmXmlParser().parse("<root/>"));
+        });
+
+        List<RecordedEvent> normalize = named(events, "dev.fmcuttingboard.SnippetNormalize");
+        assertEquals(2, normalize.size());
+        assertEquals(PipelineEvent.OK, normalize.get(0).getString("outcome"));
+        assertEquals(SNIPPET.length() + 6, normalize.get(0).getInt("inputChars"));
+        assertEquals(SNIPPET.length(), normalize.get(0).getInt("outputChars"));
+        assertEquals(PipelineEvent.REJECTED, normalize.get(1).getString("outcome"));
+
+        List<RecordedEvent> classify = named(events, "dev.fmcuttingboard.SnippetClassify");
+        assertEquals(1, classify.size(), "only converted snippets are classified");
+        assertTrue(classify.get(0).getString("snippetTypes").contains("SCRIPTS"));
+
+        List<RecordedEvent> parse = named(events, "dev.fmcuttingboard.SnippetParse");
+        assertEquals(2, parse.size());
+        assertEquals(PipelineEvent.OK, parse.get(0).getString("outcome"));
+        assertEquals(SNIPPET.length(), parse.get(0).getInt("chars"));
+        assertEquals(PipelineEvent.REJECTED, parse.get(1).getString("outcome"));
+        assertNull(parse.get(1).getString("snippetTypes"));
+    }
+
+    @Test
+    void fileWriteEventResolvesOnDiskSize() throws Exception {
+        Path file = tmp.resolve("capture.xml");
+        List<RecordedEvent> events = record(() -> {
+            SnippetFileWriteEvent event = new SnippetFileWriteEvent();
+            event.begin();
+            Files.writeString(file, "é" + SNIPPET);
+            event.finish(file, SNIPPET.length() + 1, PipelineEvent.OK);
+        });
+
+        RecordedEvent write = named(events, "dev.fmcuttingboard.SnippetFileWrite").get(0);
+        assertEquals(file.toString(), write.getString("path"));
+        assertEquals(SNIPPET.length() + 2, write.getLong("bytes"));
+        assertEquals(PipelineEvent.OK, write.getString("outcome"));
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private List<RecordedEvent> record(Body body) throws Exception {
+        Path out = tmp.resolve("pipeline.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("SnippetNormalize", "SnippetClassify", "SnippetParse", "SnippetFileWrite")) {
+                recording.enable("dev.fmcuttingboard." + name);
+            }
+            recording.start();
+            body.run();
+            recording.stop();
+            recording.dump(out);
+        }
+        return RecordingFile.readAllEvents(out);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
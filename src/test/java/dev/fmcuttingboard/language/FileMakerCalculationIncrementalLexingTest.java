@@ -0,0 +1,153 @@
+package dev.fmcuttingboard.language;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.tree.IElementType;
+import dev.fmcuttingboard.fixtures.CalculationCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Incremental lexing the way the editor highlighter does it: after an edit, restart at the nearest
+ * earlier token that starts in the initial state, re-lex until the new tokens line up with the old
+ * ones again (same shifted offset and state), and keep the rest. The result must equal a full
+ * re-lex, and the re-lexed span must stay proportional to the edit rather than to the file.
+ */
+public class FileMakerCalculationIncrementalLexingTest {
+
+    /** Edits that open or close comments and strings are the ones that break naive restarts. */
+    private static final String[] INSERTS = {"/*", "*/", "*", "/", "//", "\"", "'", "\\", "\n", "\r\n", " ", "x",
+            "Let", "(", ")", "[", ";", "1.5e", "$", "$$v", "Case ( a ; \"b\" )", "/* note */", "\"a\nb\"", "≠"};
+
+    private record Token(int start, int end, IElementType type, int state) {
+        Token shift(int delta) {
+            return new Token(start + delta, end + delta, type, state);
+        }
+    }
+
+    private record Relex(List<Token> tokens, int relexedChars) {
+    }
+
+    @Test
+    public void lexerState_isInitialAtEveryTokenStart() {
+        String calc = new CalculationCorpus(41).calculation(50_000) + "\n/* unterminated";
+        for (Token t : lex(calc, 0)) {
+            assertEquals(0, t.state(), "Token " + t + " does not start in the initial state");
+        }
+    }
+
+    @Test
+    public void restartingAtAnyTokenStart_matchesTheFullLex() {
+        String calc = new CalculationCorpus(41).calculation(20_000);
+        List<Token> full = lex(calc, 0);
+        for (int i = 0; i < full.size(); i += 7) {
+            Token from = full.get(i);
+            List<Token> restarted = lex(calc, from.start(), from.state());
+            assertEquals(full.subList(i, full.size()), restarted, "Restart at " + from);
+        }
+    }
+
+    @Test
+    public void randomEdits_incrementalEqualsFullLex() {
+        SplittableRandom rnd = new SplittableRandom(20250101L);
+        StringBuilder text = new StringBuilder(new CalculationCorpus(41).calculation(20_000));
+        List<Token> tokens = lex(text, 0);
+        for (int i = 0; i < 2_000; i++) {
+            int start = rnd.nextInt(text.length() + 1);
+            int end = Math.min(text.length(), start + (rnd.nextInt(3) == 0 ? rnd.nextInt(40) : 0));
+            String insert = rnd.nextInt(4) == 0 ? "" : INSERTS[rnd.nextInt(INSERTS.length)];
+            text.replace(start, end, insert);
+
+            tokens = relex(text, tokens, start, end, insert.length()).tokens();
+            assertEquals(lex(text, 0), tokens, "Incremental tokens differ from a full lex after edit #" + i
+                    + " at " + start + ".." + end + " inserting '" + insert + "'");
+        }
+    }
+
+    @Test
+    public void relexedSpan_scalesWithTheEditNotTheFile() {
+        String calc = new CalculationCorpus(41).calculation(800_000);
+        assertTrue(calc.lines().count() >= 10_000, "expected a 10,000-line calculation");
+        List<Token> tokens = lex(calc, 0);
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int i = 0; i < 200; i++) {
+            // Typing in code; typing "x" into a comment's closing "*/" would legitimately re-lex far
+            Token target = tokens.get(rnd.nextInt(tokens.size()));
+            if (target.type() != FileMakerCalculationTokenType.IDENTIFIER && target.type() != FileMakerCalculationTokenType.WHITE_SPACE) {
+                continue;
+            }
+            int at = target.start() + rnd.nextInt(target.end() - target.start() + 1);
+            String insert = rnd.nextBoolean() ? "x" : " ";
+            String edited = calc.substring(0, at) + insert + calc.substring(at);
+            Relex r = relex(edited, tokens, at, at, insert.length());
+            // The edited token plus its neighbours; the longest token in the corpus is a short block comment
+            assertTrue(r.relexedChars() < 200, "Re-lexed " + r.relexedChars() + " chars for a one-char edit at " + at);
+        }
+    }
+
+    /**
+     * Re-lexes {@code text} after {@code [editStart, editEnd)} of the previous text was replaced by
+     * {@code insertedLength} characters, reusing {@code old} before and after the affected span.
+     */
+    private static Relex relex(CharSequence text, List<Token> old, int editStart, int editEnd, int insertedLength) {
+        int delta = insertedLength - (editEnd - editStart);
+        // Like the editor highlighter, start two tokens before the one containing the edit (an edit
+        // can merge with earlier tokens, e.g. "1.5e+" then "3"), then back up to the initial state.
+        int index = Math.max(0, tokenIndexAt(old, Math.max(0, editStart - 1)) - 2);
+        while (index > 0 && old.get(index).state() != 0) index--;
+        List<Token> result = new ArrayList<>(old.subList(0, index));
+        int restartOffset = index < old.size() ? old.get(index).start() : 0;
+        int restartState = index < old.size() ? old.get(index).state() : 0;
+
+        Lexer lexer = new FileMakerCalculationLexerAdapter();
+        lexer.start(text, restartOffset, text.length(), restartState);
+        int editEndInNewText = editStart + insertedLength;
+        int oldIndex = index;
+        while (lexer.getTokenType() != null) {
+            int start = lexer.getTokenStart();
+            int state = lexer.getState();
+            if (start > editEndInNewText) {
+                // Past the edit: stop once an old token starts at the same shifted offset and state
+                while (oldIndex < old.size() && old.get(oldIndex).start() + delta < start) oldIndex++;
+                if (oldIndex < old.size() && old.get(oldIndex).start() + delta == start && old.get(oldIndex).state() == state) {
+                    for (Token t : old.subList(oldIndex, old.size())) result.add(t.shift(delta));
+                    return new Relex(result, start - restartOffset);
+                }
+            }
+            result.add(new Token(start, lexer.getTokenEnd(), lexer.getTokenType(), state));
+            lexer.advance();
+        }
+        return new Relex(result, text.length() - restartOffset);
+    }
+
+    private static int tokenIndexAt(List<Token> tokens, int offset) {
+        int lo = 0;
+        int hi = tokens.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (tokens.get(mid).start() <= offset) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static List<Token> lex(CharSequence text, int from) {
+        return lex(text, from, 0);
+    }
+
+    private static List<Token> lex(CharSequence text, int from, int state) {
+        Lexer lexer = new FileMakerCalculationLexerAdapter();
+        lexer.start(text, from, text.length(), state);
+        List<Token> tokens = new ArrayList<>();
+        while (lexer.getTokenType() != null) {
+            tokens.add(new Token(lexer.getTokenStart(), lexer.getTokenEnd(), lexer.getTokenType(), lexer.getState()));
+            lexer.advance();
+        }
+        return tokens;
+    }
+}
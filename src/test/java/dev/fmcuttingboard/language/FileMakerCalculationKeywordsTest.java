@@ -0,0 +1,105 @@
+package dev.fmcuttingboard.language;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The keyword table behind the lexer's identifier rule: same classification as the former grammar
+ * alternations, the Notepad++ word lists and the function registry.
+ */
+public class FileMakerCalculationKeywordsTest {
+
+    private static final Path NOTEPAD_PLUS_PLUS = Path.of("resources", "FileMakerCalcs_InNotepadPlusPlus.xml");
+
+    @Test
+    public void classification_isCaseSensitiveLikeTheWordLists() {
+        assertEquals(FileMakerCalculationKeywords.Kind.CONTROL, FileMakerCalculationKeywords.classify("if"));
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify("If"));
+        assertNull(FileMakerCalculationKeywords.classify("IF"));
+        assertEquals(FileMakerCalculationKeywords.Kind.TYPE, FileMakerCalculationKeywords.classify("int"));
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify("Int"));
+        assertEquals(FileMakerCalculationKeywords.Kind.TYPE, FileMakerCalculationKeywords.classify("left"));
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify("Left"));
+        assertEquals(FileMakerCalculationKeywords.Kind.LOGICAL, FileMakerCalculationKeywords.classify("xor"));
+        // Listed as a style constant before the function list, as in the former grammar
+        assertEquals(FileMakerCalculationKeywords.Kind.TYPE, FileMakerCalculationKeywords.classify("Extend"));
+    }
+
+    @Test
+    public void classify_readsOnlyTheGivenRange() {
+        String text = "x = Abs(-1) & AbsValue & GetAsText";
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify(text, 4, 7));
+        assertNull(FileMakerCalculationKeywords.classify(text, 14, 22), "AbsValue");
+        assertNull(FileMakerCalculationKeywords.classify(text, 4, 6), "Ab");
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify(text, 25, 34));
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify(text, 25, 28), "Get");
+        assertNull(FileMakerCalculationKeywords.classify(text, 4, 4));
+    }
+
+    @Test
+    public void ordinaryIdentifiers_areNotKeywords() {
+        for (String word : List.of("total", "AccountName", "Get_", "Lefts", "x", "_", "JSONSetElements", "ABS")) {
+            assertNull(FileMakerCalculationKeywords.classify(word), word);
+        }
+    }
+
+    @Test
+    public void notepadPlusPlusWordLists_areClassified() throws Exception {
+        String xml = Files.readString(NOTEPAD_PLUS_PLUS, StandardCharsets.UTF_8);
+        assertAll(words(xml, "Words1"), FileMakerCalculationKeywords.Kind.CONTROL);
+        assertAll(words(xml, "Words2"), FileMakerCalculationKeywords.Kind.LOGICAL);
+        assertAll(words(xml, "Words3"), FileMakerCalculationKeywords.Kind.TYPE);
+        // Get(...) constants keep their argument an identifier; "Extend" is also a style constant
+        List<String> functions = words(xml, "Words4").stream()
+                .filter(w -> !w.contains("(") && !w.equals("Extend"))
+                .toList();
+        assertAll(functions, FileMakerCalculationKeywords.Kind.FUNCTION);
+        assertEquals(FileMakerCalculationKeywords.Kind.FUNCTION, FileMakerCalculationKeywords.classify("Get"));
+    }
+
+    @Test
+    public void registryFunctions_areClassifiedAsFunctions() {
+        // "Extend" is also a style constant, listed first
+        List<String> functions = FileMakerFunctionRegistry.getFunctionNames().stream()
+                .filter(w -> !w.equals("Extend"))
+                .toList();
+        assertAll(functions, FileMakerCalculationKeywords.Kind.FUNCTION);
+    }
+
+    @Test
+    public void generatedKeywordLists_shadowNoFunctionButExtend() {
+        // A constant spelled like a function would turn every call of it into a type keyword
+        for (String[] list : List.of(GeneratedFunctionCatalog.CONTROL_KEYWORDS, GeneratedFunctionCatalog.LOGICAL_KEYWORDS,
+                GeneratedFunctionCatalog.TYPE_KEYWORDS)) {
+            for (String word : list) {
+                if (!word.equals("Extend")) {
+                    assertFalse(FileMakerFunctionRegistry.getFunctionNames().contains(word), word);
+                }
+            }
+        }
+    }
+
+    private static void assertAll(List<String> words, FileMakerCalculationKeywords.Kind kind) {
+        if (words.isEmpty()) throw new AssertionError("No words to check for " + kind);
+        for (String word : words) {
+            assertEquals(kind, FileMakerCalculationKeywords.classify(word), word);
+        }
+    }
+
+    private static List<String> words(String xml, String list) {
+        Matcher m = Pattern.compile("<Keywords name=\"" + list + "\">([^<]*)</Keywords>").matcher(xml);
+        if (!m.find()) throw new AssertionError(list + " not found in " + NOTEPAD_PLUS_PLUS);
+        return Arrays.asList(m.group(1).trim().split("\\s+"));
+    }
+}
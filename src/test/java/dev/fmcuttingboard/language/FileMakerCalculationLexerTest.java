@@ -2,11 +2,14 @@ package dev.fmcuttingboard.language;
 
 import com.intellij.lexer.Lexer;
 import com.intellij.psi.tree.IElementType;
+import dev.fmcuttingboard.fixtures.CalculationCorpus;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -54,4 +57,26 @@ public class FileMakerCalculationLexerTest {
         assertTrue(names.contains("OPERATOR"), "Should recognize operators like ( ) ; = >");
         assertTrue(names.contains("IDENTIFIER"), "Should recognize identifiers such as variable names and field names");
     }
+
+    @Test
+    public void identifiers_areClassifiedThroughTheKeywordTable() {
+        List<IElementType> tokens = tokenize("if If int Int left Left Extend xor Get AccountName ABS $Left").stream()
+                .filter(t -> t != FileMakerCalculationTokenType.WHITE_SPACE)
+                .toList();
+        assertEquals(List.of(
+                FileMakerCalculationTokenType.KEYWORD_CONTROL, FileMakerCalculationTokenType.KEYWORD_FUNCTION,
+                FileMakerCalculationTokenType.KEYWORD_TYPE, FileMakerCalculationTokenType.KEYWORD_FUNCTION,
+                FileMakerCalculationTokenType.KEYWORD_TYPE, FileMakerCalculationTokenType.KEYWORD_FUNCTION,
+                FileMakerCalculationTokenType.KEYWORD_TYPE, FileMakerCalculationTokenType.KEYWORD_LOGICAL,
+                FileMakerCalculationTokenType.KEYWORD_FUNCTION, FileMakerCalculationTokenType.IDENTIFIER,
+                FileMakerCalculationTokenType.IDENTIFIER, FileMakerCalculationTokenType.IDENTIFIER), tokens);
+    }
+
+    @Test
+    public void generatedCalculations_lexWithoutBadCharacters() {
+        String calc = new CalculationCorpus(40).calculation(200_000);
+        List<IElementType> tokens = tokenize(calc);
+        assertFalse(tokens.contains(FileMakerCalculationTokenType.BAD_CHARACTER));
+        assertTrue(tokens.contains(FileMakerCalculationTokenType.KEYWORD_FUNCTION));
+    }
 }
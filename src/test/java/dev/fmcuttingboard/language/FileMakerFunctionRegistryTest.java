@@ -0,0 +1,111 @@
+package dev.fmcuttingboard.language;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The registry over the build-time generated catalog: full coverage of the bundled catalogs,
+ * hand-written entries winning over snippet-derived ones, and the case-insensitive index.
+ */
+public class FileMakerFunctionRegistryTest {
+
+    @Test
+    public void catalog_coversEverySnippetAndWordListFunction() throws IOException {
+        assertTrue(FileMakerFunctionRegistry.size() >= 200, "Expected the full catalog, got " + FileMakerFunctionRegistry.size());
+        for (String name : FunctionMetadataLoader.extractSnippetFunctionNames(snippets())) {
+            if (name.startsWith("Get(")) continue;
+            assertNotNull(FileMakerFunctionRegistry.findByName(name), name);
+        }
+        String xml = Files.readString(Path.of("resources", "FileMakerCalcs_InNotepadPlusPlus.xml"), StandardCharsets.UTF_8);
+        for (String word : FunctionMetadataLoader.extractNotepadPlusPlusWords(xml, "Words4")) {
+            if (word.startsWith("Get(")) {
+                assertTrue(FileMakerFunctionRegistry.getGetConstants().contains(word.substring(4, word.length() - 1)), word);
+            } else {
+                assertNotNull(FileMakerFunctionRegistry.findByName(word), word);
+            }
+        }
+    }
+
+    @Test
+    public void findByName_ignoresCaseAndReturnsTheSameEntry() {
+        for (String name : FileMakerFunctionRegistry.getFunctionNames()) {
+            FunctionMetadata meta = FileMakerFunctionRegistry.findByName(name);
+            assertNotNull(meta, name);
+            assertEquals(name, meta.getName());
+            assertSame(meta, FileMakerFunctionRegistry.findByName(name.toUpperCase(Locale.ROOT)), name);
+            assertSame(meta, FileMakerFunctionRegistry.findByName(name.toLowerCase(Locale.ROOT)), name);
+        }
+        assertNull(FileMakerFunctionRegistry.findByName("NoSuchFunction"));
+        assertNull(FileMakerFunctionRegistry.findByName(""));
+        assertNull(FileMakerFunctionRegistry.findByName("Get(AccountName)"));
+    }
+
+    @Test
+    public void handWrittenEntries_winOverSnippetDerivedOnes() {
+        // Snippet-derived entries are untyped; the hand-written ones keep their types and optional parameters
+        FunctionMetadata left = FileMakerFunctionRegistry.findByName("Left");
+        assertEquals("Text", left.getReturnType());
+        assertEquals(FileMakerFunctionRegistry.CAT_TEXT, left.getCategory());
+        assertEquals("If(test; resultTrue; [resultFalse])", FileMakerFunctionRegistry.findByName("if").getSignature());
+        // The snippet lists two fixed results; Choose takes any number
+        assertTrue(FileMakerFunctionRegistry.findByName("Choose").getParameters().get(2).isRepeating());
+    }
+
+    @Test
+    public void snippetDerivedEntries_keepOptionalAndRepeatingParameters() {
+        FunctionMetadata factorial = FileMakerFunctionRegistry.findByName("Factorial");
+        assertEquals("Factorial(number; [numberOfFactors])", factorial.getSignature());
+        assertEquals(FileMakerFunctionRegistry.CAT_MATH, factorial.getCategory());
+        FunctionMetadata max = FileMakerFunctionRegistry.findByName("Max");
+        assertEquals("Max(field1; [field2...])", max.getSignature());
+        assertEquals("Random()", FileMakerFunctionRegistry.findByName("Random").getSignature());
+        assertEquals("FieldNames(fileName; layoutName)", FileMakerFunctionRegistry.findByName("FieldNames").getSimpleSignature());
+    }
+
+    @Test
+    public void getConstants_areNotFunctions() {
+        List<String> constants = FileMakerFunctionRegistry.getGetConstants();
+        assertTrue(constants.size() >= 100, "Expected the Get() constants, got " + constants.size());
+        assertTrue(constants.containsAll(List.of("AccountName", "WindowWidth", "UUID", "LastError")));
+        assertEquals(constants.size(), new HashSet<>(constants).size(), "duplicate constants");
+        Set<String> functions = FileMakerFunctionRegistry.getFunctionNames();
+        assertTrue(functions.contains("Get"));
+        for (String constant : constants) {
+            assertFalse(functions.contains(constant), constant);
+        }
+    }
+
+    @Test
+    public void categories_groupTheCatalog() {
+        assertTrue(FileMakerFunctionRegistry.getByCategory(FileMakerFunctionRegistry.CAT_FINANCIAL)
+                .contains(FileMakerFunctionRegistry.findByName("PMT")));
+        assertTrue(FileMakerFunctionRegistry.getByCategory(FileMakerFunctionRegistry.CAT_JSON)
+                .contains(FileMakerFunctionRegistry.findByName("JSONSetElement")));
+        int total = 0;
+        Set<String> seen = new HashSet<>();
+        for (FunctionMetadata meta : FileMakerFunctionRegistry.getAll()) {
+            if (seen.add(meta.getCategory())) total += FileMakerFunctionRegistry.getByCategory(meta.getCategory()).size();
+        }
+        assertEquals(FileMakerFunctionRegistry.size(), total);
+        assertTrue(FileMakerFunctionRegistry.getByCategory("No such category").isEmpty());
+    }
+
+    private static String snippets() throws IOException {
+        return Files.readString(FunctionMetadataLoaderTest.SNIPPETS, StandardCharsets.UTF_8);
+    }
+}
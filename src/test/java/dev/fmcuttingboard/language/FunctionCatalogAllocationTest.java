@@ -0,0 +1,110 @@
+package dev.fmcuttingboard.language;
+
+import dev.fmcuttingboard.fixtures.AllocationBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Heap footprint of the function catalog once every function, category and name has been used.
+ * Everything built here stays reachable from the catalog, so the bytes allocated building it are its
+ * retained heap (the pooled strings and the generated tables are shared and not counted on either
+ * side). The eager model the registry used before, one object graph per function plus a name set and
+ * a category map, is rebuilt from the same data as the baseline.
+ */
+class FunctionCatalogAllocationTest {
+
+    /** Measured at about a quarter of the eager model; a copy of any table or list would exceed this. */
+    private static final double MAX_SHARE_OF_EAGER = 0.4;
+
+    @BeforeEach
+    void requireAllocationCounters() {
+        assumeTrue(AllocationBudget.isSupported(), "Per-thread allocation counters not available");
+    }
+
+    @Test
+    void fullyUsedCatalog_retainsFarLessThanTheEagerModel() throws Exception {
+        FunctionCatalog source = new FunctionCatalog();
+        List<FunctionMetadata> all = source.all();
+        String[] names = new String[all.size()];
+        String[] categories = new String[all.size()];
+        String[] returnTypes = new String[all.size()];
+        String[] descriptions = new String[all.size()];
+        FunctionParameter[][] parameters = new FunctionParameter[all.size()][];
+        for (int i = 0; i < all.size(); i++) {
+            FunctionMetadata m = all.get(i);
+            names[i] = m.getName();
+            categories[i] = m.getCategory();
+            returnTypes[i] = m.getReturnType();
+            descriptions[i] = m.getDescription();
+            parameters[i] = m.getParameters().toArray(new FunctionParameter[0]);
+        }
+        Set<String> distinctCategories = new LinkedHashSet<>(Arrays.asList(categories));
+        String[] constants = source.getConstants().toArray(new String[0]);
+
+        long eager = AllocationBudget.measure(() -> {
+            List<FunctionMetadata> entries = new ArrayList<>(names.length);
+            Set<String> nameSet = new LinkedHashSet<>();
+            Map<String, List<FunctionMetadata>> byCategory = new LinkedHashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                FunctionParameter[] copies = new FunctionParameter[parameters[i].length];
+                for (int p = 0; p < copies.length; p++) {
+                    FunctionParameter param = parameters[i][p];
+                    copies[p] = new FunctionParameter(param.getName(), param.getType(), param.isOptional(), param.isRepeating());
+                }
+                FunctionMetadata m = new FunctionMetadata(names[i], Arrays.asList(copies), categories[i], returnTypes[i], descriptions[i]);
+                entries.add(m);
+                nameSet.add(m.getName());
+                byCategory.computeIfAbsent(m.getCategory(), k -> new ArrayList<>()).add(m);
+            }
+            byCategory.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            return new Object[]{entries, Collections.unmodifiableSet(nameSet), Collections.unmodifiableMap(byCategory), List.of(constants)};
+        });
+
+        long compact = AllocationBudget.measure(() -> {
+            FunctionCatalog catalog = new FunctionCatalog();
+            int total = 0;
+            for (FunctionMetadata m : catalog.all()) total += m.getParameters().size();
+            for (String category : distinctCategories) total += catalog.byCategory(category).size();
+            total += catalog.names().size() + catalog.getConstants().size();
+            return new Object[]{catalog, total};
+        });
+
+        System.out.println("[DEBUG_LOG] Function catalog retained heap: eager " + eager + " bytes, compact " + compact
+                + " bytes for " + names.length + " functions");
+        assertTrue(compact <= eager * MAX_SHARE_OF_EAGER,
+                "Compact catalog allocated " + compact + " bytes, eager model " + eager);
+    }
+
+    @Test
+    void views_matchTheTables() {
+        FunctionCatalog catalog = new FunctionCatalog();
+        FunctionMetadata ifFunction = catalog.find("IF");
+        assertEquals("If(test; resultTrue; [resultFalse])", ifFunction.getSignature());
+        assertEquals(FileMakerFunctionRegistry.CAT_LOGICAL, ifFunction.getCategory());
+        assertTrue(catalog.byCategory(FileMakerFunctionRegistry.CAT_LOGICAL).contains(ifFunction));
+        assertTrue(catalog.names().contains("If"));
+        assertTrue(!catalog.names().contains("if"), "the name set is exact, like a HashSet of the names");
+        assertEquals(new ArrayList<>(catalog.names()), catalog.all().stream().map(FunctionMetadata::getName).toList());
+        int grouped = 0;
+        for (String category : new LinkedHashSet<>(catalog.all().stream().map(FunctionMetadata::getCategory).toList())) {
+            for (FunctionMetadata m : catalog.byCategory(category)) {
+                assertEquals(category, m.getCategory());
+                grouped++;
+            }
+        }
+        assertEquals(FunctionCatalog.COUNT, grouped);
+    }
+}
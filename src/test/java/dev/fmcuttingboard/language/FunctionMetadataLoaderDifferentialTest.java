@@ -0,0 +1,193 @@
+package dev.fmcuttingboard.language;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The streaming snippet parser against the regex scanner it replaced, kept here as the reference:
+ * both must produce the same functions (names, parameters, flags) for the bundled snippets and for
+ * generated files full of escapes, braces inside strings, array bodies and variant keys.
+ */
+public class FunctionMetadataLoaderDifferentialTest {
+
+    @Test
+    public void bundled_snippets_parse_like_the_regex_scanner() throws IOException {
+        String text = Files.readString(FunctionMetadataLoaderTest.SNIPPETS, StandardCharsets.UTF_8);
+        List<String> expected = RegexReference.parse(text);
+        assertTrue(expected.size() >= 200, "Reference parsed only " + expected.size());
+        assertEquals(expected, describe(FunctionMetadataLoader.parseVsCodeSnippets(text)));
+        assertEquals(RegexReference.names(text), FunctionMetadataLoader.extractSnippetFunctionNames(text));
+    }
+
+    @Test
+    public void generated_snippets_parse_like_the_regex_scanner() {
+        for (long seed = 1; seed <= 50; seed++) {
+            String text = generate(new Random(seed));
+            assertEquals(RegexReference.parse(text), describe(FunctionMetadataLoader.parseVsCodeSnippets(text)), "seed " + seed);
+            assertEquals(RegexReference.names(text), FunctionMetadataLoader.extractSnippetFunctionNames(text), "seed " + seed);
+        }
+    }
+
+    private static List<String> describe(List<FunctionMetadata> functions) {
+        List<String> out = new ArrayList<>();
+        for (FunctionMetadata m : functions) {
+            out.add(m.getName() + m.getParameters() + " " + m.getCategory() + "/" + m.getReturnType());
+        }
+        return out;
+    }
+
+    private static final String[] EXTRAS = {
+            "plain text", "quote \\\" inside", "back\\\\slash", "braces { } and ] inside", "tab\\t and newline\\n",
+            "unicode \\u00e9\\u0041", "slash \\/ escaped", "semi ; colon : pipe |"
+    };
+
+    /** A snippet file in the shape of the bundled one, with the awkward cases sprinkled in. */
+    private static String generate(Random random) {
+        StringBuilder sb = new StringBuilder("{\n");
+        int entries = 20 + random.nextInt(40);
+        for (int i = 0; i < entries; i++) {
+            String name = "Fn" + random.nextInt(30);
+            String key = random.nextInt(4) == 0 ? name + " [variant " + i + "]" : name;
+            if (i > 0) sb.append(",\n");
+            sb.append("  \"").append(key).append("\": {\n");
+            if (random.nextInt(8) != 0) sb.append("    \"prefix\": \"").append(name).append("\",\n");
+            sb.append("    \"description\": \"").append(EXTRAS[random.nextInt(EXTRAS.length)]).append("\",\n");
+            String body = body(random, name);
+            if (random.nextBoolean()) {
+                sb.append("    \"body\": \"").append(body).append('"');
+            } else {
+                sb.append("    \"body\": [\n      \"").append(body).append("\",\n      \"$0\"\n    ]");
+            }
+            if (random.nextBoolean()) {
+                sb.append(",\n    \"scope\": \"").append(EXTRAS[random.nextInt(EXTRAS.length)]).append('"');
+            }
+            sb.append("\n  }");
+        }
+        return sb.append("\n}\n").toString();
+    }
+
+    private static String body(Random random, String name) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return name;
+            case 1:
+                return "// " + EXTRAS[random.nextInt(EXTRAS.length)];
+            default:
+                break;
+        }
+        StringBuilder sb = new StringBuilder(name).append(" ( ");
+        int required = 1 + random.nextInt(3);
+        int tab = 1;
+        for (int p = 0; p < required; p++) {
+            if (p > 0) sb.append(" ; ");
+            switch (random.nextInt(4)) {
+                case 0 -> sb.append("\\\"${").append(tab++).append(":quoted").append(p).append("}\\\"");
+                case 1 -> sb.append("${").append(tab++).append(":choice").append(p).append(" | other}");
+                case 2 -> sb.append("${").append(tab++).append(":Get ( FileName )}");
+                default -> sb.append("${").append(tab++).append(":arg").append(p).append('}');
+            }
+        }
+        if (random.nextBoolean()) {
+            sb.append("${").append(tab++).append(": ; ${").append(tab++).append(":more...}}");
+        }
+        return sb.append(" )").toString();
+    }
+
+    /** The regex-based parser that shipped before the streaming reader. */
+    private static final class RegexReference {
+        static final Pattern ENTRY = Pattern.compile(
+                "\"([^\"]+)\"\\s*:\\s*\\{((?:[^{}\"]++|\"(?:[^\"\\\\]++|\\\\.)*+\")*+)\\}");
+        static final Pattern BODY_STRING = Pattern.compile("\"body\"\\s*:\\s*\"((?:[^\"\\\\]++|\\\\.)*+)\"");
+        static final Pattern BODY_ARRAY = Pattern.compile(
+                "\"body\"\\s*:\\s*\\[((?:[^\\]\"]++|\"(?:[^\"\\\\]++|\\\\.)*+\")*+)]");
+        static final Pattern STRING = Pattern.compile("\"((?:[^\"\\\\]++|\\\\.)*+)\"");
+        static final Pattern NAME = Pattern.compile(
+                "\\\"([^\\\"]+)\\\"\\s*:\\s*\\{[^}]*?\\\"prefix\\\"\\s*:\\s*\\\".*?\\\"", Pattern.DOTALL);
+
+        static List<String> parse(String json) {
+            List<String> out = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            Matcher entry = ENTRY.matcher(json);
+            while (entry.find()) {
+                String rawName = entry.group(1);
+                String name = rawName.contains(" ") ? rawName.substring(0, rawName.indexOf(' ')) : rawName;
+                String body = body(entry.group(2));
+                if (body == null) continue;
+                int lp = body.indexOf('(');
+                int rp = body.lastIndexOf(')');
+                List<FunctionParameter> params;
+                if (lp >= 0 && rp > lp) {
+                    params = FunctionMetadataLoader.parseSnippetParameters(body.substring(lp + 1, rp));
+                } else if (body.replace("$0", "").trim().equals(name)) {
+                    params = List.of();
+                } else {
+                    continue;
+                }
+                if (seen.add(name)) out.add(name + params + " Unknown/Any");
+            }
+            return out;
+        }
+
+        static Set<String> names(String json) {
+            Set<String> names = new LinkedHashSet<>();
+            Matcher m = NAME.matcher(json);
+            while (m.find()) {
+                String key = m.group(1);
+                names.add(key.contains(" ") ? key.substring(0, key.indexOf(' ')) : key);
+            }
+            return names;
+        }
+
+        private static String body(String obj) {
+            Matcher string = BODY_STRING.matcher(obj);
+            if (string.find()) return unescape(string.group(1));
+            Matcher array = BODY_ARRAY.matcher(obj);
+            if (array.find()) {
+                Matcher item = STRING.matcher(array.group(1));
+                StringBuilder sb = new StringBuilder();
+                while (item.find()) sb.append(unescape(item.group(1))).append('\n');
+                return sb.toString();
+            }
+            return null;
+        }
+
+        private static String unescape(String s) {
+            StringBuilder sb = new StringBuilder(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c != '\\' || i + 1 == s.length()) {
+                    sb.append(c);
+                    continue;
+                }
+                char e = s.charAt(++i);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    default -> sb.append(e);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -6,8 +6,10 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -18,20 +20,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 public class FunctionMetadataLoaderTest {
 
+    static final Path SNIPPETS = Path.of("resources", "filemaker_functions.json");
+
     @Test
     public void extracts_many_function_names_from_vscode_snippets() throws IOException {
-        // Load our committed copy of the VSCode snippets (renamed and stored at repo root resources)
-        // See resources/filemaker_functions.json
-        String resourcePath = "/filemaker_functions.json";
-        String text;
-        var in = FunctionMetadataLoaderTest.class.getResourceAsStream(resourcePath);
-        if (in != null) {
-            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
-        } else {
-            // Fallback to repo-relative path for local runs
-            Path json = Path.of("resources", "filemaker_functions.json");
-            text = Files.readString(json, StandardCharsets.UTF_8);
-        }
+        // Load our committed copy of the VSCode snippets (renamed and stored at repo root resources),
+        // the same file generateFunctionCatalog reads
+        String text = Files.readString(SNIPPETS, StandardCharsets.UTF_8);
 
         Set<String> names = FunctionMetadataLoader.extractSnippetFunctionNames(text);
 
@@ -47,4 +42,41 @@ public class FunctionMetadataLoaderTest {
         assertTrue(names.contains("GetLayoutObjectAttribute"), "Should include 'GetLayoutObjectAttribute'");
         assertTrue(names.contains("Get(WindowWidth)"), "Should include 'Get(WindowWidth)'");
     }
+
+    @Test
+    public void parses_every_snippet_into_function_metadata() throws IOException {
+        String text = Files.readString(SNIPPETS, StandardCharsets.UTF_8);
+        List<FunctionMetadata> functions = FunctionMetadataLoader.parseVsCodeSnippets(text);
+
+        // Every distinct snippet name, variants such as "Case [inline]" folded into one
+        assertEquals(FunctionMetadataLoader.extractSnippetFunctionNames(text).size(), functions.size());
+        assertTrue(functions.size() >= 200, "Expected at least 200 functions, got " + functions.size());
+    }
+
+    @Test
+    public void derives_parameters_from_snippet_placeholders() {
+        assertEquals("[test, resultTrue, [resultFalse]]",
+                FunctionMetadataLoader.parseSnippetParameters(" ${1:test} ; ${2:resultTrue}${3: ; ${4:resultFalse}} ").toString());
+        // Nested optional tails, a quoted placeholder and a choice list
+        assertEquals("[objectName, objectType, [repetitionNumber], [portalRowNumber]]",
+                FunctionMetadataLoader.parseSnippetParameters(" ${1:\"${2:objectName}\"} ; \"${3:objectType | hasFocus}\""
+                        + "${4: ; ${5:repetitionNumber}${6: ; ${7:portalRowNumber}}} ").toString());
+        assertEquals("[sqlQuery, fieldSeparator, rowSeparator, [arguments...]]",
+                FunctionMetadataLoader.parseSnippetParameters(" ${1:sqlQuery} ; ${2:fieldSeparator} ; ${3:rowSeparator}${4: ; arguments...} ").toString());
+        // An expression as the default names the argument after it
+        assertEquals("[fileName, layoutName]",
+                FunctionMetadataLoader.parseSnippetParameters(" ${1:Get ( FileName )} ; ${2:layoutName} ").toString());
+        // Semicolons inside brackets and strings do not separate arguments
+        assertEquals(2, FunctionMetadataLoader.parseSnippetParameters(" ${1:text} ; [ ${2:a} ; ${3:b} ] ").size());
+        assertEquals(1, FunctionMetadataLoader.parseSnippetParameters(" \"a ; b\" ").size());
+    }
+
+    @Test
+    public void snippet_without_parentheses_is_a_function_without_parameters() {
+        String json = "{ \"Random\": { \"prefix\": \"Random\", \"body\": \"Random\" },"
+                + " \"Note\": { \"prefix\": \"n\", \"body\": \"// a {braced} note\" } }";
+        List<FunctionMetadata> functions = FunctionMetadataLoader.parseVsCodeSnippets(json);
+        assertEquals(1, functions.size());
+        assertEquals("Random()", functions.get(0).getSignature());
+    }
 }
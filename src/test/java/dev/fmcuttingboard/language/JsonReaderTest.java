@@ -0,0 +1,96 @@
+package dev.fmcuttingboard.language;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The streaming reader behind {@link FunctionMetadataLoader}: token order, string decoding, the
+ * lenient VS Code extras and error positions.
+ */
+public class JsonReaderTest {
+
+    @Test
+    public void reads_objects_and_arrays_in_document_order() {
+        JsonReader reader = new JsonReader("{ \"a\": [\"x\", \"y\"], \"b\": {} }");
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.beginArray();
+        List<String> items = new ArrayList<>();
+        while (reader.hasNext()) items.add(reader.nextString());
+        reader.endArray();
+        assertEquals(List.of("x", "y"), items);
+        assertEquals("b", reader.nextName());
+        reader.beginObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void decodes_escapes() {
+        JsonReader reader = new JsonReader("[\"plain\", \"q\\\" b\\\\ s\\/ n\\n t\\t \\u0041\\u00e9\"]");
+        reader.beginArray();
+        assertEquals("plain", reader.nextString());
+        assertEquals("q\" b\\ s/ n\n t\t A\u00e9", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    public void accepts_comments_trailing_commas_and_a_byte_order_mark() {
+        String json = "\uFEFF// snippets\n{ /* first */ \"a\": \"x\", \"b\": [1, 2,], }";
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        assertEquals("x", reader.nextString());
+        assertEquals("b", reader.nextName());
+        reader.skipValue();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void skipValue_skips_nested_containers_and_literals() {
+        JsonReader reader = new JsonReader("{ \"skip\": { \"n\": [1.5e3, -2, true, null, { \"s\": \"} ]\" }] }, \"keep\": false, \"last\": \"z\" }");
+        reader.beginObject();
+        assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        assertEquals("keep", reader.nextName());
+        assertEquals(JsonReader.Token.LITERAL, reader.peek());
+        reader.skipValue();
+        assertEquals("last", reader.nextName());
+        assertEquals("z", reader.nextString());
+        reader.endObject();
+    }
+
+    @Test
+    public void malformed_input_reports_line_and_column() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {
+            JsonReader reader = new JsonReader("{\n  \"a\": \"x\"\n  \"b\": 1 }");
+            reader.beginObject();
+            reader.nextName();
+            reader.nextString();
+            reader.peek();
+        });
+        assertTrue(e.getMessage().contains("line 3, column 3"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> {
+            JsonReader reader = new JsonReader("[\"open");
+            reader.beginArray();
+            reader.nextString();
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            JsonReader reader = new JsonReader("{} {}");
+            reader.beginObject();
+            reader.endObject();
+            reader.peek();
+        });
+    }
+}
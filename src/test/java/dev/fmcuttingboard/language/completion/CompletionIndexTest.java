@@ -0,0 +1,116 @@
+package dev.fmcuttingboard.language.completion;
+
+import dev.fmcuttingboard.language.FileMakerFunctionRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The completion index: case-insensitive prefix matches first, then camel-hump matches, and the same
+ * answers as a plain scan of every name.
+ */
+public class CompletionIndexTest {
+
+    private static final List<String> NAMES = List.of(
+            "GetAsText", "GetLayoutObjectAttribute", "GetValue", "Get", "JSONSetElement", "JSONGetElement",
+            "Left", "LeftWords", "Length", "Base64Encode", "GetAsURLEncoded", "Lower");
+
+    @Test
+    public void prefix_matches_ignore_case_and_come_first() {
+        CompletionIndex index = new CompletionIndex(NAMES);
+        assertEquals(List.of("Left", "LeftWords"), names(index, "lef"));
+        assertEquals(List.of("Get", "GetAsText", "GetAsURLEncoded", "GetLayoutObjectAttribute", "GetValue"), names(index, "GET"));
+        assertEquals(List.of(), names(index, "Nothing"));
+        assertEquals(NAMES, names(index, ""));
+    }
+
+    @Test
+    public void camel_humps_match_initials_and_partial_humps() {
+        CompletionIndex index = new CompletionIndex(NAMES);
+        assertEquals(List.of("GetLayoutObjectAttribute"), names(index, "gloa"));
+        assertEquals(List.of("GetLayoutObjectAttribute"), names(index, "GLOA"));
+        assertEquals(List.of("JSONSetElement"), names(index, "JSE"));
+        assertEquals(List.of("JSONSetElement"), names(index, "JSet"));
+        assertEquals(List.of("GetLayoutObjectAttribute"), names(index, "GetLayObjAttr"));
+        // Pattern humps may skip humps of the name
+        assertEquals(List.of("GetLayoutObjectAttribute"), names(index, "GetObAt"));
+        assertEquals(List.of("GetAsURLEncoded"), names(index, "GAUE"));
+        // Prefix matches stay ahead of hump matches: "gat" is GetAsText's initials and nobody's prefix
+        assertEquals(List.of("GetAsText"), names(index, "gat"));
+        assertEquals(List.of("Left", "LeftWords", "Length"), names(index, "le"));
+        assertEquals(List.of("LeftWords"), names(index, "lw"));
+    }
+
+    @Test
+    public void humps_split_at_case_changes_acronyms_and_digits() {
+        assertEquals("gloa", CompletionIndex.initials("GetLayoutObjectAttribute"));
+        assertEquals("jse", CompletionIndex.initials("JSONSetElement"));
+        assertEquals("gaue", CompletionIndex.initials("GetAsURLEncoded"));
+        assertEquals("be", CompletionIndex.initials("Base64Encode"));
+        assertEquals("gw", CompletionIndex.initials("Get(WindowWidth)").substring(0, 2));
+        assertTrue(CompletionIndex.matchesHumps("Base64Encode", "BEnc"));
+        assertFalse(CompletionIndex.matchesHumps("GetValue", "Value"), "the first hump is anchored");
+    }
+
+    @Test
+    public void answers_like_a_full_scan_over_the_catalog_and_a_large_generated_list() {
+        List<String> catalog = new ArrayList<>(FileMakerFunctionRegistry.getFunctionNames());
+        assertSameAsScan(catalog, new Random(1));
+        assertSameAsScan(FileMakerFunctionRegistry.getGetConstants(), new Random(2));
+        assertSameAsScan(generated(5000, new Random(3)), new Random(4));
+    }
+
+    private static void assertSameAsScan(List<String> names, Random random) {
+        CompletionIndex index = new CompletionIndex(names);
+        for (int q = 0; q < 300; q++) {
+            String name = names.get(random.nextInt(names.size()));
+            String pattern = switch (random.nextInt(3)) {
+                case 0 -> name.substring(0, 1 + random.nextInt(name.length()));
+                case 1 -> CompletionIndex.initials(name).substring(0, 1 + random.nextInt(CompletionIndex.initials(name).length()));
+                default -> name.substring(0, 1 + random.nextInt(Math.min(3, name.length()))) + name.substring(name.length() / 2);
+            };
+            if (random.nextBoolean()) pattern = pattern.toLowerCase(Locale.ROOT);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                String candidate = names.get(i);
+                if (candidate.toLowerCase(Locale.ROOT).startsWith(pattern.toLowerCase(Locale.ROOT))
+                        || CompletionIndex.initials(candidate).startsWith(pattern.toLowerCase(Locale.ROOT))
+                        || CompletionIndex.matchesHumps(candidate, pattern)) {
+                    expected.add(i);
+                }
+            }
+            int[] actual = index.match(pattern);
+            assertEquals(expected.size(), actual.length, "pattern " + pattern);
+            int[] sorted = actual.clone();
+            Arrays.sort(sorted);
+            assertEquals(expected, Arrays.stream(sorted).boxed().toList(), "pattern " + pattern);
+        }
+    }
+
+    static List<String> generated(int count, Random random) {
+        String[] words = {"Get", "Set", "Layout", "Object", "Attribute", "Value", "JSON", "Element", "Text", "As",
+                "Window", "Width", "Record", "Count", "Field", "Name", "List", "Sort", "Filter", "Encode", "URL"};
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            int humps = 1 + random.nextInt(4);
+            for (int h = 0; h < humps; h++) sb.append(words[random.nextInt(words.length)]);
+            names.add(sb.append(i).toString());
+        }
+        return names;
+    }
+
+    private static List<String> names(CompletionIndex index, String pattern) {
+        List<String> out = new ArrayList<>();
+        for (int i : index.match(pattern)) out.add(NAMES.get(i));
+        return out;
+    }
+}
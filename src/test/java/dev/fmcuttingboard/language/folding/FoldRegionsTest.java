@@ -0,0 +1,81 @@
+package dev.fmcuttingboard.language.folding;
+
+import com.intellij.lexer.Lexer;
+import dev.fmcuttingboard.language.FileMakerCalculationLexerAdapter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fold regions from the lexer's tokens: nested calls at every level, parentheses in strings and
+ * comments ignored, the extended set of folding functions in any case, comments and long strings.
+ */
+public class FoldRegionsTest {
+
+    private static List<String> folds(String text) {
+        List<String> folded = new ArrayList<>();
+        for (FoldRegions.Region region : regions(text)) {
+            folded.add(text.substring(region.start(), region.end()));
+        }
+        return folded;
+    }
+
+    private static List<FoldRegions.Region> regions(String text) {
+        FoldRegions regions = new FoldRegions();
+        Lexer lexer = new FileMakerCalculationLexerAdapter();
+        lexer.start(text);
+        while (lexer.getTokenType() != null) {
+            regions.token(lexer.getTokenType(), text.subSequence(lexer.getTokenStart(), lexer.getTokenEnd()), lexer.getTokenStart());
+            lexer.advance();
+        }
+        return regions.regions();
+    }
+
+    @Test
+    public void nestedCalls_foldAtEveryLevel() {
+        assertEquals(List.of(" b ; 1 ; 2 ", " a ; If ( b ; 1 ; 2 ) ", " x = Case ( a ; If ( b ; 1 ; 2 ) ) ; x "),
+                folds("Let ( x = Case ( a ; If ( b ; 1 ; 2 ) ) ; x )"));
+    }
+
+    @Test
+    public void parenthesesInStringsAndComments_areIgnored() {
+        String calc = "Let ( s = \")(\" ; /* ) ( */ s & \"Case(\" ) // If (";
+        assertEquals(List.of(" s = \")(\" ; /* ) ( */ s & \"Case(\" "), folds(calc));
+    }
+
+    @Test
+    public void foldingFunctions_matchInAnyCase() {
+        assertEquals(List.of(" i < 10 ; i = i + 1 ; i "), folds("while ( i < 10 ; i = i + 1 ; i )"));
+        assertEquals(List.of(" \"SELECT 1\" ; \"\" ; \"\" "), folds("EXECUTESQL /* q */ ( \"SELECT 1\" ; \"\" ; \"\" )"));
+        assertEquals(List.of("\"{}\" ; \"a\" ; 1 ; JSONNumber"), folds("jsonSetElement(\"{}\" ; \"a\" ; 1 ; JSONNumber)"));
+        assertEquals(List.of(), folds("Abs ( -1234 ) + Substitute ( t ; \"a\" ; \"b\" ) + If(x)"));
+    }
+
+    @Test
+    public void multiLineCommentsAndLongStrings_fold() {
+        String longString = "x".repeat(FoldRegions.LONG_STRING);
+        String calc = "/* one line */ /* two\nlines */ \"" + longString + "\" & \"short\"";
+        List<FoldRegions.Region> regions = regions(calc);
+        assertEquals(List.of("/* two\nlines */", longString), folds(calc));
+        assertEquals("/*...*/", regions.get(0).placeholder());
+        assertEquals("...", regions.get(1).placeholder());
+    }
+
+    @Test
+    public void deepNesting_isLinear() {
+        int depth = 10_000;
+        String calc = "Let ( x = 1 ; ".repeat(depth) + "x" + " )".repeat(depth);
+        long start = System.nanoTime();
+        List<FoldRegions.Region> regions = regions(calc);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[DEBUG_LOG] " + depth + " nested Let() folded in " + elapsedMs + " ms");
+        assertEquals(depth, regions.size());
+        // Innermost first; the outermost spans everything inside its parentheses
+        assertEquals(calc.length() - 1, regions.get(depth - 1).end());
+        assertTrue(elapsedMs < 2_000, "Folding took " + elapsedMs + " ms");
+    }
+}
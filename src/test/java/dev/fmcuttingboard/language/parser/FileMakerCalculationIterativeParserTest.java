@@ -0,0 +1,195 @@
+package dev.fmcuttingboard.language.parser;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiParser;
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.tree.IElementType;
+import dev.fmcuttingboard.fixtures.CalculationCorpus;
+import dev.fmcuttingboard.language.FileMakerCalculationElementType;
+import dev.fmcuttingboard.language.FileMakerCalculationLexerAdapter;
+import dev.fmcuttingboard.language.FileMakerCalculationTokenType;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The explicit-stack parser against the recursive one: both drive a recording builder over the same
+ * tokens, and every mark, done, drop and advance must match in order, on the generated corpus, on
+ * malformed input and on random token soup. Deep nesting is then checked on the iterative parser
+ * alone, at depths the recursive parser cannot reach.
+ */
+public class FileMakerCalculationIterativeParserTest {
+
+    private static final IElementType ROOT = new FileMakerCalculationElementType("ROOT");
+
+    /** Fragments for random calculations: calls, operators, separators, and unbalanced parentheses. */
+    private static final String[] SOUP = {"Let ( ", "Case ( ", "If(", "JSONSetElement ( ", "Abs(", "( ", " )", ")", " ; ",
+            ";", " + ", " - ", " * ", " / ", " & ", " = ", " < ", " >= ", " ≠ ", " and ", " or ", " not ", "not ",
+            "x", "$v", "$$g", "42", "1.5", "\"s\"", "[", "]", "{", "}", " /* c */ ", "// c\n", "\n", "Get ( AccountName )"};
+
+    @Test
+    public void corpus_buildsTheSameTree() {
+        for (long seed = 1; seed <= 8; seed++) {
+            assertSameTree(new CalculationCorpus(seed).calculation(16_000));
+        }
+    }
+
+    @Test
+    public void malformedInput_buildsTheSameTree() {
+        String[] calcs = {"", " ", "x", "a & b", "f(;)", "f(a;b", "((1)", ")", ") x (", "not not not x", "not",
+                "Let([x=1;y=2];x+y)", "a = b and not c or d", "1 + 2 * 3 - 4 / 5", "Abs()", "Abs(;;)", "If ( a ; ",
+                "Case ( a ; b ; c", "x y z", "1 +", "+ 1", "f ( g ( h ( ) ; ) ; )", "\"a\" & Get ( AccountName )"};
+        for (String calc : calcs) {
+            assertSameTree(calc);
+        }
+    }
+
+    @Test
+    public void randomTokenSoup_buildsTheSameTree() {
+        SplittableRandom rnd = new SplittableRandom(49);
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int parts = 1 + rnd.nextInt(40);
+            for (int p = 0; p < parts; p++) sb.append(SOUP[rnd.nextInt(SOUP.length)]);
+            assertSameTree(sb.toString());
+        }
+    }
+
+    @Test
+    public void nestedCalls_withinRecursiveReach_buildTheSameTree() {
+        for (int depth : new int[]{10, 100, 500}) {
+            assertSameTree(nestedCase(depth));
+            assertSameTree(nestedJsonSetElement(depth));
+        }
+    }
+
+    @Test
+    public void deepNesting_parsesWithoutRecursion() {
+        for (int depth : new int[]{10_000, 100_000}) {
+            String calc = nestedCase(depth);
+            long start = System.nanoTime();
+            Recorder recorder = parse(new FileMakerCalculationIterativeParser(), calc);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("[DEBUG_LOG] Parsed " + depth + " nested Case() in " + elapsedMs + " ms");
+            assertEquals(depth, recorder.count(FileMakerCalculationElementType.FUNCTION_CALL));
+            // Every call has its arguments, and every token was consumed exactly once
+            assertEquals(3 * depth, recorder.count(FileMakerCalculationElementType.ARGUMENT));
+            assertEquals(recorder.tokenCount(), recorder.advances());
+        }
+    }
+
+    private static String nestedCase(int depth) {
+        return "Case ( a ; ".repeat(depth) + "0" + " ; 1 )".repeat(depth);
+    }
+
+    private static String nestedJsonSetElement(int depth) {
+        return "JSONSetElement ( ".repeat(depth) + "\"{}\"" + " ; \"k\" ; 1 ; JSONNumber )".repeat(depth);
+    }
+
+    private static void assertSameTree(String calc) {
+        List<String> expected = parse(new FileMakerCalculationPsiParser(), calc).events;
+        List<String> actual = parse(new FileMakerCalculationIterativeParser(), calc).events;
+        assertEquals(expected, actual, calc);
+    }
+
+    private static Recorder parse(PsiParser parser, String calc) {
+        Recorder recorder = new Recorder(calc);
+        parser.parse(ROOT, recorder.builder());
+        return recorder;
+    }
+
+    /**
+     * A PsiBuilder over the lexer's tokens, whitespace and comments skipped as the platform does, that
+     * records every call the parser makes. A dynamic proxy, so only the calls the parsers use matter.
+     */
+    private static final class Recorder {
+        private final List<IElementType> types = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> events = new ArrayList<>();
+        private int position;
+        private int markers;
+
+        Recorder(String calc) {
+            Lexer lexer = new FileMakerCalculationLexerAdapter();
+            lexer.start(calc);
+            for (IElementType t = lexer.getTokenType(); t != null; lexer.advance(), t = lexer.getTokenType()) {
+                if (t == FileMakerCalculationTokenType.WHITE_SPACE || t == FileMakerCalculationTokenType.LINE_COMMENT
+                        || t == FileMakerCalculationTokenType.BLOCK_COMMENT) {
+                    continue;
+                }
+                types.add(t);
+                texts.add(calc.substring(lexer.getTokenStart(), lexer.getTokenEnd()));
+            }
+        }
+
+        int tokenCount() {
+            return types.size();
+        }
+
+        int advances() {
+            int count = 0;
+            for (String event : events) {
+                if (event.startsWith("advance@") && !event.endsWith("@eof")) count++;
+            }
+            return count;
+        }
+
+        int count(IElementType type) {
+            String suffix = " " + type + "@";
+            int count = 0;
+            for (String event : events) {
+                if (event.startsWith("done#") && event.contains(suffix)) count++;
+            }
+            return count;
+        }
+
+        PsiBuilder builder() {
+            return (PsiBuilder) Proxy.newProxyInstance(PsiBuilder.class.getClassLoader(), new Class<?>[]{PsiBuilder.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "mark" -> marker(markers++);
+                        case "getTokenType" -> position < types.size() ? types.get(position) : null;
+                        case "getTokenText" -> position < texts.size() ? texts.get(position) : null;
+                        case "eof" -> position >= types.size();
+                        case "advanceLexer" -> {
+                            events.add("advance@" + (position < types.size() ? position++ : "eof"));
+                            yield null;
+                        }
+                        case "getTreeBuilt" -> Proxy.newProxyInstance(ASTNode.class.getClassLoader(),
+                                new Class<?>[]{ASTNode.class}, (p, m, a) -> objectMethod(p, m, a, "ASTNode"));
+                        default -> objectMethod(proxy, method, args, "PsiBuilder");
+                    });
+        }
+
+        private PsiBuilder.Marker marker(int id) {
+            events.add("mark#" + id + "@" + position);
+            return (PsiBuilder.Marker) Proxy.newProxyInstance(PsiBuilder.Marker.class.getClassLoader(),
+                    new Class<?>[]{PsiBuilder.Marker.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "done" -> {
+                            events.add("done#" + id + " " + args[0] + "@" + position);
+                            yield null;
+                        }
+                        case "drop" -> {
+                            events.add("drop#" + id);
+                            yield null;
+                        }
+                        default -> objectMethod(proxy, method, args, "Marker#" + id);
+                    });
+        }
+
+        private static Object objectMethod(Object proxy, Method method, Object[] args, String name) {
+            return switch (method.getName()) {
+                case "toString" -> name;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(name + "." + method.getName());
+            };
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dev.fmcuttingboard.language.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Let() scope tracking for the annotator's single walk: nested scopes, shadowing on the way out, and
+ * binding names collected token by token.
+ */
+public class LetScopesTest {
+
+    @Test
+    public void names_are_visible_until_their_scope_is_popped() {
+        LetScopes scopes = new LetScopes();
+        assertFalse(scopes.inScope());
+        scopes.push(Set.of("x", "y"));
+        scopes.push(Set.of("x", "z"));
+        assertTrue(scopes.inScope());
+        assertTrue(scopes.isBound("x") && scopes.isBound("y") && scopes.isBound("z"));
+        scopes.pop();
+        assertTrue(scopes.isBound("x"), "still bound by the outer Let()");
+        assertFalse(scopes.isBound("z"));
+        scopes.pop();
+        assertFalse(scopes.inScope());
+        assertFalse(scopes.isBound("x"));
+    }
+
+    @Test
+    public void deep_nesting_keeps_lookups_constant() {
+        LetScopes scopes = new LetScopes();
+        for (int i = 0; i < 10_000; i++) scopes.push(Set.of("v" + i));
+        assertTrue(scopes.isBound("v0") && scopes.isBound("v9999"));
+        for (int i = 0; i < 10_000; i++) scopes.pop();
+        assertFalse(scopes.isBound("v0"));
+    }
+
+    @Test
+    public void bindings_are_names_followed_by_equals() {
+        assertEquals(Set.of("x"), bindings("x", " ", "=", " ", "1"));
+        assertEquals(List.of("$a", "b", "$$c"), List.copyOf(bindings("[", " ", "$a", " ", "=", " ", "1", " ", ";",
+                "b", "=", "2", ";", "\n", "$$c", "=", "3", " ", "]")));
+        // A comparison in a value does not bind unless the name follows whitespace, as before
+        assertEquals(Set.of("x"), bindings("x", "=", "a", "=", "b"));
+        assertEquals(Set.of(), bindings("f", "(", "y", ")", "=", "1"));
+        assertEquals(Set.of(), bindings("1x", "=", "2"));
+    }
+
+    private static Set<String> bindings(String... tokens) {
+        LetScopes.Bindings bindings = new LetScopes.Bindings();
+        for (String token : tokens) bindings.token(token, token.isBlank());
+        return bindings.names();
+    }
+}
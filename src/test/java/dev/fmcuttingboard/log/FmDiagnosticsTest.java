@@ -0,0 +1,106 @@
+package dev.fmcuttingboard.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FmDiagnosticsTest {
+
+    private final FmDiagnostics.Channel channel = FmDiagnostics.channel("test");
+
+    @BeforeEach
+    void setUp() {
+        FmDiagnostics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.setLevel(FmDiagnostics.Level.WARN);
+        FmDiagnostics.clear();
+    }
+
+    @Test
+    void suppliersRunOnlyForEnabledLevels() {
+        AtomicInteger calls = new AtomicInteger();
+
+        channel.setLevel(FmDiagnostics.Level.OFF);
+        channel.info(() -> "info " + calls.incrementAndGet());
+        channel.debug(() -> "debug " + calls.incrementAndGet());
+        assertEquals(0, calls.get());
+        assertTrue(FmDiagnostics.recent().isEmpty());
+
+        channel.setLevel(FmDiagnostics.Level.WARN);
+        channel.info(() -> "info " + calls.incrementAndGet());
+        assertEquals(0, calls.get());
+
+        channel.setLevel(FmDiagnostics.Level.INFO);
+        channel.info(() -> "info " + calls.incrementAndGet());
+        channel.debug(() -> "debug " + calls.incrementAndGet());
+        assertEquals(1, calls.get());
+
+        channel.setLevel(FmDiagnostics.Level.DEBUG);
+        channel.debug(() -> "debug " + calls.incrementAndGet());
+        assertEquals(2, calls.get());
+
+        List<FmDiagnostics.Entry> recent = FmDiagnostics.recent();
+        assertEquals(List.of("info 1", "debug 2"), recent.stream().map(FmDiagnostics.Entry::message).toList());
+        assertEquals(FmDiagnostics.Level.DEBUG, recent.get(1).level());
+        assertEquals("test", recent.get(1).channel());
+    }
+
+    @Test
+    void ringBufferKeepsTheMostRecentEntriesInOrder() throws Exception {
+        channel.setLevel(FmDiagnostics.Level.INFO);
+        int total = FmDiagnostics.CAPACITY + 10;
+        for (int i = 0; i < total; i++) {
+            int n = i;
+            channel.info(() -> "event " + n);
+        }
+
+        List<FmDiagnostics.Entry> recent = FmDiagnostics.recent();
+        assertEquals(FmDiagnostics.CAPACITY, recent.size());
+        assertEquals("event 10", recent.get(0).message());
+        assertEquals("event " + (total - 1), recent.get(recent.size() - 1).message());
+
+        StringBuilder dump = new StringBuilder();
+        FmDiagnostics.dump(dump);
+        assertEquals(FmDiagnostics.CAPACITY, dump.toString().split("\n").length);
+        assertTrue(dump.toString().endsWith("[test] (" + Thread.currentThread().getName() + ") event " + (total - 1) + "\n"), dump.toString());
+    }
+
+    @Test
+    void channelsDefaultToWarn_unlessVerbose() {
+        FmDiagnostics.Level expected = FmLogs.isVerbose() ? FmDiagnostics.Level.DEBUG : FmDiagnostics.Level.WARN;
+        assertEquals(expected, FmDiagnostics.channel("test.defaults").getLevel());
+    }
+
+    @Test
+    void levelsCanBeToggledAtRuntime() {
+        assertSame(channel, FmDiagnostics.channel("test"));
+
+        FmDiagnostics.setAllLevels(FmDiagnostics.Level.DEBUG);
+        assertTrue(channel.isDebug());
+        assertTrue(FmDiagnostics.CLIPBOARD.isEnabled(FmDiagnostics.Level.DEBUG));
+
+        FmDiagnostics.setAllLevels(FmDiagnostics.Level.OFF);
+        assertFalse(channel.isEnabled(FmDiagnostics.Level.INFO));
+        assertFalse(channel.isEnabled(FmDiagnostics.Level.OFF));
+
+        FmDiagnostics.setAllLevels(FmDiagnostics.Level.INFO);
+        assertEquals(FmDiagnostics.Level.INFO, FmDiagnostics.CONVERSION.getLevel());
+    }
+
+    @Test
+    void parseLevel_fallsBackOnUnknownValues() {
+        assertEquals(FmDiagnostics.Level.DEBUG, FmDiagnostics.parseLevel(" Debug ", FmDiagnostics.Level.INFO));
+        assertEquals(FmDiagnostics.Level.OFF, FmDiagnostics.parseLevel("off", FmDiagnostics.Level.INFO));
+        assertEquals(FmDiagnostics.Level.INFO, FmDiagnostics.parseLevel("loud", FmDiagnostics.Level.INFO));
+        assertEquals(FmDiagnostics.Level.INFO, FmDiagnostics.parseLevel(null, FmDiagnostics.Level.INFO));
+        assertEquals(FmDiagnostics.Level.WARN, FmDiagnostics.parseLevel("warn", FmDiagnostics.Level.INFO));
+    }
+}
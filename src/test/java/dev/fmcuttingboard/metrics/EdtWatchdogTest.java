@@ -0,0 +1,100 @@
+package dev.fmcuttingboard.metrics;
+
+import dev.fmcuttingboard.log.FmDiagnostics;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdtWatchdogTest {
+
+    @Test
+    void stagesOffTheEdt_areNotMeasured() {
+        EdtWatchdog watchdog = new EdtWatchdog(0, 0, Long.MAX_VALUE);
+        String action = "EdtWatchdogTest.offEdt";
+        try (EdtWatchdog.Invocation inv = watchdog.begin(action)) {
+            try (EdtWatchdog.Stage s = inv.stage("work")) {
+                assertEquals(EdtWatchdog.Stage.NONE, s);
+            }
+            assertFalse(inv.shouldOffload(Long.MAX_VALUE), "Background callers are never offloaded again");
+        }
+        assertTrue(PipelineMetrics.snapshot().stream().noneMatch(r -> r.name().equals("edt:" + action)));
+    }
+
+    @Test
+    void largePayload_isOffloaded() throws Exception {
+        EdtWatchdog watchdog = new EdtWatchdog(16, 100, 1000);
+        AtomicBoolean small = new AtomicBoolean();
+        AtomicBoolean large = new AtomicBoolean();
+        SwingUtilities.invokeAndWait(() -> {
+            try (EdtWatchdog.Invocation inv = watchdog.begin("EdtWatchdogTest.size")) {
+                small.set(inv.shouldOffload(999));
+                large.set(inv.shouldOffload(1000));
+            }
+        });
+        assertFalse(small.get());
+        assertTrue(large.get());
+    }
+
+    @Test
+    void freeze_isRecordedAndLaterSimilarPayloadsAreOffloaded() throws Exception {
+        // Freeze details are INFO events on the "edt" channel, which defaults to WARN
+        FmDiagnostics.Channel diag = FmDiagnostics.channel("edt");
+        FmDiagnostics.Level previous = diag.getLevel();
+        diag.setLevel(FmDiagnostics.Level.INFO);
+        try {
+            assertFreezeIsRecordedAndLaterSimilarPayloadsAreOffloaded();
+        } finally {
+            diag.setLevel(previous);
+        }
+    }
+
+    private void assertFreezeIsRecordedAndLaterSimilarPayloadsAreOffloaded() throws Exception {
+        EdtWatchdog watchdog = new EdtWatchdog(1, 20, Long.MAX_VALUE);
+        String action = "EdtWatchdogTest.freeze";
+        AtomicReference<Boolean> before = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try (EdtWatchdog.Invocation inv = watchdog.begin(action)) {
+                before.set(inv.shouldOffload(10_000));
+                try (EdtWatchdog.Stage s = inv.stage("sleep")) {
+                    sleep(150);
+                }
+            }
+        });
+        assertFalse(before.get());
+
+        Histogram edt = PipelineMetrics.stage("edt:" + action).getLatencyNanos();
+        assertEquals(1, edt.count());
+        assertTrue(edt.max() >= 150_000_000L, "EDT time should include the frozen stage");
+        HitRate withinBudget = PipelineMetrics.hitRate("edt:" + action + ".withinFrameBudget");
+        assertEquals(0, withinBudget.getHits());
+        assertEquals(1, withinBudget.getMisses());
+        assertTrue(FmDiagnostics.recent().stream().anyMatch(en -> en.message().contains(action + "/sleep froze the EDT")
+                        && en.message().contains("EdtWatchdogTest.sleep")),
+                "The freeze should be reported with a stack sample taken inside the frozen stage");
+
+        AtomicReference<Boolean> half = new AtomicReference<>();
+        AtomicReference<Boolean> tiny = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try (EdtWatchdog.Invocation inv = watchdog.begin(action)) {
+                half.set(inv.shouldOffload(5_000));
+                tiny.set(inv.shouldOffload(100));
+            }
+        });
+        assertTrue(half.get(), "Payloads at least half the frozen size go to the background");
+        assertFalse(tiny.get());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
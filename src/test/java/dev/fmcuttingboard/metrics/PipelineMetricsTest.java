@@ -0,0 +1,79 @@
+package dev.fmcuttingboard.metrics;
+
+import dev.fmcuttingboard.fm.ClipboardToXmlConverter;
+import dev.fmcuttingboard.fm.ConversionException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    @Test
+    void histogramBucketsAreContiguousAndWithinThreePercent() {
+        SplittableRandom random = new SplittableRandom(7);
+        int previous = -1;
+        for (long v = 0; v < 10_000; v++) {
+            int bucket = Histogram.bucketOf(v);
+            assertTrue(bucket == previous || bucket == previous + 1, "gap at " + v);
+            previous = bucket;
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long v = random.nextLong(Long.MAX_VALUE);
+            long upper = Histogram.upperBound(Histogram.bucketOf(v));
+            assertTrue(upper >= v, "upper bound below value " + v);
+            assertTrue((upper - v) <= v / Histogram.SUB_BUCKETS, "bucket too wide for " + v);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        Histogram h = new Histogram();
+        assertEquals(0, h.percentile(99));
+        for (long v = 1; v <= 10_000; v++) h.record(v * 1_000);
+
+        assertEquals(10_000, h.count());
+        assertEquals(10_000_000, h.max());
+        assertEquals(5_000_500, h.mean(), 0.5);
+        assertEquals(5_000_000, h.percentile(50), 5_000_000 / 32.0);
+        assertEquals(9_900_000, h.percentile(99), 9_900_000 / 32.0);
+        assertEquals(10_000_000, h.percentile(100));
+
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.max());
+    }
+
+    @Test
+    void conversionStagesAndHitRatesShowUpInCsv() throws Exception {
+        PipelineMetrics.reset();
+        ClipboardToXmlConverter converter = new ClipboardToXmlConverter();
+        converter.convert("<fmxmlsnippet type=\"FMObjectList\"><Script id=\"1\" name=\"S\"/></fmxmlsnippet>");
+        assertThrows(ConversionException.class, () -> converter.convert("plain text"));
+        PipelineMetrics.READ_FAST_PATH.record(true);
+        PipelineMetrics.READ_FAST_PATH.record(true);
+        PipelineMetrics.READ_FAST_PATH.record(false);
+
+        assertEquals(2, PipelineMetrics.NORMALIZE.getLatencyNanos().count());
+        assertEquals(0, PipelineMetrics.NORMALIZE.getFailures());
+        assertEquals(1, PipelineMetrics.DETECT_TYPES.getLatencyNanos().count());
+        assertEquals(2.0 / 3, PipelineMetrics.READ_FAST_PATH.getRatio(), 1e-9);
+
+        StringWriter csv = new StringWriter();
+        PipelineMetrics.writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertTrue(lines[0].startsWith("metric,kind,count,failures,p50_ms"));
+        assertTrue(csv.toString().contains("\nnormalizeToXmlText,stage,2,0,"), csv.toString());
+        assertTrue(csv.toString().contains("\nreadText.fastPath,hitRate,3,0,,,,,,,,,0.667\n"), csv.toString());
+        for (String line : lines) {
+            assertEquals(13, line.split(",", -1).length, line);
+        }
+
+        PipelineMetrics.reset();
+        assertEquals(0, PipelineMetrics.NORMALIZE.getLatencyNanos().count());
+        assertTrue(Double.isNaN(PipelineMetrics.READ_FAST_PATH.getRatio()));
+    }
+}